@@ -0,0 +1,106 @@
+package io.github.jobs.benchmark;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.LoggingEvent;
+import io.github.jobs.infrastructure.InMemoryLogRepository;
+import io.github.jobs.spring.log.JObsLog4j2Appender;
+import io.github.jobs.spring.log.JObsLogAppender;
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.core.impl.MutableLogEvent;
+import org.apache.logging.log4j.message.Message;
+import org.apache.logging.log4j.message.ReusableMessageFactory;
+import org.apache.logging.log4j.util.SortedArrayStringMap;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.slf4j.MDC;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmarks for the capture path of the Logback and Log4j2 appenders.
+ * <p>
+ * Each invocation appends one parameterized INFO event with a four-key context (trace, span,
+ * user, tenant) the way the logging framework delivers it: Logback creates a new
+ * {@code LoggingEvent} per call, Log4j2 in garbage-free mode refills a reused
+ * {@link MutableLogEvent} from a {@link ReusableMessageFactory} message. Both appenders store into
+ * the same {@link InMemoryLogRepository}, so the difference in {@code gc.alloc.rate.norm} is the
+ * capture path itself. {@link #main} runs with the GC profiler:
+ * <pre>
+ * java -jar target/benchmarks.jar AppenderCaptureBenchmark -prof gc
+ * </pre>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+@Fork(value = 2, jvmArgs = {"-Xms256m", "-Xmx256m"})
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class AppenderCaptureBenchmark {
+
+    private static final String LOGGER = "com.example.OrderService";
+    private static final String PATTERN = "User {} placed order {}";
+
+    private JObsLogAppender logbackAppender;
+    private Logger logbackLogger;
+    private JObsLog4j2Appender log4j2Appender;
+    private MutableLogEvent log4j2Event;
+
+    @Setup
+    public void setup() {
+        LoggerContext context = new LoggerContext();
+        logbackLogger = context.getLogger(LOGGER);
+        logbackAppender = new JObsLogAppender();
+        logbackAppender.setContext(context);
+        logbackAppender.setLogRepository(new InMemoryLogRepository(10_000));
+        logbackAppender.start();
+        MDC.put("traceId", "4bf92f3577b34da6a3ce929d0e0e4736");
+        MDC.put("spanId", "00f067aa0ba902b7");
+        MDC.put("userId", "42");
+        MDC.put("tenant", "acme");
+
+        log4j2Appender = new JObsLog4j2Appender("bench");
+        log4j2Appender.setLogRepository(new InMemoryLogRepository(10_000));
+        SortedArrayStringMap contextData = new SortedArrayStringMap();
+        contextData.putValue("traceId", "4bf92f3577b34da6a3ce929d0e0e4736");
+        contextData.putValue("spanId", "00f067aa0ba902b7");
+        contextData.putValue("userId", "42");
+        contextData.putValue("tenant", "acme");
+        log4j2Event = new MutableLogEvent();
+        log4j2Event.setLoggerName(LOGGER);
+        log4j2Event.setLevel(Level.INFO);
+        log4j2Event.setThreadName("http-nio-8080-exec-1");
+        log4j2Event.setContextData(contextData);
+    }
+
+    @TearDown
+    public void tearDown() {
+        logbackAppender.stop();
+        MDC.clear();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(AppenderCaptureBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+
+    @Benchmark
+    public void logback_Append() {
+        logbackAppender.doAppend(new LoggingEvent(LOGGER, logbackLogger, ch.qos.logback.classic.Level.INFO,
+                PATTERN, null, new Object[]{"42", "A-1001"}));
+    }
+
+    @Benchmark
+    public void log4j2_Append() {
+        Message message = ReusableMessageFactory.INSTANCE.newMessage(PATTERN, "42", "A-1001");
+        log4j2Event.setMessage(message);
+        log4j2Event.setTimeMillis(System.currentTimeMillis());
+        ReusableMessageFactory.release(message);
+        log4j2Appender.append(log4j2Event);
+    }
+}
@@ -0,0 +1,147 @@
+package io.github.jobs.benchmark;
+
+import io.github.jobs.application.LogRepository;
+import io.github.jobs.domain.log.LogEntry;
+import io.github.jobs.domain.log.LogLevel;
+import io.github.jobs.domain.log.LogQuery;
+import io.github.jobs.infrastructure.CompressedLogRepository;
+import io.github.jobs.infrastructure.InMemoryLogRepository;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH comparison of the compressed block store against InMemoryLogRepository.
+ * <p>
+ * Query benchmarks measure latency for a recent page (hot block only), a trace id lookup
+ * (bloom filters skip almost every cold block), a time window deep in history (time ranges
+ * skip blocks) and an error scan (inflates every block). {@link #footprint} reports the retained
+ * heap per entry and the compression ratio as auxiliary counters:
+ * <pre>
+ * java -jar target/benchmarks.jar CompressedLogRepositoryBenchmark
+ * </pre>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 2, jvmArgs = {"-Xms2g", "-Xmx2g"})
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class CompressedLogRepositoryBenchmark {
+
+    private static final Instant BASE = Instant.parse("2026-01-01T00:00:00Z");
+
+    @Param({"IN_MEMORY", "COMPRESSED"})
+    private String implementation;
+
+    @Param({"100000"})
+    private int repositorySize;
+
+    private LogRepository repository;
+    private String knownTraceId;
+    private LogQuery oldWindow;
+
+    @Setup(Level.Trial)
+    public void setupTrial() {
+        repository = fill(implementation, repositorySize);
+        knownTraceId = "trace-" + (repositorySize / 10);
+        oldWindow = LogQuery.builder()
+                .startTime(BASE.plusMillis(repositorySize))
+                .endTime(BASE.plusMillis(repositorySize + 1000L))
+                .limit(1000)
+                .build();
+    }
+
+    static LogRepository fill(String implementation, int size) {
+        LogRepository repository = "COMPRESSED".equals(implementation)
+                ? new CompressedLogRepository(Long.MAX_VALUE / 2)
+                : new InMemoryLogRepository(size);
+        for (int i = 0; i < size; i++) {
+            repository.add(createEntry(i));
+        }
+        if (repository instanceof CompressedLogRepository compressed) {
+            // Measure queries against compressed blocks, not blocks still waiting for the compressor
+            compressed.flush();
+        }
+        return repository;
+    }
+
+    static LogEntry createEntry(int index) {
+        LogEntry template = OffHeapLogRepositoryBenchmark.createEntry(index);
+        return LogEntry.builder()
+                .id(template.id())
+                .timestamp(BASE.plusMillis(index * 10L))
+                .level(index % 50 == 0 ? LogLevel.ERROR : LogLevel.INFO)
+                .loggerName(template.loggerName())
+                .message(template.message())
+                .threadName(template.threadName())
+                .traceId(template.traceId())
+                .spanId(template.spanId())
+                .mdc(template.mdc())
+                .build();
+    }
+
+    @Benchmark
+    public void query_Recent100(Blackhole bh) {
+        List<LogEntry> entries = repository.query(LogQuery.recent(100));
+        bh.consume(entries);
+    }
+
+    @Benchmark
+    public void query_ByTraceId(Blackhole bh) {
+        List<LogEntry> entries = repository.query(LogQuery.byTraceId(knownTraceId));
+        bh.consume(entries);
+    }
+
+    @Benchmark
+    public void query_OldTimeWindow(Blackhole bh) {
+        List<LogEntry> entries = repository.query(oldWindow);
+        bh.consume(entries);
+    }
+
+    @Benchmark
+    public void count_Errors(Blackhole bh) {
+        bh.consume(repository.count(LogQuery.errors()));
+    }
+
+    /**
+     * Auxiliary counters reported next to the footprint benchmark score.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Footprint {
+        public long heapBytesPerEntry;
+        public double compressionRatio;
+    }
+
+    /**
+     * Fills a fresh repository and measures the heap it retains.
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 1)
+    @Measurement(iterations = 3)
+    public LogRepository footprint(Footprint footprint) {
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        repository = null;
+        System.gc();
+        long before = memory.getHeapMemoryUsage().getUsed();
+
+        LogRepository filled = fill(implementation, repositorySize);
+
+        System.gc();
+        long after = memory.getHeapMemoryUsage().getUsed();
+        footprint.heapBytesPerEntry = Math.max(0, after - before) / repositorySize;
+        if (filled instanceof CompressedLogRepository compressed) {
+            footprint.compressionRatio = compressed.compressionRatio();
+        }
+        repository = filled;
+        return filled;
+    }
+}
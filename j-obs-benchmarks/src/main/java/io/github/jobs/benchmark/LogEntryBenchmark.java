@@ -2,15 +2,30 @@ package io.github.jobs.benchmark;
 
 import io.github.jobs.domain.log.LogEntry;
 import io.github.jobs.domain.log.LogLevel;
+import io.github.jobs.spring.log.LogEntryFactory;
 import org.openjdk.jmh.annotations.*;
 import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
 
 import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.concurrent.TimeUnit;
 
 /**
  * JMH benchmarks for LogEntry creation performance.
- * Measures throughput of LogEntry instantiation using Builder.
+ * Measures throughput of LogEntry instantiation using Builder and {@link LogEntryFactory}.
+ * <p>
+ * The {@code factory_*} benchmarks compare the {@code Instant} based factory path with the
+ * primitive one (epoch millis, numeric id, interned MDC), each fed a fresh mutable MDC map the
+ * way the appenders receive it. Run with the GC profiler to compare allocation per entry
+ * ({@code gc.alloc.rate.norm}); {@link #main} does so:
+ * <pre>
+ * java -jar target/benchmarks.jar LogEntryBenchmark -prof gc
+ * </pre>
  */
 @BenchmarkMode(Mode.Throughput)
 @OutputTimeUnit(TimeUnit.MICROSECONDS)
@@ -21,10 +36,21 @@ import java.util.concurrent.TimeUnit;
 public class LogEntryBenchmark {
 
     private Instant timestamp;
+    private LogEntryFactory factory;
+    private Map<String, String> requestMdc;
 
     @Setup
     public void setup() {
         timestamp = Instant.now();
+        factory = new LogEntryFactory();
+        requestMdc = Map.of("userId", "42", "tenant", "acme", "region", "eu-west-1");
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(LogEntryBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
     }
 
     @Benchmark
@@ -93,4 +119,50 @@ public class LogEntryBenchmark {
                 .build();
         bh.consume(entry);
     }
+
+    @Benchmark
+    public void builder_WithMdc(Blackhole bh) {
+        LogEntry entry = LogEntry.builder()
+                .timestamp(Instant.ofEpochMilli(System.currentTimeMillis()))
+                .level(LogLevel.INFO)
+                .loggerName("io.github.jobs.Test")
+                .message("Request handled")
+                .threadName("http-nio-8080-exec-1")
+                .mdc(new HashMap<>(requestMdc))
+                .build();
+        bh.consume(entry);
+    }
+
+    @Benchmark
+    public void factory_Instant(Blackhole bh) {
+        LogEntry entry = factory.create(
+                Instant.ofEpochMilli(System.currentTimeMillis()),
+                LogLevel.INFO,
+                "io.github.jobs.Test",
+                "Request handled",
+                "http-nio-8080-exec-1",
+                null,
+                null,
+                (String) null,
+                Map.copyOf(new HashMap<>(requestMdc))
+        );
+        bh.consume(entry);
+    }
+
+    @Benchmark
+    public void factory_Primitive(Blackhole bh) {
+        LogEntry entry = factory.create(
+                System.currentTimeMillis(),
+                LogLevel.INFO,
+                "io.github.jobs.Test",
+                "Request handled",
+                "http-nio-8080-exec-1",
+                null,
+                null,
+                null,
+                null,
+                new HashMap<>(requestMdc)
+        );
+        bh.consume(entry);
+    }
 }
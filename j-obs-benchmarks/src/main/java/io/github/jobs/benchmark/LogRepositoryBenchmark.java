@@ -1,9 +1,11 @@
 package io.github.jobs.benchmark;
 
+import io.github.jobs.application.LogRepository;
 import io.github.jobs.domain.log.LogEntry;
 import io.github.jobs.domain.log.LogLevel;
 import io.github.jobs.domain.log.LogQuery;
 import io.github.jobs.infrastructure.InMemoryLogRepository;
+import io.github.jobs.infrastructure.RingBufferLogRepository;
 import org.openjdk.jmh.annotations.*;
 import org.openjdk.jmh.infra.Blackhole;
 
@@ -12,8 +14,9 @@ import java.util.List;
 import java.util.concurrent.TimeUnit;
 
 /**
- * JMH benchmarks for InMemoryLogRepository operations.
- * Measures throughput of add, query, and count operations.
+ * JMH benchmarks for LogRepository implementations.
+ * Measures throughput of add, query, and count operations, plus writer contention
+ * at 8, 16 and 32 threads (lock-based {@code IN_MEMORY} vs lock-free {@code RING_BUFFER}).
  */
 @BenchmarkMode(Mode.Throughput)
 @OutputTimeUnit(TimeUnit.MICROSECONDS)
@@ -23,16 +26,22 @@ import java.util.concurrent.TimeUnit;
 @Measurement(iterations = 5, time = 1)
 public class LogRepositoryBenchmark {
 
-    private InMemoryLogRepository repository;
+    private LogRepository repository;
     private LogEntry sampleEntry;
     private int counter;
 
     @Param({"1000", "10000"})
     private int repositorySize;
 
+    @Param({"IN_MEMORY", "RING_BUFFER"})
+    private String implementation;
+
     @Setup(Level.Trial)
     public void setupTrial() {
-        repository = new InMemoryLogRepository(repositorySize);
+        repository = switch (implementation) {
+            case "RING_BUFFER" -> new RingBufferLogRepository(repositorySize);
+            default -> new InMemoryLogRepository(repositorySize);
+        };
         // Pre-populate repository
         for (int i = 0; i < repositorySize / 2; i++) {
             repository.add(createEntry(i));
@@ -122,4 +131,58 @@ public class LogRepositoryBenchmark {
         List<LogEntry> entries = repository.query(query);
         bh.consume(entries);
     }
+
+    /**
+     * Per-thread entry so contended writers do not share the invocation-level sample.
+     */
+    @State(Scope.Thread)
+    public static class WriterState {
+        LogEntry entry;
+
+        @Setup(Level.Trial)
+        public void setup() {
+            entry = LogEntry.builder()
+                    .timestamp(Instant.now())
+                    .level(LogLevel.INFO)
+                    .loggerName("io.github.jobs.benchmark.Writer")
+                    .message("Contended writer message")
+                    .threadName(Thread.currentThread().getName())
+                    .build();
+        }
+    }
+
+    @Benchmark
+    @Threads(8)
+    public void add_Contended8(WriterState writer) {
+        repository.add(writer.entry);
+    }
+
+    @Benchmark
+    @Threads(16)
+    public void add_Contended16(WriterState writer) {
+        repository.add(writer.entry);
+    }
+
+    @Benchmark
+    @Threads(32)
+    public void add_Contended32(WriterState writer) {
+        repository.add(writer.entry);
+    }
+
+    /**
+     * 8 writers racing a long dashboard query: measures how much a reader stalls logging threads.
+     */
+    @Benchmark
+    @Group("writersWithReader")
+    @GroupThreads(8)
+    public void writersWithReader_add(WriterState writer) {
+        repository.add(writer.entry);
+    }
+
+    @Benchmark
+    @Group("writersWithReader")
+    @GroupThreads(1)
+    public void writersWithReader_query(Blackhole bh) {
+        bh.consume(repository.query(LogQuery.builder().messagePattern("no-match").limit(100).build()));
+    }
 }
@@ -0,0 +1,142 @@
+package io.github.jobs.benchmark;
+
+import io.github.jobs.application.LogRepository;
+import io.github.jobs.domain.log.LogEntry;
+import io.github.jobs.domain.log.LogLevel;
+import io.github.jobs.domain.log.LogQuery;
+import io.github.jobs.infrastructure.InMemoryLogRepository;
+import io.github.jobs.infrastructure.OffHeapLogRepository;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH comparison of the off-heap columnar store against InMemoryLogRepository.
+ * <p>
+ * Throughput benchmarks cover add and typical dashboard queries. {@link #footprint} fills a
+ * fresh repository and reports the retained heap bytes per entry as an auxiliary counter:
+ * <pre>
+ * java -jar target/benchmarks.jar OffHeapLogRepositoryBenchmark -prof gc
+ * </pre>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 2, jvmArgs = {"-Xms2g", "-Xmx2g", "-XX:MaxDirectMemorySize=2g"})
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class OffHeapLogRepositoryBenchmark {
+
+    private static final long OFF_HEAP_BYTES_PER_ENTRY = 256;
+
+    @Param({"IN_MEMORY", "OFF_HEAP"})
+    private String implementation;
+
+    @Param({"100000", "1000000"})
+    private int repositorySize;
+
+    private LogRepository repository;
+    private LogEntry sampleEntry;
+    private String knownTraceId;
+
+    @Setup(Level.Trial)
+    public void setupTrial() {
+        repository = create(implementation, repositorySize);
+        for (int i = 0; i < repositorySize; i++) {
+            repository.add(createEntry(i));
+        }
+        knownTraceId = "trace-" + (repositorySize - 10);
+        sampleEntry = createEntry(repositorySize);
+    }
+
+    static LogRepository create(String implementation, int size) {
+        if ("OFF_HEAP".equals(implementation)) {
+            return new OffHeapLogRepository(size, size * OFF_HEAP_BYTES_PER_ENTRY);
+        }
+        return new InMemoryLogRepository(size);
+    }
+
+    static LogEntry createEntry(int index) {
+        return LogEntry.builder()
+                .id("log-" + index)
+                .timestamp(Instant.now())
+                .level(LogLevel.values()[index % LogLevel.values().length])
+                .loggerName("io.github.jobs.benchmark.Service" + (index % 50))
+                .message("Processed request " + index + " for customer " + (index % 1000) + " in " + (index % 97) + "ms")
+                .threadName("http-nio-8080-exec-" + (index % 20))
+                .traceId("trace-" + index)
+                .spanId("span-" + index)
+                .mdc(Map.of("requestId", "req-" + index, "tenant", "tenant-" + (index % 5)))
+                .build();
+    }
+
+    @Benchmark
+    public void add(Blackhole bh) {
+        repository.add(sampleEntry);
+        bh.consume(sampleEntry);
+    }
+
+    @Benchmark
+    public void query_Recent100(Blackhole bh) {
+        List<LogEntry> entries = repository.query(LogQuery.recent(100));
+        bh.consume(entries);
+    }
+
+    @Benchmark
+    public void query_Errors(Blackhole bh) {
+        List<LogEntry> entries = repository.query(LogQuery.errors());
+        bh.consume(entries);
+    }
+
+    @Benchmark
+    public void query_ByTraceId(Blackhole bh) {
+        List<LogEntry> entries = repository.query(LogQuery.byTraceId(knownTraceId));
+        bh.consume(entries);
+    }
+
+    @Benchmark
+    public void stats(Blackhole bh) {
+        bh.consume(repository.stats());
+    }
+
+    /**
+     * Auxiliary counters reported next to the footprint benchmark score.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Footprint {
+        public long heapBytesPerEntry;
+    }
+
+    /**
+     * Fills a fresh repository and measures the heap it retains.
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 1)
+    @Measurement(iterations = 3)
+    public LogRepository footprint(Footprint footprint) {
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        repository = null;
+        System.gc();
+        long before = memory.getHeapMemoryUsage().getUsed();
+
+        LogRepository filled = create(implementation, repositorySize);
+        for (int i = 0; i < repositorySize; i++) {
+            filled.add(createEntry(i));
+        }
+
+        System.gc();
+        long after = memory.getHeapMemoryUsage().getUsed();
+        footprint.heapBytesPerEntry = Math.max(0, after - before) / repositorySize;
+        repository = filled;
+        return filled;
+    }
+}
@@ -0,0 +1,173 @@
+package io.github.jobs.benchmark;
+
+import io.github.jobs.spring.trace.RotatingBloomFilter;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * JMH benchmarks for the memory of sampled trace IDs in {@code SamplingTraceRepository}.
+ * <p>
+ * Compares the {@link RotatingBloomFilter} with the previous tracking: a
+ * {@link ConcurrentHashMap} key set cleared when it reaches 100 000 IDs. {@code trackTrace}
+ * does what the repository does for every span: a lookup, and an insertion for a new trace.
+ * Trace IDs are pre-generated so that only the tracking is measured. {@link #main} first prints
+ * the retained heap of both structures holding 100 000 trace IDs, then runs with the GC profiler:
+ * <pre>
+ * java -cp target/benchmarks.jar io.github.jobs.benchmark.SampledTraceIdsBenchmark
+ * </pre>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 2, jvmArgs = {"-Xms512m", "-Xmx512m"})
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class SampledTraceIdsBenchmark {
+
+    private static final int TRACKED_TRACE_IDS = 100_000;
+    private static final int TRACE_ID_COUNT = 1 << 20;
+    private static final int SPANS_PER_TRACE = 8;
+
+    @Param({"set", "bloom"})
+    private String implementation;
+
+    private SampledTraceIds tracker;
+    private String[] traceIds;
+    private final AtomicInteger counter = new AtomicInteger();
+
+    @Setup(Level.Trial)
+    public void setup() {
+        tracker = create(implementation);
+        traceIds = new String[TRACE_ID_COUNT];
+        for (int i = 0; i < TRACE_ID_COUNT; i++) {
+            traceIds[i] = traceId(i);
+        }
+        for (int i = 0; i < TRACKED_TRACE_IDS / 2; i++) {
+            tracker.put(traceIds[i]);
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        for (String implementation : new String[]{"set", "bloom"}) {
+            System.out.printf("%s: %,d bytes retained for %,d trace IDs%n",
+                    implementation, retainedBytes(implementation), TRACKED_TRACE_IDS);
+        }
+        new Runner(new OptionsBuilder()
+                .include(SampledTraceIdsBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+
+    /**
+     * Span of a trace: the first span of each trace inserts its ID, the others find it.
+     */
+    @Benchmark
+    public boolean trackTrace() {
+        return track(counter.getAndIncrement());
+    }
+
+    @Benchmark
+    @Threads(4)
+    public boolean trackTrace_Concurrent() {
+        return track(counter.getAndIncrement());
+    }
+
+    /**
+     * Lookup of a trace ID that was inserted at setup.
+     */
+    @Benchmark
+    public boolean lookupSampledTrace() {
+        int n = counter.getAndIncrement() & Integer.MAX_VALUE;
+        return tracker.mightContain(traceIds[n % (TRACKED_TRACE_IDS / 2)]);
+    }
+
+    private boolean track(int n) {
+        String traceId = traceIds[(n / SPANS_PER_TRACE) & (TRACE_ID_COUNT - 1)];
+        if (tracker.mightContain(traceId)) {
+            return true;
+        }
+        tracker.put(traceId);
+        return false;
+    }
+
+    private static SampledTraceIds create(String implementation) {
+        return switch (implementation) {
+            case "set" -> new ClearingSet();
+            case "bloom" -> new Bloom(new RotatingBloomFilter(TRACKED_TRACE_IDS, 0.001, Duration.ofMinutes(5)));
+            default -> throw new IllegalArgumentException("Unknown implementation: " + implementation);
+        };
+    }
+
+    private static long retainedBytes(String implementation) {
+        Runtime runtime = Runtime.getRuntime();
+        long before = usedAfterGc(runtime);
+        SampledTraceIds tracker = create(implementation);
+        // New strings: the set keeps its IDs alive after the spans holding them are gone
+        for (int i = 0; i < TRACKED_TRACE_IDS; i++) {
+            tracker.put(traceId(i));
+        }
+        long after = usedAfterGc(runtime);
+        if (!tracker.mightContain(traceId(0))) {
+            throw new IllegalStateException("Trace ID lost");
+        }
+        return after - before;
+    }
+
+    private static long usedAfterGc(Runtime runtime) {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    private static String traceId(int i) {
+        return String.format("%016x%016x", i * 0x9E3779B97F4A7C15L, i);
+    }
+
+    private interface SampledTraceIds {
+        boolean mightContain(String traceId);
+
+        void put(String traceId);
+    }
+
+    /**
+     * Previous tracking in {@code SamplingTraceRepository}.
+     */
+    private static final class ClearingSet implements SampledTraceIds {
+        private final Set<String> traceIds = ConcurrentHashMap.newKeySet();
+
+        @Override
+        public boolean mightContain(String traceId) {
+            return traceIds.contains(traceId);
+        }
+
+        @Override
+        public void put(String traceId) {
+            if (traceIds.size() >= TRACKED_TRACE_IDS) {
+                traceIds.clear();
+            }
+            traceIds.add(traceId);
+        }
+    }
+
+    private record Bloom(RotatingBloomFilter filter) implements SampledTraceIds {
+        @Override
+        public boolean mightContain(String traceId) {
+            return filter.mightContain(traceId);
+        }
+
+        @Override
+        public void put(String traceId) {
+            filter.put(traceId);
+        }
+    }
+}
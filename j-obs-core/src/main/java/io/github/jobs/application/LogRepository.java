@@ -1,9 +1,13 @@
 package io.github.jobs.application;
 
+import io.github.jobs.domain.log.LogCursor;
 import io.github.jobs.domain.log.LogEntry;
+import io.github.jobs.domain.log.LogFacets;
 import io.github.jobs.domain.log.LogLevel;
+import io.github.jobs.domain.log.LogPage;
 import io.github.jobs.domain.log.LogQuery;
 
+import java.time.Duration;
 import java.util.List;
 import java.util.function.Consumer;
 
@@ -16,7 +20,8 @@ import java.util.function.Consumer;
  * Key features:
  * <ul>
  *   <li>Add and query log entries with flexible filtering</li>
- *   <li>Subscribe to real-time log updates via {@link #subscribe(Consumer)}</li>
+ *   <li>Subscribe to real-time log updates via {@link #subscribe(Consumer)}, or through a bounded
+ *       per-subscriber queue via {@link #subscribe(Consumer, SubscriptionOptions)}</li>
  *   <li>Get statistics about stored logs via {@link #stats()}</li>
  *   <li>Pagination support via {@link LogQuery}</li>
  * </ul>
@@ -45,6 +50,25 @@ public interface LogRepository {
      */
     List<LogEntry> query(LogQuery query);
 
+    /**
+     * Queries one page of log entries and returns a cursor for the next page.
+     * <p>
+     * The default implementation pages by offset: the cursor carries the offset of the next page.
+     * Sequence-based stores override this so a page resumes after the last returned entry
+     * instead of re-skipping {@code offset} matches.
+     *
+     * @param query the query parameters; {@link LogQuery#cursor()} resumes a previous page
+     * @return the page of entries and the cursor for the following page
+     */
+    default LogPage queryPage(LogQuery query) {
+        LogQuery effective = query.cursor() == null ? query
+                : query.toBuilder().cursor(null).offset((int) Math.min(query.cursor().position(), Integer.MAX_VALUE)).build();
+        List<LogEntry> entries = query(effective);
+        LogCursor next = entries.size() < effective.limit() ? null
+                : new LogCursor((long) effective.offset() + entries.size());
+        return new LogPage(entries, next);
+    }
+
     /**
      * Returns the most recent log entries.
      *
@@ -83,12 +107,32 @@ public interface LogRepository {
 
     /**
      * Returns the count of log entries matching the query.
+     * Paging parameters (limit, offset, cursor) are ignored.
      *
      * @param query the query parameters
      * @return matching entry count
      */
     long count(LogQuery query);
 
+    /**
+     * Returns counts by level, the {@code topN} most frequent loggers and threads, and a
+     * histogram per {@code interval} for the entries matching the query.
+     * Paging parameters (limit, offset, cursor) are ignored.
+     * <p>
+     * The default implementation collects every matching entry; stores that pre-aggregate
+     * counts on ingest override it.
+     *
+     * @param query    the query parameters
+     * @param topN     maximum number of loggers and threads returned
+     * @param interval histogram interval, rounded down to whole seconds
+     * @return facets of the matching entries
+     */
+    default LogFacets facets(LogQuery query, int topN, Duration interval) {
+        LogFacets.Collector collector = new LogFacets.Collector(interval, query.minLevel());
+        query(query.toBuilder().limit(Integer.MAX_VALUE).offset(0).cursor(null).build()).forEach(collector::add);
+        return collector.build(topN);
+    }
+
     /**
      * Clears all log entries from the repository.
      */
@@ -110,6 +154,21 @@ public interface LogRepository {
      */
     Subscription subscribe(Consumer<LogEntry> subscriber);
 
+    /**
+     * Subscribes to new log entries through a bounded queue drained by a dedicated dispatcher thread.
+     * <p>
+     * {@link #add(LogEntry)} only enqueues the entry, so a slow subscriber never delays the
+     * logging thread. When the queue is full the {@link SubscriptionOptions.OverflowPolicy}
+     * either drops the oldest queued entry or disconnects the subscriber.
+     *
+     * @param subscriber the consumer to notify, called on the dispatcher thread
+     * @param options    queue capacity, dispatcher kind and overflow policy
+     * @return a subscription handle exposing lag and drop counts
+     */
+    default QueuedSubscription subscribe(Consumer<LogEntry> subscriber, SubscriptionOptions options) {
+        return QueuedLogSubscriber.start(this, subscriber, options);
+    }
+
     /**
      * Subscription handle for log entry notifications.
      */
@@ -118,6 +177,96 @@ public interface LogRepository {
         boolean isActive();
     }
 
+    /**
+     * Subscription delivered through a bounded per-subscriber queue.
+     * A subscriber disconnected by {@link SubscriptionOptions.OverflowPolicy#DISCONNECT} is no longer active.
+     */
+    interface QueuedSubscription extends Subscription {
+
+        /**
+         * Returns the subscriber name given in the options.
+         */
+        String name();
+
+        /**
+         * Returns the number of entries waiting to be delivered.
+         */
+        int lag();
+
+        /**
+         * Returns the number of entries dropped because the queue was full.
+         */
+        long droppedCount();
+
+        /**
+         * Returns the number of entries handed to the subscriber.
+         */
+        long deliveredCount();
+    }
+
+    /**
+     * Options for {@link #subscribe(Consumer, SubscriptionOptions)}.
+     *
+     * @param name          subscriber name, used for the dispatcher thread and metrics
+     * @param queueCapacity maximum number of entries waiting for the subscriber
+     * @param dispatchMode  kind of thread draining the queue
+     * @param overflowPolicy behaviour when the queue is full
+     * @param onDisconnect  called on the dispatcher thread after an overflow disconnect, may be null
+     */
+    record SubscriptionOptions(
+        String name,
+        int queueCapacity,
+        DispatchMode dispatchMode,
+        OverflowPolicy overflowPolicy,
+        Runnable onDisconnect
+    ) {
+        public static final int DEFAULT_QUEUE_CAPACITY = 1024;
+
+        public SubscriptionOptions {
+            if (name == null || name.isBlank()) {
+                throw new IllegalArgumentException("name is required");
+            }
+            if (queueCapacity <= 0) {
+                throw new IllegalArgumentException("queueCapacity must be positive");
+            }
+            if (dispatchMode == null) {
+                dispatchMode = DispatchMode.PLATFORM_THREAD;
+            }
+            if (overflowPolicy == null) {
+                overflowPolicy = OverflowPolicy.DROP_OLDEST;
+            }
+        }
+
+        public static SubscriptionOptions defaults(String name) {
+            return new SubscriptionOptions(name, DEFAULT_QUEUE_CAPACITY, DispatchMode.PLATFORM_THREAD,
+                    OverflowPolicy.DROP_OLDEST, null);
+        }
+
+        public SubscriptionOptions withOnDisconnect(Runnable onDisconnect) {
+            return new SubscriptionOptions(name, queueCapacity, dispatchMode, overflowPolicy, onDisconnect);
+        }
+
+        /**
+         * Thread that drains a subscriber queue.
+         */
+        public enum DispatchMode {
+            /** A dedicated daemon platform thread. */
+            PLATFORM_THREAD,
+            /** A virtual thread; falls back to a platform thread on runtimes without virtual threads. */
+            VIRTUAL_THREAD
+        }
+
+        /**
+         * What to do with a new entry when the subscriber queue is full.
+         */
+        public enum OverflowPolicy {
+            /** Discard the oldest queued entry and count it as dropped. */
+            DROP_OLDEST,
+            /** Unsubscribe the subscriber and invoke {@code onDisconnect}. */
+            DISCONNECT
+        }
+    }
+
     /**
      * Statistics about stored logs.
      */
@@ -0,0 +1,178 @@
+package io.github.jobs.application;
+
+import io.github.jobs.application.LogRepository.QueuedSubscription;
+import io.github.jobs.application.LogRepository.SubscriptionOptions;
+import io.github.jobs.domain.log.LogEntry;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Bounded queue between {@link LogRepository#add(LogEntry)} and one slow subscriber.
+ * <p>
+ * The repository notifies {@link #offer(LogEntry)} on the logging thread, which never blocks:
+ * a full queue either drops its oldest entry or disconnects the subscriber. A dedicated
+ * dispatcher thread takes entries from the queue and calls the subscriber.
+ */
+final class QueuedLogSubscriber implements QueuedSubscription {
+
+    private static final Method OF_VIRTUAL = lookup(Thread.class, "ofVirtual");
+    private static final Method UNSTARTED = lookup(classOrNull("java.lang.Thread$Builder"), "unstarted", Runnable.class);
+
+    private final String name;
+    private final Consumer<LogEntry> subscriber;
+    private final SubscriptionOptions.OverflowPolicy overflowPolicy;
+    private final Runnable onDisconnect;
+    private final BlockingQueue<LogEntry> queue;
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder delivered = new LongAdder();
+    private final AtomicBoolean active = new AtomicBoolean(true);
+    private volatile boolean disconnected;
+    private volatile LogRepository.Subscription upstream;
+    private Thread dispatcher;
+
+    private QueuedLogSubscriber(Consumer<LogEntry> subscriber, SubscriptionOptions options) {
+        this.name = options.name();
+        this.subscriber = subscriber;
+        this.overflowPolicy = options.overflowPolicy();
+        this.onDisconnect = options.onDisconnect();
+        this.queue = new ArrayBlockingQueue<>(options.queueCapacity());
+    }
+
+    static QueuedLogSubscriber start(LogRepository repository, Consumer<LogEntry> subscriber,
+                                     SubscriptionOptions options) {
+        QueuedLogSubscriber queued = new QueuedLogSubscriber(subscriber, options);
+        queued.dispatcher = newThread(options.dispatchMode(), "j-obs-log-subscriber-" + options.name(), queued::drain);
+        queued.dispatcher.start();
+        queued.upstream = repository.subscribe(queued::offer);
+        // An overflow disconnect before upstream was assigned could not unsubscribe
+        if (!queued.active.get()) {
+            queued.upstream.unsubscribe();
+        }
+        return queued;
+    }
+
+    /**
+     * Called on the logging thread; never blocks.
+     */
+    void offer(LogEntry entry) {
+        if (!active.get()) {
+            return;
+        }
+        while (!queue.offer(entry)) {
+            if (overflowPolicy == SubscriptionOptions.OverflowPolicy.DISCONNECT) {
+                dropped.increment();
+                disconnected = true;
+                close();
+                return;
+            }
+            if (queue.poll() != null) {
+                dropped.increment();
+            }
+        }
+    }
+
+    private void drain() {
+        try {
+            while (active.get()) {
+                LogEntry entry = queue.take();
+                try {
+                    subscriber.accept(entry);
+                    delivered.increment();
+                } catch (Exception e) {
+                    // A failing subscriber must not stop its own dispatcher
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            queue.clear();
+            if (disconnected && onDisconnect != null) {
+                try {
+                    onDisconnect.run();
+                } catch (Exception e) {
+                    // Nothing left to notify
+                }
+            }
+        }
+    }
+
+    @Override
+    public void unsubscribe() {
+        close();
+    }
+
+    private void close() {
+        if (active.compareAndSet(true, false)) {
+            LogRepository.Subscription subscription = upstream;
+            if (subscription != null) {
+                subscription.unsubscribe();
+            }
+            dispatcher.interrupt();
+        }
+    }
+
+    @Override
+    public boolean isActive() {
+        return active.get();
+    }
+
+    @Override
+    public String name() {
+        return name;
+    }
+
+    @Override
+    public int lag() {
+        return queue.size();
+    }
+
+    @Override
+    public long droppedCount() {
+        return dropped.sum();
+    }
+
+    @Override
+    public long deliveredCount() {
+        return delivered.sum();
+    }
+
+    private static Thread newThread(SubscriptionOptions.DispatchMode mode, String threadName, Runnable task) {
+        if (mode == SubscriptionOptions.DispatchMode.VIRTUAL_THREAD && OF_VIRTUAL != null && UNSTARTED != null) {
+            try {
+                Thread thread = (Thread) UNSTARTED.invoke(OF_VIRTUAL.invoke(null), task);
+                thread.setName(threadName);
+                return thread;
+            } catch (ReflectiveOperationException | RuntimeException e) {
+                // Fall back to a platform thread
+            }
+        }
+        Thread thread = new Thread(task, threadName);
+        thread.setDaemon(true);
+        return thread;
+    }
+
+    // Virtual threads are looked up reflectively so the library still runs on Java 17
+    private static Method lookup(Class<?> type, String method, Class<?>... parameters) {
+        if (type == null) {
+            return null;
+        }
+        try {
+            return type.getMethod(method, parameters);
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+
+    private static Class<?> classOrNull(String name) {
+        try {
+            return Class.forName(name);
+        } catch (ClassNotFoundException e) {
+            return null;
+        }
+    }
+}
@@ -4,6 +4,7 @@ import io.github.jobs.domain.trace.Span;
 import io.github.jobs.domain.trace.Trace;
 import io.github.jobs.domain.trace.TraceQuery;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -39,6 +40,20 @@ public interface TraceRepository {
      */
     void addSpan(Span span);
 
+    /**
+     * Adds a batch of spans, possibly belonging to different traces.
+     * <p>
+     * The default implementation adds them one by one; stores override it to amortize locking
+     * or round trips over the batch.
+     *
+     * @param spans the spans to add
+     */
+    default void addSpans(Collection<Span> spans) {
+        for (Span span : spans) {
+            addSpan(span);
+        }
+    }
+
     /**
      * Retrieves a trace by its ID.
      *
@@ -0,0 +1,50 @@
+package io.github.jobs.domain.log;
+
+import java.nio.ByteBuffer;
+import java.util.Base64;
+
+/**
+ * Opaque position for resuming a log query where the previous page ended.
+ * <p>
+ * The position is only meaningful to the repository that issued it: sequence-based stores
+ * encode the sequence of the last returned entry, others the offset of the next page.
+ * Clients should treat the {@link #encode() encoded} form as an opaque token.
+ */
+public record LogCursor(long position) {
+
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    /**
+     * Encodes this cursor as a URL-safe token.
+     */
+    public String encode() {
+        return ENCODER.encodeToString(ByteBuffer.allocate(Long.BYTES).putLong(position).array());
+    }
+
+    /**
+     * Decodes a token produced by {@link #encode()}.
+     *
+     * @throws IllegalArgumentException if the token is malformed
+     */
+    public static LogCursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            throw new IllegalArgumentException("Cursor must not be blank");
+        }
+        byte[] bytes;
+        try {
+            bytes = DECODER.decode(token.trim());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + token);
+        }
+        if (bytes.length != Long.BYTES) {
+            throw new IllegalArgumentException("Invalid cursor: " + token);
+        }
+        return new LogCursor(ByteBuffer.wrap(bytes).getLong());
+    }
+
+    @Override
+    public String toString() {
+        return encode();
+    }
+}
@@ -20,15 +20,23 @@ import java.util.UUID;
  *   <li>MDC (Mapped Diagnostic Context) key-value pairs</li>
  * </ul>
  * <p>
- * This class is immutable and thread-safe. Use {@link #builder()} to create instances.
+ * This class is immutable and thread-safe. Use {@link #builder()} to create instances, or
+ * {@link #of} on capture paths that already hold a numeric id and an epoch-nanosecond timestamp;
+ * the id string and {@link Instant} are then only created when first read.
  *
  * @see LogLevel
  * @see LogQuery
  */
 public final class LogEntry {
 
-    private final String id;
-    private final Instant timestamp;
+    private static final String ID_PREFIX = "log-";
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+
+    private final long sequence;
+    private final long epochNanos;
+    // Derived lazily from sequence / epochNanos; racy initialization is safe for immutable values
+    private String id;
+    private Instant timestamp;
     private final LogLevel level;
     private final String loggerName;
     private final String message;
@@ -36,11 +44,15 @@ public final class LogEntry {
     private final String traceId;
     private final String spanId;
     private final String throwable;
+    private final StackTraceRef stackTrace;
     private final Map<String, String> mdc;
 
     private LogEntry(Builder builder) {
-        this.id = builder.id != null ? builder.id : UUID.randomUUID().toString();
+        this.sequence = builder.sequence;
+        this.id = builder.id != null ? builder.id
+                : builder.hasSequence ? null : UUID.randomUUID().toString();
         this.timestamp = builder.timestamp != null ? builder.timestamp : Instant.now();
+        this.epochNanos = epochNanos(this.timestamp);
         this.level = builder.level != null ? builder.level : LogLevel.INFO;
         this.loggerName = builder.loggerName;
         this.message = Objects.requireNonNull(builder.message, "message is required");
@@ -48,9 +60,45 @@ public final class LogEntry {
         this.traceId = builder.traceId;
         this.spanId = builder.spanId;
         this.throwable = builder.throwable;
+        this.stackTrace = builder.throwable == null ? builder.stackTrace : null;
         this.mdc = builder.mdc != null ? Map.copyOf(builder.mdc) : Map.of();
     }
 
+    private LogEntry(long sequence, long epochNanos, LogLevel level, String loggerName, String message,
+                     String threadName, String traceId, String spanId, String throwable,
+                     StackTraceRef stackTrace, Map<String, String> mdc) {
+        this.sequence = sequence;
+        this.epochNanos = epochNanos;
+        this.level = level != null ? level : LogLevel.INFO;
+        this.loggerName = loggerName;
+        this.message = Objects.requireNonNull(message, "message is required");
+        this.threadName = threadName;
+        this.traceId = traceId;
+        this.spanId = spanId;
+        this.throwable = throwable;
+        this.stackTrace = throwable == null ? stackTrace : null;
+        this.mdc = mdc != null ? Map.copyOf(mdc) : Map.of();
+    }
+
+    /**
+     * Creates an entry without going through a builder.
+     * <p>
+     * The id is kept as a number and rendered as {@code log-<sequence>} on first call to
+     * {@link #id()}; the timestamp is kept as epoch nanoseconds. An MDC map that is already
+     * immutable (e.g. from {@link Map#copyOf}) is stored as is.
+     *
+     * @param sequence   unique numeric id
+     * @param epochNanos timestamp in nanoseconds since the epoch
+     * @param stackTrace shared stack trace, ignored when {@code throwable} is set
+     * @return the new entry
+     */
+    public static LogEntry of(long sequence, long epochNanos, LogLevel level, String loggerName, String message,
+                              String threadName, String traceId, String spanId, String throwable,
+                              StackTraceRef stackTrace, Map<String, String> mdc) {
+        return new LogEntry(sequence, epochNanos, level, loggerName, message, threadName, traceId, spanId,
+                throwable, stackTrace, mdc);
+    }
+
     /**
      * Creates a new builder for constructing LogEntry instances.
      *
@@ -66,7 +114,12 @@ public final class LogEntry {
      * @return the log entry ID
      */
     public String id() {
-        return id;
+        String value = id;
+        if (value == null) {
+            value = ID_PREFIX + sequence;
+            id = value;
+        }
+        return value;
     }
 
     /**
@@ -75,7 +128,23 @@ public final class LogEntry {
      * @return the timestamp
      */
     public Instant timestamp() {
-        return timestamp;
+        Instant value = timestamp;
+        if (value == null) {
+            value = Instant.ofEpochSecond(Math.floorDiv(epochNanos, NANOS_PER_SECOND),
+                    Math.floorMod(epochNanos, NANOS_PER_SECOND));
+            timestamp = value;
+        }
+        return value;
+    }
+
+    /**
+     * Returns the timestamp as nanoseconds since the epoch, without creating an {@link Instant}.
+     * Timestamps outside the {@code long} range are saturated.
+     *
+     * @return the epoch timestamp in nanoseconds
+     */
+    public long epochNanos() {
+        return epochNanos;
     }
 
     /**
@@ -158,11 +227,22 @@ public final class LogEntry {
 
     /**
      * Returns the exception stack trace if this log entry represents an error with exception.
+     * <p>
+     * A shared {@link StackTraceRef} is rendered on the first call.
      *
      * @return the exception stack trace as string, may be null
      */
     public String throwable() {
-        return throwable;
+        return stackTrace != null ? stackTrace.text() : throwable;
+    }
+
+    /**
+     * Returns the fingerprint of the exception when the stack trace is a shared {@link StackTraceRef}.
+     *
+     * @return the stack trace fingerprint, or null for plain or missing stack traces
+     */
+    public String throwableFingerprint() {
+        return stackTrace != null ? stackTrace.fingerprint() : null;
     }
 
     /**
@@ -171,7 +251,7 @@ public final class LogEntry {
      * @return true if an exception stack trace is present
      */
     public boolean hasThrowable() {
-        return throwable != null && !throwable.isEmpty();
+        return stackTrace != null || (throwable != null && !throwable.isEmpty());
     }
 
     /**
@@ -207,41 +287,78 @@ public final class LogEntry {
         if (query.loggerName() != null && (loggerName == null || !loggerName.contains(query.loggerName()))) {
             return false;
         }
-        if (query.messagePattern() != null && !message.toLowerCase().contains(query.messagePattern().toLowerCase())) {
+        if (query.messagePattern() != null && !containsIgnoreCase(message, query.messagePattern())) {
             return false;
         }
         if (query.traceId() != null && !query.traceId().equals(traceId)) {
             return false;
         }
+        if (query.spanId() != null && !query.spanId().equals(spanId)) {
+            return false;
+        }
         if (query.threadName() != null && !query.threadName().equals(threadName)) {
             return false;
         }
-        if (query.startTime() != null && timestamp.isBefore(query.startTime())) {
+        if (query.startTime() != null && epochNanos < epochNanos(query.startTime())) {
+            return false;
+        }
+        if (query.endTime() != null && epochNanos > epochNanos(query.endTime())) {
             return false;
         }
-        if (query.endTime() != null && timestamp.isAfter(query.endTime())) {
+        // Evaluated last: tokenizing the message is the most expensive check
+        if (query.search() != null && !query.search().matches(message)) {
             return false;
         }
         return true;
     }
 
+    /**
+     * Converts an instant to epoch nanoseconds, saturated so far-away instants never overflow.
+     *
+     * @param instant the instant to convert
+     * @return nanoseconds since the epoch, clamped to {@code Long.MIN_VALUE}/{@code Long.MAX_VALUE}
+     */
+    public static long epochNanos(Instant instant) {
+        long seconds = instant.getEpochSecond();
+        if (seconds >= Long.MAX_VALUE / NANOS_PER_SECOND) {
+            return Long.MAX_VALUE;
+        }
+        if (seconds <= Long.MIN_VALUE / NANOS_PER_SECOND) {
+            return Long.MIN_VALUE;
+        }
+        return seconds * NANOS_PER_SECOND + instant.getNano();
+    }
+
+    /**
+     * Case-insensitive substring test without lower-casing copies of either string.
+     */
+    static boolean containsIgnoreCase(String text, String pattern) {
+        int max = text.length() - pattern.length();
+        for (int i = 0; i <= max; i++) {
+            if (text.regionMatches(true, i, pattern, 0, pattern.length())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
         if (o == null || getClass() != o.getClass()) return false;
         LogEntry logEntry = (LogEntry) o;
-        return Objects.equals(id, logEntry.id);
+        return Objects.equals(id(), logEntry.id());
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(id);
+        return Objects.hash(id());
     }
 
     @Override
     public String toString() {
         return "LogEntry{" +
-                "timestamp=" + timestamp +
+                "timestamp=" + timestamp() +
                 ", level=" + level +
                 ", logger='" + shortLoggerName() + '\'' +
                 ", message='" + (message.length() > 50 ? message.substring(0, 50) + "..." : message) + '\'' +
@@ -250,6 +367,8 @@ public final class LogEntry {
 
     public static final class Builder {
         private String id;
+        private long sequence;
+        private boolean hasSequence;
         private Instant timestamp;
         private LogLevel level;
         private String loggerName;
@@ -258,6 +377,7 @@ public final class LogEntry {
         private String traceId;
         private String spanId;
         private String throwable;
+        private StackTraceRef stackTrace;
         private Map<String, String> mdc;
 
         private Builder() {}
@@ -267,6 +387,15 @@ public final class LogEntry {
             return this;
         }
 
+        /**
+         * Sets a numeric id, rendered as {@code log-<sequence>}. Ignored when {@link #id(String)} is set.
+         */
+        public Builder id(long sequence) {
+            this.sequence = sequence;
+            this.hasSequence = true;
+            return this;
+        }
+
         public Builder timestamp(Instant timestamp) {
             this.timestamp = timestamp;
             return this;
@@ -307,6 +436,14 @@ public final class LogEntry {
             return this;
         }
 
+        /**
+         * Attaches a shared stack trace rendered on demand. Ignored when {@link #throwable(String)} is set.
+         */
+        public Builder stackTrace(StackTraceRef stackTrace) {
+            this.stackTrace = stackTrace;
+            return this;
+        }
+
         public Builder mdc(Map<String, String> mdc) {
             this.mdc = mdc;
             return this;
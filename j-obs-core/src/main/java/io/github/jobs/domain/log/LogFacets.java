@@ -0,0 +1,180 @@
+package io.github.jobs.domain.log;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Aggregate view of the entries matching a {@link LogQuery}: counts by level, the most frequent
+ * loggers and threads, and a histogram of entries per time interval.
+ *
+ * @param total     number of matching entries
+ * @param levels    matching entries per level, every level present
+ * @param loggers   most frequent logger names, highest count first
+ * @param threads   most frequent thread names, highest count first
+ * @param interval  width of each histogram bucket
+ * @param histogram non-empty buckets in ascending time order
+ */
+public record LogFacets(
+        long total,
+        Map<LogLevel, Long> levels,
+        List<Count> loggers,
+        List<Count> threads,
+        Duration interval,
+        List<HistogramBucket> histogram
+) {
+
+    private static final LogLevel[] LEVELS = LogLevel.values();
+
+    public LogFacets {
+        levels = Map.copyOf(levels);
+        loggers = List.copyOf(loggers);
+        threads = List.copyOf(threads);
+        histogram = List.copyOf(histogram);
+    }
+
+    /**
+     * Number of entries for one facet value.
+     */
+    public record Count(String value, long count) {
+    }
+
+    /**
+     * Entries in one histogram interval.
+     *
+     * @param start  start of the interval, aligned to a multiple of the interval since the epoch
+     * @param count  matching entries in the interval
+     * @param levels matching entries per level in the interval, levels without entries omitted
+     */
+    public record HistogramBucket(Instant start, long count, Map<LogLevel, Long> levels) {
+
+        public HistogramBucket {
+            levels = Map.copyOf(levels);
+        }
+    }
+
+    /**
+     * Accumulates facets from individual entries or from pre-aggregated per-second counts.
+     * Not thread-safe.
+     */
+    public static final class Collector {
+
+        private final long intervalSeconds;
+        private final LogLevel minLevel;
+        private final long[] levels = new long[LEVELS.length];
+        private final Map<String, Long> loggers = new HashMap<>();
+        private final Map<String, Long> threads = new HashMap<>();
+        private final TreeMap<Long, long[]> histogram = new TreeMap<>();
+
+        /**
+         * @param interval histogram interval, rounded down to whole seconds (at least one)
+         * @param minLevel levels below it are left out of pre-aggregated counts, may be null
+         */
+        public Collector(Duration interval, LogLevel minLevel) {
+            this.intervalSeconds = Math.max(1, interval.toSeconds());
+            this.minLevel = minLevel;
+        }
+
+        /**
+         * Adds one entry that is known to match the query.
+         */
+        public void add(LogEntry entry) {
+            int level = entry.level().ordinal();
+            levels[level]++;
+            increment(loggers, entry.loggerName(), 1);
+            increment(threads, entry.threadName(), 1);
+            long second = Math.floorDiv(entry.epochNanos(), 1_000_000_000L);
+            histogramSlot(second)[level]++;
+        }
+
+        /**
+         * Adds the pre-aggregated counts of one second. Per-value arrays are indexed by
+         * {@link LogLevel#ordinal()}; levels below the collector's minimum level are skipped.
+         */
+        public void addSecond(long epochSecond, long[] levelCounts,
+                              Map<String, long[]> loggerCounts, Map<String, long[]> threadCounts) {
+            long[] slot = null;
+            for (int level = 0; level < LEVELS.length; level++) {
+                long count = levelCounts[level];
+                if (count != 0 && accepts(level)) {
+                    levels[level] += count;
+                    if (slot == null) {
+                        slot = histogramSlot(epochSecond);
+                    }
+                    slot[level] += count;
+                }
+            }
+            if (slot == null) {
+                return;
+            }
+            loggerCounts.forEach((name, counts) -> increment(loggers, name, sum(counts)));
+            threadCounts.forEach((name, counts) -> increment(threads, name, sum(counts)));
+        }
+
+        /**
+         * Returns the facets with at most {@code topN} loggers and threads.
+         */
+        public LogFacets build(int topN) {
+            Map<LogLevel, Long> levelMap = new EnumMap<>(LogLevel.class);
+            long total = 0;
+            for (LogLevel level : LEVELS) {
+                levelMap.put(level, levels[level.ordinal()]);
+                total += levels[level.ordinal()];
+            }
+            List<HistogramBucket> buckets = new ArrayList<>(histogram.size());
+            histogram.forEach((start, counts) -> {
+                Map<LogLevel, Long> perLevel = new EnumMap<>(LogLevel.class);
+                long count = 0;
+                for (LogLevel level : LEVELS) {
+                    if (counts[level.ordinal()] != 0) {
+                        perLevel.put(level, counts[level.ordinal()]);
+                        count += counts[level.ordinal()];
+                    }
+                }
+                buckets.add(new HistogramBucket(Instant.ofEpochSecond(start), count, perLevel));
+            });
+            return new LogFacets(total, levelMap, top(loggers, topN), top(threads, topN),
+                    Duration.ofSeconds(intervalSeconds), buckets);
+        }
+
+        private boolean accepts(int level) {
+            return minLevel == null || LEVELS[level].isAtLeast(minLevel);
+        }
+
+        private long sum(long[] counts) {
+            long total = 0;
+            for (int level = 0; level < counts.length; level++) {
+                if (accepts(level)) {
+                    total += counts[level];
+                }
+            }
+            return total;
+        }
+
+        private long[] histogramSlot(long epochSecond) {
+            long start = epochSecond - Math.floorMod(epochSecond, intervalSeconds);
+            return histogram.computeIfAbsent(start, key -> new long[LEVELS.length]);
+        }
+
+        private static void increment(Map<String, Long> counts, String value, long delta) {
+            if (value != null && delta != 0) {
+                counts.merge(value, delta, Long::sum);
+            }
+        }
+
+        private static List<Count> top(Map<String, Long> counts, int topN) {
+            return counts.entrySet().stream()
+                    .sorted(Map.Entry.<String, Long>comparingByValue(Comparator.reverseOrder())
+                            .thenComparing(Map.Entry.comparingByKey()))
+                    .limit(Math.max(0, topN))
+                    .map(entry -> new Count(entry.getKey(), entry.getValue()))
+                    .toList();
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package io.github.jobs.domain.log;
+
+import java.util.List;
+
+/**
+ * One page of log query results.
+ *
+ * @param entries    matching entries, newest first
+ * @param nextCursor cursor for the following page, or null if this is the last page
+ */
+public record LogPage(List<LogEntry> entries, LogCursor nextCursor) {
+
+    public LogPage {
+        entries = List.copyOf(entries);
+    }
+
+    public boolean hasMore() {
+        return nextCursor != null;
+    }
+}
@@ -10,23 +10,29 @@ public final class LogQuery {
     private final LogLevel minLevel;
     private final String loggerName;
     private final String messagePattern;
+    private final LogSearchQuery search;
     private final String traceId;
+    private final String spanId;
     private final String threadName;
     private final Instant startTime;
     private final Instant endTime;
     private final int limit;
     private final int offset;
+    private final LogCursor cursor;
 
     private LogQuery(Builder builder) {
         this.minLevel = builder.minLevel;
         this.loggerName = builder.loggerName;
         this.messagePattern = builder.messagePattern;
+        this.search = builder.search;
         this.traceId = builder.traceId;
+        this.spanId = builder.spanId;
         this.threadName = builder.threadName;
         this.startTime = builder.startTime;
         this.endTime = builder.endTime;
         this.limit = builder.limit > 0 ? builder.limit : 100;
         this.offset = Math.max(builder.offset, 0);
+        this.cursor = builder.cursor;
     }
 
     public static Builder builder() {
@@ -53,6 +59,10 @@ public final class LogQuery {
         return builder().traceId(traceId).build();
     }
 
+    public static LogQuery bySpanId(String spanId) {
+        return builder().spanId(spanId).build();
+    }
+
     public LogLevel minLevel() {
         return minLevel;
     }
@@ -65,10 +75,21 @@ public final class LogQuery {
         return messagePattern;
     }
 
+    /**
+     * Returns the full-text search expression, or null if none was given.
+     */
+    public LogSearchQuery search() {
+        return search;
+    }
+
     public String traceId() {
         return traceId;
     }
 
+    public String spanId() {
+        return spanId;
+    }
+
     public String threadName() {
         return threadName;
     }
@@ -89,9 +110,37 @@ public final class LogQuery {
         return offset;
     }
 
+    /**
+     * Returns the position to resume from, or null to start at the newest entry.
+     * When present, entries are skipped by position rather than by {@link #offset()}.
+     */
+    public LogCursor cursor() {
+        return cursor;
+    }
+
+    /**
+     * Returns a builder initialised with this query's criteria.
+     */
+    public Builder toBuilder() {
+        Builder builder = new Builder();
+        builder.minLevel = minLevel;
+        builder.loggerName = loggerName;
+        builder.messagePattern = messagePattern;
+        builder.search = search;
+        builder.traceId = traceId;
+        builder.spanId = spanId;
+        builder.threadName = threadName;
+        builder.startTime = startTime;
+        builder.endTime = endTime;
+        builder.limit = limit;
+        builder.offset = offset;
+        builder.cursor = cursor;
+        return builder;
+    }
+
     public boolean hasFilters() {
-        return minLevel != null || loggerName != null || messagePattern != null ||
-               traceId != null || threadName != null || startTime != null || endTime != null;
+        return minLevel != null || loggerName != null || messagePattern != null || search != null ||
+               traceId != null || spanId != null || threadName != null || startTime != null || endTime != null;
     }
 
     /**
@@ -107,6 +156,7 @@ public final class LogQuery {
                 "minLevel=" + minLevel +
                 ", loggerName='" + loggerName + '\'' +
                 ", messagePattern='" + messagePattern + '\'' +
+                ", search='" + search + '\'' +
                 ", limit=" + limit +
                 '}';
     }
@@ -115,12 +165,15 @@ public final class LogQuery {
         private LogLevel minLevel;
         private String loggerName;
         private String messagePattern;
+        private LogSearchQuery search;
         private String traceId;
+        private String spanId;
         private String threadName;
         private Instant startTime;
         private Instant endTime;
         private int limit = 100;
         private int offset = 0;
+        private LogCursor cursor;
 
         private Builder() {}
 
@@ -139,11 +192,31 @@ public final class LogQuery {
             return this;
         }
 
+        /**
+         * Sets a full-text search expression, see {@link LogSearchQuery} for the syntax.
+         *
+         * @throws IllegalArgumentException if the expression is malformed
+         */
+        public Builder search(String expression) {
+            this.search = expression == null || expression.isBlank() ? null : LogSearchQuery.parse(expression);
+            return this;
+        }
+
+        public Builder search(LogSearchQuery search) {
+            this.search = search;
+            return this;
+        }
+
         public Builder traceId(String traceId) {
             this.traceId = traceId;
             return this;
         }
 
+        public Builder spanId(String spanId) {
+            this.spanId = spanId;
+            return this;
+        }
+
         public Builder threadName(String threadName) {
             this.threadName = threadName;
             return this;
@@ -169,6 +242,11 @@ public final class LogQuery {
             return this;
         }
 
+        public Builder cursor(LogCursor cursor) {
+            this.cursor = cursor;
+            return this;
+        }
+
         public LogQuery build() {
             return new LogQuery(this);
         }
@@ -0,0 +1,381 @@
+package io.github.jobs.domain.log;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Parsed full-text search expression over log messages.
+ * <p>
+ * Messages are split into lower-case tokens on every character that is not a letter or digit,
+ * so {@code "Order 42 failed: timeout"} yields {@code order}, {@code 42}, {@code failed} and
+ * {@code timeout}. Supported syntax:
+ * <ul>
+ *   <li>{@code timeout} - message contains the token</li>
+ *   <li>{@code "connection reset"} - message contains the tokens consecutively</li>
+ *   <li>{@code a AND b}, {@code a b} - both (AND is implicit between terms)</li>
+ *   <li>{@code a OR b} - either</li>
+ *   <li>{@code NOT a}, {@code -a} - message does not contain the term</li>
+ *   <li>{@code (a OR b) AND NOT c} - grouping</li>
+ * </ul>
+ * Operators are case-sensitive and must be upper-case; lower-case {@code and}/{@code or}/{@code not}
+ * are searched as ordinary terms. A bare word that tokenizes into several tokens
+ * (e.g. {@code user-42}) is treated as a phrase.
+ */
+public final class LogSearchQuery {
+
+    private static final int MAX_DEPTH = 32;
+
+    private final String expression;
+    private final Node root;
+
+    private LogSearchQuery(String expression, Node root) {
+        this.expression = expression;
+        this.root = root;
+    }
+
+    /**
+     * Parses a search expression.
+     *
+     * @param expression the expression to parse
+     * @return the parsed query
+     * @throws IllegalArgumentException if the expression is blank or malformed
+     */
+    public static LogSearchQuery parse(String expression) {
+        if (expression == null || expression.isBlank()) {
+            throw new IllegalArgumentException("Search expression must not be blank");
+        }
+        Parser parser = new Parser(expression);
+        Node root = parser.parseExpression(0);
+        if (parser.hasMore()) {
+            throw new IllegalArgumentException("Unexpected '" + parser.peek().text + "' in search expression");
+        }
+        if (root == null) {
+            throw new IllegalArgumentException("Search expression contains no searchable terms");
+        }
+        return new LogSearchQuery(expression.trim(), root);
+    }
+
+    /**
+     * Splits text into distinct lower-case tokens in order of first occurrence.
+     */
+    public static String[] tokens(String text) {
+        if (text == null || text.isEmpty()) {
+            return new String[0];
+        }
+        return new LinkedHashSet<>(tokenize(text)).toArray(new String[0]);
+    }
+
+    /**
+     * Splits text into lower-case tokens, preserving order and duplicates.
+     */
+    static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        int length = text.length();
+        int start = -1;
+        for (int i = 0; i < length; i++) {
+            if (Character.isLetterOrDigit(text.charAt(i))) {
+                if (start < 0) {
+                    start = i;
+                }
+            } else if (start >= 0) {
+                tokens.add(text.substring(start, i).toLowerCase(Locale.ROOT));
+                start = -1;
+            }
+        }
+        if (start >= 0) {
+            tokens.add(text.substring(start).toLowerCase(Locale.ROOT));
+        }
+        return tokens;
+    }
+
+    /**
+     * Returns the normalized expression this query was parsed from.
+     */
+    public String expression() {
+        return expression;
+    }
+
+    /**
+     * Returns the root of the parsed expression tree.
+     */
+    public Node root() {
+        return root;
+    }
+
+    /**
+     * Evaluates this query against a message.
+     */
+    public boolean matches(String message) {
+        List<String> sequence = tokenize(message);
+        return root.matches(new HashSet<>(sequence), sequence);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        return root.equals(((LogSearchQuery) o).root);
+    }
+
+    @Override
+    public int hashCode() {
+        return root.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return expression;
+    }
+
+    /**
+     * Node of a parsed search expression.
+     */
+    public sealed interface Node permits Term, Phrase, And, Or, Not {
+
+        /**
+         * Evaluates the node against the token set and token sequence of a message.
+         */
+        boolean matches(Set<String> tokens, List<String> sequence);
+    }
+
+    /**
+     * Single token.
+     */
+    public record Term(String token) implements Node {
+        @Override
+        public boolean matches(Set<String> tokens, List<String> sequence) {
+            return tokens.contains(token);
+        }
+    }
+
+    /**
+     * Tokens that must appear consecutively.
+     */
+    public record Phrase(List<String> tokens) implements Node {
+        public Phrase {
+            tokens = List.copyOf(tokens);
+        }
+
+        @Override
+        public boolean matches(Set<String> present, List<String> sequence) {
+            for (String token : tokens) {
+                if (!present.contains(token)) {
+                    return false;
+                }
+            }
+            return Collections.indexOfSubList(sequence, tokens) >= 0;
+        }
+    }
+
+    /**
+     * All children must match.
+     */
+    public record And(List<Node> children) implements Node {
+        public And {
+            children = List.copyOf(children);
+        }
+
+        @Override
+        public boolean matches(Set<String> tokens, List<String> sequence) {
+            for (Node child : children) {
+                if (!child.matches(tokens, sequence)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    /**
+     * At least one child must match.
+     */
+    public record Or(List<Node> children) implements Node {
+        public Or {
+            children = List.copyOf(children);
+        }
+
+        @Override
+        public boolean matches(Set<String> tokens, List<String> sequence) {
+            for (Node child : children) {
+                if (child.matches(tokens, sequence)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Child must not match.
+     */
+    public record Not(Node child) implements Node {
+        public Not {
+            Objects.requireNonNull(child, "child is required");
+        }
+
+        @Override
+        public boolean matches(Set<String> tokens, List<String> sequence) {
+            return !child.matches(tokens, sequence);
+        }
+    }
+
+    private enum TokenType { WORD, PHRASE, AND, OR, NOT, LPAREN, RPAREN }
+
+    private record Token(TokenType type, String text) {}
+
+    /**
+     * Recursive-descent parser: {@code or := and (OR and)*}, {@code and := unary ([AND] unary)*},
+     * {@code unary := NOT unary | primary}, {@code primary := ( or ) | "phrase" | word}.
+     */
+    private static final class Parser {
+        private final List<Token> tokens;
+        private int position;
+
+        Parser(String expression) {
+            this.tokens = lex(expression);
+        }
+
+        boolean hasMore() {
+            return position < tokens.size();
+        }
+
+        Token peek() {
+            return tokens.get(position);
+        }
+
+        private boolean at(TokenType type) {
+            return hasMore() && peek().type == type;
+        }
+
+        Node parseExpression(int depth) {
+            if (depth > MAX_DEPTH) {
+                throw new IllegalArgumentException("Search expression is nested too deeply");
+            }
+            List<Node> alternatives = new ArrayList<>();
+            addIfPresent(alternatives, parseAnd(depth));
+            while (at(TokenType.OR)) {
+                position++;
+                addIfPresent(alternatives, parseAnd(depth));
+            }
+            return combine(alternatives, false);
+        }
+
+        private Node parseAnd(int depth) {
+            List<Node> terms = new ArrayList<>();
+            addIfPresent(terms, parseUnary(depth));
+            while (hasMore() && !at(TokenType.OR) && !at(TokenType.RPAREN)) {
+                if (at(TokenType.AND)) {
+                    position++;
+                }
+                addIfPresent(terms, parseUnary(depth));
+            }
+            return combine(terms, true);
+        }
+
+        private Node parseUnary(int depth) {
+            if (at(TokenType.NOT)) {
+                position++;
+                Node operand = parseUnary(depth + 1);
+                return operand != null ? new Not(operand) : null;
+            }
+            return parsePrimary(depth);
+        }
+
+        private Node parsePrimary(int depth) {
+            if (!hasMore()) {
+                throw new IllegalArgumentException("Search expression ends unexpectedly");
+            }
+            Token token = tokens.get(position++);
+            return switch (token.type) {
+                case LPAREN -> {
+                    Node inner = parseExpression(depth + 1);
+                    if (!at(TokenType.RPAREN)) {
+                        throw new IllegalArgumentException("Missing ')' in search expression");
+                    }
+                    position++;
+                    yield inner;
+                }
+                case WORD, PHRASE -> textNode(token.text);
+                default -> throw new IllegalArgumentException(
+                        "Unexpected '" + token.text + "' in search expression");
+            };
+        }
+
+        private static Node textNode(String text) {
+            List<String> parts = tokenize(text);
+            if (parts.isEmpty()) {
+                return null;
+            }
+            return parts.size() == 1 ? new Term(parts.get(0)) : new Phrase(parts);
+        }
+
+        private static void addIfPresent(List<Node> nodes, Node node) {
+            if (node != null) {
+                nodes.add(node);
+            }
+        }
+
+        private static Node combine(List<Node> nodes, boolean and) {
+            if (nodes.isEmpty()) {
+                return null;
+            }
+            if (nodes.size() == 1) {
+                return nodes.get(0);
+            }
+            return and ? new And(nodes) : new Or(nodes);
+        }
+
+        private static List<Token> lex(String expression) {
+            List<Token> result = new ArrayList<>();
+            int length = expression.length();
+            int i = 0;
+            while (i < length) {
+                char c = expression.charAt(i);
+                if (Character.isWhitespace(c)) {
+                    i++;
+                } else if (c == '(') {
+                    result.add(new Token(TokenType.LPAREN, "("));
+                    i++;
+                } else if (c == ')') {
+                    result.add(new Token(TokenType.RPAREN, ")"));
+                    i++;
+                } else if (c == '"') {
+                    int end = expression.indexOf('"', i + 1);
+                    if (end < 0) {
+                        throw new IllegalArgumentException("Unterminated phrase in search expression");
+                    }
+                    result.add(new Token(TokenType.PHRASE, expression.substring(i + 1, end)));
+                    i = end + 1;
+                } else if (c == '-' && i + 1 < length && !Character.isWhitespace(expression.charAt(i + 1))
+                        && (i == 0 || Character.isWhitespace(expression.charAt(i - 1))
+                            || expression.charAt(i - 1) == '(')) {
+                    // Leading '-' negates the following term; inside a word it is just punctuation
+                    result.add(new Token(TokenType.NOT, "-"));
+                    i++;
+                } else {
+                    int start = i;
+                    while (i < length && !Character.isWhitespace(expression.charAt(i))
+                            && expression.charAt(i) != '(' && expression.charAt(i) != ')'
+                            && expression.charAt(i) != '"') {
+                        i++;
+                    }
+                    String word = expression.substring(start, i);
+                    TokenType type = switch (word) {
+                        case "AND" -> TokenType.AND;
+                        case "OR" -> TokenType.OR;
+                        case "NOT" -> TokenType.NOT;
+                        default -> TokenType.WORD;
+                    };
+                    result.add(new Token(type, word));
+                }
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package io.github.jobs.domain.log;
+
+/**
+ * Shared, lazily rendered stack trace attached to a {@link LogEntry}.
+ * <p>
+ * Entries logging the same exception can point at one instance instead of each holding its own
+ * formatted copy; the text is produced on first access and then reused.
+ *
+ * @see LogEntry.Builder#stackTrace(StackTraceRef)
+ */
+public interface StackTraceRef {
+
+    /**
+     * Returns an identifier shared by all occurrences of the same exception shape
+     * (exception classes, message templates and frames).
+     *
+     * @return the fingerprint, never null
+     */
+    String fingerprint();
+
+    /**
+     * Returns the formatted stack trace, rendering it on first call.
+     *
+     * @return the stack trace text
+     */
+    String text();
+}
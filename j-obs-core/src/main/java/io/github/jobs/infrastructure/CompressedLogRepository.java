@@ -0,0 +1,777 @@
+package io.github.jobs.infrastructure;
+
+import io.github.jobs.application.LogRepository;
+import io.github.jobs.domain.log.LogCursor;
+import io.github.jobs.domain.log.LogEntry;
+import io.github.jobs.domain.log.LogLevel;
+import io.github.jobs.domain.log.LogPage;
+import io.github.jobs.domain.log.LogQuery;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Log repository that keeps recent entries as objects and older ones as compressed blocks.
+ * <p>
+ * New entries go into a hot block of {@code blockSize} entries. A full block is sealed, encoded
+ * with {@link LogEntryCodec} and compressed with {@link Deflater} using a preset dictionary
+ * taken from the first sealed block, so logger names, thread names and message templates that
+ * repeat across blocks compress well even at the start of a block. Cold blocks are evicted
+ * oldest first once their total size exceeds {@code maxBytes}, which typically keeps several
+ * times more history than an object buffer of the same size.
+ * <p>
+ * Every cold block keeps a small summary: time range, a bitmap of the levels it contains, a
+ * bloom filter over its trace ids and its logger and thread names. Queries consult the summary
+ * first and only inflate blocks that may contain matches; the most recently inflated block is
+ * cached so consecutive pages do not inflate it again.
+ * <p>
+ * Compression runs on a background thread started with the first sealed block, so the thread
+ * whose add filled a block only hands it over. A sealed block stays readable as objects until
+ * its compressed form replaces it. If more than {@value #MAX_PENDING_BLOCKS} blocks are waiting,
+ * or after {@link #close()}, the adding thread compresses them itself so memory stays bounded.
+ * Queries snapshot the block lists under a short read lock and decode without holding it.
+ */
+public class CompressedLogRepository implements LogRepository, AutoCloseable {
+
+    static final int DEFAULT_BLOCK_SIZE = 512;
+    private static final long DEFAULT_MAX_BYTES = 16L * 1024 * 1024;
+    private static final int MAX_DICTIONARY_BYTES = 32 * 1024;
+    private static final int BLOOM_WORDS = 64;
+    private static final int BLOOM_HASHES = 3;
+    private static final int BLOCK_OVERHEAD_BYTES = 128;
+    private static final int NAME_OVERHEAD_BYTES = 48;
+    static final int MAX_PENDING_BLOCKS = 8;
+    private static final long CLOSE_TIMEOUT_MILLIS = 5000;
+
+    private final int blockSize;
+    private final long maxBytes;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final ReentrantLock compressionLock = new ReentrantLock();
+    private final ArrayDeque<HotBlock> sealed = new ArrayDeque<>();
+    private final ArrayDeque<ColdBlock> cold = new ArrayDeque<>();
+    private final LogStatsCounter statsCounter = new LogStatsCounter();
+    private final List<SubscriptionImpl> subscribers = new CopyOnWriteArrayList<>();
+    private HotBlock hot;
+    private long nextSequence;
+    private long compressedBytes;
+    private long uncompressedBytes;
+    private volatile byte[] dictionary;
+    private volatile Inflated lastInflated;
+    private volatile Thread compressor;
+    private volatile boolean closed;
+
+    public CompressedLogRepository() {
+        this(DEFAULT_MAX_BYTES);
+    }
+
+    public CompressedLogRepository(long maxBytes) {
+        this(maxBytes, DEFAULT_BLOCK_SIZE);
+    }
+
+    /**
+     * Creates a repository keeping compressed blocks up to {@code maxBytes}.
+     *
+     * @param maxBytes  budget for compressed blocks and their summaries
+     * @param blockSize number of entries per block
+     */
+    public CompressedLogRepository(long maxBytes, int blockSize) {
+        if (maxBytes <= 0) {
+            throw new IllegalArgumentException("maxBytes must be positive, was " + maxBytes);
+        }
+        if (blockSize <= 0) {
+            throw new IllegalArgumentException("blockSize must be positive, was " + blockSize);
+        }
+        this.maxBytes = maxBytes;
+        this.blockSize = blockSize;
+        this.hot = new HotBlock(0, blockSize);
+    }
+
+    @Override
+    public void add(LogEntry entry) {
+        boolean blockFull;
+        int pending = 0;
+        lock.writeLock().lock();
+        try {
+            hot.entries[hot.size++] = entry;
+            nextSequence++;
+            statsCounter.added(entry);
+            blockFull = hot.size == blockSize;
+            if (blockFull) {
+                sealed.addLast(hot);
+                hot = new HotBlock(nextSequence, blockSize);
+                pending = sealed.size();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        if (blockFull) {
+            if (closed || pending > MAX_PENDING_BLOCKS) {
+                compressSealed();
+            } else {
+                signalCompressor();
+            }
+        }
+        notifySubscribers(entry);
+    }
+
+    /**
+     * Compresses every block sealed so far on the calling thread, waiting for a compression in
+     * progress on the background thread to finish first.
+     */
+    public void flush() {
+        compressSealed();
+    }
+
+    /**
+     * Stops the background compressor. Blocks sealed afterwards are compressed by the thread that
+     * fills them.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        Thread thread = compressor;
+        if (thread != null) {
+            LockSupport.unpark(thread);
+            try {
+                thread.join(CLOSE_TIMEOUT_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private void signalCompressor() {
+        Thread thread = compressor;
+        if (thread == null) {
+            synchronized (this) {
+                thread = compressor;
+                if (thread == null) {
+                    thread = new Thread(this::runCompressor, "j-obs-log-compressor");
+                    thread.setDaemon(true);
+                    thread.start();
+                    compressor = thread;
+                }
+            }
+        }
+        LockSupport.unpark(thread);
+    }
+
+    private void runCompressor() {
+        while (!closed) {
+            if (oldestSealed() == null) {
+                LockSupport.park(this);
+            } else {
+                compressSealed();
+            }
+        }
+    }
+
+    /**
+     * Compresses sealed blocks oldest first. Only one thread compresses at a time so cold blocks
+     * stay in sequence order.
+     */
+    private void compressSealed() {
+        compressionLock.lock();
+        try {
+            HotBlock block;
+            while ((block = oldestSealed()) != null) {
+                ColdBlock compressed = compress(block);
+                lock.writeLock().lock();
+                try {
+                    // The block is gone if the repository was cleared meanwhile
+                    if (sealed.peekFirst() == block) {
+                        sealed.pollFirst();
+                        cold.addLast(compressed);
+                        compressedBytes += compressed.footprint;
+                        uncompressedBytes += compressed.rawLength;
+                        evictOverBudget();
+                    }
+                } finally {
+                    lock.writeLock().unlock();
+                }
+            }
+        } finally {
+            compressionLock.unlock();
+        }
+    }
+
+    private HotBlock oldestSealed() {
+        lock.readLock().lock();
+        try {
+            return sealed.peekFirst();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Must be called with the write lock held.
+     */
+    private void evictOverBudget() {
+        while (compressedBytes > maxBytes && !cold.isEmpty()) {
+            ColdBlock evicted = cold.pollFirst();
+            compressedBytes -= evicted.footprint;
+            uncompressedBytes -= evicted.rawLength;
+            statsCounter.evicted(evicted.levelCounts, evicted.loggers, evicted.threads);
+        }
+    }
+
+    private ColdBlock compress(HotBlock block) {
+        LogEntryCodec.Encoder encoder = new LogEntryCodec.Encoder();
+        int[] levelCounts = new int[LogLevel.values().length];
+        Map<String, Integer> loggers = new HashMap<>();
+        Map<String, Integer> threads = new HashMap<>();
+        long[] bloom = new long[BLOOM_WORDS];
+        long minNanos = Long.MAX_VALUE;
+        long maxNanos = Long.MIN_VALUE;
+        int levelMask = 0;
+
+        // Raw layout: [int length][codec payload] per entry, in sequence order
+        for (int i = 0; i < block.size; i++) {
+            LogEntry entry = block.entries[i];
+            long nanos = entry.epochNanos();
+            int lengthPosition = encoder.length();
+            encoder.writeInt(0);
+            int end = encoder.append(block.baseSequence + i, nanos, entry, Integer.MAX_VALUE, true);
+            ByteBuffer.wrap(encoder.bytes()).putInt(lengthPosition, end - lengthPosition - Integer.BYTES);
+
+            minNanos = Math.min(minNanos, nanos);
+            maxNanos = Math.max(maxNanos, nanos);
+            levelCounts[entry.level().ordinal()]++;
+            levelMask |= 1 << entry.level().ordinal();
+            if (entry.loggerName() != null) {
+                loggers.merge(entry.loggerName(), 1, Integer::sum);
+            }
+            if (entry.threadName() != null) {
+                threads.merge(entry.threadName(), 1, Integer::sum);
+            }
+            if (entry.traceId() != null) {
+                bloomAdd(bloom, entry.traceId());
+            }
+        }
+
+        byte[] raw = encoder.bytes();
+        int rawLength = encoder.length();
+        byte[] dict = dictionary;
+        if (dict == null) {
+            // The tail of the first block becomes the dictionary: Deflate favours its last bytes
+            dict = Arrays.copyOfRange(raw, Math.max(0, rawLength - MAX_DICTIONARY_BYTES), rawLength);
+            dictionary = dict;
+        }
+
+        Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION);
+        try {
+            deflater.setDictionary(dict);
+            deflater.setInput(raw, 0, rawLength);
+            deflater.finish();
+            byte[] out = new byte[Math.max(64, rawLength / 4)];
+            int length = 0;
+            while (!deflater.finished()) {
+                if (length == out.length) {
+                    out = Arrays.copyOf(out, out.length * 2);
+                }
+                length += deflater.deflate(out, length, out.length - length);
+            }
+            byte[] compressed = Arrays.copyOf(out, length);
+            return new ColdBlock(block.baseSequence, block.size, minNanos, maxNanos, levelMask, bloom,
+                    compressed, rawLength, dict, levelCounts, loggers, threads);
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private Inflated inflate(ColdBlock block) {
+        Inflated cached = lastInflated;
+        if (cached != null && cached.block == block) {
+            return cached;
+        }
+        byte[] raw = new byte[block.rawLength];
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(block.compressed);
+            int length = 0;
+            while (length < raw.length) {
+                int inflated = inflater.inflate(raw, length, raw.length - length);
+                if (inflated == 0) {
+                    if (!inflater.needsDictionary()) {
+                        throw new IllegalStateException("Truncated log block at sequence " + block.baseSequence);
+                    }
+                    inflater.setDictionary(block.dictionary);
+                }
+                length += inflated;
+            }
+        } catch (DataFormatException e) {
+            throw new IllegalStateException("Corrupt log block at sequence " + block.baseSequence, e);
+        } finally {
+            inflater.end();
+        }
+
+        ByteBuffer buffer = ByteBuffer.wrap(raw);
+        int[] offsets = new int[block.count];
+        int position = 0;
+        for (int i = 0; i < block.count; i++) {
+            offsets[i] = position + Integer.BYTES;
+            position = offsets[i] + buffer.getInt(position);
+        }
+        Inflated result = new Inflated(block, buffer, offsets);
+        lastInflated = result;
+        return result;
+    }
+
+    private void notifySubscribers(LogEntry entry) {
+        for (SubscriptionImpl subscription : subscribers) {
+            if (subscription.isActive()) {
+                try {
+                    subscription.consumer.accept(entry);
+                } catch (Exception e) {
+                    // Subscriber issue shouldn't affect main flow
+                }
+            }
+        }
+    }
+
+    @Override
+    public List<LogEntry> query(LogQuery query) {
+        List<LogEntry> result = new ArrayList<>();
+        collect(query, result);
+        return result;
+    }
+
+    /**
+     * Pages by sequence: the returned cursor holds the sequence of the last entry on the page.
+     */
+    @Override
+    public LogPage queryPage(LogQuery query) {
+        List<LogEntry> result = new ArrayList<>();
+        long last = collect(query, result);
+        return new LogPage(result, result.size() < query.limit() ? null : new LogCursor(last));
+    }
+
+    /**
+     * Collects matching entries newest first, honouring limit and either the cursor or the offset.
+     * Returns the sequence of the last collected entry, or -1.
+     */
+    private long collect(LogQuery query, List<LogEntry> result) {
+        long high = Long.MAX_VALUE;
+        int offset = query.offset();
+        if (query.cursor() != null) {
+            high = query.cursor().position() - 1;
+            offset = 0;
+        }
+        int limit = query.limit();
+        if (limit <= 0) {
+            return -1;
+        }
+        int[] skipped = {0};
+        long[] last = {-1};
+        int effectiveOffset = offset;
+        scan(query, high, (sequence, entry) -> {
+            if (skipped[0] < effectiveOffset) {
+                skipped[0]++;
+                return true;
+            }
+            result.add(entry);
+            last[0] = sequence;
+            return result.size() < limit;
+        });
+        return last[0];
+    }
+
+    @Override
+    public long count() {
+        return statsCounter.snapshot().totalEntries();
+    }
+
+    @Override
+    public long count(LogQuery query) {
+        if (!query.hasFilters()) {
+            return count();
+        }
+        if (isTimeAndLevelOnly(query)) {
+            return countBySummaries(query);
+        }
+        long[] matchCount = {0};
+        scan(query, Long.MAX_VALUE, (sequence, entry) -> {
+            matchCount[0]++;
+            return true;
+        });
+        return matchCount[0];
+    }
+
+    private static boolean isTimeAndLevelOnly(LogQuery query) {
+        return query.loggerName() == null && query.messagePattern() == null && query.search() == null
+                && query.traceId() == null && query.spanId() == null && query.threadName() == null;
+    }
+
+    /**
+     * Counts a query on time and level alone. Cold blocks inside the time range are counted from
+     * their level counts; only blocks straddling a bound are inflated, and then only the fixed-size
+     * head of each entry is read.
+     */
+    private long countBySummaries(LogQuery query) {
+        LogEntry[] hotEntries;
+        HotBlock[] sealedBlocks;
+        ColdBlock[] coldBlocks;
+        lock.readLock().lock();
+        try {
+            hotEntries = Arrays.copyOf(hot.entries, hot.size);
+            sealedBlocks = sealed.toArray(new HotBlock[0]);
+            coldBlocks = cold.toArray(new ColdBlock[0]);
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        long total = countMatching(query, hotEntries, hotEntries.length);
+        for (HotBlock block : sealedBlocks) {
+            total += countMatching(query, block.entries, block.size);
+        }
+
+        long fromNanos = query.startTime() != null ? LogEntry.epochNanos(query.startTime()) : Long.MIN_VALUE;
+        long toNanos = query.endTime() != null ? LogEntry.epochNanos(query.endTime()) : Long.MAX_VALUE;
+        int minLevel = query.minLevel() != null ? query.minLevel().ordinal() : 0;
+        for (ColdBlock block : coldBlocks) {
+            if (!block.mayMatch(query, fromNanos, toNanos)) {
+                continue;
+            }
+            if (block.minNanos >= fromNanos && block.maxNanos <= toNanos) {
+                for (int level = minLevel; level < block.levelCounts.length; level++) {
+                    total += block.levelCounts[level];
+                }
+                continue;
+            }
+            Inflated inflated = inflate(block);
+            for (int i = 0; i < block.count; i++) {
+                int position = inflated.offsets[i];
+                long nanos = LogEntryCodec.epochNanos(inflated.buffer, position);
+                if (LogEntryCodec.level(inflated.buffer, position) >= minLevel
+                        && nanos >= fromNanos && nanos <= toNanos) {
+                    total++;
+                }
+            }
+        }
+        return total;
+    }
+
+    private static long countMatching(LogQuery query, LogEntry[] entries, int size) {
+        long matching = 0;
+        for (int i = 0; i < size; i++) {
+            if (query.matches(entries[i])) {
+                matching++;
+            }
+        }
+        return matching;
+    }
+
+    /**
+     * Visits entries matching {@code query} with a sequence up to {@code high}, newest first:
+     * the hot block, then sealed blocks awaiting compression, then cold blocks whose summary
+     * does not rule them out.
+     */
+    private void scan(LogQuery query, long high, Visitor visitor) {
+        LogEntry[] hotEntries;
+        long hotBase;
+        HotBlock[] sealedBlocks;
+        ColdBlock[] coldBlocks;
+        lock.readLock().lock();
+        try {
+            hotEntries = Arrays.copyOf(hot.entries, hot.size);
+            hotBase = hot.baseSequence;
+            sealedBlocks = sealed.toArray(new HotBlock[0]);
+            coldBlocks = cold.toArray(new ColdBlock[0]);
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        if (!visitEntries(query, high, hotBase, hotEntries, hotEntries.length, visitor)) {
+            return;
+        }
+        for (int b = sealedBlocks.length - 1; b >= 0; b--) {
+            HotBlock block = sealedBlocks[b];
+            if (!visitEntries(query, high, block.baseSequence, block.entries, block.size, visitor)) {
+                return;
+            }
+        }
+
+        long fromNanos = query.startTime() != null ? LogEntry.epochNanos(query.startTime()) : Long.MIN_VALUE;
+        long toNanos = query.endTime() != null ? LogEntry.epochNanos(query.endTime()) : Long.MAX_VALUE;
+        int minLevel = query.minLevel() != null ? query.minLevel().ordinal() : 0;
+        for (int b = coldBlocks.length - 1; b >= 0; b--) {
+            ColdBlock block = coldBlocks[b];
+            if (block.baseSequence > high || !block.mayMatch(query, fromNanos, toNanos)) {
+                continue;
+            }
+            Inflated inflated = inflate(block);
+            for (int i = block.count - 1; i >= 0; i--) {
+                long sequence = block.baseSequence + i;
+                int position = inflated.offsets[i];
+                // Check the fixed-size head before decoding the whole entry
+                if (sequence > high || LogEntryCodec.level(inflated.buffer, position) < minLevel) {
+                    continue;
+                }
+                long nanos = LogEntryCodec.epochNanos(inflated.buffer, position);
+                if (nanos < fromNanos || nanos > toNanos) {
+                    continue;
+                }
+                LogEntry entry = LogEntryCodec.decode(inflated.buffer, position);
+                if (query.matches(entry) && !visitor.visit(sequence, entry)) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private static boolean visitEntries(LogQuery query, long high, long base, LogEntry[] entries, int size,
+                                        Visitor visitor) {
+        for (int i = size - 1; i >= 0; i--) {
+            long sequence = base + i;
+            if (sequence <= high && query.matches(entries[i]) && !visitor.visit(sequence, entries[i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            hot = new HotBlock(nextSequence, blockSize);
+            sealed.clear();
+            cold.clear();
+            compressedBytes = 0;
+            uncompressedBytes = 0;
+            statsCounter.clear();
+            lastInflated = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public LogStats stats() {
+        return statsCounter.snapshot();
+    }
+
+    @Override
+    public Subscription subscribe(Consumer<LogEntry> subscriber) {
+        SubscriptionImpl subscription = new SubscriptionImpl(subscriber);
+        subscribers.add(subscription);
+        return subscription;
+    }
+
+    /**
+     * Returns the memory held by compressed blocks and their summaries, in bytes.
+     */
+    public long compressedBytes() {
+        lock.readLock().lock();
+        try {
+            return compressedBytes;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the encoded size of the entries held in compressed blocks, in bytes.
+     */
+    public long uncompressedBytes() {
+        lock.readLock().lock();
+        try {
+            return uncompressedBytes;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the ratio of encoded to compressed bytes, or 0 if nothing has been compressed yet.
+     */
+    public double compressionRatio() {
+        lock.readLock().lock();
+        try {
+            return compressedBytes == 0 ? 0.0 : (double) uncompressedBytes / compressedBytes;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the number of compressed blocks.
+     */
+    public int compressedBlockCount() {
+        lock.readLock().lock();
+        try {
+            return cold.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the configured budget for compressed blocks, in bytes.
+     */
+    public long maxBytes() {
+        return maxBytes;
+    }
+
+    private static void bloomAdd(long[] bloom, String key) {
+        long hash = mix(key.hashCode());
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        int bits = bloom.length * Long.SIZE;
+        for (int i = 0; i < BLOOM_HASHES; i++) {
+            int bit = Math.floorMod(h1 + i * h2, bits);
+            bloom[bit >>> 6] |= 1L << bit;
+        }
+    }
+
+    private static boolean bloomMightContain(long[] bloom, String key) {
+        long hash = mix(key.hashCode());
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        int bits = bloom.length * Long.SIZE;
+        for (int i = 0; i < BLOOM_HASHES; i++) {
+            int bit = Math.floorMod(h1 + i * h2, bits);
+            if ((bloom[bit >>> 6] & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static long mix(int hashCode) {
+        // MurmurHash3 fmix64 finalizer spreads String.hashCode over 64 bits
+        long h = hashCode * 0x9E3779B97F4A7C15L;
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB9FE1A85EC53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    @FunctionalInterface
+    private interface Visitor {
+        /**
+         * Returns false to stop the scan.
+         */
+        boolean visit(long sequence, LogEntry entry);
+    }
+
+    /**
+     * Block being filled (or sealed and awaiting compression). Entries are never modified once
+     * written, and a sealed block is never written again.
+     */
+    private static final class HotBlock {
+        final long baseSequence;
+        final LogEntry[] entries;
+        int size;
+
+        HotBlock(long baseSequence, int blockSize) {
+            this.baseSequence = baseSequence;
+            this.entries = new LogEntry[blockSize];
+        }
+    }
+
+    /**
+     * Immutable compressed block with the summary used to skip it.
+     */
+    private static final class ColdBlock {
+        final long baseSequence;
+        final int count;
+        final long minNanos;
+        final long maxNanos;
+        final int levelMask;
+        final long[] traceBloom;
+        final byte[] compressed;
+        final int rawLength;
+        final byte[] dictionary;
+        final int[] levelCounts;
+        final Map<String, Integer> loggers;
+        final Map<String, Integer> threads;
+        final long footprint;
+
+        ColdBlock(long baseSequence, int count, long minNanos, long maxNanos, int levelMask, long[] traceBloom,
+                  byte[] compressed, int rawLength, byte[] dictionary, int[] levelCounts,
+                  Map<String, Integer> loggers, Map<String, Integer> threads) {
+            this.baseSequence = baseSequence;
+            this.count = count;
+            this.minNanos = minNanos;
+            this.maxNanos = maxNanos;
+            this.levelMask = levelMask;
+            this.traceBloom = traceBloom;
+            this.compressed = compressed;
+            this.rawLength = rawLength;
+            this.dictionary = dictionary;
+            this.levelCounts = levelCounts;
+            this.loggers = loggers;
+            this.threads = threads;
+            this.footprint = compressed.length + (long) traceBloom.length * Long.BYTES + BLOCK_OVERHEAD_BYTES
+                    + (long) (loggers.size() + threads.size()) * NAME_OVERHEAD_BYTES;
+        }
+
+        /**
+         * Returns false if the summary proves that no entry of this block matches.
+         */
+        boolean mayMatch(LogQuery query, long fromNanos, long toNanos) {
+            if (maxNanos < fromNanos || minNanos > toNanos) {
+                return false;
+            }
+            if (query.minLevel() != null && (levelMask >>> query.minLevel().ordinal()) == 0) {
+                return false;
+            }
+            if (query.traceId() != null && !bloomMightContain(traceBloom, query.traceId())) {
+                return false;
+            }
+            if (query.threadName() != null && !threads.containsKey(query.threadName())) {
+                return false;
+            }
+            if (query.loggerName() != null) {
+                for (String logger : loggers.keySet()) {
+                    if (logger.contains(query.loggerName())) {
+                        return true;
+                    }
+                }
+                return false;
+            }
+            return true;
+        }
+    }
+
+    private record Inflated(ColdBlock block, ByteBuffer buffer, int[] offsets) {
+    }
+
+    private class SubscriptionImpl implements Subscription {
+        private final Consumer<LogEntry> consumer;
+        private volatile boolean active = true;
+
+        SubscriptionImpl(Consumer<LogEntry> consumer) {
+            this.consumer = consumer;
+        }
+
+        @Override
+        public void unsubscribe() {
+            active = false;
+            subscribers.remove(this);
+        }
+
+        @Override
+        public boolean isActive() {
+            return active;
+        }
+    }
+}
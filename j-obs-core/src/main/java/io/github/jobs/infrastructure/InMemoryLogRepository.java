@@ -1,10 +1,16 @@
 package io.github.jobs.infrastructure;
 
 import io.github.jobs.application.LogRepository;
+import io.github.jobs.domain.log.LogCursor;
 import io.github.jobs.domain.log.LogEntry;
+import io.github.jobs.domain.log.LogFacets;
 import io.github.jobs.domain.log.LogLevel;
+import io.github.jobs.domain.log.LogPage;
 import io.github.jobs.domain.log.LogQuery;
+import io.github.jobs.domain.log.LogSearchQuery;
 
+import java.time.Duration;
+import java.time.Instant;
 import java.util.*;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
@@ -13,15 +19,42 @@ import java.util.function.Consumer;
 /**
  * In-memory implementation of LogRepository using a circular buffer.
  * Thread-safe with support for real-time subscriptions.
+ * <p>
+ * Unless disabled, an inverted token index is maintained alongside the buffer so queries with a
+ * {@link LogQuery#search() search expression} only visit entries whose postings match instead of
+ * scanning the whole buffer. Substring filters ({@link LogQuery#messagePattern()}) still scan.
+ * <p>
+ * Trace and span ids are always indexed, so log-to-trace correlation
+ * ({@link LogQuery#byTraceId(String)}) costs O(matches) rather than O(buffer size).
+ * <p>
+ * Entries are addressed by a monotonic sequence number. Every block of {@value #BLOCK_SIZE}
+ * consecutive sequences keeps the min/max timestamp of its entries, so time-bounded queries skip
+ * whole blocks outside the range, and {@link #queryPage(LogQuery)} returns a sequence cursor so
+ * the next page resumes where the previous one ended.
+ * <p>
+ * Per-second counts by level, logger and thread are kept alongside the buffer, so
+ * {@link #facets(LogQuery, int, Duration)} answers level and time filtered queries without
+ * visiting entries.
  */
 public class InMemoryLogRepository implements LogRepository {
 
     private static final int DEFAULT_MAX_ENTRIES = 10000;
+    static final int BLOCK_SIZE = 256;
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
 
     private final LogEntry[] buffer;
     private final int maxEntries;
     private int head = 0;
     private int size = 0;
+    private long nextSequence = 0;
+    private final LogTokenIndex tokenIndex;
+    private final String[][] slotTokens;
+    private final LogTokenIndex traceIndex = new LogTokenIndex();
+    private final LogTokenIndex spanIndex = new LogTokenIndex();
+    private final long[] blockMinNanos;
+    private final long[] blockMaxNanos;
+    private final LogStatsCounter statsCounter = new LogStatsCounter();
+    private final LogFacetIndex facetIndex = new LogFacetIndex();
     private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
     private final List<SubscriptionImpl> subscribers = new CopyOnWriteArrayList<>();
 
@@ -30,16 +63,57 @@ public class InMemoryLogRepository implements LogRepository {
     }
 
     public InMemoryLogRepository(int maxEntries) {
+        this(maxEntries, true);
+    }
+
+    /**
+     * Creates a repository retaining the most recent {@code maxEntries} entries.
+     *
+     * @param searchIndex whether to maintain the full-text token index
+     */
+    public InMemoryLogRepository(int maxEntries, boolean searchIndex) {
         this.maxEntries = maxEntries;
         this.buffer = new LogEntry[maxEntries];
+        this.tokenIndex = searchIndex ? new LogTokenIndex() : null;
+        this.slotTokens = searchIndex ? new String[maxEntries][] : null;
+        // One block more than the buffer spans, since the oldest block may be partly overwritten
+        int blocks = (maxEntries + BLOCK_SIZE - 1) / BLOCK_SIZE + 1;
+        this.blockMinNanos = new long[blocks];
+        this.blockMaxNanos = new long[blocks];
     }
 
     @Override
     public void add(LogEntry entry) {
+        // Tokenize outside the lock; only posting maintenance happens while holding it
+        String[] tokens = tokenIndex != null ? LogSearchQuery.tokens(entry.message()) : null;
+
         lock.writeLock().lock();
         try {
+            long sequence = nextSequence;
+            if (size == maxEntries) {
+                // Overwriting the oldest entry: drop it from every index first
+                long evictedSequence = sequence - maxEntries;
+                LogEntry evicted = buffer[head];
+                statsCounter.evicted(evicted);
+                facetIndex.evicted(evicted);
+                traceIndex.remove(evictedSequence, evicted.traceId());
+                spanIndex.remove(evictedSequence, evicted.spanId());
+                if (tokenIndex != null) {
+                    tokenIndex.remove(evictedSequence, slotTokens[head]);
+                }
+            }
+            traceIndex.add(sequence, entry.traceId());
+            spanIndex.add(sequence, entry.spanId());
+            if (tokenIndex != null) {
+                tokenIndex.add(sequence, tokens);
+                slotTokens[head] = tokens;
+            }
+            recordBlockTime(sequence, entry.epochNanos());
+            statsCounter.added(entry);
+            facetIndex.added(entry);
             buffer[head] = entry;
             head = (head + 1) % maxEntries;
+            nextSequence++;
             if (size < maxEntries) {
                 size++;
             }
@@ -67,35 +141,116 @@ public class InMemoryLogRepository implements LogRepository {
     public List<LogEntry> query(LogQuery query) {
         lock.readLock().lock();
         try {
-            // Efficient pagination: iterate directly in reverse order (newest first)
-            // without creating intermediate collections
             List<LogEntry> result = new ArrayList<>(Math.min(query.limit(), size));
-            int skipped = 0;
-            int collected = 0;
-            int offset = query.offset();
-            int limit = query.limit();
-
-            // Iterate in reverse order (newest first) directly on buffer
-            for (int i = 0; i < size && collected < limit; i++) {
-                // Calculate index for reverse iteration (newest first)
-                // head points to next write position, so head-1 is most recent
-                int index = (head - 1 - i + maxEntries) % maxEntries;
-                LogEntry entry = buffer[index];
+            collect(query, result);
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Pages by sequence: the returned cursor holds the sequence of the last entry on the page,
+     * so the next page resumes right below it without re-skipping earlier matches.
+     */
+    @Override
+    public LogPage queryPage(LogQuery query) {
+        lock.readLock().lock();
+        try {
+            List<LogEntry> result = new ArrayList<>(Math.min(query.limit(), size));
+            long last = collect(query, result);
+            LogCursor next = result.size() < query.limit() ? null : new LogCursor(last);
+            return new LogPage(result, next);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
 
+    /**
+     * Collects matching entries newest first into {@code result}, honouring limit and either the
+     * cursor or the offset. Returns the sequence of the last collected entry, or -1.
+     * Must be called with the lock held.
+     */
+    private long collect(LogQuery query, List<LogEntry> result) {
+        long low = nextSequence - size;
+        long high = nextSequence - 1;
+        int skipped = 0;
+        int offset = query.offset();
+        if (query.cursor() != null) {
+            high = Math.min(high, query.cursor().position() - 1);
+            offset = 0;
+        }
+        int limit = query.limit();
+        long last = -1;
+
+        long[] candidates = candidates(query);
+        if (candidates != null) {
+            // Candidates are ascending, so walk them backwards for newest first
+            int i = Arrays.binarySearch(candidates, high);
+            i = i >= 0 ? i : -i - 2;
+            for (; i >= 0 && candidates[i] >= low && result.size() < limit; i--) {
+                LogEntry entry = entryAt(candidates[i]);
                 if (entry != null && query.matches(entry)) {
                     if (skipped < offset) {
                         skipped++;
                     } else {
                         result.add(entry);
-                        collected++;
+                        last = candidates[i];
                     }
                 }
             }
+            return last;
+        }
 
-            return result;
-        } finally {
-            lock.readLock().unlock();
+        TimeRange range = TimeRange.of(query);
+        long sequence = high;
+        while (sequence >= low && result.size() < limit) {
+            if (range != null && !overlapsBlock(sequence, range)) {
+                // Seek past the whole block: none of its entries can fall inside the time range
+                sequence = blockStart(sequence) - 1;
+                continue;
+            }
+            LogEntry entry = entryAt(sequence);
+            if (entry != null && query.matches(entry)) {
+                if (skipped < offset) {
+                    skipped++;
+                } else {
+                    result.add(entry);
+                    last = sequence;
+                }
+            }
+            sequence--;
+        }
+        return last;
+    }
+
+    /**
+     * Returns ascending candidate sequences from the secondary indexes, or null if no index
+     * applies and the query must scan. Must be called with the lock held.
+     */
+    private long[] candidates(LogQuery query) {
+        long[] result = null;
+        if (query.traceId() != null) {
+            result = traceIndex.postings(query.traceId());
+        }
+        if (query.spanId() != null) {
+            result = narrow(result, spanIndex.postings(query.spanId()));
+        }
+        if (tokenIndex != null && query.search() != null) {
+            result = narrow(result, tokenIndex.candidates(query.search().root()));
+        }
+        return result;
+    }
+
+    private static long[] narrow(long[] current, long[] candidates) {
+        if (candidates == null) {
+            return current;
         }
+        return current == null ? candidates : LogTokenIndex.intersect(current, candidates);
+    }
+
+    private LogEntry entryAt(long sequence) {
+        return buffer[(int) (sequence % maxEntries)];
     }
 
     @Override
@@ -112,87 +267,174 @@ public class InMemoryLogRepository implements LogRepository {
     public long count(LogQuery query) {
         lock.readLock().lock();
         try {
-            // Efficient count: iterate directly without creating intermediate collections
+            long low = nextSequence - size;
             long matchCount = 0;
-            int start = (size < maxEntries) ? 0 : head;
 
-            for (int i = 0; i < size; i++) {
-                int index = (start + i) % maxEntries;
-                LogEntry entry = buffer[index];
+            long[] candidates = candidates(query);
+            if (candidates != null) {
+                for (long sequence : candidates) {
+                    LogEntry entry = entryAt(sequence);
+                    if (entry != null && query.matches(entry)) {
+                        matchCount++;
+                    }
+                }
+                return matchCount;
+            }
+
+            // Efficient count: iterate directly without creating intermediate collections
+            TimeRange range = TimeRange.of(query);
+            long sequence = low;
+            while (sequence < nextSequence) {
+                if (range != null && !overlapsBlock(sequence, range)) {
+                    sequence = blockStart(sequence) + BLOCK_SIZE;
+                    continue;
+                }
+                LogEntry entry = entryAt(sequence);
                 if (entry != null && query.matches(entry)) {
                     matchCount++;
                 }
+                sequence++;
             }
-
             return matchCount;
         } finally {
             lock.readLock().unlock();
         }
     }
 
+    /**
+     * Merges the per-second facet buckets for queries filtered only by level and time. Partial
+     * seconds at the edges of the time range, and queries with any other filter, are answered
+     * by visiting the matching entries.
+     */
+    @Override
+    public LogFacets facets(LogQuery query, int topN, Duration interval) {
+        LogFacets.Collector collector = new LogFacets.Collector(interval, query.minLevel());
+        lock.readLock().lock();
+        try {
+            if (query.loggerName() != null || query.messagePattern() != null || query.search() != null
+                    || query.traceId() != null || query.spanId() != null || query.threadName() != null) {
+                collectEntries(query, Long.MIN_VALUE, Long.MAX_VALUE, collector);
+                return collector.build(topN);
+            }
+            long fromNanos = query.startTime() != null ? LogEntry.epochNanos(query.startTime()) : Long.MIN_VALUE;
+            long toNanos = query.endTime() != null ? LogEntry.epochNanos(query.endTime()) : Long.MAX_VALUE;
+            boolean partialFrom = fromNanos != Long.MIN_VALUE && Math.floorMod(fromNanos, NANOS_PER_SECOND) != 0;
+            boolean partialTo = toNanos != Long.MAX_VALUE
+                    && Math.floorMod(toNanos, NANOS_PER_SECOND) != NANOS_PER_SECOND - 1;
+            long fromSecond = fromNanos == Long.MIN_VALUE ? Long.MIN_VALUE
+                    : Math.floorDiv(fromNanos, NANOS_PER_SECOND) + (partialFrom ? 1 : 0);
+            long toSecond = toNanos == Long.MAX_VALUE ? Long.MAX_VALUE
+                    : Math.floorDiv(toNanos, NANOS_PER_SECOND) - (partialTo ? 1 : 0);
+            if (fromSecond > toSecond) {
+                // The range lies within one or two partial seconds
+                collectEntries(query, fromNanos, toNanos, collector);
+                return collector.build(topN);
+            }
+            facetIndex.collect(fromSecond, toSecond, collector);
+            if (partialFrom) {
+                collectEntries(query, fromNanos, fromSecond * NANOS_PER_SECOND - 1, collector);
+            }
+            if (partialTo) {
+                collectEntries(query, (toSecond + 1) * NANOS_PER_SECOND, toNanos, collector);
+            }
+            return collector.build(topN);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Adds every entry matching {@code query} within the inclusive nanosecond bounds to
+     * {@code collector}. Must be called with the lock held.
+     */
+    private void collectEntries(LogQuery query, long fromNanos, long toNanos, LogFacets.Collector collector) {
+        LogQuery.Builder bounded = query.toBuilder().limit(Integer.MAX_VALUE).offset(0).cursor(null);
+        if (fromNanos != Long.MIN_VALUE) {
+            bounded.startTime(Instant.ofEpochSecond(0, fromNanos));
+        }
+        if (toNanos != Long.MAX_VALUE) {
+            bounded.endTime(Instant.ofEpochSecond(0, toNanos));
+        }
+        List<LogEntry> entries = new ArrayList<>();
+        collect(bounded.build(), entries);
+        entries.forEach(collector::add);
+    }
+
+    private static long blockStart(long sequence) {
+        return sequence - (sequence % BLOCK_SIZE);
+    }
+
+    private int blockIndex(long sequence) {
+        return (int) ((sequence / BLOCK_SIZE) % blockMinNanos.length);
+    }
+
+    /**
+     * Records {@code timestamp} in the min/max metadata of the block holding {@code sequence}.
+     * Must be called with the write lock held.
+     */
+    private void recordBlockTime(long sequence, long nanos) {
+        int block = blockIndex(sequence);
+        if (sequence % BLOCK_SIZE == 0) {
+            blockMinNanos[block] = nanos;
+            blockMaxNanos[block] = nanos;
+        } else {
+            // Bounds may still include entries evicted from a partly overwritten block;
+            // a wider range only costs a scan, never a missed entry
+            blockMinNanos[block] = Math.min(blockMinNanos[block], nanos);
+            blockMaxNanos[block] = Math.max(blockMaxNanos[block], nanos);
+        }
+    }
+
+    private boolean overlapsBlock(long sequence, TimeRange range) {
+        int block = blockIndex(sequence);
+        return blockMaxNanos[block] >= range.fromNanos() && blockMinNanos[block] <= range.toNanos();
+    }
+
+    /**
+     * Inclusive time bounds of a query in epoch nanoseconds.
+     */
+    private record TimeRange(long fromNanos, long toNanos) {
+
+        /**
+         * Returns the query's time bounds, or null if it has none.
+         */
+        static TimeRange of(LogQuery query) {
+            if (query.startTime() == null && query.endTime() == null) {
+                return null;
+            }
+            return new TimeRange(
+                    query.startTime() != null ? LogEntry.epochNanos(query.startTime()) : Long.MIN_VALUE,
+                    query.endTime() != null ? LogEntry.epochNanos(query.endTime()) : Long.MAX_VALUE);
+        }
+    }
+
     @Override
     public void clear() {
         lock.writeLock().lock();
         try {
             Arrays.fill(buffer, null);
-            head = 0;
+            // Sequences keep counting so cursors issued before the clear stay valid (and empty)
+            head = (int) (nextSequence % maxEntries);
             size = 0;
+            statsCounter.clear();
+            facetIndex.clear();
+            traceIndex.clear();
+            spanIndex.clear();
+            if (tokenIndex != null) {
+                tokenIndex.clear();
+                Arrays.fill(slotTokens, null);
+            }
         } finally {
             lock.writeLock().unlock();
         }
     }
 
+    /**
+     * Returns statistics maintained incrementally on add and eviction; O(1) and lock-free.
+     */
     @Override
     public LogStats stats() {
-        lock.readLock().lock();
-        try {
-            // Single-pass calculation for O(n) performance
-            long errorCount = 0;
-            long warnCount = 0;
-            long infoCount = 0;
-            long debugCount = 0;
-            long traceCount = 0;
-            Set<String> uniqueLoggers = new HashSet<>();
-            Set<String> uniqueThreads = new HashSet<>();
-
-            // Iterate directly over the buffer without creating intermediate list
-            int start = (size < maxEntries) ? 0 : head;
-            for (int i = 0; i < size; i++) {
-                int index = (start + i) % maxEntries;
-                LogEntry entry = buffer[index];
-                if (entry == null) continue;
-
-                // Count by level
-                switch (entry.level()) {
-                    case ERROR -> errorCount++;
-                    case WARN -> warnCount++;
-                    case INFO -> infoCount++;
-                    case DEBUG -> debugCount++;
-                    case TRACE -> traceCount++;
-                }
-
-                // Collect unique loggers and threads
-                if (entry.loggerName() != null) {
-                    uniqueLoggers.add(entry.loggerName());
-                }
-                if (entry.threadName() != null) {
-                    uniqueThreads.add(entry.threadName());
-                }
-            }
-
-            return new LogStats(
-                    size,
-                    errorCount,
-                    warnCount,
-                    infoCount,
-                    debugCount,
-                    traceCount,
-                    uniqueLoggers.size(),
-                    uniqueThreads.size()
-            );
-        } finally {
-            lock.readLock().unlock();
-        }
+        return statsCounter.snapshot();
     }
 
     @Override
@@ -209,6 +451,26 @@ public class InMemoryLogRepository implements LogRepository {
         return maxEntries;
     }
 
+    /**
+     * Returns the number of entries of {@code level} added since creation, including evicted
+     * and cleared ones. Monotonic, suitable for rate calculations.
+     */
+    public long ingestedCount(LogLevel level) {
+        return statsCounter.ingested(level);
+    }
+
+    /**
+     * Returns the number of distinct tokens in the search index, or 0 if it is disabled.
+     */
+    public int indexedTermCount() {
+        lock.readLock().lock();
+        try {
+            return tokenIndex != null ? tokenIndex.termCount() : 0;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
     private class SubscriptionImpl implements Subscription {
         private final Consumer<LogEntry> consumer;
         private volatile boolean active = true;
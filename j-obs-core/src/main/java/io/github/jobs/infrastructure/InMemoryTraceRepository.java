@@ -81,6 +81,32 @@ public class InMemoryTraceRepository implements TraceRepository, Closeable {
         }
     }
 
+    /**
+     * Adds all spans under a single write lock acquisition.
+     */
+    @Override
+    public void addSpans(Collection<Span> spans) {
+        if (spans.isEmpty()) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            for (Span span : spans) {
+                TraceEntry entry = traces.computeIfAbsent(
+                    span.traceId(),
+                    id -> new TraceEntry(id, insertionCounter++)
+                );
+                entry.addSpan(span);
+                entry.touch();
+            }
+            while (traces.size() > maxTraces) {
+                evictOldest();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
     @Override
     public Optional<Trace> findByTraceId(String traceId) {
         lock.readLock().lock();
@@ -0,0 +1,227 @@
+package io.github.jobs.infrastructure;
+
+import io.github.jobs.domain.log.LogEntry;
+import io.github.jobs.domain.log.LogLevel;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Binary encoding of a {@link LogEntry} shared by the serialized log stores.
+ * <p>
+ * Layout: {@code long sequence, long epochNanos, byte level}, then logger, thread, id, trace id,
+ * span id, message and throwable as UTF-8 strings with an int length prefix ({@code -1} for null),
+ * then an int MDC size followed by key/value strings. The fixed-size head lets stores read the
+ * sequence, timestamp, level, logger and thread without decoding the rest.
+ * <p>
+ * Decoding uses absolute gets only, so concurrent readers can share one buffer.
+ */
+final class LogEntryCodec {
+
+    static final int SEQUENCE_OFFSET = 0;
+    static final int NANOS_OFFSET = 8;
+    static final int LEVEL_OFFSET = 16;
+    static final int LOGGER_OFFSET = 17;
+
+    private static final LogLevel[] LEVELS = LogLevel.values();
+
+    private LogEntryCodec() {
+    }
+
+    static long sequence(ByteBuffer buffer, int position) {
+        return buffer.getLong(position + SEQUENCE_OFFSET);
+    }
+
+    static long epochNanos(ByteBuffer buffer, int position) {
+        return buffer.getLong(position + NANOS_OFFSET);
+    }
+
+    static byte level(ByteBuffer buffer, int position) {
+        return buffer.get(position + LEVEL_OFFSET);
+    }
+
+    static String loggerName(ByteBuffer buffer, int position) {
+        return new Reader(buffer, position + LOGGER_OFFSET).readString();
+    }
+
+    static String threadName(ByteBuffer buffer, int position) {
+        Reader reader = new Reader(buffer, position + LOGGER_OFFSET);
+        reader.skipString();
+        return reader.readString();
+    }
+
+    /**
+     * Decodes the entry encoded at {@code position}.
+     */
+    static LogEntry decode(ByteBuffer buffer, int position) {
+        Reader reader = new Reader(buffer, position + NANOS_OFFSET);
+        long nanos = reader.readLong();
+        LogLevel level = LEVELS[reader.readByte()];
+        String logger = reader.readString();
+        String thread = reader.readString();
+        String id = reader.readString();
+        String traceId = reader.readString();
+        String spanId = reader.readString();
+        String message = reader.readString();
+        String throwable = reader.readString();
+        int mdcSize = reader.readInt();
+        Map<String, String> mdc = Map.of();
+        if (mdcSize > 0) {
+            mdc = new LinkedHashMap<>(mdcSize * 2);
+            for (int i = 0; i < mdcSize; i++) {
+                mdc.put(reader.readString(), reader.readString());
+            }
+        }
+        return LogEntry.builder()
+                .id(id)
+                .timestamp(Instant.ofEpochSecond(Math.floorDiv(nanos, 1_000_000_000L), Math.floorMod(nanos, 1_000_000_000L)))
+                .level(level)
+                .loggerName(logger)
+                .threadName(thread)
+                .traceId(traceId)
+                .spanId(spanId)
+                .message(message)
+                .throwable(throwable)
+                .mdc(mdc)
+                .build();
+    }
+
+    /**
+     * Reusable encoder; not thread-safe.
+     */
+    static final class Encoder {
+        private byte[] bytes = new byte[512];
+        private int length;
+
+        /**
+         * Encodes an entry into {@link #bytes()}, truncating strings to {@code maxFieldChars}.
+         *
+         * @return the encoded length
+         */
+        int encode(long sequence, long epochNanos, LogEntry entry, int maxFieldChars, boolean includeMdc) {
+            length = 0;
+            return append(sequence, epochNanos, entry, maxFieldChars, includeMdc);
+        }
+
+        /**
+         * Appends an encoded entry after the bytes already in {@link #bytes()}.
+         *
+         * @return the total length
+         */
+        int append(long sequence, long epochNanos, LogEntry entry, int maxFieldChars, boolean includeMdc) {
+            writeLong(sequence);
+            writeLong(epochNanos);
+            writeByte(entry.level().ordinal());
+            writeString(entry.loggerName(), maxFieldChars);
+            writeString(entry.threadName(), maxFieldChars);
+            writeString(entry.id(), maxFieldChars);
+            writeString(entry.traceId(), maxFieldChars);
+            writeString(entry.spanId(), maxFieldChars);
+            writeString(entry.message(), maxFieldChars);
+            writeString(entry.throwable(), maxFieldChars);
+            Map<String, String> mdc = includeMdc ? entry.mdc() : Map.of();
+            writeInt(mdc.size());
+            for (Map.Entry<String, String> e : mdc.entrySet()) {
+                writeString(e.getKey(), maxFieldChars);
+                writeString(e.getValue(), maxFieldChars);
+            }
+            return length;
+        }
+
+        void reset() {
+            length = 0;
+        }
+
+        byte[] bytes() {
+            return bytes;
+        }
+
+        int length() {
+            return length;
+        }
+
+        void writeByte(int value) {
+            ensureCapacity(1);
+            bytes[length++] = (byte) value;
+        }
+
+        void writeInt(int value) {
+            ensureCapacity(Integer.BYTES);
+            ByteBuffer.wrap(bytes, length, Integer.BYTES).putInt(value);
+            length += Integer.BYTES;
+        }
+
+        void writeLong(long value) {
+            ensureCapacity(Long.BYTES);
+            ByteBuffer.wrap(bytes, length, Long.BYTES).putLong(value);
+            length += Long.BYTES;
+        }
+
+        private void writeString(String value, int maxChars) {
+            if (value == null) {
+                writeInt(-1);
+                return;
+            }
+            byte[] utf8 = (value.length() > maxChars ? value.substring(0, maxChars) : value)
+                    .getBytes(StandardCharsets.UTF_8);
+            writeInt(utf8.length);
+            ensureCapacity(utf8.length);
+            System.arraycopy(utf8, 0, bytes, length, utf8.length);
+            length += utf8.length;
+        }
+
+        private void ensureCapacity(int extra) {
+            if (length + extra > bytes.length) {
+                bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, length + extra));
+            }
+        }
+    }
+
+    private static final class Reader {
+        private final ByteBuffer buffer;
+        private int position;
+
+        Reader(ByteBuffer buffer, int position) {
+            this.buffer = buffer;
+            this.position = position;
+        }
+
+        int readByte() {
+            return buffer.get(position++);
+        }
+
+        int readInt() {
+            int value = buffer.getInt(position);
+            position += Integer.BYTES;
+            return value;
+        }
+
+        long readLong() {
+            long value = buffer.getLong(position);
+            position += Long.BYTES;
+            return value;
+        }
+
+        String readString() {
+            int length = readInt();
+            if (length < 0) {
+                return null;
+            }
+            byte[] utf8 = new byte[length];
+            buffer.get(position, utf8);
+            position += length;
+            return new String(utf8, StandardCharsets.UTF_8);
+        }
+
+        void skipString() {
+            int length = readInt();
+            if (length > 0) {
+                position += length;
+            }
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package io.github.jobs.infrastructure;
+
+import io.github.jobs.domain.log.LogEntry;
+import io.github.jobs.domain.log.LogFacets;
+import io.github.jobs.domain.log.LogLevel;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * Per-second counts of the entries held by a log store, by level, logger and thread.
+ * <p>
+ * The owning store calls {@link #added(LogEntry)} and {@link #evicted(LogEntry)} as entries
+ * enter and leave it, so facets over whole seconds are answered by merging these buckets
+ * without visiting entries. Not thread-safe; the owner serializes access.
+ */
+final class LogFacetIndex {
+
+    private static final int LEVELS = LogLevel.values().length;
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+
+    private final TreeMap<Long, Second> seconds = new TreeMap<>();
+    // Entries mostly arrive in time order, so the newest bucket is cached to skip the tree lookup
+    private Second latest;
+
+    void added(LogEntry entry) {
+        long epochSecond = epochSecond(entry);
+        Second second = latest != null && latest.epochSecond == epochSecond ? latest : null;
+        if (second == null) {
+            second = seconds.computeIfAbsent(epochSecond, Second::new);
+            if (latest == null || epochSecond >= latest.epochSecond) {
+                latest = second;
+            }
+        }
+        second.add(entry, 1);
+    }
+
+    void evicted(LogEntry entry) {
+        long epochSecond = epochSecond(entry);
+        Second second = seconds.get(epochSecond);
+        if (second == null) {
+            return;
+        }
+        second.add(entry, -1);
+        if (second.total == 0) {
+            seconds.remove(epochSecond);
+            if (second == latest) {
+                latest = null;
+            }
+        }
+    }
+
+    void clear() {
+        seconds.clear();
+        latest = null;
+    }
+
+    /**
+     * Adds the buckets of the whole seconds {@code fromSecond} to {@code toSecond} (inclusive)
+     * to {@code collector}.
+     */
+    void collect(long fromSecond, long toSecond, LogFacets.Collector collector) {
+        if (fromSecond > toSecond) {
+            return;
+        }
+        NavigableMap<Long, Second> range = seconds.subMap(fromSecond, true, toSecond, true);
+        for (Second second : range.values()) {
+            collector.addSecond(second.epochSecond, second.levels, second.loggers, second.threads);
+        }
+    }
+
+    /**
+     * Returns the number of non-empty seconds tracked.
+     */
+    int size() {
+        return seconds.size();
+    }
+
+    static long epochSecond(LogEntry entry) {
+        return Math.floorDiv(entry.epochNanos(), NANOS_PER_SECOND);
+    }
+
+    private static final class Second {
+        private final long epochSecond;
+        private final long[] levels = new long[LEVELS];
+        private final Map<String, long[]> loggers = new HashMap<>(4);
+        private final Map<String, long[]> threads = new HashMap<>(4);
+        private long total;
+
+        Second(long epochSecond) {
+            this.epochSecond = epochSecond;
+        }
+
+        void add(LogEntry entry, int delta) {
+            int level = entry.level().ordinal();
+            levels[level] += delta;
+            total += delta;
+            count(loggers, entry.loggerName(), level, delta);
+            count(threads, entry.threadName(), level, delta);
+        }
+
+        private static void count(Map<String, long[]> counts, String value, int level, int delta) {
+            if (value == null) {
+                return;
+            }
+            long[] perLevel = counts.get(value);
+            if (perLevel == null) {
+                perLevel = new long[LEVELS];
+                counts.put(value, perLevel);
+            }
+            perLevel[level] += delta;
+            if (delta < 0 && isEmpty(perLevel)) {
+                counts.remove(value);
+            }
+        }
+
+        private static boolean isEmpty(long[] perLevel) {
+            for (long count : perLevel) {
+                if (count != 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
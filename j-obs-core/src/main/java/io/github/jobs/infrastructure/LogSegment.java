@@ -0,0 +1,420 @@
+package io.github.jobs.infrastructure;
+
+import io.github.jobs.domain.log.LogEntry;
+import io.github.jobs.domain.log.LogLevel;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.zip.CRC32;
+
+/**
+ * One append-only, memory-mapped segment file of a {@link SegmentLogRepository}.
+ * <p>
+ * File layout: a 16-byte header ({@code magic}, {@code version}, {@code baseSequence}) followed by
+ * records {@code [int length][int crc32][payload]}, where the payload is a {@link LogEntryCodec} entry. The file is pre-sized and zero-filled, so a
+ * zero length marks the end. Record {@code k} always holds sequence {@code baseSequence + k}.
+ * <p>
+ * Every {@value #INDEX_INTERVAL} records the segment keeps a sparse index entry with the record's
+ * file position and the min/max timestamp of that block, which gives both sequence seeks
+ * (block = {@code (sequence - base) / INDEX_INTERVAL}) and time-range block skipping.
+ * <p>
+ * A single writer appends (callers serialize {@link #append}); readers are lock-free and only
+ * read records below the volatile {@link #recordCount()}, which is published after the record
+ * bytes and its index entry are written.
+ * <p>
+ * Readers that touch the mapping {@link #retain()} the segment first and {@link #release()} it
+ * afterwards. Once the segment is deleted or closed and the last reader is done, the mapping is
+ * unmapped right away, so the disk space of a deleted file is freed without waiting for a GC.
+ */
+final class LogSegment {
+
+    static final int HEADER_BYTES = 16;
+    static final int RECORD_HEADER_BYTES = 8;
+    static final int INDEX_INTERVAL = 64;
+
+    private static final int MAGIC = 0x4A4F4C47; // "JOLG"
+    private static final int VERSION = 1;
+    private static final LogLevel[] LEVELS = LogLevel.values();
+    private static final MethodHandle UNMAPPER = unmapper();
+
+    private final Path path;
+    private final long baseSequence;
+    private final int capacity;
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    // One reference held by the segment itself until delete() or close(), plus one per reader
+    private final AtomicInteger references = new AtomicInteger(1);
+    private final AtomicBoolean ownerReleased = new AtomicBoolean();
+
+    private volatile int end = HEADER_BYTES;
+    private volatile int recordCount;
+    private volatile boolean sealed;
+
+    // Sparse index, one entry per INDEX_INTERVAL records; arrays are replaced before the count grows
+    private volatile int[] blockPositions = new int[16];
+    private volatile long[] blockMinNanos = new long[16];
+    private volatile long[] blockMaxNanos = new long[16];
+
+    private volatile long minNanos = Long.MAX_VALUE;
+    private volatile long maxNanos = Long.MIN_VALUE;
+    private final AtomicLongArray levelCounts = new AtomicLongArray(LEVELS.length);
+    private final Set<String> loggers = ConcurrentHashMap.newKeySet();
+    private final Set<String> threads = ConcurrentHashMap.newKeySet();
+
+    private LogSegment(Path path, long baseSequence, int capacity, FileChannel channel, MappedByteBuffer buffer) {
+        this.path = path;
+        this.baseSequence = baseSequence;
+        this.capacity = capacity;
+        this.channel = channel;
+        this.buffer = buffer;
+    }
+
+    static Path fileName(Path directory, long baseSequence) {
+        return directory.resolve(String.format("%020d.seg", baseSequence));
+    }
+
+    /**
+     * Creates a new, empty segment file.
+     */
+    static LogSegment create(Path directory, long baseSequence, int capacity) throws IOException {
+        Path path = fileName(directory, baseSequence);
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+        buffer.putInt(0, MAGIC);
+        buffer.putInt(4, VERSION);
+        buffer.putLong(8, baseSequence);
+        return new LogSegment(path, baseSequence, capacity, channel, buffer);
+    }
+
+    /**
+     * Opens an existing segment and rebuilds its metadata by walking the records. Records are
+     * CRC-checked when {@code verify} is set (the tail segment after a crash); everything after
+     * the first torn or corrupt record is zeroed and the segment resumes writing there.
+     *
+     * @return the segment, or null if the file is not a valid segment
+     */
+    static LogSegment open(Path path, boolean verify) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        long size = channel.size();
+        if (size < HEADER_BYTES || size > Integer.MAX_VALUE) {
+            channel.close();
+            return null;
+        }
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+            channel.close();
+            unmap(buffer);
+            return null;
+        }
+        LogSegment segment = new LogSegment(path, buffer.getLong(8), (int) size, channel, buffer);
+        segment.recover(verify);
+        return segment;
+    }
+
+    private void recover(boolean verify) {
+        int position = HEADER_BYTES;
+        CRC32 crc = new CRC32();
+        while (position + RECORD_HEADER_BYTES <= capacity) {
+            int length = buffer.getInt(position);
+            if (length <= 0 || position + RECORD_HEADER_BYTES + length > capacity) {
+                break;
+            }
+            int payload = position + RECORD_HEADER_BYTES;
+            if (verify) {
+                crc.reset();
+                crc.update(buffer.slice(payload, length));
+                if ((int) crc.getValue() != buffer.getInt(position + 4)) {
+                    break;
+                }
+            }
+            if (LogEntryCodec.sequence(buffer, payload) != baseSequence + recordCount) {
+                break;
+            }
+            recordMetadata(position, LogEntryCodec.epochNanos(buffer, payload), LogEntryCodec.level(buffer, payload),
+                    LogEntryCodec.loggerName(buffer, payload), LogEntryCodec.threadName(buffer, payload));
+            position = payload + length;
+            recordCount++;
+        }
+        if (verify && position + Integer.BYTES <= capacity && buffer.getInt(position) != 0) {
+            // Torn or corrupt tail: zero it so later appends never run into stale record bytes
+            byte[] zeros = new byte[8192];
+            for (int i = position; i < capacity; i += zeros.length) {
+                buffer.put(i, zeros, 0, Math.min(zeros.length, capacity - i));
+            }
+        }
+        end = position;
+        sealed = !verify;
+    }
+
+    /**
+     * Appends an encoded record payload. Must not be called concurrently.
+     *
+     * @return false if the record does not fit; the segment should then be sealed
+     */
+    boolean append(byte[] payload, int length, long epochNanos, LogEntry entry) {
+        int position = end;
+        if (sealed || position + RECORD_HEADER_BYTES + length > capacity) {
+            return false;
+        }
+        CRC32 crc = new CRC32();
+        crc.update(payload, 0, length);
+        buffer.put(position + RECORD_HEADER_BYTES, payload, 0, length);
+        buffer.putInt(position + 4, (int) crc.getValue());
+        buffer.putInt(position, length);
+        recordMetadata(position, epochNanos, (byte) entry.level().ordinal(), entry.loggerName(), entry.threadName());
+        end = position + RECORD_HEADER_BYTES + length;
+        // Publishing the count makes the record visible to readers
+        recordCount++;
+        return true;
+    }
+
+    private void recordMetadata(int position, long epochNanos, byte level, String logger, String thread) {
+        int k = recordCount;
+        int block = k / INDEX_INTERVAL;
+        if (k % INDEX_INTERVAL == 0) {
+            if (block == blockPositions.length) {
+                int grown = block * 2;
+                blockMinNanos = Arrays.copyOf(blockMinNanos, grown);
+                blockMaxNanos = Arrays.copyOf(blockMaxNanos, grown);
+                blockPositions = Arrays.copyOf(blockPositions, grown);
+            }
+            blockMinNanos[block] = epochNanos;
+            blockMaxNanos[block] = epochNanos;
+            blockPositions[block] = position;
+        } else {
+            blockMinNanos[block] = Math.min(blockMinNanos[block], epochNanos);
+            blockMaxNanos[block] = Math.max(blockMaxNanos[block], epochNanos);
+        }
+        minNanos = Math.min(minNanos, epochNanos);
+        maxNanos = Math.max(maxNanos, epochNanos);
+        levelCounts.incrementAndGet(level);
+        if (logger != null) {
+            loggers.add(logger);
+        }
+        if (thread != null) {
+            threads.add(thread);
+        }
+    }
+
+    /**
+     * Marks the segment read-only and flushes it to disk.
+     */
+    void seal() {
+        sealed = true;
+        force();
+    }
+
+    void force() {
+        // Touching an unmapped buffer would crash the JVM
+        if (!isReleased()) {
+            buffer.force();
+        }
+    }
+
+    /**
+     * Closes the file. The mapping is released once no reader holds the segment.
+     */
+    void close() {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        dropOwnerReference();
+    }
+
+    /**
+     * Closes and deletes the segment file. Readers holding the segment keep working until they
+     * release it; the last one unmaps the file so its disk space is freed.
+     */
+    void delete() throws IOException {
+        channel.close();
+        Files.deleteIfExists(path);
+        dropOwnerReference();
+    }
+
+    /**
+     * Pins the mapping for a reader.
+     *
+     * @return false if the segment was deleted or closed; it must not be read then
+     */
+    boolean retain() {
+        if (ownerReleased.get()) {
+            return false;
+        }
+        for (int count = references.get(); count > 0; count = references.get()) {
+            if (references.compareAndSet(count, count + 1)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Releases a reference taken with {@link #retain()}.
+     */
+    void release() {
+        if (references.decrementAndGet() == 0) {
+            unmap(buffer);
+        }
+    }
+
+    private void dropOwnerReference() {
+        // delete() and close() may both run on a segment; only the first one drops the reference
+        if (ownerReleased.compareAndSet(false, true)) {
+            sealed = true;
+            release();
+        }
+    }
+
+    /**
+     * Returns true once the mapping has been released.
+     */
+    boolean isReleased() {
+        return references.get() == 0;
+    }
+
+    private static void unmap(MappedByteBuffer buffer) {
+        if (UNMAPPER == null) {
+            return;
+        }
+        try {
+            UNMAPPER.invokeExact((ByteBuffer) buffer);
+        } catch (Throwable e) {
+            // Left to the GC, as without an unmapper
+        }
+    }
+
+    /**
+     * Returns {@code Unsafe.invokeCleaner}, the only way to unmap a buffer before it is collected,
+     * or null where it is not accessible; mappings are then released by the GC.
+     */
+    private static MethodHandle unmapper() {
+        try {
+            Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+            Field field = unsafeClass.getDeclaredField("theUnsafe");
+            field.setAccessible(true);
+            Object unsafe = field.get(null);
+            return MethodHandles.lookup()
+                    .findVirtual(unsafeClass, "invokeCleaner", MethodType.methodType(void.class, ByteBuffer.class))
+                    .bindTo(unsafe);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    long baseSequence() {
+        return baseSequence;
+    }
+
+    /**
+     * Returns the size of the segment file in bytes.
+     */
+    int capacity() {
+        return capacity;
+    }
+
+    /**
+     * Returns the sequence after the last record.
+     */
+    long nextSequence() {
+        return baseSequence + recordCount;
+    }
+
+    int recordCount() {
+        return recordCount;
+    }
+
+    int end() {
+        return end;
+    }
+
+    boolean isSealed() {
+        return sealed;
+    }
+
+    boolean isEmpty() {
+        return recordCount == 0;
+    }
+
+    long minNanos() {
+        return minNanos;
+    }
+
+    long maxNanos() {
+        return maxNanos;
+    }
+
+    long levelCount(LogLevel level) {
+        return levelCounts.get(level.ordinal());
+    }
+
+    Set<String> loggers() {
+        return loggers;
+    }
+
+    Set<String> threads() {
+        return threads;
+    }
+
+    int blockCount(int records) {
+        return (records + INDEX_INTERVAL - 1) / INDEX_INTERVAL;
+    }
+
+    int blockPosition(int block) {
+        return blockPositions[block];
+    }
+
+    boolean blockOverlaps(int block, long fromNanos, long toNanos) {
+        return blockMaxNanos[block] >= fromNanos && blockMinNanos[block] <= toNanos;
+    }
+
+    boolean blockWithin(int block, long fromNanos, long toNanos) {
+        return blockMinNanos[block] >= fromNanos && blockMaxNanos[block] <= toNanos;
+    }
+
+    /**
+     * Returns the timestamp of the record at {@code position} without decoding it.
+     */
+    long epochNanos(int position) {
+        return LogEntryCodec.epochNanos(buffer, position + RECORD_HEADER_BYTES);
+    }
+
+    /**
+     * Returns the level of the record at {@code position} without decoding it.
+     */
+    LogLevel level(int position) {
+        return LEVELS[LogEntryCodec.level(buffer, position + RECORD_HEADER_BYTES)];
+    }
+
+    /**
+     * Returns the file position just after the record at {@code position}.
+     */
+    int nextPosition(int position) {
+        return position + RECORD_HEADER_BYTES + buffer.getInt(position);
+    }
+
+    /**
+     * Decodes the record at {@code position}.
+     */
+    LogEntry read(int position) {
+        return LogEntryCodec.decode(buffer, position + RECORD_HEADER_BYTES);
+    }
+}
@@ -0,0 +1,119 @@
+package io.github.jobs.infrastructure;
+
+import io.github.jobs.application.LogRepository.LogStats;
+import io.github.jobs.domain.log.LogEntry;
+import io.github.jobs.domain.log.LogLevel;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Incrementally maintained {@link LogStats} for a bounded log store.
+ * <p>
+ * Per-level counts are adjusted on every add and eviction, and unique logger and thread names
+ * are tracked with reference counts, so {@link #snapshot()} is O(1) and needs no lock.
+ * Mutators must be called by one thread at a time (the store's write lock); readers may run
+ * concurrently and see each counter individually up to date, not an atomic snapshot.
+ */
+final class LogStatsCounter {
+
+    private static final LogLevel[] LEVELS = LogLevel.values();
+
+    private final AtomicLongArray stored = new AtomicLongArray(LEVELS.length);
+    private final AtomicLongArray ingested = new AtomicLongArray(LEVELS.length);
+    private final Map<String, int[]> loggerRefs = new HashMap<>();
+    private final Map<String, int[]> threadRefs = new HashMap<>();
+    private volatile long total;
+    private volatile int uniqueLoggers;
+    private volatile int uniqueThreads;
+
+    void added(LogEntry entry) {
+        int level = entry.level().ordinal();
+        stored.set(level, stored.get(level) + 1);
+        ingested.set(level, ingested.get(level) + 1);
+        total = total + 1;
+        uniqueLoggers = retain(loggerRefs, entry.loggerName());
+        uniqueThreads = retain(threadRefs, entry.threadName());
+    }
+
+    void evicted(LogEntry entry) {
+        int level = entry.level().ordinal();
+        stored.set(level, stored.get(level) - 1);
+        total = total - 1;
+        uniqueLoggers = release(loggerRefs, entry.loggerName());
+        uniqueThreads = release(threadRefs, entry.threadName());
+    }
+
+    /**
+     * Records the eviction of a whole block of entries, summarized by per-level counts and
+     * per-name occurrence counts.
+     */
+    void evicted(int[] levelCounts, Map<String, Integer> loggers, Map<String, Integer> threads) {
+        long removed = 0;
+        for (int i = 0; i < levelCounts.length; i++) {
+            stored.set(i, stored.get(i) - levelCounts[i]);
+            removed += levelCounts[i];
+        }
+        total = total - removed;
+        loggers.forEach((name, count) -> release(loggerRefs, name, count));
+        threads.forEach((name, count) -> release(threadRefs, name, count));
+        uniqueLoggers = loggerRefs.size();
+        uniqueThreads = threadRefs.size();
+    }
+
+    /**
+     * Resets the stored counts; cumulative ingest counts are kept.
+     */
+    void clear() {
+        for (int i = 0; i < LEVELS.length; i++) {
+            stored.set(i, 0);
+        }
+        loggerRefs.clear();
+        threadRefs.clear();
+        total = 0;
+        uniqueLoggers = 0;
+        uniqueThreads = 0;
+    }
+
+    LogStats snapshot() {
+        return new LogStats(
+                total,
+                stored.get(LogLevel.ERROR.ordinal()),
+                stored.get(LogLevel.WARN.ordinal()),
+                stored.get(LogLevel.INFO.ordinal()),
+                stored.get(LogLevel.DEBUG.ordinal()),
+                stored.get(LogLevel.TRACE.ordinal()),
+                uniqueLoggers,
+                uniqueThreads
+        );
+    }
+
+    /**
+     * Returns the number of entries of {@code level} ever added, including evicted ones.
+     */
+    long ingested(LogLevel level) {
+        return ingested.get(level.ordinal());
+    }
+
+    private static int retain(Map<String, int[]> refs, String name) {
+        if (name != null) {
+            refs.computeIfAbsent(name, key -> new int[1])[0]++;
+        }
+        return refs.size();
+    }
+
+    private static int release(Map<String, int[]> refs, String name) {
+        if (name != null) {
+            release(refs, name, 1);
+        }
+        return refs.size();
+    }
+
+    private static void release(Map<String, int[]> refs, String name, int times) {
+        int[] count = refs.get(name);
+        if (count != null && (count[0] -= times) <= 0) {
+            refs.remove(name);
+        }
+    }
+}
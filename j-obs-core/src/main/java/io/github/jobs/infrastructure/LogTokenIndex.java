@@ -0,0 +1,253 @@
+package io.github.jobs.infrastructure;
+
+import io.github.jobs.domain.log.LogSearchQuery;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Inverted index from a key (message token, trace id, span id) to the ascending sequence numbers
+ * of the entries carrying it.
+ * <p>
+ * Designed for ring-buffer stores: sequences are appended in increasing order and evicted
+ * oldest-first, so every posting list is a FIFO and both maintenance operations are O(tokens).
+ * Not thread-safe; callers guard it with their own lock.
+ */
+final class LogTokenIndex {
+
+    private static final long[] EMPTY = new long[0];
+
+    private final Map<String, PostingList> postings = new HashMap<>();
+
+    /**
+     * Indexes {@code sequence} under each token. Tokens are replaced in place with the
+     * canonical instance held by the index so callers retaining the array share the strings.
+     */
+    void add(long sequence, String[] tokens) {
+        for (int i = 0; i < tokens.length; i++) {
+            PostingList list = postings.computeIfAbsent(tokens[i], PostingList::new);
+            tokens[i] = list.term;
+            list.append(sequence);
+        }
+    }
+
+    /**
+     * Indexes {@code sequence} under a single key; null keys are ignored.
+     */
+    void add(long sequence, String key) {
+        if (key != null) {
+            postings.computeIfAbsent(key, PostingList::new).append(sequence);
+        }
+    }
+
+    /**
+     * Removes the oldest indexed {@code sequence} from a single key; null keys are ignored.
+     */
+    void remove(long sequence, String key) {
+        if (key == null) {
+            return;
+        }
+        PostingList list = postings.get(key);
+        if (list != null && list.removeFirst(sequence) && list.size == 0) {
+            postings.remove(key);
+        }
+    }
+
+    /**
+     * Removes the oldest indexed {@code sequence}, previously added with the same tokens.
+     */
+    void remove(long sequence, String[] tokens) {
+        for (String token : tokens) {
+            remove(sequence, token);
+        }
+    }
+
+    void clear() {
+        postings.clear();
+    }
+
+    /**
+     * Returns the ascending sequences indexed under {@code key}.
+     */
+    long[] postings(String key) {
+        PostingList list = postings.get(key);
+        return list != null ? list.toArray() : EMPTY;
+    }
+
+    /**
+     * Returns the number of distinct indexed keys.
+     */
+    int termCount() {
+        return postings.size();
+    }
+
+    /**
+     * Returns ascending candidate sequences that may satisfy {@code node}, or null if the node
+     * cannot be narrowed by the index (e.g. a top-level NOT) and a scan is required.
+     * Candidates are a superset of the matches; callers still verify each entry.
+     */
+    long[] candidates(LogSearchQuery.Node node) {
+        if (node instanceof LogSearchQuery.Term term) {
+            return postings(term.token());
+        }
+        if (node instanceof LogSearchQuery.Phrase phrase) {
+            return intersectAll(phrase.tokens());
+        }
+        if (node instanceof LogSearchQuery.Or or) {
+            long[] result = EMPTY;
+            for (LogSearchQuery.Node child : or.children()) {
+                long[] childCandidates = candidates(child);
+                if (childCandidates == null) {
+                    return null;
+                }
+                result = union(result, childCandidates);
+            }
+            return result;
+        }
+        if (node instanceof LogSearchQuery.And and) {
+            long[] result = null;
+            for (LogSearchQuery.Node child : and.children()) {
+                if (child instanceof LogSearchQuery.Not) {
+                    continue;
+                }
+                long[] childCandidates = candidates(child);
+                if (childCandidates != null) {
+                    result = result == null ? childCandidates : intersect(result, childCandidates);
+                }
+            }
+            if (result == null) {
+                return null;
+            }
+            // Only single-term exclusions are exact; anything else is left to verification
+            for (LogSearchQuery.Node child : and.children()) {
+                if (child instanceof LogSearchQuery.Not not && not.child() instanceof LogSearchQuery.Term term) {
+                    result = difference(result, postings(term.token()));
+                }
+            }
+            return result;
+        }
+        return null;
+    }
+
+    private long[] intersectAll(List<String> tokens) {
+        // Start from the rarest token to keep intermediate results small
+        PostingList smallest = null;
+        for (String token : tokens) {
+            PostingList list = postings.get(token);
+            if (list == null) {
+                return EMPTY;
+            }
+            if (smallest == null || list.size < smallest.size) {
+                smallest = list;
+            }
+        }
+        long[] result = smallest.toArray();
+        for (String token : tokens) {
+            PostingList list = postings.get(token);
+            if (list != smallest) {
+                result = intersect(result, list.toArray());
+            }
+        }
+        return result;
+    }
+
+    static long[] intersect(long[] a, long[] b) {
+        long[] out = new long[Math.min(a.length, b.length)];
+        int i = 0, j = 0, n = 0;
+        while (i < a.length && j < b.length) {
+            if (a[i] < b[j]) {
+                i++;
+            } else if (a[i] > b[j]) {
+                j++;
+            } else {
+                out[n++] = a[i];
+                i++;
+                j++;
+            }
+        }
+        return n == out.length ? out : Arrays.copyOf(out, n);
+    }
+
+    static long[] union(long[] a, long[] b) {
+        if (a.length == 0) return b;
+        if (b.length == 0) return a;
+        long[] out = new long[a.length + b.length];
+        int i = 0, j = 0, n = 0;
+        while (i < a.length && j < b.length) {
+            if (a[i] < b[j]) {
+                out[n++] = a[i++];
+            } else if (a[i] > b[j]) {
+                out[n++] = b[j++];
+            } else {
+                out[n++] = a[i];
+                i++;
+                j++;
+            }
+        }
+        while (i < a.length) out[n++] = a[i++];
+        while (j < b.length) out[n++] = b[j++];
+        return n == out.length ? out : Arrays.copyOf(out, n);
+    }
+
+    static long[] difference(long[] a, long[] b) {
+        if (b.length == 0) return a;
+        long[] out = new long[a.length];
+        int i = 0, j = 0, n = 0;
+        while (i < a.length) {
+            while (j < b.length && b[j] < a[i]) {
+                j++;
+            }
+            if (j >= b.length || b[j] != a[i]) {
+                out[n++] = a[i];
+            }
+            i++;
+        }
+        return n == out.length ? out : Arrays.copyOf(out, n);
+    }
+
+    /**
+     * Growable circular array of ascending sequences.
+     */
+    private static final class PostingList {
+        private final String term;
+        private long[] values = new long[4];
+        private int head;
+        private int size;
+
+        PostingList(String term) {
+            this.term = term;
+        }
+
+        void append(long sequence) {
+            if (size == values.length) {
+                long[] grown = new long[values.length << 1];
+                for (int i = 0; i < size; i++) {
+                    grown[i] = values[(head + i) % values.length];
+                }
+                values = grown;
+                head = 0;
+            }
+            values[(head + size) % values.length] = sequence;
+            size++;
+        }
+
+        boolean removeFirst(long sequence) {
+            if (size == 0 || values[head] != sequence) {
+                return false;
+            }
+            head = (head + 1) % values.length;
+            size--;
+            return true;
+        }
+
+        long[] toArray() {
+            long[] out = new long[size];
+            int firstChunk = Math.min(size, values.length - head);
+            System.arraycopy(values, head, out, 0, firstChunk);
+            System.arraycopy(values, 0, out, firstChunk, size - firstChunk);
+            return out;
+        }
+    }
+}
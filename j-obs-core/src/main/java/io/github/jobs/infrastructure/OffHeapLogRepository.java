@@ -0,0 +1,713 @@
+package io.github.jobs.infrastructure;
+
+import io.github.jobs.application.LogRepository;
+import io.github.jobs.domain.log.LogCursor;
+import io.github.jobs.domain.log.LogEntry;
+import io.github.jobs.domain.log.LogLevel;
+import io.github.jobs.domain.log.LogPage;
+import io.github.jobs.domain.log.LogQuery;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/**
+ * Columnar LogRepository that keeps log data off the Java heap under a fixed byte budget.
+ * <p>
+ * Storage layout:
+ * <ul>
+ *   <li>Fixed-width columns in direct buffers: timestamp (epoch nanos), level, logger id,
+ *       thread id and the offset/length of the row's blob</li>
+ *   <li>Logger names, thread names and MDC keys are dictionary-encoded into int ids</li>
+ *   <li>Entry id, message, trace/span ids, stack trace and MDC values are stored as a
+ *       UTF-8 blob in a circular off-heap arena</li>
+ * </ul>
+ * Rows are evicted oldest-first when either the row capacity or the arena is exhausted.
+ * {@link LogEntry} objects are only materialized for rows that are returned by a query;
+ * level, time range, logger, thread and trace id filters are evaluated directly on the columns.
+ * <p>
+ * Dictionaries are bounded; once full, new names are stored inline in the row blob.
+ * <p>
+ * Thread-safe: writes take a write lock, queries share a read lock.
+ */
+public class OffHeapLogRepository implements LogRepository {
+
+    private static final int DEFAULT_MAX_ENTRIES = 100_000;
+    private static final long DEFAULT_MAX_BYTES = 64L * 1024 * 1024;
+    private static final int MAX_DICTIONARY_SIZE = 65_536;
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+    private static final LogLevel[] LEVELS = LogLevel.values();
+
+    /** Bytes per row across all fixed-width columns. */
+    public static final int ROW_BYTES = Long.BYTES + Byte.BYTES + Integer.BYTES + Integer.BYTES + Long.BYTES + Integer.BYTES;
+
+    /** Largest row capacity whose widest column still fits in one direct buffer. */
+    public static final int MAX_ENTRIES = (Integer.MAX_VALUE - 8) / Long.BYTES;
+    /** Smallest blob arena the budget must leave after the columns. */
+    public static final long MIN_ARENA_BYTES = 64L * 1024;
+
+    private static final int NO_VALUE = -1;
+    private static final int INLINE = -2;
+    private static final int FLAG_LOGGER_INLINE = 1;
+    private static final int FLAG_THREAD_INLINE = 2;
+
+    private final int maxEntries;
+    private final long maxBytes;
+    private final ByteBuffer timestamps;
+    private final ByteBuffer levels;
+    private final ByteBuffer loggerIds;
+    private final ByteBuffer threadIds;
+    private final ByteBuffer blobOffsets;
+    private final ByteBuffer blobLengths;
+    private final ByteBuffer arena;
+    private final int arenaSize;
+    private final int maxFieldChars;
+
+    private final Dictionary loggers = new Dictionary();
+    private final Dictionary threads = new Dictionary();
+    private final Dictionary mdcKeys = new Dictionary();
+    private final BlobWriter writer = new BlobWriter();
+
+    /** Sequence of the next row to write. */
+    private long headRow = 0;
+    /** Sequence of the oldest retained row. */
+    private long tailRow = 0;
+    /** Logical (monotonic) arena offset of the next blob. */
+    private long writeOffset = 0;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final List<SubscriptionImpl> subscribers = new CopyOnWriteArrayList<>();
+
+    public OffHeapLogRepository() {
+        this(DEFAULT_MAX_ENTRIES, DEFAULT_MAX_BYTES);
+    }
+
+    /**
+     * Creates a repository with the given row capacity and total off-heap budget.
+     * The budget covers the fixed-width columns ({@value #ROW_BYTES} bytes per row) and the blob arena.
+     *
+     * @param maxEntries maximum number of rows retained
+     * @param maxBytes   total off-heap bytes for columns and arena
+     * @throws IllegalArgumentException if {@code maxEntries} exceeds {@link #MAX_ENTRIES} or the
+     *                                  budget leaves less than 64 KiB for the arena
+     */
+    public OffHeapLogRepository(int maxEntries, long maxBytes) {
+        if (maxEntries <= 0) {
+            throw new IllegalArgumentException("maxEntries must be positive");
+        }
+        if (maxEntries > MAX_ENTRIES) {
+            throw new IllegalArgumentException("maxEntries " + maxEntries + " exceeds the off-heap limit of " +
+                    MAX_ENTRIES);
+        }
+        long columnBytes = (long) maxEntries * ROW_BYTES;
+        long arenaBytes = Math.min(maxBytes - columnBytes, Integer.MAX_VALUE - 8);
+        if (arenaBytes < MIN_ARENA_BYTES) {
+            throw new IllegalArgumentException("maxBytes " + maxBytes + " is too small for " + maxEntries +
+                    " entries; need at least " + (columnBytes + MIN_ARENA_BYTES));
+        }
+        this.maxEntries = maxEntries;
+        this.maxBytes = maxBytes;
+        this.timestamps = column(maxEntries, Long.BYTES);
+        this.levels = column(maxEntries, Byte.BYTES);
+        this.loggerIds = column(maxEntries, Integer.BYTES);
+        this.threadIds = column(maxEntries, Integer.BYTES);
+        this.blobOffsets = column(maxEntries, Long.BYTES);
+        this.blobLengths = column(maxEntries, Integer.BYTES);
+        this.arenaSize = (int) arenaBytes;
+        this.arena = ByteBuffer.allocateDirect(arenaSize);
+        // A single row may never take more than a quarter of the arena (4 bytes per char worst case)
+        this.maxFieldChars = arenaSize / 32;
+    }
+
+    private static ByteBuffer column(int rows, int width) {
+        return ByteBuffer.allocateDirect(Math.toIntExact((long) rows * width));
+    }
+
+    @Override
+    public void add(LogEntry entry) {
+        lock.writeLock().lock();
+        try {
+            append(entry);
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        // Notify subscribers outside the lock
+        notifySubscribers(entry);
+    }
+
+    private void append(LogEntry entry) {
+        int loggerId = encodeName(loggers, entry.loggerName());
+        int threadId = encodeName(threads, entry.threadName());
+
+        BlobWriter blob = writer.reset();
+        int flags = (loggerId == INLINE ? FLAG_LOGGER_INLINE : 0) | (threadId == INLINE ? FLAG_THREAD_INLINE : 0);
+        blob.writeByte(flags);
+        if (loggerId == INLINE) blob.writeString(entry.loggerName());
+        if (threadId == INLINE) blob.writeString(entry.threadName());
+        blob.writeString(entry.id());
+        blob.writeString(truncate(entry.message()));
+        blob.writeString(entry.traceId());
+        blob.writeString(entry.spanId());
+        blob.writeString(truncate(entry.throwable()));
+        Map<String, String> mdc = entry.mdc();
+        blob.writeInt(mdc.size());
+        for (Map.Entry<String, String> e : mdc.entrySet()) {
+            int keyId = encodeName(mdcKeys, e.getKey());
+            blob.writeInt(keyId);
+            if (keyId == INLINE) blob.writeString(e.getKey());
+            blob.writeString(truncate(e.getValue()));
+        }
+
+        int length = blob.length;
+        if (length > arenaSize) {
+            // Cannot happen with truncated fields unless the MDC is enormous; drop rather than corrupt
+            return;
+        }
+
+        // Records never wrap around the physical end of the arena
+        int physical = (int) (writeOffset % arenaSize);
+        if (physical + length > arenaSize) {
+            writeOffset += arenaSize - physical;
+            physical = 0;
+        }
+
+        // Evict oldest rows until both the row ring and the arena have room
+        while (headRow - tailRow >= maxEntries) {
+            tailRow++;
+        }
+        while (tailRow < headRow && writeOffset + length - blobOffsets.getLong(rowIndex(tailRow) * Long.BYTES) > arenaSize) {
+            tailRow++;
+        }
+
+        arena.put(physical, blob.buffer, 0, length);
+
+        int row = rowIndex(headRow);
+        timestamps.putLong(row * Long.BYTES, entry.epochNanos());
+        levels.put(row, (byte) entry.level().ordinal());
+        loggerIds.putInt(row * Integer.BYTES, loggerId);
+        threadIds.putInt(row * Integer.BYTES, threadId);
+        blobOffsets.putLong(row * Long.BYTES, writeOffset);
+        blobLengths.putInt(row * Integer.BYTES, length);
+
+        writeOffset += length;
+        headRow++;
+    }
+
+    private String truncate(String value) {
+        if (value == null || value.length() <= maxFieldChars) {
+            return value;
+        }
+        return value.substring(0, maxFieldChars);
+    }
+
+    private static int encodeName(Dictionary dictionary, String name) {
+        if (name == null) {
+            return NO_VALUE;
+        }
+        return dictionary.encode(name);
+    }
+
+    private int rowIndex(long rowSequence) {
+        return (int) (rowSequence % maxEntries);
+    }
+
+    private void notifySubscribers(LogEntry entry) {
+        for (SubscriptionImpl subscription : subscribers) {
+            if (subscription.isActive()) {
+                try {
+                    subscription.consumer.accept(entry);
+                } catch (Exception e) {
+                    // Subscriber issue shouldn't affect main flow
+                }
+            }
+        }
+    }
+
+    @Override
+    public List<LogEntry> query(LogQuery query) {
+        lock.readLock().lock();
+        try {
+            List<LogEntry> result = new ArrayList<>((int) Math.min(query.limit(), headRow - tailRow));
+            collect(query, result);
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Pages by row sequence: the returned cursor holds the sequence of the last row on the page.
+     */
+    @Override
+    public LogPage queryPage(LogQuery query) {
+        lock.readLock().lock();
+        try {
+            List<LogEntry> result = new ArrayList<>((int) Math.min(query.limit(), headRow - tailRow));
+            long last = collect(query, result);
+            return new LogPage(result, result.size() < query.limit() ? null : new LogCursor(last));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Collects matching rows newest first, honouring limit and either the cursor or the offset.
+     * Returns the sequence of the last collected row, or -1. Must be called with the lock held.
+     */
+    private long collect(LogQuery query, List<LogEntry> result) {
+        ColumnFilter filter = new ColumnFilter(query);
+        if (filter.impossible) {
+            return -1;
+        }
+        int skipped = 0;
+        int offset = query.offset();
+        int limit = query.limit();
+        long high = headRow - 1;
+        if (query.cursor() != null) {
+            high = Math.min(high, query.cursor().position() - 1);
+            offset = 0;
+        }
+        long last = -1;
+
+        // Newest first
+        for (long seq = high; seq >= tailRow && result.size() < limit; seq--) {
+            int row = rowIndex(seq);
+            if (!filter.matchesColumns(row)) {
+                continue;
+            }
+            LogEntry entry = null;
+            if (filter.residual) {
+                entry = materialize(row);
+                if (!query.matches(entry)) {
+                    continue;
+                }
+            }
+            if (skipped < offset) {
+                skipped++;
+                continue;
+            }
+            result.add(entry != null ? entry : materialize(row));
+            last = seq;
+        }
+        return last;
+    }
+
+    @Override
+    public long count() {
+        lock.readLock().lock();
+        try {
+            return headRow - tailRow;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public long count(LogQuery query) {
+        lock.readLock().lock();
+        try {
+            ColumnFilter filter = new ColumnFilter(query);
+            if (filter.impossible) {
+                return 0;
+            }
+            long matchCount = 0;
+            for (long seq = tailRow; seq < headRow; seq++) {
+                int row = rowIndex(seq);
+                if (filter.matchesColumns(row) && (!filter.residual || query.matches(materialize(row)))) {
+                    matchCount++;
+                }
+            }
+            return matchCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            tailRow = headRow;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public LogStats stats() {
+        lock.readLock().lock();
+        try {
+            long[] levelCounts = new long[LEVELS.length];
+            BitSet uniqueLoggerIds = new BitSet();
+            BitSet uniqueThreadIds = new BitSet();
+            Set<String> inlineLoggers = new HashSet<>();
+            Set<String> inlineThreads = new HashSet<>();
+
+            for (long seq = tailRow; seq < headRow; seq++) {
+                int row = rowIndex(seq);
+                levelCounts[levels.get(row)]++;
+                int loggerId = loggerIds.getInt(row * Integer.BYTES);
+                int threadId = threadIds.getInt(row * Integer.BYTES);
+                if (loggerId >= 0) {
+                    uniqueLoggerIds.set(loggerId);
+                }
+                if (threadId >= 0) {
+                    uniqueThreadIds.set(threadId);
+                }
+                if (loggerId == INLINE || threadId == INLINE) {
+                    LogEntry entry = materialize(row);
+                    if (loggerId == INLINE) inlineLoggers.add(entry.loggerName());
+                    if (threadId == INLINE) inlineThreads.add(entry.threadName());
+                }
+            }
+
+            return new LogStats(
+                    headRow - tailRow,
+                    levelCounts[LogLevel.ERROR.ordinal()],
+                    levelCounts[LogLevel.WARN.ordinal()],
+                    levelCounts[LogLevel.INFO.ordinal()],
+                    levelCounts[LogLevel.DEBUG.ordinal()],
+                    levelCounts[LogLevel.TRACE.ordinal()],
+                    uniqueLoggerIds.cardinality() + inlineLoggers.size(),
+                    uniqueThreadIds.cardinality() + inlineThreads.size()
+            );
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public Subscription subscribe(Consumer<LogEntry> subscriber) {
+        SubscriptionImpl subscription = new SubscriptionImpl(subscriber);
+        subscribers.add(subscription);
+        return subscription;
+    }
+
+    /**
+     * Returns the maximum number of rows retained.
+     */
+    public int capacity() {
+        return maxEntries;
+    }
+
+    /**
+     * Returns the total off-heap budget in bytes.
+     */
+    public long maxBytes() {
+        return maxBytes;
+    }
+
+    /**
+     * Returns the number of arena bytes currently referenced by retained rows.
+     */
+    public long usedArenaBytes() {
+        lock.readLock().lock();
+        try {
+            if (tailRow == headRow) {
+                return 0;
+            }
+            return writeOffset - blobOffsets.getLong(rowIndex(tailRow) * Long.BYTES);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Rebuilds a LogEntry from the columns and blob of the given row. Caller must hold the lock.
+     */
+    private LogEntry materialize(int row) {
+        long epochNanos = timestamps.getLong(row * Long.BYTES);
+        int loggerId = loggerIds.getInt(row * Integer.BYTES);
+        int threadId = threadIds.getInt(row * Integer.BYTES);
+        BlobReader blob = new BlobReader(blobPosition(row));
+
+        int flags = blob.readByte();
+        String loggerName = (flags & FLAG_LOGGER_INLINE) != 0 ? blob.readString() : loggers.decode(loggerId);
+        String threadName = (flags & FLAG_THREAD_INLINE) != 0 ? blob.readString() : threads.decode(threadId);
+        String id = blob.readString();
+        String message = blob.readString();
+        String traceId = blob.readString();
+        String spanId = blob.readString();
+        String throwable = blob.readString();
+        int mdcSize = blob.readInt();
+        Map<String, String> mdc = mdcSize == 0 ? Map.of() : new LinkedHashMap<>(mdcSize * 2);
+        for (int i = 0; i < mdcSize; i++) {
+            int keyId = blob.readInt();
+            String key = keyId == INLINE ? blob.readString() : mdcKeys.decode(keyId);
+            mdc.put(key, blob.readString());
+        }
+
+        return LogEntry.builder()
+                .id(id)
+                .timestamp(Instant.ofEpochSecond(Math.floorDiv(epochNanos, NANOS_PER_SECOND),
+                        Math.floorMod(epochNanos, NANOS_PER_SECOND)))
+                .level(LEVELS[levels.get(row)])
+                .loggerName(loggerName)
+                .message(message != null ? message : "")
+                .threadName(threadName)
+                .traceId(traceId)
+                .spanId(spanId)
+                .throwable(throwable)
+                .mdc(mdc)
+                .build();
+    }
+
+    private int blobPosition(int row) {
+        return (int) (blobOffsets.getLong(row * Long.BYTES) % arenaSize);
+    }
+
+    /**
+     * Compares the trace id stored in the row blob with the given UTF-8 bytes without decoding it.
+     */
+    private boolean traceIdEquals(int row, byte[] expected) {
+        BlobReader blob = new BlobReader(blobPosition(row));
+        int flags = blob.readByte();
+        if ((flags & FLAG_LOGGER_INLINE) != 0) blob.skipString();
+        if ((flags & FLAG_THREAD_INLINE) != 0) blob.skipString();
+        blob.skipString(); // id
+        blob.skipString(); // message
+        return blob.stringEquals(expected);
+    }
+
+    /**
+     * Per-query filter evaluated on the fixed-width columns before any row is materialized.
+     */
+    private final class ColumnFilter {
+        private final int minSeverityOrdinal;
+        private final long startNanos;
+        private final long endNanos;
+        private final BitSet loggerMatches;
+        private final int threadId;
+        private final byte[] traceIdBytes;
+        /** True when remaining criteria can only be checked on a materialized entry. */
+        private final boolean residual;
+        /** True when no row can possibly match. */
+        private final boolean impossible;
+
+        ColumnFilter(LogQuery query) {
+            boolean residualNeeded = query.messagePattern() != null || query.search() != null
+                    || query.spanId() != null;
+            boolean noMatch = false;
+
+            this.minSeverityOrdinal = query.minLevel() != null ? query.minLevel().ordinal() : -1;
+            this.startNanos = query.startTime() != null ? LogEntry.epochNanos(query.startTime()) : Long.MIN_VALUE;
+            this.endNanos = query.endTime() != null ? LogEntry.epochNanos(query.endTime()) : Long.MAX_VALUE;
+
+            if (query.loggerName() != null) {
+                loggerMatches = loggers.idsContaining(query.loggerName());
+                residualNeeded |= loggers.overflowed;
+            } else {
+                loggerMatches = null;
+            }
+
+            if (query.threadName() != null) {
+                int id = threads.lookup(query.threadName());
+                if (threads.overflowed) {
+                    threadId = NO_VALUE;
+                    residualNeeded = true;
+                } else {
+                    threadId = id;
+                    noMatch = id == NO_VALUE;
+                }
+            } else {
+                threadId = NO_VALUE;
+            }
+
+            this.traceIdBytes = query.traceId() != null ? query.traceId().getBytes(StandardCharsets.UTF_8) : null;
+            this.residual = residualNeeded;
+            this.impossible = noMatch;
+        }
+
+        boolean matchesColumns(int row) {
+            if (minSeverityOrdinal >= 0 && LEVELS[levels.get(row)].severity() < LEVELS[minSeverityOrdinal].severity()) {
+                return false;
+            }
+            long ts = timestamps.getLong(row * Long.BYTES);
+            if (ts < startNanos || ts > endNanos) {
+                return false;
+            }
+            if (loggerMatches != null) {
+                int loggerId = loggerIds.getInt(row * Integer.BYTES);
+                if (loggerId == NO_VALUE || (loggerId >= 0 && !loggerMatches.get(loggerId))) {
+                    return false;
+                }
+            }
+            if (threadId != NO_VALUE && threadIds.getInt(row * Integer.BYTES) != threadId) {
+                return false;
+            }
+            return traceIdBytes == null || traceIdEquals(row, traceIdBytes);
+        }
+    }
+
+    /**
+     * Bounded string dictionary. Ids are never reused; once full, callers store values inline.
+     */
+    private static final class Dictionary {
+        private final Map<String, Integer> ids = new HashMap<>();
+        private final List<String> values = new ArrayList<>();
+        private boolean overflowed;
+
+        int encode(String value) {
+            Integer id = ids.get(value);
+            if (id != null) {
+                return id;
+            }
+            if (values.size() >= MAX_DICTIONARY_SIZE) {
+                overflowed = true;
+                return INLINE;
+            }
+            int newId = values.size();
+            values.add(value);
+            ids.put(value, newId);
+            return newId;
+        }
+
+        int lookup(String value) {
+            Integer id = ids.get(value);
+            return id != null ? id : NO_VALUE;
+        }
+
+        String decode(int id) {
+            return id >= 0 ? values.get(id) : null;
+        }
+
+        BitSet idsContaining(String fragment) {
+            BitSet matches = new BitSet(values.size());
+            for (int i = 0; i < values.size(); i++) {
+                if (values.get(i).contains(fragment)) {
+                    matches.set(i);
+                }
+            }
+            return matches;
+        }
+    }
+
+    /**
+     * Reusable growable heap buffer used to encode one blob before copying it into the arena.
+     */
+    private static final class BlobWriter {
+        private byte[] buffer = new byte[256];
+        private int length;
+
+        BlobWriter reset() {
+            length = 0;
+            return this;
+        }
+
+        void writeByte(int value) {
+            ensureCapacity(1);
+            buffer[length++] = (byte) value;
+        }
+
+        void writeInt(int value) {
+            ensureCapacity(Integer.BYTES);
+            buffer[length++] = (byte) (value >>> 24);
+            buffer[length++] = (byte) (value >>> 16);
+            buffer[length++] = (byte) (value >>> 8);
+            buffer[length++] = (byte) value;
+        }
+
+        void writeString(String value) {
+            if (value == null) {
+                writeInt(-1);
+                return;
+            }
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            writeInt(bytes.length);
+            ensureCapacity(bytes.length);
+            System.arraycopy(bytes, 0, buffer, length, bytes.length);
+            length += bytes.length;
+        }
+
+        private void ensureCapacity(int extra) {
+            if (length + extra > buffer.length) {
+                buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, length + extra));
+            }
+        }
+    }
+
+    /**
+     * Sequential reader over one blob in the arena using absolute (thread-safe) gets.
+     */
+    private final class BlobReader {
+        private int position;
+
+        BlobReader(int position) {
+            this.position = position;
+        }
+
+        int readByte() {
+            return arena.get(position++);
+        }
+
+        int readInt() {
+            int value = arena.getInt(position);
+            position += Integer.BYTES;
+            return value;
+        }
+
+        String readString() {
+            int length = readInt();
+            if (length < 0) {
+                return null;
+            }
+            byte[] bytes = new byte[length];
+            arena.get(position, bytes);
+            position += length;
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+
+        void skipString() {
+            int length = readInt();
+            if (length > 0) {
+                position += length;
+            }
+        }
+
+        boolean stringEquals(byte[] expected) {
+            int length = readInt();
+            if (length != expected.length) {
+                return false;
+            }
+            for (int i = 0; i < length; i++) {
+                if (arena.get(position + i) != expected[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    private class SubscriptionImpl implements Subscription {
+        private final Consumer<LogEntry> consumer;
+        private volatile boolean active = true;
+
+        SubscriptionImpl(Consumer<LogEntry> consumer) {
+            this.consumer = consumer;
+        }
+
+        @Override
+        public void unsubscribe() {
+            active = false;
+            subscribers.remove(this);
+        }
+
+        @Override
+        public boolean isActive() {
+            return active;
+        }
+    }
+}
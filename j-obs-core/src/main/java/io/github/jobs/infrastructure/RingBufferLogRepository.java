@@ -0,0 +1,284 @@
+package io.github.jobs.infrastructure;
+
+import io.github.jobs.application.LogRepository;
+import io.github.jobs.domain.log.LogCursor;
+import io.github.jobs.domain.log.LogEntry;
+import io.github.jobs.domain.log.LogPage;
+import io.github.jobs.domain.log.LogQuery;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+
+/**
+ * Lock-free, multi-producer implementation of LogRepository modelled after the LMAX Disruptor.
+ * <p>
+ * Writers claim a sequence with a single atomic increment on the claim cursor and publish
+ * the entry by stamping the slot with its sequence. Readers snapshot the cursor and walk the
+ * sequence range backwards, validating each slot stamp before and after reading the entry,
+ * so a long dashboard query never blocks logging threads and writers never block each other.
+ * <p>
+ * Slot protocol (all accesses are volatile):
+ * <ol>
+ *   <li>Wait until the slot holds the previous lap ({@code sequence - capacity}); this only
+ *       spins when a writer laps another writer that has not finished publishing</li>
+ *   <li>Stamp the slot with {@link #WRITING}, store the entry, then stamp it with {@code sequence}</li>
+ * </ol>
+ * A reader that observes the same stamp before and after reading the entry is guaranteed to
+ * have read the entry that belongs to that sequence.
+ * <p>
+ * {@link #clear()} is lock-free as well: it moves the visible base sequence forward instead of
+ * wiping slots.
+ */
+public class RingBufferLogRepository implements LogRepository {
+
+    private static final int DEFAULT_MAX_ENTRIES = 10000;
+    private static final long WRITING = Long.MIN_VALUE;
+
+    private final AtomicReferenceArray<LogEntry> entries;
+    private final AtomicLongArray stamps;
+    private final int mask;
+    private final int capacity;
+    private final int maxEntries;
+    private final AtomicLong claimCursor = new AtomicLong();
+    private final AtomicLong baseSequence = new AtomicLong();
+    private final List<SubscriptionImpl> subscribers = new CopyOnWriteArrayList<>();
+
+    public RingBufferLogRepository() {
+        this(DEFAULT_MAX_ENTRIES);
+    }
+
+    /**
+     * Creates a repository retaining the most recent {@code maxEntries} entries.
+     * The underlying ring is rounded up to the next power of two.
+     */
+    public RingBufferLogRepository(int maxEntries) {
+        if (maxEntries <= 0) {
+            throw new IllegalArgumentException("maxEntries must be positive");
+        }
+        int size = Integer.highestOneBit(maxEntries);
+        if (size < maxEntries) {
+            size <<= 1;
+        }
+        this.maxEntries = maxEntries;
+        this.capacity = size;
+        this.mask = size - 1;
+        this.entries = new AtomicReferenceArray<>(size);
+        this.stamps = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            // Slot i initially holds lap -1, so the writer of sequence i can claim it
+            stamps.set(i, (long) i - size);
+        }
+    }
+
+    @Override
+    public void add(LogEntry entry) {
+        long sequence = claimCursor.getAndIncrement();
+        int index = (int) (sequence & mask);
+        long previousLap = sequence - capacity;
+
+        while (stamps.get(index) != previousLap) {
+            Thread.onSpinWait();
+        }
+        stamps.set(index, WRITING);
+        entries.set(index, entry);
+        stamps.set(index, sequence);
+
+        notifySubscribers(entry);
+    }
+
+    private void notifySubscribers(LogEntry entry) {
+        for (SubscriptionImpl subscription : subscribers) {
+            if (subscription.isActive()) {
+                try {
+                    subscription.consumer.accept(entry);
+                } catch (Exception e) {
+                    // Subscriber issue shouldn't affect main flow
+                }
+            }
+        }
+    }
+
+    /**
+     * Reads the entry published at {@code sequence}, or null if it is not (or no longer) available.
+     */
+    private LogEntry read(long sequence) {
+        int index = (int) (sequence & mask);
+        if (stamps.get(index) != sequence) {
+            return null;
+        }
+        LogEntry entry = entries.get(index);
+        return stamps.get(index) == sequence ? entry : null;
+    }
+
+    /**
+     * Highest claimed sequence at the time of the call (may not be published yet).
+     */
+    private long highSequence() {
+        return claimCursor.get() - 1;
+    }
+
+    /**
+     * Lowest sequence that is still retained and visible.
+     */
+    private long lowSequence(long high) {
+        return Math.max(baseSequence.get(), high - maxEntries + 1);
+    }
+
+    @Override
+    public List<LogEntry> query(LogQuery query) {
+        List<LogEntry> result = new ArrayList<>();
+        collect(query, result);
+        return result;
+    }
+
+    /**
+     * Pages by sequence: the returned cursor holds the sequence of the last entry on the page.
+     */
+    @Override
+    public LogPage queryPage(LogQuery query) {
+        List<LogEntry> result = new ArrayList<>();
+        long last = collect(query, result);
+        return new LogPage(result, result.size() < query.limit() ? null : new LogCursor(last));
+    }
+
+    /**
+     * Collects matching entries newest first, honouring limit and either the cursor or the offset.
+     * Returns the sequence of the last collected entry, or -1.
+     */
+    private long collect(LogQuery query, List<LogEntry> result) {
+        long high = highSequence();
+        long low = lowSequence(high);
+        int limit = query.limit();
+        int offset = query.offset();
+        if (query.cursor() != null) {
+            high = Math.min(high, query.cursor().position() - 1);
+            offset = 0;
+        }
+        int skipped = 0;
+        long last = -1;
+
+        // Newest first
+        for (long sequence = high; sequence >= low && result.size() < limit; sequence--) {
+            LogEntry entry = read(sequence);
+            if (entry != null && query.matches(entry)) {
+                if (skipped < offset) {
+                    skipped++;
+                } else {
+                    result.add(entry);
+                    last = sequence;
+                }
+            }
+        }
+        return last;
+    }
+
+    @Override
+    public long count() {
+        long high = highSequence();
+        return Math.max(0, high - lowSequence(high) + 1);
+    }
+
+    @Override
+    public long count(LogQuery query) {
+        long high = highSequence();
+        long matchCount = 0;
+        for (long sequence = lowSequence(high); sequence <= high; sequence++) {
+            LogEntry entry = read(sequence);
+            if (entry != null && query.matches(entry)) {
+                matchCount++;
+            }
+        }
+        return matchCount;
+    }
+
+    @Override
+    public void clear() {
+        // Everything claimed so far becomes invisible; in-flight writers still complete normally
+        long next = claimCursor.get();
+        baseSequence.accumulateAndGet(next, Math::max);
+    }
+
+    @Override
+    public LogStats stats() {
+        long high = highSequence();
+        long total = 0;
+        long errorCount = 0;
+        long warnCount = 0;
+        long infoCount = 0;
+        long debugCount = 0;
+        long traceCount = 0;
+        Set<String> uniqueLoggers = new HashSet<>();
+        Set<String> uniqueThreads = new HashSet<>();
+
+        for (long sequence = lowSequence(high); sequence <= high; sequence++) {
+            LogEntry entry = read(sequence);
+            if (entry == null) continue;
+            total++;
+            switch (entry.level()) {
+                case ERROR -> errorCount++;
+                case WARN -> warnCount++;
+                case INFO -> infoCount++;
+                case DEBUG -> debugCount++;
+                case TRACE -> traceCount++;
+            }
+            if (entry.loggerName() != null) {
+                uniqueLoggers.add(entry.loggerName());
+            }
+            if (entry.threadName() != null) {
+                uniqueThreads.add(entry.threadName());
+            }
+        }
+
+        return new LogStats(
+                total,
+                errorCount,
+                warnCount,
+                infoCount,
+                debugCount,
+                traceCount,
+                uniqueLoggers.size(),
+                uniqueThreads.size()
+        );
+    }
+
+    @Override
+    public Subscription subscribe(Consumer<LogEntry> subscriber) {
+        SubscriptionImpl subscription = new SubscriptionImpl(subscriber);
+        subscribers.add(subscription);
+        return subscription;
+    }
+
+    /**
+     * Returns the configured maximum number of retained entries.
+     */
+    public int capacity() {
+        return maxEntries;
+    }
+
+    private class SubscriptionImpl implements Subscription {
+        private final Consumer<LogEntry> consumer;
+        private volatile boolean active = true;
+
+        SubscriptionImpl(Consumer<LogEntry> consumer) {
+            this.consumer = consumer;
+        }
+
+        @Override
+        public void unsubscribe() {
+            active = false;
+            subscribers.remove(this);
+        }
+
+        @Override
+        public boolean isActive() {
+            return active;
+        }
+    }
+}
@@ -0,0 +1,576 @@
+package io.github.jobs.infrastructure;
+
+import io.github.jobs.application.LogRepository;
+import io.github.jobs.domain.log.LogCursor;
+import io.github.jobs.domain.log.LogEntry;
+import io.github.jobs.domain.log.LogLevel;
+import io.github.jobs.domain.log.LogPage;
+import io.github.jobs.domain.log.LogQuery;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * Persistent implementation of LogRepository backed by append-only, memory-mapped segment files.
+ * <p>
+ * Entries are appended to the active segment until it is full, then the segment is sealed
+ * (flushed) and a new one is started. Each segment keeps a sparse in-memory index of record
+ * positions and block time ranges, rebuilt by scanning the files on startup, so logs survive
+ * restarts and queries skip whole segments and blocks outside a requested time range.
+ * <p>
+ * Crash safety: every record carries a CRC32. On startup the newest segment is verified record by
+ * record and truncated at the first torn or corrupt record; older segments were sealed with a
+ * flush and are trusted. Mapped pages reach the disk through the OS page cache, so a process
+ * crash loses nothing; only an OS crash may lose records written since the last roll or
+ * {@link #flush()}.
+ * <p>
+ * Retention works at segment granularity: {@link #deleteOlderThan(Instant)} and
+ * {@link #deleteExceedingBytes(long)} remove whole sealed segments, and the retention period and
+ * total size limit given to the constructor are also enforced whenever a segment rolls, so the
+ * store stays bounded without an external retention task. A deleted segment is unmapped as soon
+ * as the queries reading it finish, which frees its disk space.
+ * <p>
+ * Appends are serialized by a lock; queries never take it and read the segments lock-free.
+ */
+public class SegmentLogRepository implements LogRepository, AutoCloseable {
+
+    private static final int MIN_SEGMENT_BYTES = 64 * 1024;
+    private static final int MDC_AND_HEADER_RESERVE = 64;
+    private static final int FIELD_COUNT = 7;
+
+    private final Path directory;
+    private final int segmentBytes;
+    private final long maxTotalBytes;
+    private final Duration retention;
+    private final int maxRecordBytes;
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private final LogEntryCodec.Encoder encoder = new LogEntryCodec.Encoder();
+    private final List<SubscriptionImpl> subscribers = new CopyOnWriteArrayList<>();
+
+    // Oldest first; replaced (never mutated) under the write lock so readers can snapshot it
+    private volatile List<LogSegment> segments;
+    private LogSegment active;
+
+    /**
+     * Opens (or creates) a segment store in {@code directory}, recovering any existing segments.
+     *
+     * @param segmentBytes  size of each segment file
+     * @param maxTotalBytes total size above which the oldest sealed segments are deleted, or 0 for no limit
+     */
+    public SegmentLogRepository(Path directory, long segmentBytes, long maxTotalBytes) {
+        this(directory, segmentBytes, maxTotalBytes, null);
+    }
+
+    /**
+     * Opens (or creates) a segment store in {@code directory}, recovering any existing segments.
+     *
+     * @param segmentBytes  size of each segment file
+     * @param maxTotalBytes total size above which the oldest sealed segments are deleted, or 0 for no limit
+     * @param retention     age after which sealed segments are deleted on roll, or null to keep them
+     */
+    public SegmentLogRepository(Path directory, long segmentBytes, long maxTotalBytes, Duration retention) {
+        if (segmentBytes < MIN_SEGMENT_BYTES || segmentBytes > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("segmentBytes must be between " + MIN_SEGMENT_BYTES
+                    + " and " + Integer.MAX_VALUE + ", was " + segmentBytes);
+        }
+        this.directory = directory;
+        this.segmentBytes = (int) segmentBytes;
+        this.maxTotalBytes = maxTotalBytes;
+        this.retention = retention != null && !retention.isNegative() && !retention.isZero() ? retention : null;
+        this.maxRecordBytes = this.segmentBytes - LogSegment.HEADER_BYTES - LogSegment.RECORD_HEADER_BYTES;
+        try {
+            Files.createDirectories(directory);
+            List<LogSegment> recovered = recover();
+            if (recovered.isEmpty() || recovered.get(recovered.size() - 1).isSealed()) {
+                long next = recovered.isEmpty() ? 0 : recovered.get(recovered.size() - 1).nextSequence();
+                recovered.add(LogSegment.create(directory, next, this.segmentBytes));
+            }
+            this.active = recovered.get(recovered.size() - 1);
+            this.segments = List.copyOf(recovered);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to open log segments in " + directory, e);
+        }
+    }
+
+    private List<LogSegment> recover() throws IOException {
+        List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "*.seg")) {
+            stream.forEach(files::add);
+        }
+        // Zero-padded base sequences sort in append order
+        files.sort(null);
+        List<LogSegment> recovered = new ArrayList<>();
+        for (int i = 0; i < files.size(); i++) {
+            LogSegment segment = LogSegment.open(files.get(i), i == files.size() - 1);
+            if (segment == null) {
+                continue;
+            }
+            if (!recovered.isEmpty() && segment.baseSequence() < recovered.get(recovered.size() - 1).nextSequence()) {
+                // Overlaps its predecessor (e.g. a partially written roll); keep the older data
+                segment.close();
+                continue;
+            }
+            recovered.add(segment);
+        }
+        return recovered;
+    }
+
+    @Override
+    public void add(LogEntry entry) {
+        long nanos = entry.epochNanos();
+        writeLock.lock();
+        try {
+            long sequence = active.nextSequence();
+            int length = encoder.encode(sequence, nanos, entry, Integer.MAX_VALUE, true);
+            if (length > maxRecordBytes) {
+                // Keep oversized records by truncating their fields and dropping the MDC
+                int maxChars = (maxRecordBytes - MDC_AND_HEADER_RESERVE) / (3 * FIELD_COUNT);
+                length = encoder.encode(sequence, nanos, entry, maxChars, false);
+            }
+            if (!active.append(encoder.bytes(), length, nanos, entry)) {
+                roll();
+                active.append(encoder.bytes(), length, nanos, entry);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to roll log segment in " + directory, e);
+        } finally {
+            writeLock.unlock();
+        }
+
+        notifySubscribers(entry);
+    }
+
+    /**
+     * Seals the active segment and starts a new one. Must be called with the write lock held.
+     */
+    private void roll() throws IOException {
+        active.seal();
+        LogSegment next = LogSegment.create(directory, active.nextSequence(), segmentBytes);
+        List<LogSegment> updated = new ArrayList<>(segments);
+        updated.add(next);
+        segments = List.copyOf(updated);
+        active = next;
+        if (maxTotalBytes > 0 || retention != null) {
+            long cutoffNanos = retention != null
+                    ? LogEntry.epochNanos(Instant.now().minus(retention)) : Long.MIN_VALUE;
+            deleteSealed(cutoffNanos, maxTotalBytes > 0 ? maxTotalBytes : Long.MAX_VALUE);
+        }
+    }
+
+    private void notifySubscribers(LogEntry entry) {
+        for (SubscriptionImpl subscription : subscribers) {
+            if (subscription.isActive()) {
+                try {
+                    subscription.consumer.accept(entry);
+                } catch (Exception e) {
+                    // Subscriber issue shouldn't affect main flow
+                }
+            }
+        }
+    }
+
+    @Override
+    public List<LogEntry> query(LogQuery query) {
+        List<LogEntry> result = new ArrayList<>();
+        collect(query, result);
+        return result;
+    }
+
+    /**
+     * Pages by sequence: the returned cursor holds the sequence of the last entry on the page.
+     */
+    @Override
+    public LogPage queryPage(LogQuery query) {
+        List<LogEntry> result = new ArrayList<>();
+        long last = collect(query, result);
+        return new LogPage(result, result.size() < query.limit() ? null : new LogCursor(last));
+    }
+
+    /**
+     * Collects matching entries newest first, honouring limit and either the cursor or the offset.
+     * Returns the sequence of the last collected entry, or -1.
+     */
+    private long collect(LogQuery query, List<LogEntry> result) {
+        long high = Long.MAX_VALUE;
+        int offset = query.offset();
+        if (query.cursor() != null) {
+            high = query.cursor().position() - 1;
+            offset = 0;
+        }
+        int limit = query.limit();
+        if (limit <= 0) {
+            return -1;
+        }
+        int[] skipped = {0};
+        long[] last = {-1};
+        int effectiveOffset = offset;
+        scan(query, high, (sequence, entry) -> {
+            if (skipped[0] < effectiveOffset) {
+                skipped[0]++;
+                return true;
+            }
+            result.add(entry);
+            last[0] = sequence;
+            return result.size() < limit;
+        });
+        return last[0];
+    }
+
+    @Override
+    public long count() {
+        long total = 0;
+        for (LogSegment segment : segments) {
+            total += segment.recordCount();
+        }
+        return total;
+    }
+
+    /**
+     * Counts without decoding when possible: an unfiltered query is answered by {@link #count()},
+     * and a query filtering only on time and level reads whole blocks from the sparse index and
+     * the record headers of the blocks that straddle the range.
+     */
+    @Override
+    public long count(LogQuery query) {
+        if (!query.hasFilters()) {
+            return count();
+        }
+        if (isTimeAndLevelOnly(query)) {
+            return countByHeaders(query);
+        }
+        long[] matchCount = {0};
+        scan(query, Long.MAX_VALUE, (sequence, entry) -> {
+            matchCount[0]++;
+            return true;
+        });
+        return matchCount[0];
+    }
+
+    private static boolean isTimeAndLevelOnly(LogQuery query) {
+        return query.loggerName() == null && query.messagePattern() == null && query.search() == null
+                && query.traceId() == null && query.spanId() == null && query.threadName() == null;
+    }
+
+    private long countByHeaders(LogQuery query) {
+        long fromNanos = query.startTime() != null ? LogEntry.epochNanos(query.startTime()) : Long.MIN_VALUE;
+        long toNanos = query.endTime() != null ? LogEntry.epochNanos(query.endTime()) : Long.MAX_VALUE;
+        LogLevel minLevel = query.minLevel();
+        long total = 0;
+        for (LogSegment segment : segments) {
+            int records = segment.recordCount();
+            if (records == 0 || segment.maxNanos() < fromNanos || segment.minNanos() > toNanos) {
+                continue;
+            }
+            if (minLevel == null && segment.minNanos() >= fromNanos && segment.maxNanos() <= toNanos) {
+                total += records;
+                continue;
+            }
+            if (!segment.retain()) {
+                continue;
+            }
+            try {
+                total += countBlocks(segment, records, fromNanos, toNanos, minLevel);
+            } finally {
+                segment.release();
+            }
+        }
+        return total;
+    }
+
+    private static long countBlocks(LogSegment segment, int records, long fromNanos, long toNanos,
+                                    LogLevel minLevel) {
+        long total = 0;
+        for (int block = 0; block < segment.blockCount(records); block++) {
+            if (!segment.blockOverlaps(block, fromNanos, toNanos)) {
+                continue;
+            }
+            int first = block * LogSegment.INDEX_INTERVAL;
+            int count = Math.min(records - first, LogSegment.INDEX_INTERVAL);
+            if (minLevel == null && segment.blockWithin(block, fromNanos, toNanos)) {
+                total += count;
+                continue;
+            }
+            int position = segment.blockPosition(block);
+            for (int i = 0; i < count; i++) {
+                long nanos = segment.epochNanos(position);
+                if (nanos >= fromNanos && nanos <= toNanos
+                        && (minLevel == null || segment.level(position).isAtLeast(minLevel))) {
+                    total++;
+                }
+                position = segment.nextPosition(position);
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Visits entries matching {@code query} with a sequence up to {@code high}, newest first,
+     * skipping segments and index blocks whose time range cannot match.
+     */
+    private void scan(LogQuery query, long high, Visitor visitor) {
+        long fromNanos = query.startTime() != null ? LogEntry.epochNanos(query.startTime()) : Long.MIN_VALUE;
+        long toNanos = query.endTime() != null ? LogEntry.epochNanos(query.endTime()) : Long.MAX_VALUE;
+        List<LogSegment> snapshot = segments;
+        int[] positions = new int[LogSegment.INDEX_INTERVAL];
+
+        for (int s = snapshot.size() - 1; s >= 0; s--) {
+            LogSegment segment = snapshot.get(s);
+            int records = segment.recordCount();
+            long base = segment.baseSequence();
+            if (records == 0 || base > high
+                    || segment.maxNanos() < fromNanos || segment.minNanos() > toNanos) {
+                continue;
+            }
+            // A segment deleted since the snapshot was taken is skipped rather than read unmapped
+            if (!segment.retain()) {
+                continue;
+            }
+            try {
+                if (!scanSegment(segment, records, query, high, fromNanos, toNanos, positions, visitor)) {
+                    return;
+                }
+            } finally {
+                segment.release();
+            }
+        }
+    }
+
+    /**
+     * Returns false once the visitor stopped the scan.
+     */
+    private static boolean scanSegment(LogSegment segment, int records, LogQuery query, long high,
+                                       long fromNanos, long toNanos, int[] positions, Visitor visitor) {
+        long base = segment.baseSequence();
+        for (int block = segment.blockCount(records) - 1; block >= 0; block--) {
+            int first = block * LogSegment.INDEX_INTERVAL;
+            if (base + first > high || !segment.blockOverlaps(block, fromNanos, toNanos)) {
+                continue;
+            }
+            // Records are variable length, so walk the block forward and visit it backwards
+            int count = Math.min(records - first, LogSegment.INDEX_INTERVAL);
+            int position = segment.blockPosition(block);
+            for (int i = 0; i < count; i++) {
+                positions[i] = position;
+                position = segment.nextPosition(position);
+            }
+            for (int i = count - 1; i >= 0; i--) {
+                long sequence = base + first + i;
+                if (sequence > high) {
+                    continue;
+                }
+                LogEntry entry = segment.read(positions[i]);
+                if (query.matches(entry) && !visitor.visit(sequence, entry)) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Deletes all segments and starts a new, empty one. Sequences keep increasing, so cursors
+     * issued before the clear stay valid.
+     */
+    @Override
+    public void clear() {
+        writeLock.lock();
+        try {
+            long next = active.nextSequence();
+            for (LogSegment segment : segments) {
+                segment.delete();
+            }
+            active = LogSegment.create(directory, next, segmentBytes);
+            segments = List.of(active);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to clear log segments in " + directory, e);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @Override
+    public LogStats stats() {
+        long[] levels = new long[LogLevel.values().length];
+        Set<String> loggers = new HashSet<>();
+        Set<String> threads = new HashSet<>();
+        long total = 0;
+        for (LogSegment segment : segments) {
+            total += segment.recordCount();
+            for (LogLevel level : LogLevel.values()) {
+                levels[level.ordinal()] += segment.levelCount(level);
+            }
+            loggers.addAll(segment.loggers());
+            threads.addAll(segment.threads());
+        }
+        return new LogStats(
+                total,
+                levels[LogLevel.ERROR.ordinal()],
+                levels[LogLevel.WARN.ordinal()],
+                levels[LogLevel.INFO.ordinal()],
+                levels[LogLevel.DEBUG.ordinal()],
+                levels[LogLevel.TRACE.ordinal()],
+                loggers.size(),
+                threads.size()
+        );
+    }
+
+    @Override
+    public Subscription subscribe(Consumer<LogEntry> subscriber) {
+        SubscriptionImpl subscription = new SubscriptionImpl(subscriber);
+        subscribers.add(subscription);
+        return subscription;
+    }
+
+    /**
+     * Deletes sealed segments whose newest entry is older than {@code cutoff}.
+     *
+     * @return the number of entries removed
+     */
+    public long deleteOlderThan(Instant cutoff) {
+        writeLock.lock();
+        try {
+            return deleteSealed(LogEntry.epochNanos(cutoff), Long.MAX_VALUE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to delete log segments in " + directory, e);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Deletes the oldest sealed segments until the store occupies at most {@code maxBytes} on disk.
+     * The active segment is always kept.
+     *
+     * @return the number of entries removed
+     */
+    public long deleteExceedingBytes(long maxBytes) {
+        writeLock.lock();
+        try {
+            return deleteSealed(Long.MIN_VALUE, maxBytes);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to delete log segments in " + directory, e);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Deletes sealed segments that end before {@code cutoffNanos} or, oldest first, while the
+     * total size exceeds {@code maxBytes}. Must be called with the write lock held.
+     */
+    private long deleteSealed(long cutoffNanos, long maxBytes) throws IOException {
+        List<LogSegment> remaining = new ArrayList<>(segments);
+        long bytes = diskBytes();
+        long removed = 0;
+        for (LogSegment segment : segments) {
+            if (segment == active) {
+                break;
+            }
+            boolean expired = !segment.isEmpty() && segment.maxNanos() < cutoffNanos;
+            if (!expired && bytes <= maxBytes) {
+                continue;
+            }
+            remaining.remove(segment);
+            bytes -= segment.capacity();
+            removed += segment.recordCount();
+        }
+        if (remaining.size() == segments.size()) {
+            return 0;
+        }
+        List<LogSegment> deleted = new ArrayList<>(segments);
+        deleted.removeAll(remaining);
+        // Publish first: in-flight readers keep their mapping until they release the segment,
+        // new readers no longer see it
+        segments = List.copyOf(remaining);
+        for (LogSegment segment : deleted) {
+            segment.delete();
+        }
+        return removed;
+    }
+
+    /**
+     * Returns the total size of the segment files in bytes.
+     */
+    public long diskBytes() {
+        long bytes = 0;
+        for (LogSegment segment : segments) {
+            bytes += segment.capacity();
+        }
+        return bytes;
+    }
+
+    /**
+     * Returns the number of segment files, including the active one.
+     */
+    public int segmentCount() {
+        return segments.size();
+    }
+
+    /**
+     * Forces the active segment's written records to disk.
+     */
+    public void flush() {
+        writeLock.lock();
+        try {
+            active.force();
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Flushes and closes all segment files. The repository must not be used afterwards.
+     */
+    @Override
+    public void close() {
+        writeLock.lock();
+        try {
+            active.force();
+            for (LogSegment segment : segments) {
+                segment.close();
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @FunctionalInterface
+    private interface Visitor {
+        /**
+         * Returns false to stop the scan.
+         */
+        boolean visit(long sequence, LogEntry entry);
+    }
+
+    private class SubscriptionImpl implements Subscription {
+        private final Consumer<LogEntry> consumer;
+        private volatile boolean active = true;
+
+        SubscriptionImpl(Consumer<LogEntry> consumer) {
+            this.consumer = consumer;
+        }
+
+        @Override
+        public void unsubscribe() {
+            active = false;
+            subscribers.remove(this);
+        }
+
+        @Override
+        public boolean isActive() {
+            return active;
+        }
+    }
+}
@@ -0,0 +1,543 @@
+package io.github.jobs.infrastructure;
+
+import io.github.jobs.application.LogRepository;
+import io.github.jobs.domain.log.LogCursor;
+import io.github.jobs.domain.log.LogEntry;
+import io.github.jobs.domain.log.LogLevel;
+import io.github.jobs.domain.log.LogPage;
+import io.github.jobs.domain.log.LogQuery;
+import io.github.jobs.domain.log.LogSearchQuery;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/**
+ * Log store with one circular buffer per log level, so a flood of one level cannot evict another.
+ * <p>
+ * The {@code maxEntries} budget is split between the levels by percentage. A burst of DEBUG
+ * output only overwrites older DEBUG lines; ERROR and WARN lines are kept until enough newer
+ * lines of their own level arrive. A level with a share of 0 is not retained at all, though it
+ * still reaches subscribers.
+ * <p>
+ * Every entry gets a global sequence number on add, and each ring keeps the sequences of its
+ * entries in ascending order. Queries walk the rings newest first and combine them with a k-way
+ * merge on the sequence, so results come back in insertion order as with
+ * {@link InMemoryLogRepository}, and {@link #queryPage(LogQuery)} returns a sequence cursor that
+ * stays valid across rings. Rings below a query's minimum level are not visited.
+ * <p>
+ * Trace id, span id and (unless disabled) search token indexes are kept per ring, since each
+ * ring evicts in its own order.
+ */
+public class TieredLogRepository implements LogRepository {
+
+    private static final int DEFAULT_MAX_ENTRIES = 10000;
+    private static final LogLevel[] LEVELS = LogLevel.values();
+
+    /**
+     * Default split of the budget in percent; errors and warnings keep 40% between them.
+     */
+    public static final Map<LogLevel, Integer> DEFAULT_SHARES = Map.of(
+            LogLevel.ERROR, 20,
+            LogLevel.WARN, 20,
+            LogLevel.INFO, 40,
+            LogLevel.DEBUG, 15,
+            LogLevel.TRACE, 5
+    );
+
+    private final Tier[] tiers = new Tier[LEVELS.length];
+    private final int maxEntries;
+    private final boolean searchIndex;
+    private long nextSequence = 0;
+    private final LogStatsCounter statsCounter = new LogStatsCounter();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final List<SubscriptionImpl> subscribers = new CopyOnWriteArrayList<>();
+
+    public TieredLogRepository() {
+        this(DEFAULT_MAX_ENTRIES);
+    }
+
+    public TieredLogRepository(int maxEntries) {
+        this(maxEntries, DEFAULT_SHARES, true);
+    }
+
+    /**
+     * Creates a repository retaining at most {@code maxEntries} entries in total.
+     *
+     * @param shares      percentage of {@code maxEntries} reserved for each level, summing to 100;
+     *                    missing levels get 0
+     * @param searchIndex whether to maintain the full-text token index
+     */
+    public TieredLogRepository(int maxEntries, Map<LogLevel, Integer> shares, boolean searchIndex) {
+        if (maxEntries <= 0) {
+            throw new IllegalArgumentException("maxEntries must be positive");
+        }
+        int[] capacities = capacities(maxEntries, shares);
+        for (LogLevel level : LEVELS) {
+            int capacity = capacities[level.ordinal()];
+            if (capacity > 0) {
+                tiers[level.ordinal()] = new Tier(capacity, searchIndex);
+            }
+        }
+        this.maxEntries = maxEntries;
+        this.searchIndex = searchIndex;
+    }
+
+    /**
+     * Splits {@code maxEntries} by percentage. Rounding leftovers go to the most severe levels
+     * that have a share.
+     */
+    private static int[] capacities(int maxEntries, Map<LogLevel, Integer> shares) {
+        Map<LogLevel, Integer> percents = new EnumMap<>(LogLevel.class);
+        int total = 0;
+        for (Map.Entry<LogLevel, Integer> share : shares.entrySet()) {
+            int percent = share.getValue() != null ? share.getValue() : 0;
+            if (percent < 0) {
+                throw new IllegalArgumentException("share of " + share.getKey() + " must not be negative");
+            }
+            percents.put(share.getKey(), percent);
+            total += percent;
+        }
+        if (total != 100) {
+            throw new IllegalArgumentException("level shares must sum to 100, got " + total);
+        }
+
+        int[] capacities = new int[LEVELS.length];
+        int assigned = 0;
+        for (Map.Entry<LogLevel, Integer> percent : percents.entrySet()) {
+            int capacity = (int) ((long) maxEntries * percent.getValue() / 100);
+            capacities[percent.getKey().ordinal()] = capacity;
+            assigned += capacity;
+        }
+        while (assigned < maxEntries) {
+            for (int i = LEVELS.length - 1; i >= 0 && assigned < maxEntries; i--) {
+                if (percents.getOrDefault(LEVELS[i], 0) > 0) {
+                    capacities[i]++;
+                    assigned++;
+                }
+            }
+        }
+        return capacities;
+    }
+
+    @Override
+    public void add(LogEntry entry) {
+        Tier tier = tiers[entry.level().ordinal()];
+        // Tokenize outside the lock; only posting maintenance happens while holding it
+        String[] tokens = searchIndex && tier != null ? LogSearchQuery.tokens(entry.message()) : null;
+
+        lock.writeLock().lock();
+        try {
+            statsCounter.added(entry);
+            if (tier == null) {
+                // Not retained, but still counted as ingested
+                statsCounter.evicted(entry);
+            } else {
+                LogEntry evicted = tier.add(nextSequence, entry, tokens);
+                if (evicted != null) {
+                    statsCounter.evicted(evicted);
+                }
+            }
+            nextSequence++;
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        notifySubscribers(entry);
+    }
+
+    private void notifySubscribers(LogEntry entry) {
+        for (SubscriptionImpl subscription : subscribers) {
+            if (subscription.isActive()) {
+                try {
+                    subscription.consumer.accept(entry);
+                } catch (Exception e) {
+                    // Subscriber issue shouldn't affect main flow
+                }
+            }
+        }
+    }
+
+    @Override
+    public List<LogEntry> query(LogQuery query) {
+        lock.readLock().lock();
+        try {
+            List<LogEntry> result = new ArrayList<>(Math.min(query.limit(), maxEntries));
+            collect(query, result);
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Pages by global sequence: the returned cursor holds the sequence of the last entry on the
+     * page, so the next page resumes right below it in every ring.
+     */
+    @Override
+    public LogPage queryPage(LogQuery query) {
+        lock.readLock().lock();
+        try {
+            List<LogEntry> result = new ArrayList<>(Math.min(query.limit(), maxEntries));
+            long last = collect(query, result);
+            LogCursor next = result.size() < query.limit() ? null : new LogCursor(last);
+            return new LogPage(result, next);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Merges the matching entries of all eligible rings newest first into {@code result},
+     * honouring limit and either the cursor or the offset. Returns the sequence of the last
+     * collected entry, or -1. Must be called with the lock held.
+     */
+    private long collect(LogQuery query, List<LogEntry> result) {
+        long high = nextSequence - 1;
+        int offset = query.offset();
+        if (query.cursor() != null) {
+            high = Math.min(high, query.cursor().position() - 1);
+            offset = 0;
+        }
+
+        List<TierCursor> cursors = new ArrayList<>(LEVELS.length);
+        for (Tier tier : eligibleTiers(query)) {
+            TierCursor cursor = new TierCursor(tier, query, high);
+            if (cursor.sequence >= 0) {
+                cursors.add(cursor);
+            }
+        }
+
+        int limit = query.limit();
+        int skipped = 0;
+        long last = -1;
+        while (result.size() < limit) {
+            // At most one cursor per level, so a linear scan for the newest head beats a heap
+            TierCursor newest = null;
+            for (TierCursor cursor : cursors) {
+                if (cursor.sequence >= 0 && (newest == null || cursor.sequence > newest.sequence)) {
+                    newest = cursor;
+                }
+            }
+            if (newest == null) {
+                break;
+            }
+            if (skipped < offset) {
+                skipped++;
+            } else {
+                result.add(newest.entry);
+                last = newest.sequence;
+            }
+            newest.advance();
+        }
+        return last;
+    }
+
+    /**
+     * Returns the rings that can hold entries at or above the query's minimum level.
+     */
+    private List<Tier> eligibleTiers(LogQuery query) {
+        List<Tier> eligible = new ArrayList<>(LEVELS.length);
+        for (LogLevel level : LEVELS) {
+            Tier tier = tiers[level.ordinal()];
+            if (tier != null && tier.size > 0 && (query.minLevel() == null || level.isAtLeast(query.minLevel()))) {
+                eligible.add(tier);
+            }
+        }
+        return eligible;
+    }
+
+    @Override
+    public long count() {
+        lock.readLock().lock();
+        try {
+            long count = 0;
+            for (Tier tier : tiers) {
+                if (tier != null) {
+                    count += tier.size;
+                }
+            }
+            return count;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public long count(LogQuery query) {
+        lock.readLock().lock();
+        try {
+            long matchCount = 0;
+            for (Tier tier : eligibleTiers(query)) {
+                long[] candidates = tier.candidates(query);
+                if (candidates != null) {
+                    for (long sequence : candidates) {
+                        int position = tier.positionOf(sequence);
+                        if (position >= 0 && query.matches(tier.entryAt(position))) {
+                            matchCount++;
+                        }
+                    }
+                } else {
+                    for (int position = 0; position < tier.size; position++) {
+                        if (query.matches(tier.entryAt(position))) {
+                            matchCount++;
+                        }
+                    }
+                }
+            }
+            return matchCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            // Sequences keep counting so cursors issued before the clear stay valid (and empty)
+            for (Tier tier : tiers) {
+                if (tier != null) {
+                    tier.clear();
+                }
+            }
+            statsCounter.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns statistics maintained incrementally on add and eviction; O(1) and lock-free.
+     */
+    @Override
+    public LogStats stats() {
+        return statsCounter.snapshot();
+    }
+
+    @Override
+    public Subscription subscribe(Consumer<LogEntry> subscriber) {
+        SubscriptionImpl subscription = new SubscriptionImpl(subscriber);
+        subscribers.add(subscription);
+        return subscription;
+    }
+
+    /**
+     * Returns the total capacity of all rings.
+     */
+    public int capacity() {
+        return maxEntries;
+    }
+
+    /**
+     * Returns the capacity reserved for {@code level}, 0 if the level is not retained.
+     */
+    public int capacity(LogLevel level) {
+        Tier tier = tiers[level.ordinal()];
+        return tier != null ? tier.entries.length : 0;
+    }
+
+    /**
+     * Returns the number of entries of {@code level} added since creation, including evicted,
+     * cleared and unretained ones. Monotonic, suitable for rate calculations.
+     */
+    public long ingestedCount(LogLevel level) {
+        return statsCounter.ingested(level);
+    }
+
+    /**
+     * Circular buffer for one level. Entries are addressed by position, 0 being the oldest;
+     * their global sequences ascend with the position. Guarded by the repository lock.
+     */
+    private static final class Tier {
+        private final LogEntry[] entries;
+        private final long[] sequences;
+        private final LogTokenIndex traceIndex = new LogTokenIndex();
+        private final LogTokenIndex spanIndex = new LogTokenIndex();
+        private final LogTokenIndex tokenIndex;
+        private final String[][] slotTokens;
+        private int head = 0;
+        private int size = 0;
+
+        Tier(int capacity, boolean searchIndex) {
+            this.entries = new LogEntry[capacity];
+            this.sequences = new long[capacity];
+            this.tokenIndex = searchIndex ? new LogTokenIndex() : null;
+            this.slotTokens = searchIndex ? new String[capacity][] : null;
+        }
+
+        /**
+         * Appends {@code entry} and returns the entry it overwrote, or null.
+         */
+        LogEntry add(long sequence, LogEntry entry, String[] tokens) {
+            LogEntry evicted = null;
+            if (size == entries.length) {
+                evicted = entries[head];
+                long evictedSequence = sequences[head];
+                traceIndex.remove(evictedSequence, evicted.traceId());
+                spanIndex.remove(evictedSequence, evicted.spanId());
+                if (tokenIndex != null) {
+                    tokenIndex.remove(evictedSequence, slotTokens[head]);
+                }
+            } else {
+                size++;
+            }
+            traceIndex.add(sequence, entry.traceId());
+            spanIndex.add(sequence, entry.spanId());
+            if (tokenIndex != null) {
+                tokenIndex.add(sequence, tokens);
+                slotTokens[head] = tokens;
+            }
+            entries[head] = entry;
+            sequences[head] = sequence;
+            head = (head + 1) % entries.length;
+            return evicted;
+        }
+
+        private int slot(int position) {
+            return (head - size + position + entries.length) % entries.length;
+        }
+
+        LogEntry entryAt(int position) {
+            return entries[slot(position)];
+        }
+
+        long sequenceAt(int position) {
+            return sequences[slot(position)];
+        }
+
+        /**
+         * Returns the position of the newest entry whose sequence is at most {@code sequence},
+         * or -1 if there is none.
+         */
+        int floor(long sequence) {
+            int low = 0;
+            int high = size - 1;
+            int found = -1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                if (sequenceAt(mid) <= sequence) {
+                    found = mid;
+                    low = mid + 1;
+                } else {
+                    high = mid - 1;
+                }
+            }
+            return found;
+        }
+
+        /**
+         * Returns the position of the entry with {@code sequence}, or -1 if it is not retained.
+         */
+        int positionOf(long sequence) {
+            int position = floor(sequence);
+            return position >= 0 && sequenceAt(position) == sequence ? position : -1;
+        }
+
+        /**
+         * Returns ascending candidate sequences from the ring's indexes, or null if no index
+         * applies and the ring must be scanned.
+         */
+        long[] candidates(LogQuery query) {
+            long[] result = null;
+            if (query.traceId() != null) {
+                result = traceIndex.postings(query.traceId());
+            }
+            if (query.spanId() != null) {
+                result = narrow(result, spanIndex.postings(query.spanId()));
+            }
+            if (tokenIndex != null && query.search() != null) {
+                result = narrow(result, tokenIndex.candidates(query.search().root()));
+            }
+            return result;
+        }
+
+        private static long[] narrow(long[] current, long[] candidates) {
+            if (candidates == null) {
+                return current;
+            }
+            return current == null ? candidates : LogTokenIndex.intersect(current, candidates);
+        }
+
+        void clear() {
+            Arrays.fill(entries, null);
+            head = 0;
+            size = 0;
+            traceIndex.clear();
+            spanIndex.clear();
+            if (tokenIndex != null) {
+                tokenIndex.clear();
+                Arrays.fill(slotTokens, null);
+            }
+        }
+    }
+
+    /**
+     * Walks one ring newest first, positioned on its next match. {@link #sequence} is -1 once
+     * the ring is exhausted.
+     */
+    private static final class TierCursor {
+        private final Tier tier;
+        private final LogQuery query;
+        private final long[] candidates;
+        private int next;
+        long sequence = -1;
+        LogEntry entry;
+
+        TierCursor(Tier tier, LogQuery query, long high) {
+            this.tier = tier;
+            this.query = query;
+            this.candidates = tier.candidates(query);
+            if (candidates != null) {
+                int i = Arrays.binarySearch(candidates, high);
+                next = i >= 0 ? i : -i - 2;
+            } else {
+                next = tier.floor(high);
+            }
+            advance();
+        }
+
+        void advance() {
+            sequence = -1;
+            entry = null;
+            while (next >= 0) {
+                int position = candidates != null ? tier.positionOf(candidates[next]) : next;
+                next--;
+                if (position < 0) {
+                    continue;
+                }
+                LogEntry candidate = tier.entryAt(position);
+                if (query.matches(candidate)) {
+                    sequence = tier.sequenceAt(position);
+                    entry = candidate;
+                    return;
+                }
+            }
+        }
+    }
+
+    private class SubscriptionImpl implements Subscription {
+        private final Consumer<LogEntry> consumer;
+        private volatile boolean active = true;
+
+        SubscriptionImpl(Consumer<LogEntry> consumer) {
+            this.consumer = consumer;
+        }
+
+        @Override
+        public void unsubscribe() {
+            active = false;
+            subscribers.remove(this);
+        }
+
+        @Override
+        public boolean isActive() {
+            return active;
+        }
+    }
+}
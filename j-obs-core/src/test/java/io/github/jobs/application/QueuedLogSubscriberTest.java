@@ -0,0 +1,120 @@
+package io.github.jobs.application;
+
+import io.github.jobs.application.LogRepository.QueuedSubscription;
+import io.github.jobs.application.LogRepository.SubscriptionOptions;
+import io.github.jobs.domain.log.LogEntry;
+import io.github.jobs.domain.log.LogLevel;
+import io.github.jobs.infrastructure.InMemoryLogRepository;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class QueuedLogSubscriberTest {
+
+    private final InMemoryLogRepository repository = new InMemoryLogRepository(100);
+
+    @Test
+    void shouldDropOldestEntriesWithoutBlockingTheLogger() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        List<String> received = new CopyOnWriteArrayList<>();
+        QueuedSubscription subscription = repository.subscribe(entry -> {
+            await(release);
+            received.add(entry.message());
+        }, new SubscriptionOptions("slow", 4, SubscriptionOptions.DispatchMode.PLATFORM_THREAD,
+                SubscriptionOptions.OverflowPolicy.DROP_OLDEST, null));
+
+        repository.add(entry("m0"));
+        awaitLag(subscription, 0);
+        for (int i = 1; i <= 10; i++) {
+            repository.add(entry("m" + i));
+        }
+
+        assertThat(subscription.lag()).isEqualTo(4);
+        assertThat(subscription.droppedCount()).isEqualTo(6);
+
+        release.countDown();
+        awaitDelivered(subscription, 5);
+        assertThat(received).containsExactly("m0", "m7", "m8", "m9", "m10");
+
+        subscription.unsubscribe();
+        assertThat(subscription.isActive()).isFalse();
+    }
+
+    @Test
+    void shouldDisconnectSubscriberThatFallsBehind() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch disconnected = new CountDownLatch(1);
+        QueuedSubscription subscription = repository.subscribe(entry -> await(release),
+                new SubscriptionOptions("stuck", 2, SubscriptionOptions.DispatchMode.VIRTUAL_THREAD,
+                        SubscriptionOptions.OverflowPolicy.DISCONNECT, disconnected::countDown));
+
+        repository.add(entry("m0"));
+        awaitLag(subscription, 0);
+        for (int i = 1; i <= 3; i++) {
+            repository.add(entry("m" + i));
+        }
+
+        assertThat(subscription.isActive()).isFalse();
+        assertThat(subscription.droppedCount()).isEqualTo(1);
+        release.countDown();
+        assertThat(disconnected.await(5, TimeUnit.SECONDS)).isTrue();
+    }
+
+    @Test
+    void shouldUnsubscribeWhenDisconnectedWhileSubscribing() {
+        CountDownLatch release = new CountDownLatch(1);
+        List<LogRepository.Subscription> upstream = new CopyOnWriteArrayList<>();
+        InMemoryLogRepository busy = new InMemoryLogRepository(100) {
+            @Override
+            public Subscription subscribe(Consumer<LogEntry> subscriber) {
+                Subscription subscription = super.subscribe(subscriber);
+                upstream.add(subscription);
+                // Entries logged concurrently overflow the queue before subscribe returns
+                for (int i = 0; i < 3; i++) {
+                    subscriber.accept(entry("m" + i));
+                }
+                return subscription;
+            }
+        };
+
+        QueuedSubscription subscription = busy.subscribe(entry -> await(release),
+                new SubscriptionOptions("early", 1, SubscriptionOptions.DispatchMode.PLATFORM_THREAD,
+                        SubscriptionOptions.OverflowPolicy.DISCONNECT, null));
+
+        assertThat(subscription.isActive()).isFalse();
+        assertThat(upstream).singleElement().satisfies(s -> assertThat(s.isActive()).isFalse());
+        release.countDown();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void awaitLag(QueuedSubscription subscription, int lag) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (subscription.lag() != lag && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+    }
+
+    private static void awaitDelivered(QueuedSubscription subscription, long delivered) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (subscription.deliveredCount() < delivered && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+    }
+
+    private static LogEntry entry(String message) {
+        return LogEntry.builder().level(LogLevel.INFO).message(message).build();
+    }
+}
@@ -9,6 +9,23 @@ import static org.assertj.core.api.Assertions.assertThat;
 
 class LogEntryTest {
 
+    @Test
+    void shouldDeriveIdAndTimestampFromPrimitives() {
+        Instant timestamp = Instant.parse("2026-03-01T10:15:30.123456789Z");
+        Map<String, String> mdc = Map.of("tenant", "acme");
+
+        LogEntry entry = LogEntry.of(42L, timestamp.getEpochSecond() * 1_000_000_000L + timestamp.getNano(),
+                LogLevel.WARN, "com.example.MyClass", "Slow query", "main", null, null, null, null, mdc);
+
+        assertThat(entry.id()).isEqualTo("log-42").isSameAs(entry.id());
+        assertThat(entry.timestamp()).isEqualTo(timestamp);
+        assertThat(entry.epochNanos()).isEqualTo(LogEntry.builder().message("x").timestamp(timestamp).build().epochNanos());
+        assertThat(entry.mdc()).isSameAs(mdc);
+        assertThat(entry).isEqualTo(LogEntry.builder().id("log-42").message("other").build());
+        assertThat(entry.matches(LogQuery.builder().startTime(timestamp).endTime(timestamp).build())).isTrue();
+        assertThat(entry.matches(LogQuery.builder().startTime(timestamp.plusNanos(1)).build())).isFalse();
+    }
+
     @Test
     void shouldCreateLogEntryWithBuilder() {
         Instant now = Instant.now();
@@ -0,0 +1,68 @@
+package io.github.jobs.domain.log;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class LogSearchQueryTest {
+
+    @Test
+    void shouldTokenizeOnNonAlphanumerics() {
+        assertThat(LogSearchQuery.tokens("Order-42 FAILED: timeout, order retry"))
+                .containsExactly("order", "42", "failed", "timeout", "retry");
+    }
+
+    @Test
+    void shouldParseImplicitAndWithPrecedence() {
+        LogSearchQuery query = LogSearchQuery.parse("timeout db OR cache");
+
+        assertThat(query.root()).isEqualTo(new LogSearchQuery.Or(List.of(
+                new LogSearchQuery.And(List.of(new LogSearchQuery.Term("timeout"), new LogSearchQuery.Term("db"))),
+                new LogSearchQuery.Term("cache"))));
+    }
+
+    @Test
+    void shouldParsePhrasesNegationAndGroups() {
+        LogSearchQuery query = LogSearchQuery.parse("(\"Connection reset\" OR refused) AND NOT retry -warmup");
+
+        assertThat(query.root()).isEqualTo(new LogSearchQuery.And(List.of(
+                new LogSearchQuery.Or(List.of(
+                        new LogSearchQuery.Phrase(List.of("connection", "reset")),
+                        new LogSearchQuery.Term("refused"))),
+                new LogSearchQuery.Not(new LogSearchQuery.Term("retry")),
+                new LogSearchQuery.Not(new LogSearchQuery.Term("warmup")))));
+    }
+
+    @Test
+    void shouldTreatHyphenatedWordAsPhrase() {
+        assertThat(LogSearchQuery.parse("user-42").root())
+                .isEqualTo(new LogSearchQuery.Phrase(List.of("user", "42")));
+    }
+
+    @Test
+    void shouldMatchMessages() {
+        LogSearchQuery query = LogSearchQuery.parse("\"connection reset\" NOT retry");
+
+        assertThat(query.matches("Connection reset by peer")).isTrue();
+        assertThat(query.matches("reset connection by peer")).isFalse();
+        assertThat(query.matches("Connection reset, will retry")).isFalse();
+    }
+
+    @Test
+    void shouldTreatLowerCaseOperatorsAsTerms() {
+        assertThat(LogSearchQuery.parse("cats and dogs").root()).isEqualTo(new LogSearchQuery.And(List.of(
+                new LogSearchQuery.Term("cats"), new LogSearchQuery.Term("and"), new LogSearchQuery.Term("dogs"))));
+    }
+
+    @Test
+    void shouldRejectMalformedExpressions() {
+        assertThatThrownBy(() -> LogSearchQuery.parse("(timeout")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> LogSearchQuery.parse("timeout)")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> LogSearchQuery.parse("\"open")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> LogSearchQuery.parse("timeout OR")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> LogSearchQuery.parse("::")).isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,170 @@
+package io.github.jobs.infrastructure;
+
+import io.github.jobs.domain.log.LogCursor;
+import io.github.jobs.domain.log.LogEntry;
+import io.github.jobs.domain.log.LogLevel;
+import io.github.jobs.domain.log.LogPage;
+import io.github.jobs.domain.log.LogQuery;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CompressedLogRepositoryTest {
+
+    private static final Instant BASE = Instant.parse("2026-01-01T00:00:00Z");
+
+    @Test
+    void shouldAnswerQueriesLikeInMemoryStore() {
+        CompressedLogRepository compressed = new CompressedLogRepository(Long.MAX_VALUE / 2, 64);
+        InMemoryLogRepository reference = new InMemoryLogRepository(5000);
+        for (int i = 0; i < 1000; i++) {
+            LogEntry entry = createEntry(i);
+            compressed.add(entry);
+            reference.add(entry);
+        }
+
+        List<LogQuery> queries = List.of(
+                LogQuery.recent(50),
+                LogQuery.errors(),
+                LogQuery.byTraceId("trace-123"),
+                LogQuery.builder().loggerName("Service7").limit(1000).build(),
+                LogQuery.builder().threadName("worker-3").minLevel(LogLevel.WARN).limit(1000).build(),
+                LogQuery.builder().startTime(BASE.plusMillis(2000)).endTime(BASE.plusMillis(2990)).limit(1000).build(),
+                LogQuery.builder().search("customer 42").offset(2).limit(1000).build());
+
+        compressed.flush();
+        assertThat(compressed.compressedBlockCount()).isEqualTo(15);
+        for (LogQuery query : queries) {
+            assertThat(compressed.query(query)).containsExactlyElementsOf(reference.query(query));
+            assertThat(compressed.count(query)).isEqualTo(reference.count(query));
+        }
+        assertThat(compressed.stats()).isEqualTo(reference.stats());
+        assertThat(compressed.compressionRatio()).isGreaterThan(2.0);
+    }
+
+    @Test
+    void shouldCountTimeAndLevelQueriesFromBlockSummaries() {
+        CompressedLogRepository compressed = new CompressedLogRepository(Long.MAX_VALUE / 2, 64);
+        InMemoryLogRepository reference = new InMemoryLogRepository(5000);
+        for (int i = 0; i < 1000; i++) {
+            LogEntry entry = createEntry(i);
+            compressed.add(entry);
+            reference.add(entry);
+        }
+
+        List<LogQuery> queries = List.of(
+                LogQuery.all(),
+                LogQuery.builder().minLevel(LogLevel.WARN).build(),
+                LogQuery.builder().startTime(BASE.plusMillis(640)).endTime(BASE.plusMillis(1270)).build(),
+                LogQuery.builder().startTime(BASE.plusMillis(1005)).endTime(BASE.plusMillis(8995))
+                        .minLevel(LogLevel.INFO).build(),
+                LogQuery.builder().endTime(BASE.plusMillis(9995)).minLevel(LogLevel.ERROR).build());
+
+        for (LogQuery query : queries) {
+            assertThat(compressed.count(query)).isEqualTo(reference.count(query));
+        }
+    }
+
+    @Test
+    void shouldRoundTripAllFields() {
+        CompressedLogRepository repository = new CompressedLogRepository(Long.MAX_VALUE / 2, 16);
+        LogEntry entry = LogEntry.builder()
+                .timestamp(BASE.plusNanos(123_456_789))
+                .level(LogLevel.ERROR)
+                .loggerName("com.example.Café")
+                .threadName("main")
+                .traceId("4bf92f3577b34da6a3ce929d0e0e4736")
+                .spanId("00f067aa0ba902b7")
+                .message("Failed — retrying")
+                .throwable("java.lang.IllegalStateException: boom\n\tat Example.run(Example.java:1)")
+                .mdc(Map.of("user", "42"))
+                .build();
+        repository.add(entry);
+        for (int i = 0; i < 40; i++) {
+            repository.add(createEntry(i));
+        }
+
+        repository.flush();
+        LogEntry restored = repository.query(LogQuery.byTraceId("4bf92f3577b34da6a3ce929d0e0e4736")).get(0);
+        assertThat(repository.compressedBlockCount()).isEqualTo(2);
+        assertThat(restored).usingRecursiveComparison().isEqualTo(entry);
+    }
+
+    @Test
+    void shouldEvictOldestBlocksBeyondBudget() {
+        CompressedLogRepository repository = new CompressedLogRepository(32 * 1024, 64);
+        for (int i = 0; i < 5000; i++) {
+            repository.add(createEntry(i));
+        }
+        repository.flush();
+
+        assertThat(repository.compressedBytes()).isLessThanOrEqualTo(32 * 1024);
+        assertThat(repository.count()).isLessThan(5000).isEqualTo(repository.count(LogQuery.all()));
+        assertThat(repository.recent(1).get(0).message()).startsWith("Processed request 4999 ");
+        assertThat(repository.stats().totalEntries()).isEqualTo(repository.count());
+    }
+
+    @Test
+    void shouldCompressOnAddingThreadAfterClose() {
+        CompressedLogRepository repository = new CompressedLogRepository(Long.MAX_VALUE / 2, 16);
+        repository.close();
+        for (int i = 0; i < 40; i++) {
+            repository.add(createEntry(i));
+        }
+
+        assertThat(repository.compressedBlockCount()).isEqualTo(2);
+        assertThat(repository.query(LogQuery.recent(40))).hasSize(40);
+    }
+
+    @Test
+    void shouldKeepSealedBlocksReadableUntilCompressed() {
+        CompressedLogRepository repository = new CompressedLogRepository(Long.MAX_VALUE / 2, 16);
+        for (int i = 0; i < 16 * (CompressedLogRepository.MAX_PENDING_BLOCKS + 4); i++) {
+            repository.add(createEntry(i));
+            assertThat(repository.count()).isEqualTo(i + 1);
+            assertThat(repository.recent(1).get(0).message()).startsWith("Processed request " + i + " ");
+        }
+
+        repository.flush();
+        assertThat(repository.compressedBlockCount()).isEqualTo(CompressedLogRepository.MAX_PENDING_BLOCKS + 4);
+        assertThat(repository.count(LogQuery.all())).isEqualTo(16 * (CompressedLogRepository.MAX_PENDING_BLOCKS + 4));
+        repository.close();
+    }
+
+    @Test
+    void shouldPageWithCursorAcrossBlocks() {
+        CompressedLogRepository repository = new CompressedLogRepository(Long.MAX_VALUE / 2, 32);
+        for (int i = 0; i < 300; i++) {
+            repository.add(createEntry(i));
+        }
+        LogQuery query = LogQuery.builder().minLevel(LogLevel.ERROR).limit(7).build();
+
+        List<LogEntry> pages = new ArrayList<>();
+        LogCursor cursor = null;
+        do {
+            LogPage page = repository.queryPage(query.toBuilder().cursor(cursor).build());
+            pages.addAll(page.entries());
+            cursor = page.hasMore() ? page.nextCursor() : null;
+        } while (cursor != null);
+
+        assertThat(pages).containsExactlyElementsOf(repository.query(query.toBuilder().limit(1000).build()));
+        assertThat(pages).hasSize(60);
+    }
+
+    private static LogEntry createEntry(int i) {
+        return LogEntry.builder()
+                .timestamp(BASE.plusMillis(i * 10L))
+                .level(LogLevel.values()[i % LogLevel.values().length])
+                .loggerName("com.example.Service" + (i % 10))
+                .threadName("worker-" + (i % 4))
+                .traceId("trace-" + i)
+                .message("Processed request " + i + " for customer " + (i % 100))
+                .mdc(Map.of("requestId", "req-" + i))
+                .build();
+    }
+}
@@ -0,0 +1,242 @@
+package io.github.jobs.infrastructure;
+
+import io.github.jobs.application.LogRepository;
+import io.github.jobs.domain.log.LogCursor;
+import io.github.jobs.domain.log.LogEntry;
+import io.github.jobs.domain.log.LogFacets;
+import io.github.jobs.domain.log.LogLevel;
+import io.github.jobs.domain.log.LogPage;
+import io.github.jobs.domain.log.LogQuery;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class InMemoryLogRepositoryTest {
+
+    private InMemoryLogRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        repository = new InMemoryLogRepository(100);
+    }
+
+    @Test
+    void shouldAnswerBooleanSearchFromIndex() {
+        repository.add(createEntry("Connection reset by peer", LogLevel.ERROR));
+        repository.add(createEntry("Connection refused, will retry", LogLevel.WARN));
+        repository.add(createEntry("Database timeout", LogLevel.ERROR));
+        repository.add(createEntry("Request completed", LogLevel.INFO));
+
+        assertThat(messages(search("connection"))).containsExactly(
+                "Connection refused, will retry", "Connection reset by peer");
+        assertThat(messages(search("connection NOT retry"))).containsExactly("Connection reset by peer");
+        assertThat(messages(search("\"reset by\" OR timeout"))).containsExactly(
+                "Database timeout", "Connection reset by peer");
+        assertThat(messages(search("NOT connection"))).containsExactly("Request completed", "Database timeout");
+        assertThat(search("missing")).isEmpty();
+    }
+
+    @Test
+    void shouldCombineSearchWithOtherFiltersAndPaging() {
+        for (int i = 0; i < 20; i++) {
+            repository.add(createEntry("payment " + i + " processed", i % 2 == 0 ? LogLevel.ERROR : LogLevel.INFO));
+        }
+
+        LogQuery query = LogQuery.builder()
+                .search("payment processed")
+                .minLevel(LogLevel.ERROR)
+                .offset(1)
+                .limit(2)
+                .build();
+
+        assertThat(messages(repository.query(query))).containsExactly("payment 16 processed", "payment 14 processed");
+        assertThat(repository.count(query)).isEqualTo(10);
+    }
+
+    @Test
+    void shouldPruneIndexOnEviction() {
+        InMemoryLogRepository small = new InMemoryLogRepository(3);
+        small.add(createEntry("alpha", LogLevel.INFO));
+        small.add(createEntry("beta", LogLevel.INFO));
+        small.add(createEntry("gamma", LogLevel.INFO));
+        small.add(createEntry("delta beta", LogLevel.INFO));
+
+        assertThat(small.query(LogQuery.builder().search("alpha").build())).isEmpty();
+        assertThat(messages(small.query(LogQuery.builder().search("beta").build())))
+                .containsExactly("delta beta", "beta");
+        assertThat(small.indexedTermCount()).isEqualTo(3);
+    }
+
+    @Test
+    void shouldGiveSameResultsWithoutIndex() {
+        InMemoryLogRepository unindexed = new InMemoryLogRepository(100, false);
+        for (int i = 0; i < 30; i++) {
+            LogEntry entry = createEntry("job " + (i % 3) + " step " + (i % 5), LogLevel.INFO);
+            repository.add(entry);
+            unindexed.add(entry);
+        }
+
+        LogQuery query = LogQuery.builder().search("(job AND 1) OR \"step 4\" -2").limit(100).build();
+
+        assertThat(repository.query(query)).containsExactlyElementsOf(unindexed.query(query));
+        assertThat(repository.count(query)).isEqualTo(unindexed.count(query));
+        assertThat(unindexed.indexedTermCount()).isZero();
+    }
+
+    @Test
+    void shouldResetIndexOnClear() {
+        repository.add(createEntry("before clear", LogLevel.INFO));
+        repository.clear();
+        repository.add(createEntry("after clear", LogLevel.INFO));
+
+        assertThat(messages(search("clear"))).containsExactly("after clear");
+    }
+
+    @Test
+    void shouldCorrelateByTraceAndSpanIdAcrossEviction() {
+        InMemoryLogRepository small = new InMemoryLogRepository(4);
+        small.add(createEntry("a", "trace-1", "span-1"));
+        small.add(createEntry("b", "trace-2", "span-2"));
+        small.add(createEntry("c", "trace-1", "span-3"));
+        small.add(createEntry("d", "trace-2", "span-2"));
+        small.add(createEntry("e", "trace-1", "span-1"));
+
+        assertThat(messages(small.query(LogQuery.byTraceId("trace-1")))).containsExactly("e", "c");
+        assertThat(messages(small.query(LogQuery.bySpanId("span-2")))).containsExactly("d", "b");
+        assertThat(small.count(LogQuery.builder().traceId("trace-1").spanId("span-1").build())).isEqualTo(1);
+        assertThat(small.query(LogQuery.byTraceId("trace-3"))).isEmpty();
+    }
+
+    @Test
+    void shouldFilterTimeRangeAcrossBlocks() {
+        Instant base = Instant.parse("2026-01-01T00:00:00Z");
+        InMemoryLogRepository large = new InMemoryLogRepository(2000);
+        for (int i = 0; i < 3000; i++) {
+            // Slightly out of order, as with concurrent appenders
+            large.add(LogEntry.builder()
+                    .timestamp(base.plusMillis(i * 10L + (i % 3 == 0 ? 25 : 0)))
+                    .message("message " + i)
+                    .build());
+        }
+
+        LogQuery query = LogQuery.builder()
+                .startTime(base.plusMillis(20_000))
+                .endTime(base.plusMillis(20_990))
+                .limit(1000)
+                .build();
+
+        List<LogEntry> result = large.query(query);
+        assertThat(result).allSatisfy(entry -> assertThat(entry.timestamp())
+                .isBetween(base.plusMillis(20_000), base.plusMillis(20_990)));
+        assertThat(result).hasSize(100);
+        assertThat(large.count(query)).isEqualTo(100);
+    }
+
+    @Test
+    void shouldPageWithCursor() {
+        for (int i = 0; i < 25; i++) {
+            repository.add(createEntry("message " + i, i % 2 == 0 ? LogLevel.ERROR : LogLevel.INFO));
+        }
+        LogQuery query = LogQuery.builder().minLevel(LogLevel.ERROR).limit(5).build();
+
+        List<String> pages = new ArrayList<>();
+        LogCursor cursor = null;
+        do {
+            LogPage page = repository.queryPage(query.toBuilder().cursor(cursor).build());
+            pages.addAll(messages(page.entries()));
+            cursor = page.hasMore() ? LogCursor.decode(page.nextCursor().encode()) : null;
+        } while (cursor != null);
+
+        assertThat(pages).hasSize(13).startsWith("message 24", "message 22").endsWith("message 0");
+        assertThat(pages).containsExactlyElementsOf(messages(repository.query(query.toBuilder().limit(100).build())));
+    }
+
+    @Test
+    void shouldMaintainStatsAcrossEvictionAndClear() {
+        InMemoryLogRepository small = new InMemoryLogRepository(3);
+        small.add(LogEntry.builder().level(LogLevel.ERROR).loggerName("a").threadName("main").message("1").build());
+        small.add(LogEntry.builder().level(LogLevel.WARN).loggerName("b").threadName("main").message("2").build());
+        small.add(LogEntry.builder().level(LogLevel.INFO).loggerName("b").threadName("worker").message("3").build());
+        small.add(LogEntry.builder().level(LogLevel.INFO).loggerName("c").threadName("worker").message("4").build());
+
+        LogRepository.LogStats stats = small.stats();
+        assertThat(stats.totalEntries()).isEqualTo(3);
+        assertThat(stats.errorCount()).isZero();
+        assertThat(stats.warnCount()).isEqualTo(1);
+        assertThat(stats.infoCount()).isEqualTo(2);
+        assertThat(stats.uniqueLoggers()).isEqualTo(2);
+        assertThat(stats.uniqueThreads()).isEqualTo(2);
+        assertThat(small.ingestedCount(LogLevel.ERROR)).isEqualTo(1);
+
+        small.clear();
+
+        assertThat(small.stats()).isEqualTo(LogRepository.LogStats.empty());
+        assertThat(small.ingestedCount(LogLevel.INFO)).isEqualTo(2);
+    }
+
+    @Test
+    void shouldAnswerFacetsFromSecondBucketsLikeAScan() {
+        LogLevel[] levels = {LogLevel.INFO, LogLevel.DEBUG, LogLevel.WARN, LogLevel.INFO, LogLevel.ERROR};
+        Instant base = Instant.parse("2026-01-01T00:00:00Z");
+        for (int i = 0; i < 300; i++) {
+            repository.add(LogEntry.builder()
+                    .timestamp(base.plusMillis(i * 250L))
+                    .level(levels[i % levels.length])
+                    .loggerName("com.example.Service" + (i % 7))
+                    .threadName("worker-" + (i % 3))
+                    .message("line " + i)
+                    .build());
+        }
+
+        List<LogQuery> queries = List.of(
+                LogQuery.all(),
+                LogQuery.builder().minLevel(LogLevel.WARN).build(),
+                LogQuery.builder().startTime(base.plusMillis(52_300)).endTime(base.plusMillis(70_600)).build(),
+                LogQuery.builder().startTime(base.plusMillis(60_100)).endTime(base.plusMillis(60_400)).build(),
+                LogQuery.builder().loggerName("Service3").minLevel(LogLevel.INFO).build()
+        );
+        for (LogQuery query : queries) {
+            LogFacets.Collector scan = new LogFacets.Collector(Duration.ofSeconds(10), query.minLevel());
+            repository.query(query.toBuilder().limit(Integer.MAX_VALUE).build()).forEach(scan::add);
+
+            assertThat(repository.facets(query, 3, Duration.ofSeconds(10))).isEqualTo(scan.build(3));
+        }
+
+        LogFacets all = repository.facets(LogQuery.all(), 10, Duration.ofMinutes(1));
+        assertThat(all.total()).isEqualTo(100);
+        assertThat(all.levels().get(LogLevel.ERROR)).isEqualTo(20);
+        assertThat(all.threads()).extracting(LogFacets.Count::count).containsExactly(34L, 33L, 33L);
+        assertThat(all.histogram()).extracting(LogFacets.HistogramBucket::count).containsExactly(40L, 60L);
+    }
+
+    private List<LogEntry> search(String expression) {
+        return repository.query(LogQuery.builder().search(expression).build());
+    }
+
+    private static List<String> messages(List<LogEntry> entries) {
+        return entries.stream().map(LogEntry::message).toList();
+    }
+
+    private LogEntry createEntry(String message, String traceId, String spanId) {
+        return LogEntry.builder()
+                .message(message)
+                .traceId(traceId)
+                .spanId(spanId)
+                .build();
+    }
+
+    private LogEntry createEntry(String message, LogLevel level) {
+        return LogEntry.builder()
+                .level(level)
+                .loggerName("com.example.Test")
+                .message(message)
+                .threadName("main")
+                .build();
+    }
+}
@@ -0,0 +1,167 @@
+package io.github.jobs.infrastructure;
+
+import io.github.jobs.application.LogRepository;
+import io.github.jobs.domain.log.LogEntry;
+import io.github.jobs.domain.log.LogLevel;
+import io.github.jobs.domain.log.LogQuery;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class OffHeapLogRepositoryTest {
+
+    private static final Instant BASE = Instant.parse("2026-01-01T00:00:00.123456789Z");
+
+    private OffHeapLogRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        repository = new OffHeapLogRepository(100, 1024 * 1024);
+    }
+
+    @Test
+    void shouldRoundTripAllFields() {
+        LogEntry original = LogEntry.builder()
+                .id("log-42")
+                .timestamp(BASE)
+                .level(LogLevel.ERROR)
+                .loggerName("com.example.OrderService")
+                .message("Order failed: café ☕")
+                .threadName("http-nio-8080-exec-1")
+                .traceId("4bf92f3577b34da6a3ce929d0e0e4736")
+                .spanId("00f067aa0ba902b7")
+                .throwable("java.lang.IllegalStateException: boom\n\tat com.example.OrderService.place")
+                .mdc(Map.of("requestId", "req-1", "tenant", "acme"))
+                .build();
+
+        repository.add(original);
+        LogEntry stored = repository.recent(1).get(0);
+
+        assertThat(stored).isEqualTo(original);
+        assertThat(stored.timestamp()).isEqualTo(BASE);
+        assertThat(stored.level()).isEqualTo(LogLevel.ERROR);
+        assertThat(stored.loggerName()).isEqualTo(original.loggerName());
+        assertThat(stored.message()).isEqualTo(original.message());
+        assertThat(stored.threadName()).isEqualTo(original.threadName());
+        assertThat(stored.traceId()).isEqualTo(original.traceId());
+        assertThat(stored.spanId()).isEqualTo(original.spanId());
+        assertThat(stored.throwable()).isEqualTo(original.throwable());
+        assertThat(stored.mdc()).isEqualTo(original.mdc());
+    }
+
+    @Test
+    void shouldEvictOldestRowsWhenRowCapacityReached() {
+        for (int i = 0; i < 150; i++) {
+            repository.add(createEntry(i, LogLevel.INFO, "trace-" + i));
+        }
+
+        List<LogEntry> all = repository.query(LogQuery.recent(1000));
+
+        assertThat(repository.count()).isEqualTo(100);
+        assertThat(all.get(0).message()).isEqualTo("message 149");
+        assertThat(all.get(99).message()).isEqualTo("message 50");
+    }
+
+    @Test
+    void shouldEvictOldestRowsWhenArenaBudgetReached() {
+        long budget = 1000L * OffHeapLogRepository.ROW_BYTES + 64 * 1024;
+        OffHeapLogRepository small = new OffHeapLogRepository(1000, budget);
+        String padding = "x".repeat(500);
+
+        for (int i = 0; i < 1000; i++) {
+            small.add(LogEntry.builder().message(i + padding).build());
+        }
+
+        assertThat(small.count()).isLessThan(1000);
+        assertThat(small.usedArenaBytes()).isLessThanOrEqualTo(64 * 1024);
+        assertThat(small.recent(1).get(0).message()).startsWith("999");
+    }
+
+    @Test
+    void shouldFilterOnColumns() {
+        for (int i = 0; i < 20; i++) {
+            repository.add(createEntry(i, i % 4 == 0 ? LogLevel.ERROR : LogLevel.DEBUG, "trace-" + (i % 5)));
+        }
+
+        assertThat(repository.count(LogQuery.errors())).isEqualTo(5);
+        assertThat(repository.query(LogQuery.byTraceId("trace-3"))).hasSize(4);
+        assertThat(repository.query(LogQuery.builder().loggerName("Service1").build())).hasSize(10);
+        assertThat(repository.query(LogQuery.builder().threadName("unknown").build())).isEmpty();
+        assertThat(repository.query(LogQuery.builder()
+                .startTime(BASE.plusSeconds(5))
+                .endTime(BASE.plusSeconds(9))
+                .build())).hasSize(5);
+        assertThat(repository.query(LogQuery.builder().messagePattern("MESSAGE 1").build())).hasSize(11);
+    }
+
+    @Test
+    void shouldSaturateTimeBoundsFarFromEpoch() {
+        for (int i = 0; i < 10; i++) {
+            repository.add(createEntry(i, LogLevel.INFO, "trace-" + i));
+        }
+
+        assertThat(repository.query(LogQuery.builder()
+                .startTime(Instant.parse("1000-01-01T00:00:00Z"))
+                .endTime(Instant.parse("3000-01-01T00:00:00Z"))
+                .build())).hasSize(10);
+        assertThat(repository.query(LogQuery.builder()
+                .startTime(Instant.parse("3000-01-01T00:00:00Z"))
+                .build())).isEmpty();
+    }
+
+    @Test
+    void shouldComputeStatsFromColumns() {
+        for (int i = 0; i < 10; i++) {
+            repository.add(createEntry(i, i < 3 ? LogLevel.WARN : LogLevel.INFO, null));
+        }
+
+        LogRepository.LogStats stats = repository.stats();
+
+        assertThat(stats.totalEntries()).isEqualTo(10);
+        assertThat(stats.warnCount()).isEqualTo(3);
+        assertThat(stats.infoCount()).isEqualTo(7);
+        assertThat(stats.uniqueLoggers()).isEqualTo(2);
+        assertThat(stats.uniqueThreads()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldClear() {
+        repository.add(createEntry(1, LogLevel.INFO, null));
+        repository.clear();
+
+        assertThat(repository.count()).isZero();
+        assertThat(repository.recent(10)).isEmpty();
+    }
+
+    @Test
+    void shouldRejectBudgetSmallerThanColumns() {
+        assertThatThrownBy(() -> new OffHeapLogRepository(1_000_000, 1024))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void shouldRejectCapacityBeyondOneDirectBuffer() {
+        // 300M rows * 8 bytes overflows an int: rejected up front instead of a negative capacity
+        assertThatThrownBy(() -> new OffHeapLogRepository(300_000_000, Long.MAX_VALUE))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("exceeds the off-heap limit");
+    }
+
+    private LogEntry createEntry(int index, LogLevel level, String traceId) {
+        return LogEntry.builder()
+                .id("log-" + index)
+                .timestamp(BASE.plusSeconds(index))
+                .level(level)
+                .loggerName("com.example.Service" + (index % 2))
+                .message("message " + index)
+                .threadName("main")
+                .traceId(traceId)
+                .build();
+    }
+}
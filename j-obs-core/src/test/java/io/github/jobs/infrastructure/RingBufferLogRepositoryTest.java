@@ -0,0 +1,166 @@
+package io.github.jobs.infrastructure;
+
+import io.github.jobs.application.LogRepository;
+import io.github.jobs.domain.log.LogEntry;
+import io.github.jobs.domain.log.LogLevel;
+import io.github.jobs.domain.log.LogQuery;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RingBufferLogRepositoryTest {
+
+    private RingBufferLogRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        repository = new RingBufferLogRepository(100);
+    }
+
+    @Test
+    void shouldReturnEntriesNewestFirst() {
+        for (int i = 0; i < 5; i++) {
+            repository.add(createEntry("message " + i, LogLevel.INFO));
+        }
+
+        List<LogEntry> recent = repository.recent(3);
+
+        assertThat(recent).extracting(LogEntry::message)
+                .containsExactly("message 4", "message 3", "message 2");
+    }
+
+    @Test
+    void shouldOverwriteOldestWhenFull() {
+        RingBufferLogRepository small = new RingBufferLogRepository(10);
+        for (int i = 0; i < 25; i++) {
+            small.add(createEntry("message " + i, LogLevel.INFO));
+        }
+
+        List<LogEntry> all = small.query(LogQuery.recent(100));
+
+        assertThat(small.count()).isEqualTo(10);
+        assertThat(all).hasSize(10);
+        assertThat(all.get(0).message()).isEqualTo("message 24");
+        assertThat(all.get(9).message()).isEqualTo("message 15");
+    }
+
+    @Test
+    void shouldApplyFiltersAndOffset() {
+        for (int i = 0; i < 20; i++) {
+            repository.add(createEntry("message " + i, i % 2 == 0 ? LogLevel.ERROR : LogLevel.INFO));
+        }
+
+        List<LogEntry> page = repository.query(LogQuery.builder()
+                .minLevel(LogLevel.ERROR)
+                .limit(3)
+                .offset(2)
+                .build());
+
+        assertThat(page).extracting(LogEntry::message)
+                .containsExactly("message 14", "message 12", "message 10");
+        assertThat(repository.count(LogQuery.errors())).isEqualTo(10);
+    }
+
+    @Test
+    void shouldClearWithoutLosingSubsequentEntries() {
+        repository.add(createEntry("before", LogLevel.INFO));
+        repository.clear();
+        repository.add(createEntry("after", LogLevel.INFO));
+
+        assertThat(repository.count()).isEqualTo(1);
+        assertThat(repository.recent(10)).extracting(LogEntry::message).containsExactly("after");
+    }
+
+    @Test
+    void shouldComputeStats() {
+        repository.add(createEntry("a", LogLevel.ERROR));
+        repository.add(createEntry("b", LogLevel.WARN));
+        repository.add(createEntry("c", LogLevel.INFO));
+
+        LogRepository.LogStats stats = repository.stats();
+
+        assertThat(stats.totalEntries()).isEqualTo(3);
+        assertThat(stats.errorCount()).isEqualTo(1);
+        assertThat(stats.warnCount()).isEqualTo(1);
+        assertThat(stats.infoCount()).isEqualTo(1);
+        assertThat(stats.uniqueLoggers()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldNotifySubscribers() {
+        List<LogEntry> received = new ArrayList<>();
+        LogRepository.Subscription subscription = repository.subscribe(received::add);
+
+        repository.add(createEntry("one", LogLevel.INFO));
+        subscription.unsubscribe();
+        repository.add(createEntry("two", LogLevel.INFO));
+
+        assertThat(received).extracting(LogEntry::message).containsExactly("one");
+        assertThat(subscription.isActive()).isFalse();
+    }
+
+    @Test
+    void shouldKeepAllEntriesFromConcurrentWriters() throws InterruptedException {
+        int threads = 8;
+        int perThread = 1000;
+        RingBufferLogRepository large = new RingBufferLogRepository(threads * perThread);
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(threads);
+        AtomicInteger readerErrors = new AtomicInteger();
+
+        for (int t = 0; t < threads; t++) {
+            int threadId = t;
+            new Thread(() -> {
+                try {
+                    start.await();
+                    for (int i = 0; i < perThread; i++) {
+                        large.add(createEntry("t" + threadId + "-" + i, LogLevel.INFO));
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    done.countDown();
+                }
+            }).start();
+        }
+
+        Thread reader = new Thread(() -> {
+            while (done.getCount() > 0) {
+                for (LogEntry entry : large.query(LogQuery.recent(500))) {
+                    if (entry == null) {
+                        readerErrors.incrementAndGet();
+                    }
+                }
+            }
+        });
+        reader.start();
+        start.countDown();
+        done.await();
+        reader.join();
+
+        List<LogEntry> all = large.query(LogQuery.recent(threads * perThread));
+        Set<String> messages = new HashSet<>();
+        all.forEach(e -> messages.add(e.message()));
+
+        assertThat(readerErrors.get()).isZero();
+        assertThat(all).hasSize(threads * perThread);
+        assertThat(messages).hasSize(threads * perThread);
+    }
+
+    private LogEntry createEntry(String message, LogLevel level) {
+        return LogEntry.builder()
+                .level(level)
+                .loggerName("com.example.Test")
+                .message(message)
+                .threadName("main")
+                .build();
+    }
+}
@@ -0,0 +1,209 @@
+package io.github.jobs.infrastructure;
+
+import io.github.jobs.domain.log.LogCursor;
+import io.github.jobs.domain.log.LogEntry;
+import io.github.jobs.domain.log.LogLevel;
+import io.github.jobs.domain.log.LogPage;
+import io.github.jobs.domain.log.LogQuery;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SegmentLogRepositoryTest {
+
+    private static final long SEGMENT_BYTES = 64 * 1024;
+
+    @TempDir
+    Path directory;
+
+    private SegmentLogRepository repository;
+
+    @AfterEach
+    void tearDown() {
+        if (repository != null) {
+            repository.close();
+        }
+    }
+
+    @Test
+    void shouldRoundTripEntriesAcrossSegments() {
+        repository = new SegmentLogRepository(directory, SEGMENT_BYTES, 0);
+        for (int i = 0; i < 2000; i++) {
+            repository.add(createEntry("message " + i, i % 2 == 0 ? LogLevel.ERROR : LogLevel.INFO));
+        }
+
+        LogEntry newest = repository.recent(1).get(0);
+        assertThat(repository.segmentCount()).isGreaterThan(1);
+        assertThat(repository.count()).isEqualTo(2000);
+        assertThat(newest.message()).isEqualTo("message 1999");
+        assertThat(newest.mdc()).containsEntry("requestId", "r-1999");
+        assertThat(repository.count(LogQuery.builder().minLevel(LogLevel.ERROR).build())).isEqualTo(1000);
+        assertThat(repository.stats().errorCount()).isEqualTo(1000);
+    }
+
+    @Test
+    void shouldSurviveRestart() {
+        repository = new SegmentLogRepository(directory, SEGMENT_BYTES, 0);
+        for (int i = 0; i < 1000; i++) {
+            repository.add(createEntry("message " + i, LogLevel.INFO));
+        }
+        repository.close();
+
+        repository = new SegmentLogRepository(directory, SEGMENT_BYTES, 0);
+        repository.add(createEntry("after restart", LogLevel.WARN));
+
+        assertThat(repository.count()).isEqualTo(1001);
+        assertThat(messages(repository.recent(2))).containsExactly("after restart", "message 999");
+    }
+
+    @Test
+    void shouldDropCorruptTailOnRecovery() throws IOException {
+        repository = new SegmentLogRepository(directory, SEGMENT_BYTES, 0);
+        repository.add(createEntry("first", LogLevel.INFO));
+        repository.add(createEntry("second", LogLevel.INFO));
+        repository.close();
+        corruptLastRecord(newestSegment());
+
+        repository = new SegmentLogRepository(directory, SEGMENT_BYTES, 0);
+        assertThat(messages(repository.recent(10))).containsExactly("first");
+
+        repository.add(createEntry("third", LogLevel.INFO));
+        assertThat(messages(repository.recent(10))).containsExactly("third", "first");
+    }
+
+    @Test
+    void shouldFilterTimeRangeAndPageWithCursor() {
+        Instant base = Instant.parse("2026-01-01T00:00:00Z");
+        repository = new SegmentLogRepository(directory, SEGMENT_BYTES, 0);
+        for (int i = 0; i < 3000; i++) {
+            repository.add(LogEntry.builder().timestamp(base.plusMillis(i * 10L)).message("message " + i).build());
+        }
+
+        LogQuery range = LogQuery.builder()
+                .startTime(base.plusMillis(20_000))
+                .endTime(base.plusMillis(20_990))
+                .limit(1000)
+                .build();
+        assertThat(repository.count(range)).isEqualTo(100);
+        // Answered from the sparse index and record headers; matches the decoding scan
+        LogQuery decoded = range.toBuilder().messagePattern("message").build();
+        assertThat(repository.count(decoded)).isEqualTo(100);
+        assertThat(repository.count(LogQuery.builder().startTime(base.plusMillis(5_000)).build())).isEqualTo(2500);
+        assertThat(repository.count(LogQuery.builder().build())).isEqualTo(3000);
+
+        List<String> pages = new ArrayList<>();
+        LogCursor cursor = null;
+        do {
+            LogPage page = repository.queryPage(range.toBuilder().limit(30).cursor(cursor).build());
+            pages.addAll(messages(page.entries()));
+            cursor = page.hasMore() ? page.nextCursor() : null;
+        } while (cursor != null);
+        assertThat(pages).hasSize(100).startsWith("message 2099").endsWith("message 2000");
+    }
+
+    @Test
+    void shouldDeleteSealedSegmentsByAgeAndSize() {
+        repository = new SegmentLogRepository(directory, SEGMENT_BYTES, 0);
+        for (int i = 0; i < 3000; i++) {
+            repository.add(createEntry("message " + i, LogLevel.INFO));
+        }
+        int segments = repository.segmentCount();
+
+        long removedBySize = repository.deleteExceedingBytes(2 * SEGMENT_BYTES);
+        assertThat(repository.segmentCount()).isEqualTo(2);
+        assertThat(repository.count()).isEqualTo(3000 - removedBySize);
+        assertThat(segments).isGreaterThan(2);
+
+        repository.deleteOlderThan(Instant.now().plusSeconds(60));
+        assertThat(repository.segmentCount()).isEqualTo(1);
+        assertThat(repository.recent(1).get(0).message()).isEqualTo("message 2999");
+    }
+
+    @Test
+    void shouldApplyRetentionOnRollWithoutRetentionJob() throws IOException {
+        Instant old = Instant.now().minus(Duration.ofDays(2));
+        repository = new SegmentLogRepository(directory, SEGMENT_BYTES, 0, Duration.ofDays(1));
+        for (int i = 0; i < 3000; i++) {
+            repository.add(LogEntry.builder().timestamp(old).message("old " + i).build());
+        }
+
+        // Each roll deleted the sealed segments older than the retention period
+        assertThat(repository.segmentCount()).isEqualTo(1);
+        assertThat(repository.count()).isLessThan(3000);
+        assertThat(segmentFiles()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldKeepDeletedSegmentMappedUntilTheLastReaderReleasesIt() throws IOException {
+        LogSegment segment = LogSegment.create(directory, 0, (int) SEGMENT_BYTES);
+        LogEntry entry = createEntry("pinned", LogLevel.INFO);
+        LogEntryCodec.Encoder encoder = new LogEntryCodec.Encoder();
+        int length = encoder.encode(0, entry.epochNanos(), entry, Integer.MAX_VALUE, true);
+        segment.append(encoder.bytes(), length, entry.epochNanos(), entry);
+
+        assertThat(segment.retain()).isTrue();
+        segment.delete();
+        assertThat(segment.isReleased()).isFalse();
+        assertThat(segment.read(LogSegment.HEADER_BYTES).message()).isEqualTo("pinned");
+        assertThat(segment.retain()).isFalse();
+
+        segment.release();
+        assertThat(segment.isReleased()).isTrue();
+    }
+
+    private long segmentFiles() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> file.toString().endsWith(".seg")).count();
+        }
+    }
+
+    private Path newestSegment() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> file.toString().endsWith(".seg")).max(Path::compareTo).orElseThrow();
+        }
+    }
+
+    private static void corruptLastRecord(Path segment) throws IOException {
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, channel.size());
+            int position = LogSegment.HEADER_BYTES;
+            int last = position;
+            while (buffer.getInt(position) > 0) {
+                last = position;
+                position += LogSegment.RECORD_HEADER_BYTES + buffer.getInt(position);
+            }
+            int payloadByte = last + LogSegment.RECORD_HEADER_BYTES + 20;
+            buffer.put(payloadByte, (byte) (buffer.get(payloadByte) ^ 0x5A));
+            buffer.force();
+        }
+    }
+
+    private static List<String> messages(List<LogEntry> entries) {
+        return entries.stream().map(LogEntry::message).toList();
+    }
+
+    private static LogEntry createEntry(String message, LogLevel level) {
+        return LogEntry.builder()
+                .level(level)
+                .loggerName("com.example.Test")
+                .threadName("main")
+                .message(message)
+                .mdc(Map.of("requestId", "r-" + message.substring(message.lastIndexOf(' ') + 1)))
+                .build();
+    }
+}
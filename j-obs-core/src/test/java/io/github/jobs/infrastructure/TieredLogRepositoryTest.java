@@ -0,0 +1,77 @@
+package io.github.jobs.infrastructure;
+
+import io.github.jobs.domain.log.LogEntry;
+import io.github.jobs.domain.log.LogLevel;
+import io.github.jobs.domain.log.LogPage;
+import io.github.jobs.domain.log.LogQuery;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TieredLogRepositoryTest {
+
+    @Test
+    void shouldKeepErrorsThroughDebugFlood() {
+        TieredLogRepository repository = new TieredLogRepository(100);
+        for (int i = 0; i < 5; i++) {
+            repository.add(createEntry("error " + i, LogLevel.ERROR, "trace-" + i));
+        }
+        for (int i = 0; i < 10_000; i++) {
+            repository.add(createEntry("debug " + i, LogLevel.DEBUG, "trace-" + (i % 5)));
+        }
+
+        assertThat(repository.count()).isEqualTo(5 + repository.capacity(LogLevel.DEBUG));
+        assertThat(repository.errors()).extracting(LogEntry::message)
+                .containsExactly("error 4", "error 3", "error 2", "error 1", "error 0");
+        assertThat(repository.byTraceId("trace-2")).extracting(LogEntry::message)
+                .startsWith("debug 9997").endsWith("error 2");
+        assertThat(repository.count(LogQuery.builder().search("error").build())).isEqualTo(5);
+        assertThat(repository.stats().debugCount()).isEqualTo(repository.capacity(LogLevel.DEBUG));
+        assertThat(repository.ingestedCount(LogLevel.DEBUG)).isEqualTo(10_000);
+    }
+
+    @Test
+    void shouldMergeRingsInInsertionOrderAcrossPages() {
+        TieredLogRepository repository = new TieredLogRepository(1000,
+                Map.of(LogLevel.ERROR, 25, LogLevel.WARN, 25, LogLevel.INFO, 50), true);
+        LogLevel[] levels = {LogLevel.INFO, LogLevel.WARN, LogLevel.INFO, LogLevel.ERROR, LogLevel.TRACE};
+        for (int i = 0; i < 50; i++) {
+            repository.add(createEntry("line " + i, levels[i % levels.length], null));
+        }
+
+        List<String> paged = new ArrayList<>();
+        LogQuery query = LogQuery.builder().limit(7).build();
+        LogPage page;
+        do {
+            page = repository.queryPage(query);
+            page.entries().forEach(entry -> paged.add(entry.message()));
+            query = LogQuery.builder().limit(7).cursor(page.nextCursor()).build();
+        } while (page.nextCursor() != null);
+
+        List<String> expected = new ArrayList<>();
+        for (int i = 49; i >= 0; i--) {
+            if (i % levels.length != 4) {
+                expected.add("line " + i);
+            }
+        }
+        assertThat(paged).isEqualTo(expected);
+        assertThat(repository.query(LogQuery.builder().minLevel(LogLevel.WARN).offset(2).limit(3).build()))
+                .extracting(LogEntry::message)
+                .containsExactly("line 43", "line 41", "line 38");
+        assertThat(repository.capacity(LogLevel.TRACE)).isZero();
+    }
+
+    private static LogEntry createEntry(String message, LogLevel level, String traceId) {
+        return LogEntry.builder()
+                .level(level)
+                .loggerName("com.example.Test")
+                .message(message)
+                .threadName("main")
+                .traceId(traceId)
+                .build();
+    }
+}
@@ -14,15 +14,20 @@ import io.github.jobs.domain.log.LogQuery;
 import io.github.jobs.domain.metric.Metric;
 import io.github.jobs.domain.metric.MetricQuery;
 import io.github.jobs.domain.metric.MetricSnapshot;
+import io.github.jobs.spring.metric.LogDerivedMetrics;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.time.Duration;
 import java.time.Instant;
 import java.util.*;
+import java.util.function.Predicate;
 
 /**
  * Alert evaluation engine that evaluates alert conditions.
+ * <p>
+ * Log alerts with a {@code rule} filter read the per-second counts of that
+ * {@link LogDerivedMetrics} rule instead of querying the log repository.
  */
 public class AlertEngine {
 
@@ -33,6 +38,7 @@ public class AlertEngine {
     private final MetricRepository metricRepository;
     private final LogRepository logRepository;
     private final HealthRepository healthRepository;
+    private volatile LogDerivedMetrics logDerivedMetrics;
 
     public AlertEngine(
             AlertRepository alertRepository,
@@ -48,6 +54,13 @@ public class AlertEngine {
         this.healthRepository = healthRepository;
     }
 
+    /**
+     * Sets the log-derived metrics used by log alerts with a {@code rule} filter.
+     */
+    public void setLogDerivedMetrics(LogDerivedMetrics logDerivedMetrics) {
+        this.logDerivedMetrics = logDerivedMetrics;
+    }
+
     /**
      * Evaluates a single alert and returns the result.
      */
@@ -171,6 +184,28 @@ public class AlertEngine {
         Duration window = condition.window();
         Instant since = Instant.now().minus(window);
 
+        // Pre-aggregated on ingest: no need to pull the window out of the repository
+        String rule = condition.filters().get("rule");
+        LogDerivedMetrics derived = this.logDerivedMetrics;
+        if (rule != null && derived != null) {
+            long matches = derived.count(rule, window);
+            if (matches >= 0) {
+                return evaluateLogRuleAlert(alert, rule, matches);
+            }
+            Predicate<LogEntry> matcher = derived.matcher(rule);
+            if (matcher != null) {
+                // The per-second rings only cover MAX_WINDOW: count longer windows from the logs
+                log.debug("Alert {} window {} exceeds {}, counting rule '{}' from the log repository",
+                        alert.id(), window, LogDerivedMetrics.MAX_WINDOW, rule);
+                long counted = logRepository.query(LogQuery.builder().startTime(since).limit(10000).build())
+                        .stream()
+                        .filter(matcher)
+                        .count();
+                return evaluateLogRuleAlert(alert, rule, counted);
+            }
+            log.warn("Alert {} references unknown log metric rule '{}', querying logs instead", alert.id(), rule);
+        }
+
         // Build log query with time filter
         LogQuery.Builder queryBuilder = LogQuery.builder()
                 .startTime(since)
@@ -217,6 +252,28 @@ public class AlertEngine {
         return AlertEvaluationResult.notTriggered(alert.id(), errorCount, condition.threshold());
     }
 
+    private AlertEvaluationResult evaluateLogRuleAlert(Alert alert, String rule, long matches) {
+        AlertCondition condition = alert.condition();
+        if (condition.evaluate(matches)) {
+            String message = String.format("%s: %d log line(s) matching '%s' in last %s (threshold: %s %.0f)",
+                    alert.name(),
+                    matches,
+                    rule,
+                    formatDuration(condition.window()),
+                    condition.operator().symbol(),
+                    condition.threshold()
+            );
+            return AlertEvaluationResult.triggered(
+                    alert.id(),
+                    message,
+                    matches,
+                    condition.threshold(),
+                    Map.of("window", condition.window().toString(), "rule", rule)
+            );
+        }
+        return AlertEvaluationResult.notTriggered(alert.id(), matches, condition.threshold());
+    }
+
     private AlertEvaluationResult evaluateHealthAlert(Alert alert) {
         AlertCondition condition = alert.condition();
         Map<String, String> filters = condition.filters();
@@ -105,17 +105,20 @@ public class TracingAspect {
                     .setAttribute("code.namespace", targetClass.getName())
                     .startSpan();
 
-            // Add static attributes (from cached annotation)
-            for (String attr : traced.attributes()) {
-                String[] parts = attr.split("=", 2);
-                if (parts.length == 2) {
-                    span.setAttribute(parts[0], parts[1]);
+            // Spans of unsampled traces discard attributes, so skip building them
+            if (span.isRecording()) {
+                // Add static attributes (from cached annotation)
+                for (String attr : traced.attributes()) {
+                    String[] parts = attr.split("=", 2);
+                    if (parts.length == 2) {
+                        span.setAttribute(parts[0], parts[1]);
+                    }
                 }
-            }
 
-            // Add parameter attributes using cached parameter names
-            if (traced.includeParameters()) {
-                addParameterAttributes(span, metadata.parameterNames(), joinPoint.getArgs());
+                // Add parameter attributes using cached parameter names
+                if (traced.includeParameters()) {
+                    addParameterAttributes(span, metadata.parameterNames(), joinPoint.getArgs());
+                }
             }
         } catch (Exception e) {
             log.debug("Failed to create trace span, proceeding without tracing", e);
@@ -127,7 +130,7 @@ public class TracingAspect {
 
             // Record result (error boundary for span operations only)
             try {
-                if (traced.includeResult() && result != null) {
+                if (traced.includeResult() && result != null && span.isRecording()) {
                     span.setAttribute("result", truncate(result.toString(), 1000));
                 }
                 span.setStatus(StatusCode.OK);
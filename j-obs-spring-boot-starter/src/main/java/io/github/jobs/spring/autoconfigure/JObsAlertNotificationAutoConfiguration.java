@@ -13,10 +13,12 @@ import io.github.jobs.spring.alert.provider.*;
 import io.github.jobs.spring.autoconfigure.JObsProperties.Alerts;
 import io.github.jobs.spring.autoconfigure.JObsProperties.Alerts.Providers;
 import io.github.jobs.spring.autoconfigure.JObsProperties.Alerts.Throttling;
+import io.github.jobs.spring.metric.LogDerivedMetrics;
 import io.github.jobs.spring.web.AlertEventApiController;
 import io.github.jobs.spring.web.AlertProviderApiController;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.boot.autoconfigure.AutoConfiguration;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
@@ -152,15 +154,18 @@ public class JObsAlertNotificationAutoConfiguration {
             AlertEventRepository alertEventRepository,
             MetricRepository metricRepository,
             LogRepository logRepository,
-            HealthRepository healthRepository
+            HealthRepository healthRepository,
+            ObjectProvider<LogDerivedMetrics> logDerivedMetrics
     ) {
-        return new AlertEngine(
+        AlertEngine engine = new AlertEngine(
                 alertRepository,
                 alertEventRepository,
                 metricRepository,
                 logRepository,
                 healthRepository
         );
+        engine.setLogDerivedMetrics(logDerivedMetrics.getIfAvailable());
+        return engine;
     }
 
     @Bean
@@ -2,8 +2,13 @@ package io.github.jobs.spring.autoconfigure;
 
 import io.github.jobs.application.LogRepository;
 import io.github.jobs.application.TraceRepository;
+import io.github.jobs.spring.log.AsyncLogDispatcher;
 import io.github.jobs.spring.log.LogEntryFactory;
+import io.github.jobs.spring.log.LogIngestionGovernor;
+import io.github.jobs.spring.log.LogStreamSubscriptions;
 import io.github.jobs.spring.metric.JObsInternalMetrics;
+import io.github.jobs.spring.trace.JObsBatchSpanProcessor;
+import io.github.jobs.spring.trace.TailSamplingTraceRepository;
 import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.boot.actuate.autoconfigure.metrics.CompositeMeterRegistryAutoConfiguration;
@@ -45,9 +50,32 @@ import org.springframework.context.annotation.Bean;
  * <p>
  * <strong>Factory metrics:</strong>
  * <ul>
- *   <li>{@code jobs.factory.pool.size} - Object pool size</li>
+ *   <li>{@code jobs.factory.mdc.interned} - Distinct MDC maps shared between entries</li>
  *   <li>{@code jobs.factory.ids.generated} - Total IDs generated</li>
  * </ul>
+ * <p>
+ * <strong>Async capture metrics</strong> (when {@code j-obs.logs.async.enabled=true}):
+ * <ul>
+ *   <li>{@code jobs.logs.async.queue.size} - Events waiting in the ring buffer</li>
+ *   <li>{@code jobs.logs.async.dropped} - Dropped events (tagged by reason)</li>
+ * </ul>
+ * <p>
+ * <strong>Span export metrics</strong> (when {@code j-obs.traces.processor.batch=true}):
+ * <ul>
+ *   <li>{@code jobs.traces.export.queue.size} - Spans waiting for export (tagged by processor)</li>
+ *   <li>{@code jobs.traces.export.dropped} - Spans dropped on a full queue (tagged by processor)</li>
+ *   <li>{@code jobs.traces.export.failed} - Spans whose export failed (tagged by processor)</li>
+ *   <li>{@code jobs.traces.export.latency} - Batch export call count and time (tagged by processor)</li>
+ * </ul>
+ * <p>
+ * <strong>Tail sampling metrics</strong> (when {@code j-obs.traces.sampling.tail.enabled=true}):
+ * <ul>
+ *   <li>{@code jobs.traces.tail.pending} / {@code jobs.traces.tail.buffered.spans} - Traces and spans awaiting a decision</li>
+ *   <li>{@code jobs.traces.tail.decisions} - Decided traces (tagged by decision)</li>
+ *   <li>{@code jobs.traces.tail.decision.latency} - Time from first span to decision</li>
+ *   <li>{@code jobs.traces.tail.evicted} - Traces decided early under memory pressure</li>
+ *   <li>{@code jobs.traces.tail.late_spans} - Spans arriving after their decision (tagged by action)</li>
+ * </ul>
  *
  * @see JObsInternalMetrics
  * @see JObsLogAutoConfiguration
@@ -69,7 +97,11 @@ public class JObsInternalMetricsAutoConfiguration {
             MeterRegistry meterRegistry,
             ObjectProvider<LogRepository> logRepositoryProvider,
             ObjectProvider<TraceRepository> traceRepositoryProvider,
-            ObjectProvider<LogEntryFactory> logEntryFactoryProvider) {
+            ObjectProvider<LogEntryFactory> logEntryFactoryProvider,
+            ObjectProvider<AsyncLogDispatcher> asyncLogDispatcherProvider,
+            ObjectProvider<LogStreamSubscriptions> logStreamSubscriptionsProvider,
+            ObjectProvider<LogIngestionGovernor> logIngestionGovernorProvider,
+            ObjectProvider<JObsBatchSpanProcessor> spanProcessorProvider) {
 
         LogRepository logRepository = logRepositoryProvider.getIfAvailable();
         TraceRepository traceRepository = traceRepositoryProvider.getIfAvailable();
@@ -79,11 +111,19 @@ public class JObsInternalMetricsAutoConfiguration {
             return null;
         }
 
-        return new JObsInternalMetrics(
+        JObsInternalMetrics metrics = new JObsInternalMetrics(
                 meterRegistry,
                 logRepository,
                 traceRepository,
-                logEntryFactory
+                logEntryFactory,
+                asyncLogDispatcherProvider.getIfAvailable()
         );
+        metrics.setLogStreamSubscriptions(logStreamSubscriptionsProvider.getIfAvailable());
+        metrics.setLogIngestionGovernor(logIngestionGovernorProvider.getIfAvailable());
+        metrics.setSpanProcessors(spanProcessorProvider.orderedStream().toList());
+        if (traceRepository instanceof TailSamplingTraceRepository tailSampling) {
+            metrics.setTailSampling(tailSampling);
+        }
+        return metrics;
     }
 }
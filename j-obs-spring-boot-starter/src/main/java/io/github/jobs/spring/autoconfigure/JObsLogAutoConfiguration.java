@@ -3,16 +3,27 @@ package io.github.jobs.spring.autoconfigure;
 import ch.qos.logback.classic.Logger;
 import ch.qos.logback.classic.LoggerContext;
 import io.github.jobs.application.LogRepository;
+import io.github.jobs.infrastructure.CompressedLogRepository;
 import io.github.jobs.infrastructure.InMemoryLogRepository;
+import io.github.jobs.infrastructure.OffHeapLogRepository;
+import io.github.jobs.infrastructure.RingBufferLogRepository;
+import io.github.jobs.infrastructure.SegmentLogRepository;
+import io.github.jobs.infrastructure.TieredLogRepository;
+import io.github.jobs.spring.log.AsyncLogDispatcher;
 import io.github.jobs.spring.log.JObsLog4j2Appender;
 import io.github.jobs.spring.log.JObsLogAppender;
 import io.github.jobs.spring.log.LogEntryFactory;
+import io.github.jobs.spring.log.LogIngestionGovernor;
+import io.github.jobs.spring.log.LogStreamSubscriptions;
+import io.github.jobs.spring.log.StackTraceDictionary;
+import io.github.jobs.spring.security.LogSanitizer;
 import io.github.jobs.spring.web.LogApiController;
 import io.github.jobs.spring.web.LogController;
 import io.github.jobs.spring.web.template.TemplateService;
 import io.github.jobs.spring.websocket.LogWebSocketHandler;
 import org.apache.logging.log4j.LogManager;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.boot.autoconfigure.AutoConfiguration;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
@@ -25,6 +36,8 @@ import org.springframework.web.socket.config.annotation.EnableWebSocket;
 import org.springframework.web.socket.config.annotation.WebSocketConfigurer;
 import org.springframework.web.socket.config.annotation.WebSocketHandlerRegistry;
 
+import java.nio.file.Path;
+
 /**
  * Auto-configuration for J-Obs log collection and real-time streaming.
  * <p>
@@ -35,7 +48,11 @@ import org.springframework.web.socket.config.annotation.WebSocketHandlerRegistry
  *   <li>{@link LogRepository} - In-memory circular buffer for log storage</li>
  *   <li>{@link LogController} - UI controller for log viewer</li>
  *   <li>{@link LogApiController} - REST API for log queries</li>
- *   <li>{@link LogEntryFactory} - Factory with object pooling for log entries</li>
+ *   <li>{@link LogEntryFactory} - Allocation-light factory for log entries</li>
+ *   <li>{@link AsyncLogDispatcher} - Background hand-off for the appenders (when {@code async.enabled=true})</li>
+ *   <li>{@link StackTraceDictionary} - Shared, lazily formatted stack traces (when {@code stack-traces.dedup=true})</li>
+ *   <li>{@link LogIngestionGovernor} - Per-logger rate limit for the appenders (when {@code governor.enabled=true})</li>
+ *   <li>{@link LogStreamSubscriptions} - Per-client queues for live log streaming</li>
  * </ul>
  * <p>
  * Optional integrations (conditionally enabled):
@@ -48,8 +65,13 @@ import org.springframework.web.socket.config.annotation.WebSocketHandlerRegistry
  * <ul>
  *   <li>{@code enabled} - Enable/disable log collection (default: true)</li>
  *   <li>{@code max-entries} - Maximum log entries in buffer (default: 10000)</li>
+ *   <li>{@code store} - Log store implementation: IN_MEMORY, RING_BUFFER, OFF_HEAP, SEGMENT, COMPRESSED or TIERED (default: IN_MEMORY)</li>
  *   <li>{@code min-level} - Minimum log level to capture (default: INFO)</li>
  *   <li>{@code websocket.*} - WebSocket streaming configuration</li>
+ *   <li>{@code async.*} - Asynchronous capture (queue size, workers, overflow policy)</li>
+ *   <li>{@code segment.*} - Persistent segment store (directory, segment size, retention)</li>
+ *   <li>{@code compressed.*} - Compressed block store (memory budget, block size)</li>
+ *   <li>{@code stack-traces.*} - Stack trace deduplication (enabled, dictionary size)</li>
  * </ul>
  *
  * @see LogRepository
@@ -69,7 +91,21 @@ public class JObsLogAutoConfiguration {
     @Bean
     @ConditionalOnMissingBean
     public LogRepository logRepository() {
-        return new InMemoryLogRepository(properties.getLogs().getMaxEntries());
+        int maxEntries = properties.getLogs().getMaxEntries();
+        return switch (properties.getLogs().getStore()) {
+            case RING_BUFFER -> new RingBufferLogRepository(maxEntries);
+            case OFF_HEAP -> new OffHeapLogRepository(maxEntries, properties.getLogs().getOffHeapMaxBytes());
+            case SEGMENT -> {
+                JObsProperties.Logs.Segment segment = properties.getLogs().getSegment();
+                yield new SegmentLogRepository(Path.of(segment.getDirectory()),
+                        segment.getSegmentBytes(), segment.getMaxTotalBytes(), segment.getRetention());
+            }
+            case COMPRESSED -> new CompressedLogRepository(properties.getLogs().getCompressed().getMaxBytes(),
+                    properties.getLogs().getCompressed().getBlockSize());
+            case TIERED -> new TieredLogRepository(maxEntries, properties.getLogs().getTiers().toShares(),
+                    properties.getLogs().isSearchIndex());
+            case IN_MEMORY -> new InMemoryLogRepository(maxEntries, properties.getLogs().isSearchIndex());
+        };
     }
 
     @Bean
@@ -90,6 +126,60 @@ public class JObsLogAutoConfiguration {
         return new LogEntryFactory();
     }
 
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty(name = "j-obs.logs.stack-traces.dedup", havingValue = "true")
+    public StackTraceDictionary stackTraceDictionary() {
+        return new StackTraceDictionary(properties.getLogs().getStackTraces().getMaxEntries(), new LogSanitizer());
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    public LogStreamSubscriptions logStreamSubscriptions(LogRepository logRepository) {
+        JObsProperties.Logs.Subscribers subscribers = properties.getLogs().getSubscribers();
+        return new LogStreamSubscriptions(
+                logRepository,
+                subscribers.getQueueSize(),
+                subscribers.getDispatcher(),
+                subscribers.getOverflowPolicy()
+        );
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty(name = "j-obs.logs.governor.enabled", havingValue = "true")
+    public LogIngestionGovernor logIngestionGovernor(LogRepository logRepository, LogEntryFactory logEntryFactory) {
+        JObsProperties.Logs.Governor governor = properties.getLogs().getGovernor();
+        return new LogIngestionGovernor(
+                logRepository,
+                logEntryFactory,
+                governor.getRatePerSecond(),
+                governor.getBurst(),
+                governor.getRates(),
+                governor.getKeepLevel(),
+                governor.getSampleRate(),
+                governor.getMaxLoggers(),
+                governor.getSummaryInterval()
+        );
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty(name = "j-obs.logs.async.enabled", havingValue = "true")
+    public AsyncLogDispatcher asyncLogDispatcher(LogRepository logRepository, LogEntryFactory logEntryFactory,
+                                                 ObjectProvider<StackTraceDictionary> stackTraceDictionary) {
+        JObsProperties.Logs.Async async = properties.getLogs().getAsync();
+        return new AsyncLogDispatcher(
+                logRepository,
+                logEntryFactory,
+                null,
+                stackTraceDictionary.getIfAvailable(),
+                async.getQueueSize(),
+                async.getWorkers(),
+                async.getOverflowPolicy()
+        );
+    }
+
     /**
      * Configuration for WebSocket support (optional).
      * <p>
@@ -108,16 +198,20 @@ public class JObsLogAutoConfiguration {
 
         private final JObsProperties properties;
         private final LogRepository logRepository;
+        private final ObjectProvider<LogStreamSubscriptions> subscriptions;
 
-        WebSocketConfiguration(JObsProperties properties, LogRepository logRepository) {
+        WebSocketConfiguration(JObsProperties properties, LogRepository logRepository,
+                               ObjectProvider<LogStreamSubscriptions> subscriptions) {
             this.properties = properties;
             this.logRepository = logRepository;
+            this.subscriptions = subscriptions;
         }
 
         @Bean
         @ConditionalOnMissingBean
         public LogWebSocketHandler logWebSocketHandler() {
-            return new LogWebSocketHandler(logRepository, properties);
+            return new LogWebSocketHandler(
+                    subscriptions.getIfAvailable(() -> new LogStreamSubscriptions(logRepository)), properties);
         }
 
         @Override
@@ -139,10 +233,16 @@ public class JObsLogAutoConfiguration {
 
         @Bean
         @ConditionalOnMissingBean
-        public JObsLogAppender jObsLogAppender(LogRepository logRepository, LogEntryFactory logEntryFactory) {
+        public JObsLogAppender jObsLogAppender(LogRepository logRepository, LogEntryFactory logEntryFactory,
+                                               ObjectProvider<AsyncLogDispatcher> asyncDispatcher,
+                                               ObjectProvider<StackTraceDictionary> stackTraceDictionary,
+                                               ObjectProvider<LogIngestionGovernor> ingestionGovernor) {
             JObsLogAppender appender = new JObsLogAppender();
             appender.setLogRepository(logRepository);
             appender.setLogEntryFactory(logEntryFactory);
+            appender.setAsyncDispatcher(asyncDispatcher.getIfAvailable());
+            appender.setStackTraceDictionary(stackTraceDictionary.getIfAvailable());
+            appender.setIngestionGovernor(ingestionGovernor.getIfAvailable());
             appender.setName("J-OBS");
             appender.setContext((LoggerContext) LoggerFactory.getILoggerFactory());
             appender.start();
@@ -170,10 +270,16 @@ public class JObsLogAutoConfiguration {
 
         @Bean
         @ConditionalOnMissingBean
-        public JObsLog4j2Appender jObsLog4j2Appender(LogRepository logRepository, LogEntryFactory logEntryFactory) {
+        public JObsLog4j2Appender jObsLog4j2Appender(LogRepository logRepository, LogEntryFactory logEntryFactory,
+                                                     ObjectProvider<AsyncLogDispatcher> asyncDispatcher,
+                                                     ObjectProvider<StackTraceDictionary> stackTraceDictionary,
+                                                     ObjectProvider<LogIngestionGovernor> ingestionGovernor) {
             JObsLog4j2Appender appender = new JObsLog4j2Appender("J-OBS");
             appender.setLogRepository(logRepository);
             appender.setLogEntryFactory(logEntryFactory);
+            appender.setAsyncDispatcher(asyncDispatcher.getIfAvailable());
+            appender.setStackTraceDictionary(stackTraceDictionary.getIfAvailable());
+            appender.setIngestionGovernor(ingestionGovernor.getIfAvailable());
             appender.start();
 
             // Attach to root logger only when Log4j2 is the real logging backend.
@@ -1,12 +1,15 @@
 package io.github.jobs.spring.autoconfigure;
 
+import io.github.jobs.application.LogRepository;
 import io.github.jobs.application.MetricRepository;
 import io.github.jobs.spring.metric.CachedMetricRepository;
+import io.github.jobs.spring.metric.LogDerivedMetrics;
 import io.github.jobs.spring.metric.MicrometerMetricRepository;
 import io.github.jobs.spring.web.MetricApiController;
 import io.github.jobs.spring.web.MetricController;
 import io.github.jobs.spring.web.template.TemplateService;
 import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.boot.actuate.autoconfigure.metrics.CompositeMeterRegistryAutoConfiguration;
 import org.springframework.boot.autoconfigure.AutoConfiguration;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
@@ -39,6 +42,18 @@ public class JObsMetricAutoConfiguration {
         return new CachedMetricRepository(baseRepository, cacheTtl);
     }
 
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnBean(MeterRegistry.class)
+    public LogDerivedMetrics logDerivedMetrics(MeterRegistry meterRegistry, JObsProperties properties,
+                                               ObjectProvider<LogRepository> logRepository) {
+        JObsProperties.Logs.DerivedMetrics derivedMetrics = properties.getLogs().getDerivedMetrics();
+        LogDerivedMetrics metrics = new LogDerivedMetrics(meterRegistry, derivedMetrics.toRules(),
+                derivedMetrics.getMaxSeries());
+        logRepository.ifAvailable(metrics::bind);
+        return metrics;
+    }
+
     @Bean
     @ConditionalOnBean(MetricRepository.class)
     public MetricApiController metricApiController(MetricRepository metricRepository) {
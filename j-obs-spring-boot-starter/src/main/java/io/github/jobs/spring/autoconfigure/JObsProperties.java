@@ -1,5 +1,11 @@
 package io.github.jobs.spring.autoconfigure;
 
+import io.github.jobs.application.LogRepository;
+import io.github.jobs.domain.log.LogLevel;
+import io.github.jobs.spring.log.AsyncLogDispatcher;
+import io.github.jobs.spring.metric.LogDerivedMetrics;
+import io.github.jobs.spring.trace.TailSamplingTraceRepository;
+import io.github.jobs.spring.webflux.ReactiveLogStreamHandler;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
 import java.time.Duration;
@@ -697,6 +703,16 @@ public class JObsProperties {
          */
         private Export export = new Export();
 
+        /**
+         * Span processing configuration.
+         */
+        private Processor processor = new Processor();
+
+        /**
+         * Sampling configuration.
+         */
+        private Sampling sampling = new Sampling();
+
         public boolean isEnabled() {
             return enabled;
         }
@@ -737,6 +753,413 @@ public class JObsProperties {
             this.export = export;
         }
 
+        public Processor getProcessor() {
+            return processor;
+        }
+
+        public void setProcessor(Processor processor) {
+            this.processor = processor;
+        }
+
+        public Sampling getSampling() {
+            return sampling;
+        }
+
+        public void setSampling(Sampling sampling) {
+            this.sampling = sampling;
+        }
+
+        /**
+         * Sampling configuration. The rate itself is {@code j-obs.traces.sample-rate}.
+         */
+        public static class Sampling {
+
+            /**
+             * Decide whether to keep a trace when its root span starts, on the OpenTelemetry
+             * tracer provider. Spans of dropped traces are never recorded or converted, and
+             * spans continuing an upstream trace follow its sampled flag. When disabled, every
+             * span is recorded and the trace repository drops unsampled traces on export.
+             */
+            private boolean head = true;
+
+            /**
+             * Tail sampling: decide once the whole trace has been seen.
+             */
+            private Tail tail = new Tail();
+
+            /**
+             * Adaptive sampling: adjust the rate to a traces-per-second budget.
+             */
+            private Adaptive adaptive = new Adaptive();
+
+            /**
+             * Memory of sampled trace IDs when sampling in the trace repository.
+             */
+            private TrackedTraces trackedTraces = new TrackedTraces();
+
+            public boolean isHead() {
+                return head;
+            }
+
+            public void setHead(boolean head) {
+                this.head = head;
+            }
+
+            public Tail getTail() {
+                return tail;
+            }
+
+            public void setTail(Tail tail) {
+                this.tail = tail;
+            }
+
+            public Adaptive getAdaptive() {
+                return adaptive;
+            }
+
+            public void setAdaptive(Adaptive adaptive) {
+                this.adaptive = adaptive;
+            }
+
+            public TrackedTraces getTrackedTraces() {
+                return trackedTraces;
+            }
+
+            public void setTrackedTraces(TrackedTraces trackedTraces) {
+                this.trackedTraces = trackedTraces;
+            }
+
+            /**
+             * Sizing of the bloom filters that remember sampled trace IDs when
+             * {@code j-obs.traces.sampling.head=false}, so later spans of a kept trace are kept too.
+             */
+            public static class TrackedTraces {
+
+                /**
+                 * Trace IDs per filter generation; older IDs age out one generation at a time.
+                 */
+                private int expectedTraces = 100_000;
+
+                /**
+                 * Probability that a span of a sampled-out trace is kept by mistake.
+                 */
+                private double falsePositiveRate = 0.001;
+
+                /**
+                 * Maximum age of a filter generation.
+                 */
+                private Duration rotationInterval = Duration.ofMinutes(5);
+
+                public int getExpectedTraces() {
+                    return expectedTraces;
+                }
+
+                public void setExpectedTraces(int expectedTraces) {
+                    this.expectedTraces = expectedTraces;
+                }
+
+                public double getFalsePositiveRate() {
+                    return falsePositiveRate;
+                }
+
+                public void setFalsePositiveRate(double falsePositiveRate) {
+                    this.falsePositiveRate = falsePositiveRate;
+                }
+
+                public Duration getRotationInterval() {
+                    return rotationInterval;
+                }
+
+                public void setRotationInterval(Duration rotationInterval) {
+                    this.rotationInterval = rotationInterval;
+                }
+            }
+
+            /**
+             * Adaptive sampling configuration. Replaces the fixed {@code j-obs.traces.sample-rate}
+             * with per-endpoint probabilities recomputed every {@code adjust-interval} from the
+             * rates observed over {@code window}.
+             */
+            public static class Adaptive {
+
+                /**
+                 * Enable adaptive sampling.
+                 */
+                private boolean enabled = false;
+
+                /**
+                 * Traces to keep per second across all endpoints.
+                 */
+                private double tracesPerSecond = 10.0;
+
+                /**
+                 * Sliding window over which incoming rates are measured.
+                 */
+                private Duration window = Duration.ofSeconds(30);
+
+                /**
+                 * How often probabilities are recomputed. Decisions are deterministic per trace ID
+                 * between two adjustments.
+                 */
+                private Duration adjustInterval = Duration.ofSeconds(5);
+
+                /**
+                 * Endpoints tracked separately; further endpoints share one budget.
+                 */
+                private int maxEndpoints = 200;
+
+                public boolean isEnabled() {
+                    return enabled;
+                }
+
+                public void setEnabled(boolean enabled) {
+                    this.enabled = enabled;
+                }
+
+                public double getTracesPerSecond() {
+                    return tracesPerSecond;
+                }
+
+                public void setTracesPerSecond(double tracesPerSecond) {
+                    this.tracesPerSecond = tracesPerSecond;
+                }
+
+                public Duration getWindow() {
+                    return window;
+                }
+
+                public void setWindow(Duration window) {
+                    this.window = window;
+                }
+
+                public Duration getAdjustInterval() {
+                    return adjustInterval;
+                }
+
+                public void setAdjustInterval(Duration adjustInterval) {
+                    this.adjustInterval = adjustInterval;
+                }
+
+                public int getMaxEndpoints() {
+                    return maxEndpoints;
+                }
+
+                public void setMaxEndpoints(int maxEndpoints) {
+                    this.maxEndpoints = maxEndpoints;
+                }
+            }
+
+            /**
+             * Tail sampling configuration. Spans are buffered per trace until the trace is
+             * complete, then errors and slow traces are kept and the rest is rate limited per
+             * endpoint and sampled.
+             */
+            public static class Tail {
+
+                /**
+                 * Enable tail sampling.
+                 */
+                private boolean enabled = false;
+
+                /**
+                 * Time without new spans after the root span ended before the trace is decided.
+                 */
+                private Duration quietPeriod = Duration.ofSeconds(2);
+
+                /**
+                 * Longest time a trace is buffered before being decided, even without a root span.
+                 */
+                private Duration maxTraceWait = Duration.ofSeconds(30);
+
+                /**
+                 * Maximum spans buffered across all pending traces. Beyond it, the oldest traces
+                 * are decided early.
+                 */
+                private int maxBufferedSpans = 50000;
+
+                /**
+                 * Always keep traces containing an error span.
+                 */
+                private boolean keepErrors = true;
+
+                /**
+                 * Always keep traces lasting at least this long.
+                 */
+                private Duration latencyThreshold = Duration.ofSeconds(1);
+
+                /**
+                 * Traces kept per second and endpoint (root span name) regardless of probability.
+                 * 0 disables the per-endpoint budget.
+                 */
+                private double endpointRateLimit = 1.0;
+
+                /**
+                 * Share of the remaining traces to keep (0.0 - 1.0).
+                 */
+                private double probability = 0.1;
+
+                /**
+                 * What to do with spans arriving after their trace was decided.
+                 */
+                private TailSamplingTraceRepository.LateSpanPolicy lateSpanPolicy =
+                        TailSamplingTraceRepository.LateSpanPolicy.FOLLOW_DECISION;
+
+                public boolean isEnabled() {
+                    return enabled;
+                }
+
+                public void setEnabled(boolean enabled) {
+                    this.enabled = enabled;
+                }
+
+                public Duration getQuietPeriod() {
+                    return quietPeriod;
+                }
+
+                public void setQuietPeriod(Duration quietPeriod) {
+                    this.quietPeriod = quietPeriod;
+                }
+
+                public Duration getMaxTraceWait() {
+                    return maxTraceWait;
+                }
+
+                public void setMaxTraceWait(Duration maxTraceWait) {
+                    this.maxTraceWait = maxTraceWait;
+                }
+
+                public int getMaxBufferedSpans() {
+                    return maxBufferedSpans;
+                }
+
+                public void setMaxBufferedSpans(int maxBufferedSpans) {
+                    this.maxBufferedSpans = maxBufferedSpans;
+                }
+
+                public boolean isKeepErrors() {
+                    return keepErrors;
+                }
+
+                public void setKeepErrors(boolean keepErrors) {
+                    this.keepErrors = keepErrors;
+                }
+
+                public Duration getLatencyThreshold() {
+                    return latencyThreshold;
+                }
+
+                public void setLatencyThreshold(Duration latencyThreshold) {
+                    this.latencyThreshold = latencyThreshold;
+                }
+
+                public double getEndpointRateLimit() {
+                    return endpointRateLimit;
+                }
+
+                public void setEndpointRateLimit(double endpointRateLimit) {
+                    this.endpointRateLimit = endpointRateLimit;
+                }
+
+                public double getProbability() {
+                    return probability;
+                }
+
+                public void setProbability(double probability) {
+                    this.probability = probability;
+                }
+
+                public TailSamplingTraceRepository.LateSpanPolicy getLateSpanPolicy() {
+                    return lateSpanPolicy;
+                }
+
+                public void setLateSpanPolicy(TailSamplingTraceRepository.LateSpanPolicy lateSpanPolicy) {
+                    this.lateSpanPolicy = lateSpanPolicy;
+                }
+
+                /**
+                 * Converts these properties into the repository settings.
+                 */
+                public TailSamplingTraceRepository.Config toConfig() {
+                    return new TailSamplingTraceRepository.Config(quietPeriod, maxTraceWait, maxBufferedSpans,
+                            latencyThreshold, keepErrors, endpointRateLimit, probability, lateSpanPolicy);
+                }
+            }
+        }
+
+        /**
+         * Span processing configuration. Ended spans are queued and exported in batches by a
+         * background thread, so request threads never wait on storage or the network.
+         */
+        public static class Processor {
+
+            /**
+             * Export spans in batches from a background thread. When disabled, each span is
+             * exported synchronously on the thread that ends it.
+             */
+            private boolean batch = true;
+
+            /**
+             * Maximum number of ended spans waiting for export, per exporter. Spans ended while
+             * the queue is full are dropped.
+             */
+            private int queueSize = 2048;
+
+            /**
+             * Maximum number of spans per export call.
+             */
+            private int maxBatchSize = 512;
+
+            /**
+             * Maximum time a span waits in the queue before its batch is exported.
+             */
+            private Duration flushInterval = Duration.ofMillis(200);
+
+            /**
+             * Maximum time to wait for one export call.
+             */
+            private Duration exportTimeout = Duration.ofSeconds(30);
+
+            public boolean isBatch() {
+                return batch;
+            }
+
+            public void setBatch(boolean batch) {
+                this.batch = batch;
+            }
+
+            public int getQueueSize() {
+                return queueSize;
+            }
+
+            public void setQueueSize(int queueSize) {
+                this.queueSize = queueSize;
+            }
+
+            public int getMaxBatchSize() {
+                return maxBatchSize;
+            }
+
+            public void setMaxBatchSize(int maxBatchSize) {
+                this.maxBatchSize = maxBatchSize;
+            }
+
+            public Duration getFlushInterval() {
+                return flushInterval;
+            }
+
+            public void setFlushInterval(Duration flushInterval) {
+                this.flushInterval = flushInterval;
+            }
+
+            public Duration getExportTimeout() {
+                return exportTimeout;
+            }
+
+            public void setExportTimeout(Duration exportTimeout) {
+                this.exportTimeout = exportTimeout;
+            }
+        }
+
         /**
          * Export configuration for external tracing systems.
          */
@@ -906,6 +1329,21 @@ public class JObsProperties {
          */
         private int maxEntries = 10000;
 
+        /**
+         * Log store implementation backing the {@code LogRepository}.
+         */
+        private Store store = Store.IN_MEMORY;
+
+        /**
+         * Total off-heap budget in bytes (columns plus message arena) when {@code store=OFF_HEAP}.
+         */
+        private long offHeapMaxBytes = 64L * 1024 * 1024;
+
+        /**
+         * Maintain an inverted token index for full-text search when {@code store=IN_MEMORY} or {@code TIERED}.
+         */
+        private boolean searchIndex = true;
+
         /**
          * Minimum log level to capture.
          */
@@ -921,6 +1359,51 @@ public class JObsProperties {
          */
         private Sanitization sanitization = new Sanitization();
 
+        /**
+         * Asynchronous hand-off between the appenders and the log repository.
+         */
+        private Async async = new Async();
+
+        /**
+         * Persistent segment files when {@code store=SEGMENT}.
+         */
+        private Segment segment = new Segment();
+
+        /**
+         * Compressed block settings when {@code store=COMPRESSED}.
+         */
+        private Compressed compressed = new Compressed();
+
+        /**
+         * Per-level share of {@code max-entries} when {@code store=TIERED}.
+         */
+        private Tiers tiers = new Tiers();
+
+        /**
+         * Per-logger ingestion rate limit applied by the appenders.
+         */
+        private Governor governor = new Governor();
+
+        /**
+         * Log-to-metric rules evaluated on ingest.
+         */
+        private DerivedMetrics derivedMetrics = new DerivedMetrics();
+
+        /**
+         * Deduplication of repeated stack traces.
+         */
+        private StackTraces stackTraces = new StackTraces();
+
+        /**
+         * Per-subscriber queues for live log streaming (WebSocket, SSE).
+         */
+        private Subscribers subscribers = new Subscribers();
+
+        /**
+         * Server-Sent Events streaming settings (WebFlux applications).
+         */
+        private Sse sse = new Sse();
+
         public boolean isEnabled() {
             return enabled;
         }
@@ -937,6 +1420,30 @@ public class JObsProperties {
             this.maxEntries = maxEntries;
         }
 
+        public Store getStore() {
+            return store;
+        }
+
+        public void setStore(Store store) {
+            this.store = store;
+        }
+
+        public long getOffHeapMaxBytes() {
+            return offHeapMaxBytes;
+        }
+
+        public void setOffHeapMaxBytes(long offHeapMaxBytes) {
+            this.offHeapMaxBytes = offHeapMaxBytes;
+        }
+
+        public boolean isSearchIndex() {
+            return searchIndex;
+        }
+
+        public void setSearchIndex(boolean searchIndex) {
+            this.searchIndex = searchIndex;
+        }
+
         public String getMinLevel() {
             return minLevel;
         }
@@ -961,27 +1468,764 @@ public class JObsProperties {
             this.sanitization = sanitization;
         }
 
-        /**
-         * Input sanitization settings for search patterns.
-         */
-        public static class Sanitization {
+        public Async getAsync() {
+            return async;
+        }
 
-            /**
-             * Maximum number of wildcards allowed in search patterns (ReDoS protection).
-             */
-            private int maxWildcards = 5;
+        public void setAsync(Async async) {
+            this.async = async;
+        }
 
-            /**
-             * Maximum length for log message search patterns.
-             */
-            private int maxMessageLength = 1000;
+        public Segment getSegment() {
+            return segment;
+        }
 
-            /**
-             * Maximum length for logger name patterns.
-             */
-            private int maxLoggerLength = 256;
+        public void setSegment(Segment segment) {
+            this.segment = segment;
+        }
 
-            public int getMaxWildcards() {
+        public Compressed getCompressed() {
+            return compressed;
+        }
+
+        public void setCompressed(Compressed compressed) {
+            this.compressed = compressed;
+        }
+
+        public Tiers getTiers() {
+            return tiers;
+        }
+
+        public void setTiers(Tiers tiers) {
+            this.tiers = tiers;
+        }
+
+        public Governor getGovernor() {
+            return governor;
+        }
+
+        public void setGovernor(Governor governor) {
+            this.governor = governor;
+        }
+
+        public DerivedMetrics getDerivedMetrics() {
+            return derivedMetrics;
+        }
+
+        public void setDerivedMetrics(DerivedMetrics derivedMetrics) {
+            this.derivedMetrics = derivedMetrics;
+        }
+
+        public StackTraces getStackTraces() {
+            return stackTraces;
+        }
+
+        public void setStackTraces(StackTraces stackTraces) {
+            this.stackTraces = stackTraces;
+        }
+
+        public Subscribers getSubscribers() {
+            return subscribers;
+        }
+
+        public void setSubscribers(Subscribers subscribers) {
+            this.subscribers = subscribers;
+        }
+
+        public Sse getSse() {
+            return sse;
+        }
+
+        public void setSse(Sse sse) {
+            this.sse = sse;
+        }
+
+        /**
+         * Available log store implementations.
+         */
+        public enum Store {
+            /**
+             * Circular buffer guarded by a read/write lock (default).
+             */
+            IN_MEMORY,
+            /**
+             * Lock-free multi-producer ring buffer; writers and readers never block each other.
+             */
+            RING_BUFFER,
+            /**
+             * Columnar store kept off the Java heap under {@code off-heap-max-bytes}; suited to millions of lines.
+             */
+            OFF_HEAP,
+            /**
+             * Memory-mapped segment files on disk; logs survive restarts and are bounded by {@code segment.*} retention.
+             */
+            SEGMENT,
+            /**
+             * Recent entries as objects, older ones in Deflate-compressed blocks bounded by {@code compressed.max-bytes}.
+             */
+            COMPRESSED,
+            /**
+             * One circular buffer per level sized by {@code tiers.*}; floods of one level cannot evict another.
+             */
+            TIERED
+        }
+
+        /**
+         * Live streaming subscriber settings.
+         * <p>
+         * Each WebSocket or SSE client receives entries through its own bounded queue drained by a
+         * dispatcher thread, so a slow client never delays the logging thread.
+         */
+        public static class Subscribers {
+
+            /**
+             * Maximum number of entries waiting for one subscriber.
+             */
+            private int queueSize = LogRepository.SubscriptionOptions.DEFAULT_QUEUE_CAPACITY;
+
+            /**
+             * Thread draining each subscriber queue: PLATFORM_THREAD or VIRTUAL_THREAD.
+             */
+            private LogRepository.SubscriptionOptions.DispatchMode dispatcher =
+                    LogRepository.SubscriptionOptions.DispatchMode.PLATFORM_THREAD;
+
+            /**
+             * Behaviour when a subscriber queue is full: DROP_OLDEST or DISCONNECT.
+             */
+            private LogRepository.SubscriptionOptions.OverflowPolicy overflowPolicy =
+                    LogRepository.SubscriptionOptions.OverflowPolicy.DROP_OLDEST;
+
+            public int getQueueSize() {
+                return queueSize;
+            }
+
+            public void setQueueSize(int queueSize) {
+                this.queueSize = queueSize;
+            }
+
+            public LogRepository.SubscriptionOptions.DispatchMode getDispatcher() {
+                return dispatcher;
+            }
+
+            public void setDispatcher(LogRepository.SubscriptionOptions.DispatchMode dispatcher) {
+                this.dispatcher = dispatcher;
+            }
+
+            public LogRepository.SubscriptionOptions.OverflowPolicy getOverflowPolicy() {
+                return overflowPolicy;
+            }
+
+            public void setOverflowPolicy(LogRepository.SubscriptionOptions.OverflowPolicy overflowPolicy) {
+                this.overflowPolicy = overflowPolicy;
+            }
+        }
+
+        /**
+         * Server-Sent Events log streaming settings.
+         * <p>
+         * All SSE clients share one repository subscription; entries are sent in batches and each
+         * client handles falling behind according to {@code backpressure}.
+         */
+        public static class Sse {
+
+            /**
+             * Strategy for clients that fall behind: LATEST, DROP or BUFFER.
+             */
+            private ReactiveLogStreamHandler.Backpressure backpressure = ReactiveLogStreamHandler.Backpressure.BUFFER;
+
+            /**
+             * Batches buffered per client with the BUFFER strategy.
+             */
+            private int bufferSize = ReactiveLogStreamHandler.DEFAULT_BUFFER_SIZE;
+
+            /**
+             * Maximum number of log entries per event.
+             */
+            private int batchSize = ReactiveLogStreamHandler.DEFAULT_BATCH_SIZE;
+
+            /**
+             * Maximum time an entry waits before its event is sent.
+             */
+            private Duration batchInterval = Duration.ofMillis(100);
+
+            public ReactiveLogStreamHandler.Backpressure getBackpressure() {
+                return backpressure;
+            }
+
+            public void setBackpressure(ReactiveLogStreamHandler.Backpressure backpressure) {
+                this.backpressure = backpressure;
+            }
+
+            public int getBufferSize() {
+                return bufferSize;
+            }
+
+            public void setBufferSize(int bufferSize) {
+                this.bufferSize = bufferSize;
+            }
+
+            public int getBatchSize() {
+                return batchSize;
+            }
+
+            public void setBatchSize(int batchSize) {
+                this.batchSize = batchSize;
+            }
+
+            public Duration getBatchInterval() {
+                return batchInterval;
+            }
+
+            public void setBatchInterval(Duration batchInterval) {
+                this.batchInterval = batchInterval;
+            }
+        }
+
+        /**
+         * Stack trace deduplication settings.
+         * <p>
+         * Throwables are fingerprinted on capture and entries share one stack trace per distinct
+         * exception, formatted and sanitized on first read instead of on every log call.
+         */
+        public static class StackTraces {
+
+            /**
+             * Whether repeated stack traces are shared and formatted lazily.
+             * <p>
+             * Off by default: when enabled, stack traces are formatted and sanitized when first read
+             * rather than at capture, and up to {@code maxEntries} throwables are retained until then.
+             */
+            private boolean dedup = false;
+
+            /**
+             * Maximum number of distinct stack traces kept in the dictionary.
+             */
+            private int maxEntries = 1024;
+
+            public boolean isDedup() {
+                return dedup;
+            }
+
+            public void setDedup(boolean dedup) {
+                this.dedup = dedup;
+            }
+
+            public int getMaxEntries() {
+                return maxEntries;
+            }
+
+            public void setMaxEntries(int maxEntries) {
+                this.maxEntries = maxEntries;
+            }
+        }
+
+        /**
+         * Level-tiered store settings.
+         * <p>
+         * Each value is the percentage of {@code max-entries} reserved for that level; the values
+         * must sum to 100. A level with 0 is not retained.
+         */
+        public static class Tiers {
+
+            private int error = 20;
+
+            private int warn = 20;
+
+            private int info = 40;
+
+            private int debug = 15;
+
+            private int trace = 5;
+
+            public int getError() {
+                return error;
+            }
+
+            public void setError(int error) {
+                this.error = error;
+            }
+
+            public int getWarn() {
+                return warn;
+            }
+
+            public void setWarn(int warn) {
+                this.warn = warn;
+            }
+
+            public int getInfo() {
+                return info;
+            }
+
+            public void setInfo(int info) {
+                this.info = info;
+            }
+
+            public int getDebug() {
+                return debug;
+            }
+
+            public void setDebug(int debug) {
+                this.debug = debug;
+            }
+
+            public int getTrace() {
+                return trace;
+            }
+
+            public void setTrace(int trace) {
+                this.trace = trace;
+            }
+
+            /**
+             * Returns the shares keyed by level.
+             */
+            public Map<LogLevel, Integer> toShares() {
+                return Map.of(
+                        LogLevel.ERROR, error,
+                        LogLevel.WARN, warn,
+                        LogLevel.INFO, info,
+                        LogLevel.DEBUG, debug,
+                        LogLevel.TRACE, trace
+                );
+            }
+        }
+
+        /**
+         * Per-logger ingestion rate limit settings.
+         * <p>
+         * Each logger gets a token bucket. Over-budget events below {@code keep-level} are sampled
+         * and the rest are dropped before formatting; a WARN summary of the suppressed count is
+         * stored per logger every {@code summary-interval}.
+         */
+        public static class Governor {
+
+            /**
+             * Enable the ingestion rate limit.
+             */
+            private boolean enabled = false;
+
+            /**
+             * Sustained events per second allowed per logger.
+             */
+            private double ratePerSecond = 1000;
+
+            /**
+             * Events a logger may emit at once before the rate applies.
+             */
+            private int burst = 2000;
+
+            /**
+             * Rate overrides keyed by logger name prefix; the longest matching prefix wins.
+             */
+            private Map<String, Double> rates = new HashMap<>();
+
+            /**
+             * Events at or above this level are never dropped.
+             */
+            private LogLevel keepLevel = LogLevel.WARN;
+
+            /**
+             * Fraction (0 to 1) of over-budget events below {@code keep-level} that are still kept.
+             */
+            private double sampleRate = 0.01;
+
+            /**
+             * Maximum number of individually tracked loggers; further loggers share one bucket.
+             */
+            private int maxLoggers = 10_000;
+
+            /**
+             * How often suppression summaries are stored.
+             */
+            private Duration summaryInterval = Duration.ofSeconds(10);
+
+            public boolean isEnabled() {
+                return enabled;
+            }
+
+            public void setEnabled(boolean enabled) {
+                this.enabled = enabled;
+            }
+
+            public double getRatePerSecond() {
+                return ratePerSecond;
+            }
+
+            public void setRatePerSecond(double ratePerSecond) {
+                this.ratePerSecond = ratePerSecond;
+            }
+
+            public int getBurst() {
+                return burst;
+            }
+
+            public void setBurst(int burst) {
+                this.burst = burst;
+            }
+
+            public Map<String, Double> getRates() {
+                return rates;
+            }
+
+            public void setRates(Map<String, Double> rates) {
+                this.rates = rates;
+            }
+
+            public LogLevel getKeepLevel() {
+                return keepLevel;
+            }
+
+            public void setKeepLevel(LogLevel keepLevel) {
+                this.keepLevel = keepLevel;
+            }
+
+            public double getSampleRate() {
+                return sampleRate;
+            }
+
+            public void setSampleRate(double sampleRate) {
+                this.sampleRate = sampleRate;
+            }
+
+            public int getMaxLoggers() {
+                return maxLoggers;
+            }
+
+            public void setMaxLoggers(int maxLoggers) {
+                this.maxLoggers = maxLoggers;
+            }
+
+            public Duration getSummaryInterval() {
+                return summaryInterval;
+            }
+
+            public void setSummaryInterval(Duration summaryInterval) {
+                this.summaryInterval = summaryInterval;
+            }
+        }
+
+        /**
+         * Log-derived metric settings.
+         * <p>
+         * Each rule is evaluated once per stored entry and increments a Micrometer counter named
+         * after the rule, so dashboards and alerts read pre-aggregated series instead of scanning logs.
+         */
+        public static class DerivedMetrics {
+
+            /**
+             * Maximum tag combinations per rule; further combinations are counted under "other".
+             */
+            private int maxSeries = 1000;
+
+            /**
+             * Log-to-metric rules.
+             */
+            private List<Rule> rules = new ArrayList<>();
+
+            public int getMaxSeries() {
+                return maxSeries;
+            }
+
+            public void setMaxSeries(int maxSeries) {
+                this.maxSeries = maxSeries;
+            }
+
+            public List<Rule> getRules() {
+                return rules;
+            }
+
+            public void setRules(List<Rule> rules) {
+                this.rules = rules;
+            }
+
+            /**
+             * Returns the rules in the form used by {@link LogDerivedMetrics}.
+             */
+            public List<LogDerivedMetrics.Rule> toRules() {
+                return rules.stream()
+                        .map(rule -> new LogDerivedMetrics.Rule(rule.getName(), rule.getLevel(), rule.getLogger(),
+                                rule.getKeyword(), rule.getRegex(), rule.isTagLogger(), rule.getMdcTags()))
+                        .toList();
+            }
+
+            /**
+             * A single log-to-metric rule. Unset criteria match every entry.
+             */
+            public static class Rule {
+
+                /**
+                 * Counter name, e.g. {@code app.logs.timeouts}.
+                 */
+                private String name;
+
+                /**
+                 * Minimum level of counted entries.
+                 */
+                private LogLevel level;
+
+                /**
+                 * Logger name prefix of counted entries.
+                 */
+                private String logger;
+
+                /**
+                 * Case-insensitive keyword the message must contain.
+                 */
+                private String keyword;
+
+                /**
+                 * Regular expression searched in the message.
+                 */
+                private String regex;
+
+                /**
+                 * Tag the counter with the logger name.
+                 */
+                private boolean tagLogger = false;
+
+                /**
+                 * MDC keys whose values become counter tags.
+                 */
+                private List<String> mdcTags = new ArrayList<>();
+
+                public String getName() {
+                    return name;
+                }
+
+                public void setName(String name) {
+                    this.name = name;
+                }
+
+                public LogLevel getLevel() {
+                    return level;
+                }
+
+                public void setLevel(LogLevel level) {
+                    this.level = level;
+                }
+
+                public String getLogger() {
+                    return logger;
+                }
+
+                public void setLogger(String logger) {
+                    this.logger = logger;
+                }
+
+                public String getKeyword() {
+                    return keyword;
+                }
+
+                public void setKeyword(String keyword) {
+                    this.keyword = keyword;
+                }
+
+                public String getRegex() {
+                    return regex;
+                }
+
+                public void setRegex(String regex) {
+                    this.regex = regex;
+                }
+
+                public boolean isTagLogger() {
+                    return tagLogger;
+                }
+
+                public void setTagLogger(boolean tagLogger) {
+                    this.tagLogger = tagLogger;
+                }
+
+                public List<String> getMdcTags() {
+                    return mdcTags;
+                }
+
+                public void setMdcTags(List<String> mdcTags) {
+                    this.mdcTags = mdcTags;
+                }
+            }
+        }
+
+        /**
+         * Compressed block store settings.
+         * <p>
+         * Every {@code block-size} entries are sealed into a compressed block with a small summary
+         * (time range, levels, trace id bloom filter) so queries skip blocks without inflating them.
+         */
+        public static class Compressed {
+
+            /**
+             * Memory budget for compressed blocks in bytes; the oldest blocks are evicted beyond it.
+             */
+            private long maxBytes = 16L * 1024 * 1024;
+
+            /**
+             * Number of entries per compressed block.
+             */
+            private int blockSize = 512;
+
+            public long getMaxBytes() {
+                return maxBytes;
+            }
+
+            public void setMaxBytes(long maxBytes) {
+                this.maxBytes = maxBytes;
+            }
+
+            public int getBlockSize() {
+                return blockSize;
+            }
+
+            public void setBlockSize(int blockSize) {
+                this.blockSize = blockSize;
+            }
+        }
+
+        /**
+         * Persistent segment store settings.
+         * <p>
+         * Logs are appended to memory-mapped files of {@code segment-bytes} each in {@code directory}.
+         * Whole segments are deleted once all their entries are older than {@code retention} or
+         * when the directory grows beyond {@code max-total-bytes}.
+         */
+        public static class Segment {
+
+            /**
+             * Directory holding the segment files.
+             */
+            private String directory = "j-obs-data/logs";
+
+            /**
+             * Size of each segment file in bytes.
+             */
+            private long segmentBytes = 64L * 1024 * 1024;
+
+            /**
+             * How long to keep log segments.
+             */
+            private Duration retention = Duration.ofDays(7);
+
+            /**
+             * Maximum total size of all segment files in bytes; 0 disables the limit.
+             */
+            private long maxTotalBytes = 1024L * 1024 * 1024;
+
+            public String getDirectory() {
+                return directory;
+            }
+
+            public void setDirectory(String directory) {
+                this.directory = directory;
+            }
+
+            public long getSegmentBytes() {
+                return segmentBytes;
+            }
+
+            public void setSegmentBytes(long segmentBytes) {
+                this.segmentBytes = segmentBytes;
+            }
+
+            public Duration getRetention() {
+                return retention;
+            }
+
+            public void setRetention(Duration retention) {
+                this.retention = retention;
+            }
+
+            public long getMaxTotalBytes() {
+                return maxTotalBytes;
+            }
+
+            public void setMaxTotalBytes(long maxTotalBytes) {
+                this.maxTotalBytes = maxTotalBytes;
+            }
+        }
+
+        /**
+         * Asynchronous log capture settings.
+         * <p>
+         * When enabled, the appenders only copy raw event fields into a bounded ring buffer;
+         * sanitization, stack trace formatting and storage run on background worker threads.
+         */
+        public static class Async {
+
+            /**
+             * Enable asynchronous log capture.
+             */
+            private boolean enabled = false;
+
+            /**
+             * Ring buffer size (rounded up to the next power of two).
+             */
+            private int queueSize = 8192;
+
+            /**
+             * Number of background worker threads. Values above 1 may store entries slightly out of order.
+             */
+            private int workers = 1;
+
+            /**
+             * Behaviour when the ring buffer is full: DROP_LOW_LEVELS_FIRST, BLOCK or DROP_NEWEST.
+             */
+            private AsyncLogDispatcher.OverflowPolicy overflowPolicy = AsyncLogDispatcher.OverflowPolicy.DROP_LOW_LEVELS_FIRST;
+
+            public boolean isEnabled() {
+                return enabled;
+            }
+
+            public void setEnabled(boolean enabled) {
+                this.enabled = enabled;
+            }
+
+            public int getQueueSize() {
+                return queueSize;
+            }
+
+            public void setQueueSize(int queueSize) {
+                this.queueSize = queueSize;
+            }
+
+            public int getWorkers() {
+                return workers;
+            }
+
+            public void setWorkers(int workers) {
+                this.workers = workers;
+            }
+
+            public AsyncLogDispatcher.OverflowPolicy getOverflowPolicy() {
+                return overflowPolicy;
+            }
+
+            public void setOverflowPolicy(AsyncLogDispatcher.OverflowPolicy overflowPolicy) {
+                this.overflowPolicy = overflowPolicy;
+            }
+        }
+
+        /**
+         * Input sanitization settings for search patterns.
+         */
+        public static class Sanitization {
+
+            /**
+             * Maximum number of wildcards allowed in search patterns (ReDoS protection).
+             */
+            private int maxWildcards = 5;
+
+            /**
+             * Maximum length for log message search patterns.
+             */
+            private int maxMessageLength = 1000;
+
+            /**
+             * Maximum length for logger name patterns.
+             */
+            private int maxLoggerLength = 256;
+
+            public int getMaxWildcards() {
                 return maxWildcards;
             }
 
@@ -1042,6 +2286,22 @@ public class JObsProperties {
              */
             private Duration cleanupInterval = Duration.ofMinutes(5);
 
+            /**
+             * Maximum time log entries wait before being flushed to sessions as one frame.
+             */
+            private Duration batchInterval = Duration.ofMillis(100);
+
+            /**
+             * Maximum number of log entries per frame; a full batch is flushed immediately.
+             */
+            private int batchSize = 256;
+
+            /**
+             * Maximum number of frames waiting to be sent to one session. The oldest frame is
+             * dropped when a slow session exceeds it.
+             */
+            private int sendQueueDepth = 16;
+
             public boolean isCompressionEnabled() {
                 return compressionEnabled;
             }
@@ -1089,6 +2349,30 @@ public class JObsProperties {
             public void setCleanupInterval(Duration cleanupInterval) {
                 this.cleanupInterval = cleanupInterval;
             }
+
+            public Duration getBatchInterval() {
+                return batchInterval;
+            }
+
+            public void setBatchInterval(Duration batchInterval) {
+                this.batchInterval = batchInterval;
+            }
+
+            public int getBatchSize() {
+                return batchSize;
+            }
+
+            public void setBatchSize(int batchSize) {
+                this.batchSize = batchSize;
+            }
+
+            public int getSendQueueDepth() {
+                return sendQueueDepth;
+            }
+
+            public void setSendQueueDepth(int sendQueueDepth) {
+                this.sendQueueDepth = sendQueueDepth;
+            }
         }
     }
 
@@ -1,5 +1,7 @@
 package io.github.jobs.spring.autoconfigure;
 
+import io.github.jobs.domain.log.LogLevel;
+import io.github.jobs.infrastructure.OffHeapLogRepository;
 import io.github.jobs.spring.autoconfigure.JObsProperties.Alerts;
 import io.github.jobs.spring.autoconfigure.JObsProperties.Alerts.Email;
 import io.github.jobs.spring.autoconfigure.JObsProperties.Alerts.Providers;
@@ -22,9 +24,12 @@ import org.springframework.context.event.EventListener;
 
 import java.time.Duration;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
 
 /**
  * Validates JObsProperties at application startup.
@@ -207,6 +212,107 @@ public class JObsPropertiesValidator {
             errors.add("j-obs.traces.sample-rate must be between 0.0 and 1.0, using default '1.0'");
             traces.setSampleRate(1.0);
         }
+
+        Traces.Processor processor = traces.getProcessor();
+        if (processor.getQueueSize() <= 0) {
+            errors.add("j-obs.traces.processor.queue-size must be positive, using default '2048'");
+            processor.setQueueSize(2048);
+        }
+        if (processor.getMaxBatchSize() <= 0) {
+            errors.add("j-obs.traces.processor.max-batch-size must be positive, using default '512'");
+            processor.setMaxBatchSize(512);
+        } else if (processor.getMaxBatchSize() > processor.getQueueSize()) {
+            errors.add("j-obs.traces.processor.max-batch-size=" + processor.getMaxBatchSize() +
+                    " exceeds j-obs.traces.processor.queue-size, batches will be capped at the queue size");
+        }
+        Duration flushInterval = processor.getFlushInterval();
+        if (flushInterval == null || flushInterval.isNegative() || flushInterval.isZero()) {
+            errors.add("j-obs.traces.processor.flush-interval must be positive, using default '200ms'");
+            processor.setFlushInterval(Duration.ofMillis(200));
+        }
+        Duration exportTimeout = processor.getExportTimeout();
+        if (exportTimeout == null || exportTimeout.isNegative() || exportTimeout.isZero()) {
+            errors.add("j-obs.traces.processor.export-timeout must be positive, using default '30s'");
+            processor.setExportTimeout(Duration.ofSeconds(30));
+        }
+
+        Traces.Sampling.TrackedTraces trackedTraces = traces.getSampling().getTrackedTraces();
+        if (trackedTraces.getExpectedTraces() <= 0) {
+            errors.add("j-obs.traces.sampling.tracked-traces.expected-traces must be positive, using default '100000'");
+            trackedTraces.setExpectedTraces(100_000);
+        }
+        double falsePositiveRate = trackedTraces.getFalsePositiveRate();
+        if (falsePositiveRate <= 0.0 || falsePositiveRate >= 1.0) {
+            errors.add("j-obs.traces.sampling.tracked-traces.false-positive-rate must be between 0 and 1 (exclusive), using default '0.001'");
+            trackedTraces.setFalsePositiveRate(0.001);
+        }
+        Duration rotationInterval = trackedTraces.getRotationInterval();
+        if (rotationInterval == null || rotationInterval.isNegative() || rotationInterval.isZero()) {
+            errors.add("j-obs.traces.sampling.tracked-traces.rotation-interval must be positive, using default '5m'");
+            trackedTraces.setRotationInterval(Duration.ofMinutes(5));
+        }
+
+        Traces.Sampling.Adaptive adaptive = traces.getSampling().getAdaptive();
+        if (adaptive.isEnabled()) {
+            if (adaptive.getTracesPerSecond() <= 0) {
+                errors.add("j-obs.traces.sampling.adaptive.traces-per-second must be positive, using default '10'");
+                adaptive.setTracesPerSecond(10.0);
+            }
+            Duration window = adaptive.getWindow();
+            if (window == null || window.toSeconds() < 1) {
+                errors.add("j-obs.traces.sampling.adaptive.window must be at least 1s, using default '30s'");
+                adaptive.setWindow(Duration.ofSeconds(30));
+            }
+            Duration adjustInterval = adaptive.getAdjustInterval();
+            if (adjustInterval == null || adjustInterval.isNegative() || adjustInterval.isZero()) {
+                errors.add("j-obs.traces.sampling.adaptive.adjust-interval must be positive, using default '5s'");
+                adaptive.setAdjustInterval(Duration.ofSeconds(5));
+            }
+            if (adaptive.getMaxEndpoints() <= 0) {
+                errors.add("j-obs.traces.sampling.adaptive.max-endpoints must be positive, using default '200'");
+                adaptive.setMaxEndpoints(200);
+            }
+            if (traces.getSampleRate() < 1.0) {
+                errors.add("j-obs.traces.sample-rate is ignored when j-obs.traces.sampling.adaptive.enabled=true");
+            }
+        }
+
+        Traces.Sampling.Tail tail = traces.getSampling().getTail();
+        if (tail.isEnabled()) {
+            Duration quietPeriod = tail.getQuietPeriod();
+            if (quietPeriod == null || quietPeriod.isNegative()) {
+                errors.add("j-obs.traces.sampling.tail.quiet-period must not be negative, using default '2s'");
+                tail.setQuietPeriod(Duration.ofSeconds(2));
+            }
+            Duration maxTraceWait = tail.getMaxTraceWait();
+            if (maxTraceWait == null || maxTraceWait.isNegative() || maxTraceWait.isZero()) {
+                errors.add("j-obs.traces.sampling.tail.max-trace-wait must be positive, using default '30s'");
+                tail.setMaxTraceWait(Duration.ofSeconds(30));
+            } else if (maxTraceWait.compareTo(tail.getQuietPeriod()) < 0) {
+                errors.add("j-obs.traces.sampling.tail.max-trace-wait=" + maxTraceWait +
+                        " is shorter than the quiet period, traces will be decided before they complete");
+            }
+            if (tail.getMaxBufferedSpans() <= 0) {
+                errors.add("j-obs.traces.sampling.tail.max-buffered-spans must be positive, using default '50000'");
+                tail.setMaxBufferedSpans(50000);
+            }
+            if (tail.getEndpointRateLimit() < 0) {
+                errors.add("j-obs.traces.sampling.tail.endpoint-rate-limit must not be negative, using default '1.0'");
+                tail.setEndpointRateLimit(1.0);
+            }
+            if (tail.getProbability() < 0.0 || tail.getProbability() > 1.0) {
+                errors.add("j-obs.traces.sampling.tail.probability must be between 0.0 and 1.0, using default '0.1'");
+                tail.setProbability(0.1);
+            }
+            if (traces.getSampleRate() < 1.0) {
+                errors.add("j-obs.traces.sample-rate is ignored when j-obs.traces.sampling.tail.enabled=true, using '1.0'");
+                traces.setSampleRate(1.0);
+            }
+            if (traces.getSampling().getAdaptive().isEnabled()) {
+                errors.add("j-obs.traces.sampling.adaptive.enabled is ignored when j-obs.traces.sampling.tail.enabled=true, using 'false'");
+                traces.getSampling().getAdaptive().setEnabled(false);
+            }
+        }
     }
 
     private void validateLogs(List<String> errors) {
@@ -219,11 +325,173 @@ public class JObsPropertiesValidator {
             errors.add("j-obs.logs.max-entries is very high (" + logs.getMaxEntries() + "), may cause memory issues");
         }
 
+        if (logs.getStore() == Logs.Store.OFF_HEAP) {
+            if (logs.getMaxEntries() > OffHeapLogRepository.MAX_ENTRIES) {
+                errors.add("j-obs.logs.max-entries must be at most " + OffHeapLogRepository.MAX_ENTRIES +
+                        " with j-obs.logs.store=OFF_HEAP, using '" + OffHeapLogRepository.MAX_ENTRIES + "'");
+                logs.setMaxEntries(OffHeapLogRepository.MAX_ENTRIES);
+            }
+            long requiredBytes = (long) logs.getMaxEntries() * OffHeapLogRepository.ROW_BYTES
+                    + OffHeapLogRepository.MIN_ARENA_BYTES;
+            if (logs.getOffHeapMaxBytes() < requiredBytes) {
+                errors.add("j-obs.logs.off-heap-max-bytes must be at least " + requiredBytes + " for " +
+                        logs.getMaxEntries() + " entries, using '" + requiredBytes + "'");
+                logs.setOffHeapMaxBytes(requiredBytes);
+            }
+        }
+
         String minLevel = logs.getMinLevel();
         if (minLevel == null || !VALID_LOG_LEVELS.contains(minLevel.toUpperCase())) {
             errors.add("j-obs.logs.min-level must be one of: " + VALID_LOG_LEVELS + ", using 'INFO'");
             logs.setMinLevel("INFO");
         }
+
+        Logs.Async async = logs.getAsync();
+        if (async.getQueueSize() <= 0) {
+            errors.add("j-obs.logs.async.queue-size must be positive, using default '8192'");
+            async.setQueueSize(8192);
+        }
+        if (async.getWorkers() <= 0) {
+            errors.add("j-obs.logs.async.workers must be positive, using default '1'");
+            async.setWorkers(1);
+        }
+
+        Logs.Segment segment = logs.getSegment();
+        if (segment.getSegmentBytes() < 64 * 1024 || segment.getSegmentBytes() > Integer.MAX_VALUE) {
+            errors.add("j-obs.logs.segment.segment-bytes must be between 64KB and 2GB, using default '67108864'");
+            segment.setSegmentBytes(64L * 1024 * 1024);
+        }
+        if (segment.getMaxTotalBytes() < 0) {
+            errors.add("j-obs.logs.segment.max-total-bytes must not be negative, using '0' (unlimited)");
+            segment.setMaxTotalBytes(0);
+        }
+        if (segment.getRetention() == null || segment.getRetention().isNegative() || segment.getRetention().isZero()) {
+            errors.add("j-obs.logs.segment.retention must be positive, using default '7d'");
+            segment.setRetention(Duration.ofDays(7));
+        }
+
+        Logs.Compressed compressed = logs.getCompressed();
+        if (compressed.getMaxBytes() <= 0) {
+            errors.add("j-obs.logs.compressed.max-bytes must be positive, using default '16777216'");
+            compressed.setMaxBytes(16L * 1024 * 1024);
+        }
+        if (compressed.getBlockSize() < 16 || compressed.getBlockSize() > 65536) {
+            errors.add("j-obs.logs.compressed.block-size must be between 16 and 65536, using default '512'");
+            compressed.setBlockSize(512);
+        }
+
+        Logs.Tiers tiers = logs.getTiers();
+        boolean negativeShare = tiers.toShares().values().stream().anyMatch(share -> share < 0);
+        int totalShare = tiers.toShares().values().stream().mapToInt(Integer::intValue).sum();
+        if (negativeShare || totalShare != 100) {
+            errors.add("j-obs.logs.tiers.* must be non-negative and sum to 100, using defaults 20/20/40/15/5");
+            Logs.Tiers defaults = new Logs.Tiers();
+            tiers.setError(defaults.getError());
+            tiers.setWarn(defaults.getWarn());
+            tiers.setInfo(defaults.getInfo());
+            tiers.setDebug(defaults.getDebug());
+            tiers.setTrace(defaults.getTrace());
+        }
+
+        Logs.Governor governor = logs.getGovernor();
+        if (governor.getRatePerSecond() <= 0) {
+            errors.add("j-obs.logs.governor.rate-per-second must be positive, using default '1000'");
+            governor.setRatePerSecond(1000);
+        }
+        if (governor.getBurst() <= 0) {
+            errors.add("j-obs.logs.governor.burst must be positive, using default '2000'");
+            governor.setBurst(2000);
+        }
+        if (governor.getRates() == null) {
+            governor.setRates(new HashMap<>());
+        }
+        if (governor.getRates().values().stream().anyMatch(rate -> rate == null || rate <= 0)) {
+            errors.add("j-obs.logs.governor.rates must all be positive, ignoring non-positive overrides");
+            governor.getRates().values().removeIf(rate -> rate == null || rate <= 0);
+        }
+        if (governor.getKeepLevel() == null) {
+            errors.add("j-obs.logs.governor.keep-level must be set, using default 'WARN'");
+            governor.setKeepLevel(LogLevel.WARN);
+        }
+        if (governor.getSampleRate() < 0 || governor.getSampleRate() > 1) {
+            errors.add("j-obs.logs.governor.sample-rate must be between 0 and 1, using default '0.01'");
+            governor.setSampleRate(0.01);
+        }
+        if (governor.getMaxLoggers() <= 0) {
+            errors.add("j-obs.logs.governor.max-loggers must be positive, using default '10000'");
+            governor.setMaxLoggers(10_000);
+        }
+        Duration summaryInterval = governor.getSummaryInterval();
+        if (summaryInterval == null || summaryInterval.isNegative() || summaryInterval.isZero()) {
+            errors.add("j-obs.logs.governor.summary-interval must be positive, using default '10s'");
+            governor.setSummaryInterval(Duration.ofSeconds(10));
+        }
+
+        Logs.DerivedMetrics derivedMetrics = logs.getDerivedMetrics();
+        if (derivedMetrics.getMaxSeries() <= 0) {
+            errors.add("j-obs.logs.derived-metrics.max-series must be positive, using default '1000'");
+            derivedMetrics.setMaxSeries(1000);
+        }
+        if (derivedMetrics.getRules() == null) {
+            derivedMetrics.setRules(new ArrayList<>());
+        }
+        Set<String> ruleNames = new HashSet<>();
+        derivedMetrics.getRules().removeIf(rule -> {
+            if (rule.getName() == null || rule.getName().isBlank() || !ruleNames.add(rule.getName())) {
+                errors.add("j-obs.logs.derived-metrics.rules[].name must be set and unique, ignoring rule '" + rule.getName() + "'");
+                return true;
+            }
+            if (rule.getRegex() != null && !rule.getRegex().isBlank()) {
+                try {
+                    Pattern.compile(rule.getRegex());
+                } catch (PatternSyntaxException e) {
+                    errors.add("j-obs.logs.derived-metrics.rules[].regex of rule '" + rule.getName() + "' is invalid, ignoring rule");
+                    return true;
+                }
+            }
+            return false;
+        });
+
+        Logs.StackTraces stackTraces = logs.getStackTraces();
+        if (stackTraces.getMaxEntries() <= 0) {
+            errors.add("j-obs.logs.stack-traces.max-entries must be positive, using default '1024'");
+            stackTraces.setMaxEntries(1024);
+        }
+
+        Logs.Subscribers subscribers = logs.getSubscribers();
+        if (subscribers.getQueueSize() <= 0) {
+            errors.add("j-obs.logs.subscribers.queue-size must be positive, using default '1024'");
+            subscribers.setQueueSize(1024);
+        }
+
+        Logs.WebSocket websocket = logs.getWebsocket();
+        if (websocket.getBatchInterval() == null || websocket.getBatchInterval().isNegative()
+                || websocket.getBatchInterval().isZero()) {
+            errors.add("j-obs.logs.websocket.batch-interval must be positive, using default '100ms'");
+            websocket.setBatchInterval(Duration.ofMillis(100));
+        }
+        if (websocket.getBatchSize() <= 0) {
+            errors.add("j-obs.logs.websocket.batch-size must be positive, using default '256'");
+            websocket.setBatchSize(256);
+        }
+        if (websocket.getSendQueueDepth() <= 0) {
+            errors.add("j-obs.logs.websocket.send-queue-depth must be positive, using default '16'");
+            websocket.setSendQueueDepth(16);
+        }
+
+        Logs.Sse sse = logs.getSse();
+        if (sse.getBufferSize() <= 0) {
+            errors.add("j-obs.logs.sse.buffer-size must be positive, using default '64'");
+            sse.setBufferSize(64);
+        }
+        if (sse.getBatchSize() <= 0) {
+            errors.add("j-obs.logs.sse.batch-size must be positive, using default '256'");
+            sse.setBatchSize(256);
+        }
+        if (sse.getBatchInterval() == null || sse.getBatchInterval().isNegative() || sse.getBatchInterval().isZero()) {
+            errors.add("j-obs.logs.sse.batch-interval must be positive, using default '100ms'");
+            sse.setBatchInterval(Duration.ofMillis(100));
+        }
     }
 
     private void validateMetrics(List<String> errors) {
@@ -1,8 +1,10 @@
 package io.github.jobs.spring.autoconfigure;
 
 import io.github.jobs.application.AlertEventRepository;
+import io.github.jobs.application.LogRepository;
 import io.github.jobs.application.TraceRepository;
 import io.github.jobs.spring.retention.DataRetentionService;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.boot.autoconfigure.AutoConfiguration;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
@@ -14,12 +16,14 @@ import org.springframework.context.annotation.Bean;
  * Auto-configuration for J-Obs data retention policies.
  * <p>
  * Registers a {@link DataRetentionService} that periodically removes expired
- * traces and alert events based on the configured retention durations.
+ * traces and alert events based on the configured retention durations, and expired log
+ * segments when {@code j-obs.logs.store=SEGMENT}.
  * <p>
  * This configuration is only activated when both {@link TraceRepository} and
  * {@link AlertEventRepository} beans are present in the application context.
  */
-@AutoConfiguration(after = {JObsTraceAutoConfiguration.class, JObsAlertAutoConfiguration.class})
+@AutoConfiguration(after = {JObsTraceAutoConfiguration.class, JObsAlertAutoConfiguration.class,
+        JObsLogAutoConfiguration.class})
 @ConditionalOnProperty(name = "j-obs.enabled", havingValue = "true", matchIfMissing = true)
 @EnableConfigurationProperties(JObsProperties.class)
 public class JObsRetentionAutoConfiguration {
@@ -30,12 +34,17 @@ public class JObsRetentionAutoConfiguration {
     public DataRetentionService dataRetentionService(
             TraceRepository traceRepository,
             AlertEventRepository alertEventRepository,
+            ObjectProvider<LogRepository> logRepository,
             JObsProperties properties) {
+        JObsProperties.Logs.Segment segment = properties.getLogs().getSegment();
         return new DataRetentionService(
                 traceRepository,
                 alertEventRepository,
                 properties.getTraces().getRetention(),
-                properties.getAlerts().getRetention()
+                properties.getAlerts().getRetention(),
+                logRepository.getIfAvailable(),
+                segment.getRetention(),
+                segment.getMaxTotalBytes()
         );
     }
 }
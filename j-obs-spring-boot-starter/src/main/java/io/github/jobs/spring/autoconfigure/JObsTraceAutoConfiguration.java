@@ -1,9 +1,15 @@
 package io.github.jobs.spring.autoconfigure;
 
+import io.github.jobs.application.LogRepository;
 import io.github.jobs.application.TraceRepository;
 import io.github.jobs.infrastructure.InMemoryTraceRepository;
+import io.github.jobs.spring.trace.AdaptiveTraceSampler;
+import io.github.jobs.spring.trace.JObsBatchSpanProcessor;
+import io.github.jobs.spring.trace.JObsHeadSampler;
 import io.github.jobs.spring.trace.JObsSpanExporter;
+import io.github.jobs.spring.trace.RotatingBloomFilter;
 import io.github.jobs.spring.trace.SamplingTraceRepository;
+import io.github.jobs.spring.trace.TailSamplingTraceRepository;
 import io.github.jobs.spring.trace.TraceSampler;
 import io.github.jobs.spring.web.TraceApiController;
 import io.github.jobs.spring.web.TraceController;
@@ -17,11 +23,14 @@ import io.opentelemetry.sdk.OpenTelemetrySdk;
 import io.opentelemetry.sdk.resources.Resource;
 import io.opentelemetry.sdk.trace.SdkTracerProvider;
 import io.opentelemetry.sdk.trace.SdkTracerProviderBuilder;
+import io.opentelemetry.sdk.trace.SpanProcessor;
 import io.opentelemetry.sdk.trace.export.SimpleSpanProcessor;
 import io.opentelemetry.sdk.trace.export.SpanExporter;
+import io.opentelemetry.sdk.trace.samplers.Sampler;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.AutoConfiguration;
 import org.springframework.boot.autoconfigure.AutoConfigureOrder;
@@ -32,8 +41,10 @@ import org.springframework.boot.context.properties.EnableConfigurationProperties
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Primary;
 import org.springframework.core.Ordered;
+import org.springframework.util.ClassUtils;
 
 import java.util.List;
+import java.util.stream.Collectors;
 
 /**
  * Auto-configuration for J-Obs distributed trace collection and visualization.
@@ -50,6 +61,8 @@ import java.util.List;
  * OpenTelemetry integration (when SDK is present):
  * <ul>
  *   <li>{@link JObsSpanExporter} - Exports spans to internal storage</li>
+ *   <li>{@link JObsBatchSpanProcessor} - Exports ended spans in batches from a background thread</li>
+ *   <li>{@link JObsHeadSampler} - Samples new traces at the root span, honoring the parent's decision</li>
  *   <li>{@link SdkTracerProvider} - Configured with service name and exporters</li>
  *   <li>{@link OpenTelemetry} - Global OpenTelemetry instance</li>
  *   <li>{@link Tracer} - Ready-to-use tracer for custom instrumentation</li>
@@ -62,6 +75,11 @@ import java.util.List;
  *   <li>{@code retention} - How long to keep traces (default: 1h)</li>
  *   <li>{@code sample-rate} - Sampling rate 0.0-1.0 (default: 1.0)</li>
  *   <li>{@code export.*} - External exporter configuration (OTLP, Zipkin, Jaeger)</li>
+ *   <li>{@code processor.*} - Batch span processor configuration</li>
+ *   <li>{@code sampling.head} - Sample at span start instead of in the repository (default: true)</li>
+ *   <li>{@code sampling.tail.*} - Decide on complete traces, keeping errors and slow traces</li>
+ *   <li>{@code sampling.adaptive.*} - Adjust per-endpoint rates to a traces-per-second budget</li>
+ *   <li>{@code sampling.tracked-traces.*} - Size the memory of sampled trace IDs</li>
  * </ul>
  *
  * @see TraceRepository
@@ -76,9 +94,22 @@ public class JObsTraceAutoConfiguration {
 
     private static final Logger log = LoggerFactory.getLogger(JObsTraceAutoConfiguration.class);
 
+    private static final String SDK_TRACER_PROVIDER = "io.opentelemetry.sdk.trace.SdkTracerProvider";
+
     @Bean
     @ConditionalOnMissingBean
     public TraceSampler traceSampler(JObsProperties properties) {
+        if (properties.getTraces().getSampling().getTail().isEnabled()) {
+            // Tail sampling must see every trace: a trace dropped earlier loses its errors
+            log.info("Tail sampling enabled, recording every trace; sample-rate and adaptive sampling are ignored");
+            return new TraceSampler(1.0);
+        }
+        JObsProperties.Traces.Sampling.Adaptive adaptive = properties.getTraces().getSampling().getAdaptive();
+        if (adaptive.isEnabled()) {
+            log.info("Configuring adaptive trace sampler with a budget of {} traces/s", adaptive.getTracesPerSecond());
+            return new AdaptiveTraceSampler(adaptive.getTracesPerSecond(), adaptive.getWindow(),
+                    adaptive.getAdjustInterval(), adaptive.getMaxEndpoints());
+        }
         double sampleRate = properties.getTraces().getSampleRate();
         log.info("Configuring trace sampler with sample rate: {}", sampleRate);
         return new TraceSampler(sampleRate);
@@ -96,13 +127,33 @@ public class JObsTraceAutoConfiguration {
     @Bean
     @Primary
     @ConditionalOnMissingBean(SamplingTraceRepository.class)
-    public TraceRepository traceRepository(InMemoryTraceRepository inMemoryTraceRepository, TraceSampler traceSampler) {
-        double sampleRate = traceSampler.getSampleRate();
-        if (sampleRate < 1.0) {
-            log.info("Wrapping trace repository with sampling (rate={})", sampleRate);
-            return new SamplingTraceRepository(inMemoryTraceRepository, traceSampler);
+    public TraceRepository traceRepository(InMemoryTraceRepository inMemoryTraceRepository, TraceSampler traceSampler,
+                                           JObsProperties properties) {
+        TraceRepository repository = inMemoryTraceRepository;
+        // The adaptive sampler starts at 1.0 but may lower its rate at any time
+        boolean sampling = traceSampler.getSampleRate() < 1.0 || traceSampler instanceof AdaptiveTraceSampler;
+        if (sampling && isHeadSampling(properties)) {
+            // Unsampled traces never reach the repository; re-sampling here would drop
+            // traces kept because of an upstream sampled flag
+            log.info("Sampling traces at span start ({})", traceSampler);
+        } else if (sampling) {
+            log.info("Wrapping trace repository with sampling ({})", traceSampler);
+            JObsProperties.Traces.Sampling.TrackedTraces tracked = properties.getTraces().getSampling().getTrackedTraces();
+            repository = new SamplingTraceRepository(repository, traceSampler, new RotatingBloomFilter(
+                    tracked.getExpectedTraces(), tracked.getFalsePositiveRate(), tracked.getRotationInterval()));
+        }
+        JObsProperties.Traces.Sampling.Tail tail = properties.getTraces().getSampling().getTail();
+        if (tail.isEnabled()) {
+            log.info("Wrapping trace repository with tail sampling (latency threshold={}, probability={})",
+                    tail.getLatencyThreshold(), tail.getProbability());
+            repository = new TailSamplingTraceRepository(repository, tail.toConfig());
         }
-        return inMemoryTraceRepository;
+        return repository;
+    }
+
+    private static boolean isHeadSampling(JObsProperties properties) {
+        return properties.getTraces().getSampling().isHead()
+                && ClassUtils.isPresent(SDK_TRACER_PROVIDER, JObsTraceAutoConfiguration.class.getClassLoader());
     }
 
     @Bean
@@ -113,8 +164,12 @@ public class JObsTraceAutoConfiguration {
 
     @Bean
     @ConditionalOnMissingBean
-    public TraceApiController traceApiController(TraceRepository traceRepository) {
-        return new TraceApiController(traceRepository);
+    public TraceApiController traceApiController(TraceRepository traceRepository,
+                                                 ObjectProvider<LogRepository> logRepository,
+                                                 TraceSampler traceSampler) {
+        TraceApiController controller = new TraceApiController(traceRepository, logRepository.getIfAvailable());
+        controller.setTraceSampler(traceSampler);
+        return controller;
     }
 
     /**
@@ -131,7 +186,7 @@ public class JObsTraceAutoConfiguration {
      *   <li>Always registers JObsSpanExporter to capture traces</li>
      * </ul>
      */
-    @ConditionalOnClass(name = "io.opentelemetry.sdk.trace.SdkTracerProvider")
+    @ConditionalOnClass(name = SDK_TRACER_PROVIDER)
     static class OpenTelemetryConfiguration {
 
         /**
@@ -144,6 +199,32 @@ public class JObsTraceAutoConfiguration {
             return new JObsSpanExporter(traceRepository);
         }
 
+        /**
+         * Creates the batch processor feeding the J-Obs span exporter, so that ending a span
+         * never touches the trace repository on the calling thread.
+         */
+        @Bean(destroyMethod = "shutdown")
+        @ConditionalOnProperty(name = "j-obs.traces.processor.batch", havingValue = "true", matchIfMissing = true)
+        public JObsBatchSpanProcessor jObsSpanProcessor(JObsSpanExporter jObsSpanExporter, JObsProperties properties) {
+            return batchProcessor("j-obs", jObsSpanExporter, properties);
+        }
+
+        /**
+         * Creates one batch processor for all external exporters (OTLP, Zipkin, Jaeger), kept
+         * separate from the J-Obs processor so a slow collector cannot delay local storage.
+         * Returns {@code null} when no external exporter is configured.
+         */
+        @Bean(destroyMethod = "shutdown")
+        @ConditionalOnProperty(name = "j-obs.traces.processor.batch", havingValue = "true", matchIfMissing = true)
+        public JObsBatchSpanProcessor externalSpanProcessor(ObjectProvider<List<SpanExporter>> additionalExporters,
+                                                            JObsProperties properties) {
+            List<SpanExporter> exporters = externalExporters(additionalExporters);
+            if (exporters.isEmpty()) {
+                return null;
+            }
+            return batchProcessor("external", SpanExporter.composite(exporters), properties);
+        }
+
         /**
          * Creates the SdkTracerProvider with J-Obs exporter.
          * Marked as @Primary to ensure this provider is used even if others exist.
@@ -153,6 +234,10 @@ public class JObsTraceAutoConfiguration {
         public SdkTracerProvider sdkTracerProvider(
                 JObsSpanExporter jObsSpanExporter,
                 ObjectProvider<List<SpanExporter>> additionalExporters,
+                @Qualifier("jObsSpanProcessor") ObjectProvider<JObsBatchSpanProcessor> jObsSpanProcessor,
+                @Qualifier("externalSpanProcessor") ObjectProvider<JObsBatchSpanProcessor> externalSpanProcessor,
+                TraceSampler traceSampler,
+                JObsProperties properties,
                 @Value("${spring.application.name:j-obs-app}") String serviceName) {
 
             Resource resource = Resource.getDefault()
@@ -163,25 +248,52 @@ public class JObsTraceAutoConfiguration {
             SdkTracerProviderBuilder builder = SdkTracerProvider.builder()
                     .setResource(resource);
 
+            if (isHeadSampling(properties)) {
+                Sampler sampler = JObsHeadSampler.create(traceSampler);
+                builder.setSampler(sampler);
+                log.info("Using head sampler: {}", sampler.getDescription());
+            }
+
             // Always add the J-Obs internal exporter
-            builder.addSpanProcessor(SimpleSpanProcessor.create(jObsSpanExporter));
-            log.info("Added J-Obs span exporter to SdkTracerProvider");
+            SpanProcessor internal = jObsSpanProcessor.getIfAvailable();
+            builder.addSpanProcessor(internal != null ? internal : SimpleSpanProcessor.create(jObsSpanExporter));
+            log.info("Added J-Obs span exporter to SdkTracerProvider ({})", internal != null ? "batched" : "synchronous");
 
             // Add any additional configured exporters (OTLP, Zipkin, Jaeger)
-            List<SpanExporter> exporters = additionalExporters.getIfAvailable();
-            if (exporters != null) {
-                for (SpanExporter exporter : exporters) {
-                    // Skip the J-Obs exporter to avoid duplicate registration
-                    if (!(exporter instanceof JObsSpanExporter)) {
-                        builder.addSpanProcessor(SimpleSpanProcessor.create(exporter));
-                        log.info("Added external span exporter: {}", exporter.getClass().getSimpleName());
-                    }
-                }
+            List<SpanExporter> exporters = externalExporters(additionalExporters);
+            SpanProcessor external = externalSpanProcessor.getIfAvailable();
+            if (external != null) {
+                builder.addSpanProcessor(external);
+            } else {
+                exporters.forEach(exporter -> builder.addSpanProcessor(SimpleSpanProcessor.create(exporter)));
+            }
+            if (!exporters.isEmpty()) {
+                log.info("Added external span exporters: {}", exporters.stream()
+                        .map(exporter -> exporter.getClass().getSimpleName())
+                        .collect(Collectors.joining(", ")));
             }
 
             return builder.build();
         }
 
+        private static List<SpanExporter> externalExporters(ObjectProvider<List<SpanExporter>> additionalExporters) {
+            List<SpanExporter> exporters = additionalExporters.getIfAvailable();
+            if (exporters == null) {
+                return List.of();
+            }
+            // Skip the J-Obs exporter to avoid duplicate registration
+            return exporters.stream()
+                    .filter(exporter -> !(exporter instanceof JObsSpanExporter))
+                    .toList();
+        }
+
+        private static JObsBatchSpanProcessor batchProcessor(String name, SpanExporter exporter,
+                                                             JObsProperties properties) {
+            JObsProperties.Traces.Processor processor = properties.getTraces().getProcessor();
+            return new JObsBatchSpanProcessor(name, exporter, processor.getQueueSize(),
+                    processor.getMaxBatchSize(), processor.getFlushInterval(), processor.getExportTimeout());
+        }
+
         /**
          * Creates the OpenTelemetry instance.
          * Marked as @Primary to ensure this instance is used.
@@ -1,8 +1,10 @@
 package io.github.jobs.spring.autoconfigure;
 
 import io.github.jobs.application.LogRepository;
+import io.github.jobs.spring.log.LogStreamSubscriptions;
 import io.github.jobs.spring.webflux.ReactiveLogApiController;
 import io.github.jobs.spring.webflux.ReactiveLogStreamHandler;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.boot.autoconfigure.AutoConfiguration;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
@@ -26,8 +28,16 @@ public class JObsWebFluxLogAutoConfiguration {
     @Bean
     @ConditionalOnMissingBean
     @ConditionalOnBean(LogRepository.class)
-    public ReactiveLogStreamHandler reactiveLogStreamHandler(LogRepository logRepository) {
-        return new ReactiveLogStreamHandler(logRepository);
+    public ReactiveLogStreamHandler reactiveLogStreamHandler(LogRepository logRepository,
+                                                             ObjectProvider<LogStreamSubscriptions> subscriptions,
+                                                             JObsProperties properties) {
+        JObsProperties.Logs.Sse sse = properties.getLogs().getSse();
+        return new ReactiveLogStreamHandler(
+                subscriptions.getIfAvailable(() -> new LogStreamSubscriptions(logRepository)),
+                sse.getBackpressure(),
+                sse.getBufferSize(),
+                sse.getBatchSize(),
+                sse.getBatchInterval());
     }
 
     @Bean
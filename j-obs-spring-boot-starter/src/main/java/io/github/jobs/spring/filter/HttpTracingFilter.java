@@ -6,7 +6,10 @@ import io.opentelemetry.api.trace.Span;
 import io.opentelemetry.api.trace.SpanKind;
 import io.opentelemetry.api.trace.StatusCode;
 import io.opentelemetry.api.trace.Tracer;
+import io.opentelemetry.api.trace.propagation.W3CTraceContextPropagator;
+import io.opentelemetry.context.Context;
 import io.opentelemetry.context.Scope;
+import io.opentelemetry.context.propagation.TextMapGetter;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -15,16 +18,33 @@ import org.slf4j.MDC;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.Map;
 
 /**
  * Filter that automatically creates spans and metrics for all HTTP requests.
+ * <p>
+ * An incoming W3C {@code traceparent} header makes the server span a child of the caller's span,
+ * so the caller's sampled flag decides whether the request is recorded. Attributes that are
+ * costly to compute are only added to recording spans.
  */
 public class HttpTracingFilter extends OncePerRequestFilter {
 
     private static final int MAX_TIMER_CACHE_SIZE = 1000;
 
+    private static final TextMapGetter<HttpServletRequest> HEADER_GETTER = new TextMapGetter<>() {
+        @Override
+        public Iterable<String> keys(HttpServletRequest request) {
+            return Collections.list(request.getHeaderNames());
+        }
+
+        @Override
+        public String get(HttpServletRequest request, String key) {
+            return request != null ? request.getHeader(key) : null;
+        }
+    };
+
     private final Tracer tracer;
     private final MeterRegistry meterRegistry;
     private final Map<String, Timer> timers;
@@ -57,17 +77,21 @@ public class HttpTracingFilter extends OncePerRequestFilter {
         String method = request.getMethod();
         String spanName = method + " " + normalizeUri(uri);
 
-        // Create span
+        // Create span, continuing the caller's trace when it sent a traceparent header
+        Context parent = W3CTraceContextPropagator.getInstance().extract(Context.current(), request, HEADER_GETTER);
         Span span = tracer.spanBuilder(spanName)
+                .setParent(parent)
                 .setSpanKind(SpanKind.SERVER)
                 .setAttribute("http.method", method)
-                .setAttribute("http.url", request.getRequestURL().toString())
                 .setAttribute("http.target", uri)
-                .setAttribute("http.scheme", request.getScheme())
-                .setAttribute("http.host", request.getServerName())
-                .setAttribute("http.user_agent", request.getHeader("User-Agent"))
-                .setAttribute("net.peer.ip", request.getRemoteAddr())
                 .startSpan();
+        if (span.isRecording()) {
+            span.setAttribute("http.url", request.getRequestURL().toString());
+            span.setAttribute("http.scheme", request.getScheme());
+            span.setAttribute("http.host", request.getServerName());
+            span.setAttribute("http.user_agent", request.getHeader("User-Agent"));
+            span.setAttribute("net.peer.ip", request.getRemoteAddr());
+        }
 
         // Add trace ID to MDC for log correlation
         String traceId = span.getSpanContext().getTraceId();
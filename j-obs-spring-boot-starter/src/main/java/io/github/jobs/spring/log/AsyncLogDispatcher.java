@@ -0,0 +1,420 @@
+package io.github.jobs.spring.log;
+
+import io.github.jobs.application.LogRepository;
+import io.github.jobs.domain.log.LogEntry;
+import io.github.jobs.domain.log.LogLevel;
+import io.github.jobs.domain.log.StackTraceRef;
+import io.github.jobs.spring.security.LogSanitizer;
+import org.springframework.beans.factory.DisposableBean;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Function;
+
+/**
+ * Bounded, asynchronous hand-off between the logging appenders and the {@link LogRepository}.
+ * <p>
+ * Appenders only copy the raw event fields into a pre-allocated ring of reusable slots;
+ * background worker threads then sanitize the message, format the throwable, create the
+ * {@link LogEntry} and store it. Application threads therefore never pay for sanitization,
+ * stack trace formatting, the repository write or subscriber callbacks.
+ * <p>
+ * The ring is a bounded multi-producer/multi-consumer queue where each slot carries a
+ * sequence number: producers claim a slot with a single CAS on the enqueue position and
+ * publish it by advancing the slot sequence, so no lock is taken on the logging path.
+ * <p>
+ * When the ring fills up, behaviour is controlled by {@link OverflowPolicy}. Dropped
+ * events are counted and exposed via {@link #getDroppedLowLevelCount()} and
+ * {@link #getDroppedOverflowCount()}.
+ * <p>
+ * With more than one worker, entries may be stored slightly out of order.
+ */
+public class AsyncLogDispatcher implements DisposableBean {
+
+    /**
+     * What to do with an event when the ring buffer is (nearly) full.
+     */
+    public enum OverflowPolicy {
+        /**
+         * Drop DEBUG and TRACE events once the ring is 80% full,
+         * and drop any event when it is completely full.
+         */
+        DROP_LOW_LEVELS_FIRST,
+        /**
+         * Block the logging thread until a slot becomes available.
+         */
+        BLOCK,
+        /**
+         * Drop the incoming event when the ring is full.
+         */
+        DROP_NEWEST;
+
+        private static final int LOW_LEVEL_DISCARD_PERCENT = 80;
+    }
+
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final long BLOCK_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(100);
+    private static final int IDLE_SPINS = 100;
+
+    private final Slot[] slots;
+    private final AtomicLongArray sequences;
+    private final int mask;
+    private final int lowLevelThreshold;
+    private final OverflowPolicy overflowPolicy;
+    private final AtomicLong enqueuePosition = new AtomicLong();
+    private final AtomicLong dequeuePosition = new AtomicLong();
+    private final LongAdder droppedLowLevel = new LongAdder();
+    private final LongAdder droppedOverflow = new LongAdder();
+    private final LongAdder processed = new LongAdder();
+    private final Thread[] workers;
+
+    private final LogRepository logRepository;
+    private final LogEntryFactory logEntryFactory;
+    private final LogSanitizer logSanitizer;
+    private final StackTraceDictionary stackTraceDictionary;
+
+    private volatile boolean running = true;
+
+    /**
+     * Creates and starts a dispatcher.
+     *
+     * @param logRepository   the repository entries are stored in
+     * @param logEntryFactory the factory used to create entries
+     * @param logSanitizer    the sanitizer applied to message, stack trace and MDC
+     * @param capacity        ring size, rounded up to the next power of two
+     * @param workerCount     number of background worker threads
+     * @param overflowPolicy  behaviour when the ring is full
+     */
+    public AsyncLogDispatcher(
+            LogRepository logRepository,
+            LogEntryFactory logEntryFactory,
+            LogSanitizer logSanitizer,
+            int capacity,
+            int workerCount,
+            OverflowPolicy overflowPolicy) {
+        this(logRepository, logEntryFactory, logSanitizer, null, capacity, workerCount, overflowPolicy);
+    }
+
+    /**
+     * Creates and starts a dispatcher that shares stack traces through a {@link StackTraceDictionary}.
+     * <p>
+     * Deduplication applies when the throwable formatter passed to {@link #dispatch} is a
+     * {@link StackTraceDictionary.ThrowableAdapter}; other formatters keep formatting eagerly.
+     *
+     * @param stackTraceDictionary dictionary for repeated stack traces, may be null
+     */
+    public AsyncLogDispatcher(
+            LogRepository logRepository,
+            LogEntryFactory logEntryFactory,
+            LogSanitizer logSanitizer,
+            StackTraceDictionary stackTraceDictionary,
+            int capacity,
+            int workerCount,
+            OverflowPolicy overflowPolicy) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be positive");
+        }
+        if (workerCount <= 0) {
+            throw new IllegalArgumentException("workerCount must be positive");
+        }
+        this.logRepository = logRepository;
+        this.logEntryFactory = logEntryFactory != null ? logEntryFactory : new LogEntryFactory();
+        this.logSanitizer = logSanitizer != null ? logSanitizer : new LogSanitizer();
+        this.stackTraceDictionary = stackTraceDictionary;
+        this.overflowPolicy = overflowPolicy != null ? overflowPolicy : OverflowPolicy.DROP_LOW_LEVELS_FIRST;
+
+        int size = Integer.highestOneBit(capacity);
+        if (size < capacity) {
+            size <<= 1;
+        }
+        this.mask = size - 1;
+        this.lowLevelThreshold = (int) ((long) size * OverflowPolicy.LOW_LEVEL_DISCARD_PERCENT / 100);
+        this.slots = new Slot[size];
+        this.sequences = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            slots[i] = new Slot();
+            sequences.set(i, i);
+        }
+
+        this.workers = new Thread[workerCount];
+        for (int i = 0; i < workerCount; i++) {
+            Thread t = new Thread(this::runWorker, "j-obs-log-dispatcher-" + i);
+            t.setDaemon(true);
+            workers[i] = t;
+            t.start();
+        }
+    }
+
+    /**
+     * Hands an event off to the background workers.
+     * <p>
+     * Only references are copied; the caller must pass values that are not mutated afterwards
+     * (formatted message, thread name, an immutable or private MDC map and the throwable source).
+     *
+     * @param throwableSource    framework specific throwable representation, may be null
+     * @param throwableFormatter converts {@code throwableSource} into a stack trace string
+     * @return true if the event was queued, false if it was dropped or the dispatcher is shut down
+     * @see #isRunning()
+     */
+    public boolean dispatch(
+            long timestampMillis,
+            LogLevel level,
+            String loggerName,
+            String message,
+            String threadName,
+            String traceId,
+            String spanId,
+            Object throwableSource,
+            Function<Object, String> throwableFormatter,
+            Map<String, String> mdc) {
+
+        if (!running) {
+            return false;
+        }
+        if (overflowPolicy == OverflowPolicy.DROP_LOW_LEVELS_FIRST
+                && (level == LogLevel.DEBUG || level == LogLevel.TRACE)
+                && size() >= lowLevelThreshold) {
+            droppedLowLevel.increment();
+            return false;
+        }
+
+        long position = claim();
+        if (position < 0) {
+            droppedOverflow.increment();
+            return false;
+        }
+
+        int index = (int) (position & mask);
+        Slot slot = slots[index];
+        slot.timestampMillis = timestampMillis;
+        slot.level = level;
+        slot.loggerName = loggerName;
+        slot.message = message;
+        slot.threadName = threadName;
+        slot.traceId = traceId;
+        slot.spanId = spanId;
+        slot.throwableSource = throwableSource;
+        slot.throwableFormatter = throwableFormatter;
+        slot.mdc = mdc;
+        // Publish: consumers see the slot once its sequence is position + 1
+        sequences.set(index, position + 1);
+        return true;
+    }
+
+    /**
+     * Claims the next free position, honouring the overflow policy.
+     *
+     * @return the claimed position, or -1 if the event must be dropped
+     */
+    private long claim() {
+        while (true) {
+            long position = enqueuePosition.get();
+            long sequence = sequences.get((int) (position & mask));
+            long diff = sequence - position;
+            if (diff == 0) {
+                if (enqueuePosition.compareAndSet(position, position + 1)) {
+                    return position;
+                }
+            } else if (diff < 0) {
+                // Ring is full
+                if (overflowPolicy != OverflowPolicy.BLOCK || !running) {
+                    return -1;
+                }
+                LockSupport.parkNanos(BLOCK_PARK_NANOS);
+            }
+            // diff > 0: another producer claimed this position, retry with a fresh one
+        }
+    }
+
+    private void runWorker() {
+        int idle = 0;
+        while (true) {
+            if (processNext()) {
+                idle = 0;
+                continue;
+            }
+            if (!running) {
+                // Drained after shutdown was requested
+                return;
+            }
+            if (++idle < IDLE_SPINS) {
+                Thread.onSpinWait();
+            } else {
+                LockSupport.parkNanos(IDLE_PARK_NANOS);
+            }
+        }
+    }
+
+    /**
+     * Consumes and stores one event.
+     *
+     * @return false if the ring was empty
+     */
+    private boolean processNext() {
+        while (true) {
+            long position = dequeuePosition.get();
+            int index = (int) (position & mask);
+            long diff = sequences.get(index) - (position + 1);
+            if (diff == 0) {
+                if (dequeuePosition.compareAndSet(position, position + 1)) {
+                    Slot slot = slots[index];
+                    try {
+                        store(slot);
+                    } catch (Exception e) {
+                        // Never let a bad event kill the worker
+                    } finally {
+                        slot.clear();
+                        // Release the slot for the producer one lap ahead
+                        sequences.set(index, position + slots.length);
+                    }
+                    processed.increment();
+                    return true;
+                }
+            } else if (diff < 0) {
+                return false;
+            }
+        }
+    }
+
+    private void store(Slot slot) {
+        StackTraceRef stackTraceRef = null;
+        String stackTrace = null;
+        if (stackTraceDictionary != null
+                && slot.throwableFormatter instanceof StackTraceDictionary.ThrowableAdapter<Object> adapter) {
+            stackTraceRef = stackTraceDictionary.intern(slot.throwableSource, adapter);
+        } else if (slot.throwableSource != null && slot.throwableFormatter != null) {
+            stackTrace = logSanitizer.sanitizeStackTrace(slot.throwableFormatter.apply(slot.throwableSource));
+        }
+
+        logRepository.add(logEntryFactory.create(
+                slot.timestampMillis,
+                slot.level,
+                slot.loggerName,
+                logSanitizer.sanitize(slot.message),
+                slot.threadName,
+                slot.traceId,
+                slot.spanId,
+                stackTrace,
+                stackTraceRef,
+                logSanitizer.sanitizeMdc(slot.mdc)
+        ));
+    }
+
+    /**
+     * Stops accepting work, lets the workers drain the ring and waits for them to finish.
+     *
+     * @param timeout maximum time to wait for the workers
+     */
+    public void shutdown(Duration timeout) {
+        running = false;
+        long deadline = System.nanoTime() + timeout.toNanos();
+        for (Thread worker : workers) {
+            LockSupport.unpark(worker);
+            long remainingMillis = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+            if (remainingMillis <= 0) {
+                break;
+            }
+            try {
+                worker.join(remainingMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+        for (Thread worker : workers) {
+            if (worker.isAlive()) {
+                return;
+            }
+        }
+        // Store events published by producers that passed the running check just before shutdown
+        while (processNext()) {
+            // keep draining
+        }
+    }
+
+    @Override
+    public void destroy() {
+        shutdown(Duration.ofSeconds(5));
+    }
+
+    /**
+     * Returns whether the dispatcher still accepts events. Once it is shut down, callers must
+     * store events themselves.
+     */
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Returns the number of events currently waiting in the ring.
+     */
+    public int size() {
+        long size = enqueuePosition.get() - dequeuePosition.get();
+        return (int) Math.max(0, Math.min(size, slots.length));
+    }
+
+    /**
+     * Returns the ring capacity (always a power of two).
+     */
+    public int capacity() {
+        return slots.length;
+    }
+
+    public OverflowPolicy getOverflowPolicy() {
+        return overflowPolicy;
+    }
+
+    /**
+     * Returns the number of DEBUG/TRACE events dropped because the ring was nearly full.
+     */
+    public long getDroppedLowLevelCount() {
+        return droppedLowLevel.sum();
+    }
+
+    /**
+     * Returns the number of events dropped because the ring was full.
+     */
+    public long getDroppedOverflowCount() {
+        return droppedOverflow.sum();
+    }
+
+    /**
+     * Returns the number of events stored by the workers.
+     */
+    public long getProcessedCount() {
+        return processed.sum();
+    }
+
+    /**
+     * Reusable ring slot holding the raw fields of a single log event.
+     */
+    private static final class Slot {
+        long timestampMillis;
+        LogLevel level;
+        String loggerName;
+        String message;
+        String threadName;
+        String traceId;
+        String spanId;
+        Object throwableSource;
+        Function<Object, String> throwableFormatter;
+        Map<String, String> mdc;
+
+        void clear() {
+            level = null;
+            loggerName = null;
+            message = null;
+            threadName = null;
+            traceId = null;
+            spanId = null;
+            throwableSource = null;
+            throwableFormatter = null;
+            mdc = null;
+        }
+    }
+}
@@ -3,6 +3,7 @@ package io.github.jobs.spring.log;
 import io.github.jobs.application.LogRepository;
 import io.github.jobs.domain.log.LogEntry;
 import io.github.jobs.domain.log.LogLevel;
+import io.github.jobs.domain.log.StackTraceRef;
 import io.github.jobs.spring.security.LogSanitizer;
 import io.opentelemetry.api.trace.Span;
 import io.opentelemetry.api.trace.SpanContext;
@@ -10,20 +11,50 @@ import org.apache.logging.log4j.Level;
 import org.apache.logging.log4j.core.LogEvent;
 import org.apache.logging.log4j.core.appender.AbstractAppender;
 import org.apache.logging.log4j.core.config.Property;
+import org.apache.logging.log4j.message.Message;
+import org.apache.logging.log4j.util.ReadOnlyStringMap;
+import org.apache.logging.log4j.util.StringBuilderFormattable;
+import org.apache.logging.log4j.util.TriConsumer;
 
-import java.time.Instant;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.Map;
-import java.util.stream.Collectors;
 
 /**
  * Log4j2 appender that captures log events and stores them in the LogRepository.
- * Mirror of JObsLogAppender for Log4j2 support.
+ * Mirror of JObsLogAppender for Log4j2 support, including the optional
+ * {@link AsyncLogDispatcher} hand-off.
+ * <p>
+ * The capture path follows Log4j2's garbage-free conventions: messages that implement
+ * {@link StringBuilderFormattable} (parameterized and reusable messages) are formatted into a
+ * thread-local buffer and sanitized in place, trace ids are read straight from the event's
+ * {@link ReadOnlyStringMap}, and the context is collected into a reused thread-local map that
+ * is only copied when the {@link LogEntryFactory} has not interned an equal one yet. For a
+ * typical event the message string and the entry are the only objects the capture allocates.
  */
 public class JObsLog4j2Appender extends AbstractAppender {
 
+    // Buffers larger than these are dropped instead of being kept by the thread
+    private static final int MAX_REUSABLE_CHARS = 16 * 1024;
+    private static final int MAX_REUSABLE_CONTEXT = 64;
+
+    // Thread-local values are plain JDK types so they never pin this class loader
+    private static final ThreadLocal<StringBuilder> MESSAGE_BUFFER = new ThreadLocal<>();
+    private static final ThreadLocal<StringBuilder> THROWABLE_BUFFER = new ThreadLocal<>();
+    private static final ThreadLocal<HashMap<String, String>> CONTEXT_BUFFER = new ThreadLocal<>();
+
+    private static final TriConsumer<String, Object, Map<String, String>> COPY_CONTEXT =
+            (key, value, target) -> target.put(key, String.valueOf(value));
+
     private volatile LogRepository logRepository;
     private volatile LogEntryFactory logEntryFactory;
     private volatile LogSanitizer logSanitizer;
+    private volatile AsyncLogDispatcher asyncDispatcher;
+    private volatile StackTraceDictionary stackTraceDictionary;
+    private volatile LogIngestionGovernor ingestionGovernor;
+
+    private static final StackTraceDictionary.ThrowableAdapter<Object> THROWABLE_FORMATTER =
+            new Log4j2ThrowableAdapter();
 
     public JObsLog4j2Appender(String name) {
         super(name, null, null, true, Property.EMPTY_ARRAY);
@@ -41,6 +72,30 @@ public class JObsLog4j2Appender extends AbstractAppender {
         this.logSanitizer = logSanitizer;
     }
 
+    public void setAsyncDispatcher(AsyncLogDispatcher asyncDispatcher) {
+        this.asyncDispatcher = asyncDispatcher;
+    }
+
+    public AsyncLogDispatcher getAsyncDispatcher() {
+        return asyncDispatcher;
+    }
+
+    public void setStackTraceDictionary(StackTraceDictionary stackTraceDictionary) {
+        this.stackTraceDictionary = stackTraceDictionary;
+    }
+
+    public StackTraceDictionary getStackTraceDictionary() {
+        return stackTraceDictionary;
+    }
+
+    public void setIngestionGovernor(LogIngestionGovernor ingestionGovernor) {
+        this.ingestionGovernor = ingestionGovernor;
+    }
+
+    public LogIngestionGovernor getIngestionGovernor() {
+        return ingestionGovernor;
+    }
+
     @Override
     public void append(LogEvent event) {
         LogRepository repo = this.logRepository;
@@ -57,6 +112,33 @@ public class JObsLog4j2Appender extends AbstractAppender {
             return;
         }
 
+        // Per-logger rate limit, before any formatting or sanitization is paid for
+        LogLevel level = convertLevel(event.getLevel());
+        LogIngestionGovernor governor = this.ingestionGovernor;
+        if (governor != null && !governor.tryAcquire(loggerName, level)) {
+            return;
+        }
+
+        // Async mode: Log4j2 may reuse the event object, so copy the fields before handing off.
+        // After the dispatcher has shut down, fall through and store synchronously.
+        ReadOnlyStringMap contextData = event.getContextData();
+        AsyncLogDispatcher dispatcher = this.asyncDispatcher;
+        if (dispatcher != null && dispatcher.isRunning()) {
+            dispatcher.dispatch(
+                    event.getTimeMillis(),
+                    level,
+                    loggerName,
+                    messageText(event.getMessage()),
+                    event.getThreadName(),
+                    extractTraceId(contextData),
+                    extractSpanId(contextData),
+                    event.getThrown(),
+                    THROWABLE_FORMATTER,
+                    copyContextData(contextData)
+            );
+            return;
+        }
+
         LogEntryFactory factory = this.logEntryFactory;
         if (factory == null) {
             synchronized (this) {
@@ -79,30 +161,111 @@ public class JObsLog4j2Appender extends AbstractAppender {
             }
         }
 
-        String message = event.getMessage() != null ? event.getMessage().getFormattedMessage() : "";
-        String sanitizedMessage = sanitizer.sanitize(message);
-        String sanitizedStackTrace = sanitizer.sanitizeStackTrace(formatThrowable(event));
-        Map<String, String> mdcMap = event.getContextData() != null
-                ? event.getContextData().toMap().entrySet().stream()
-                    .collect(Collectors.toMap(Map.Entry::getKey, e -> String.valueOf(e.getValue())))
-                : Map.of();
-        Map<String, String> sanitizedMdc = sanitizer.sanitizeMdc(mdcMap);
+        StringBuilder messageBuffer = formatMessage(event.getMessage());
+        String sanitizedMessage = sanitizer.sanitize(messageBuffer);
+        release(MESSAGE_BUFFER, messageBuffer);
+
+        HashMap<String, String> contextBuffer = collectContextData(contextData);
+        Map<String, String> mdc = sanitizer.sanitizeMdc(contextBuffer);
 
+        StackTraceDictionary dictionary = this.stackTraceDictionary;
+        StackTraceRef stackTrace = dictionary != null
+                ? dictionary.intern(event.getThrown(), THROWABLE_FORMATTER)
+                : null;
+        String throwable = dictionary == null
+                ? sanitizer.sanitizeStackTrace(formatThrowable(event))
+                : null;
+
+        // The factory copies or interns the reusable context map, so it can be refilled afterwards
         LogEntry entry = factory.create(
-                Instant.ofEpochMilli(event.getTimeMillis()),
-                convertLevel(event.getLevel()),
+                event.getTimeMillis(),
+                level,
                 loggerName,
                 sanitizedMessage,
                 event.getThreadName(),
-                extractTraceId(mdcMap),
-                extractSpanId(mdcMap),
-                sanitizedStackTrace,
-                sanitizedMdc != null ? Map.copyOf(sanitizedMdc) : Map.of()
+                extractTraceId(contextData),
+                extractSpanId(contextData),
+                throwable,
+                stackTrace,
+                mdc
         );
-
         repo.add(entry);
     }
 
+    /**
+     * Formats the message into this thread's reusable buffer, without the intermediate string
+     * {@link Message#getFormattedMessage()} would create for formattable messages. The caller
+     * hands the buffer back with {@link #release(ThreadLocal, StringBuilder)}.
+     */
+    private static StringBuilder formatMessage(Message message) {
+        StringBuilder buffer = acquire(MESSAGE_BUFFER);
+        if (message instanceof StringBuilderFormattable formattable) {
+            formattable.formatTo(buffer);
+        } else if (message != null) {
+            buffer.append(message.getFormattedMessage());
+        }
+        return buffer;
+    }
+
+    private static String messageText(Message message) {
+        StringBuilder buffer = formatMessage(message);
+        String text = buffer.toString();
+        release(MESSAGE_BUFFER, buffer);
+        return text;
+    }
+
+    private static StringBuilder acquire(ThreadLocal<StringBuilder> local) {
+        StringBuilder buffer = local.get();
+        if (buffer == null) {
+            buffer = new StringBuilder(256);
+            local.set(buffer);
+        }
+        buffer.setLength(0);
+        return buffer;
+    }
+
+    private static void release(ThreadLocal<StringBuilder> local, StringBuilder buffer) {
+        if (buffer.capacity() > MAX_REUSABLE_CHARS) {
+            local.remove();
+        }
+    }
+
+    /**
+     * Collects the context data into this thread's reusable map, or returns null when it is empty.
+     * <p>
+     * The map keeps its entries between events: a thread logging with the same context keys
+     * only overwrites values in place, which allocates nothing. The map is rebuilt when a key
+     * from an earlier event is gone.
+     */
+    private static HashMap<String, String> collectContextData(ReadOnlyStringMap contextData) {
+        if (contextData == null || contextData.isEmpty()) {
+            return null;
+        }
+        HashMap<String, String> buffer = CONTEXT_BUFFER.get();
+        if (buffer == null || buffer.size() > MAX_REUSABLE_CONTEXT) {
+            buffer = new HashMap<>();
+            CONTEXT_BUFFER.set(buffer);
+        }
+        contextData.forEach(COPY_CONTEXT, buffer);
+        if (buffer.size() != contextData.size()) {
+            buffer.clear();
+            contextData.forEach(COPY_CONTEXT, buffer);
+        }
+        return buffer;
+    }
+
+    /**
+     * Copies the context data into a map the async dispatcher may keep.
+     */
+    private static Map<String, String> copyContextData(ReadOnlyStringMap contextData) {
+        if (contextData == null || contextData.isEmpty()) {
+            return Map.of();
+        }
+        Map<String, String> copy = new HashMap<>(contextData.size() * 4 / 3 + 1);
+        contextData.forEach(COPY_CONTEXT, copy);
+        return copy;
+    }
+
     private LogLevel convertLevel(Level level) {
         if (level == null) {
             return LogLevel.INFO;
@@ -114,10 +277,10 @@ public class JObsLog4j2Appender extends AbstractAppender {
         return LogLevel.TRACE;
     }
 
-    private String extractTraceId(Map<String, String> mdc) {
-        String traceId = mdc.get("traceId");
-        if (traceId == null) traceId = mdc.get("trace_id");
-        if (traceId == null) traceId = mdc.get("X-B3-TraceId");
+    private String extractTraceId(ReadOnlyStringMap contextData) {
+        String traceId = contextValue(contextData, "traceId");
+        if (traceId == null) traceId = contextValue(contextData, "trace_id");
+        if (traceId == null) traceId = contextValue(contextData, "X-B3-TraceId");
         if (traceId == null) {
             SpanContext ctx = getOtelSpanContext();
             if (ctx != null) traceId = ctx.getTraceId();
@@ -125,10 +288,10 @@ public class JObsLog4j2Appender extends AbstractAppender {
         return traceId;
     }
 
-    private String extractSpanId(Map<String, String> mdc) {
-        String spanId = mdc.get("spanId");
-        if (spanId == null) spanId = mdc.get("span_id");
-        if (spanId == null) spanId = mdc.get("X-B3-SpanId");
+    private String extractSpanId(ReadOnlyStringMap contextData) {
+        String spanId = contextValue(contextData, "spanId");
+        if (spanId == null) spanId = contextValue(contextData, "span_id");
+        if (spanId == null) spanId = contextValue(contextData, "X-B3-SpanId");
         if (spanId == null) {
             SpanContext ctx = getOtelSpanContext();
             if (ctx != null) spanId = ctx.getSpanId();
@@ -136,6 +299,14 @@ public class JObsLog4j2Appender extends AbstractAppender {
         return spanId;
     }
 
+    private static String contextValue(ReadOnlyStringMap contextData, String key) {
+        if (contextData == null) {
+            return null;
+        }
+        Object value = contextData.getValue(key);
+        return value != null ? value.toString() : null;
+    }
+
     private SpanContext getOtelSpanContext() {
         try {
             SpanContext ctx = Span.current().getSpanContext();
@@ -146,15 +317,59 @@ public class JObsLog4j2Appender extends AbstractAppender {
     }
 
     private String formatThrowable(LogEvent event) {
-        if (event.getThrown() == null) {
-            return null;
-        }
-        StringBuilder sb = new StringBuilder();
-        Throwable t = event.getThrown();
-        sb.append(t.toString());
+        return event.getThrown() != null ? formatThrowable(event.getThrown()) : null;
+    }
+
+    private static String formatThrowable(Throwable t) {
+        StringBuilder sb = acquire(THROWABLE_BUFFER);
+        sb.append(t);
         for (StackTraceElement el : t.getStackTrace()) {
             sb.append("\n\tat ").append(el);
         }
-        return sb.toString();
+        String formatted = sb.toString();
+        release(THROWABLE_BUFFER, sb);
+        return formatted;
+    }
+
+    /**
+     * {@link StackTraceDictionary} view of a {@link Throwable}, limited to what
+     * {@link #formatThrowable(Throwable)} prints: the top-level exception and its frames.
+     */
+    private static final class Log4j2ThrowableAdapter implements StackTraceDictionary.ThrowableAdapter<Object> {
+
+        @Override
+        public String apply(Object thrown) {
+            return formatThrowable((Throwable) thrown);
+        }
+
+        @Override
+        public String className(Object thrown) {
+            return thrown.getClass().getName();
+        }
+
+        @Override
+        public String message(Object thrown) {
+            return ((Throwable) thrown).getLocalizedMessage();
+        }
+
+        @Override
+        public int framesHashCode(Object thrown) {
+            return Arrays.hashCode(((Throwable) thrown).getStackTrace());
+        }
+
+        @Override
+        public int frameCount(Object thrown) {
+            return ((Throwable) thrown).getStackTrace().length;
+        }
+
+        @Override
+        public Object cause(Object thrown) {
+            return null;
+        }
+
+        @Override
+        public Object[] suppressed(Object thrown) {
+            return null;
+        }
     }
 }
@@ -3,16 +3,16 @@ package io.github.jobs.spring.log;
 import ch.qos.logback.classic.Level;
 import ch.qos.logback.classic.spi.ILoggingEvent;
 import ch.qos.logback.classic.spi.IThrowableProxy;
+import ch.qos.logback.classic.spi.StackTraceElementProxy;
 import ch.qos.logback.classic.spi.ThrowableProxyUtil;
 import ch.qos.logback.core.AppenderBase;
 import io.github.jobs.application.LogRepository;
-import io.github.jobs.domain.log.LogEntry;
 import io.github.jobs.domain.log.LogLevel;
+import io.github.jobs.domain.log.StackTraceRef;
 import io.github.jobs.spring.security.LogSanitizer;
 import io.opentelemetry.api.trace.Span;
 import io.opentelemetry.api.trace.SpanContext;
 
-import java.time.Instant;
 import java.util.Map;
 
 /**
@@ -22,9 +22,11 @@ import java.util.Map;
  * <p>
  * Performance optimizations:
  * <ul>
- *   <li>Uses LogEntryFactory with pooled builders to reduce GC pressure</li>
+ *   <li>Uses LogEntryFactory's primitive path (numeric id, epoch time, interned MDC) to reduce GC pressure</li>
  *   <li>Fast ID generation using atomic counter instead of UUID</li>
  *   <li>Early return for J-Obs internal logs to avoid circular logging</li>
+ *   <li>Optional {@link AsyncLogDispatcher} hand-off so sanitization and storage run off the caller thread</li>
+ *   <li>Optional {@link StackTraceDictionary}: repeated exceptions share one lazily formatted stack trace</li>
  * </ul>
  */
 public class JObsLogAppender extends AppenderBase<ILoggingEvent> {
@@ -32,6 +34,12 @@ public class JObsLogAppender extends AppenderBase<ILoggingEvent> {
     private volatile LogRepository logRepository;
     private volatile LogEntryFactory logEntryFactory;
     private volatile LogSanitizer logSanitizer;
+    private volatile AsyncLogDispatcher asyncDispatcher;
+    private volatile StackTraceDictionary stackTraceDictionary;
+    private volatile LogIngestionGovernor ingestionGovernor;
+
+    private static final StackTraceDictionary.ThrowableAdapter<Object> THROWABLE_FORMATTER =
+            new LogbackThrowableAdapter();
 
     public void setLogRepository(LogRepository logRepository) {
         this.logRepository = logRepository;
@@ -53,6 +61,38 @@ public class JObsLogAppender extends AppenderBase<ILoggingEvent> {
         return logSanitizer;
     }
 
+    /**
+     * Enables asynchronous mode: events are handed to the dispatcher instead of being
+     * sanitized and stored on the logging thread. Pass {@code null} to go back to synchronous mode.
+     */
+    public void setAsyncDispatcher(AsyncLogDispatcher asyncDispatcher) {
+        this.asyncDispatcher = asyncDispatcher;
+    }
+
+    public AsyncLogDispatcher getAsyncDispatcher() {
+        return asyncDispatcher;
+    }
+
+    /**
+     * Shares stack traces through the given dictionary instead of formatting each one eagerly.
+     * Pass {@code null} to format every throwable on capture.
+     */
+    public void setStackTraceDictionary(StackTraceDictionary stackTraceDictionary) {
+        this.stackTraceDictionary = stackTraceDictionary;
+    }
+
+    public StackTraceDictionary getStackTraceDictionary() {
+        return stackTraceDictionary;
+    }
+
+    public void setIngestionGovernor(LogIngestionGovernor ingestionGovernor) {
+        this.ingestionGovernor = ingestionGovernor;
+    }
+
+    public LogIngestionGovernor getIngestionGovernor() {
+        return ingestionGovernor;
+    }
+
     @Override
     protected void append(ILoggingEvent event) {
         // Local reference to avoid null check race condition
@@ -71,6 +111,32 @@ public class JObsLogAppender extends AppenderBase<ILoggingEvent> {
             return;
         }
 
+        // Per-logger rate limit, before any formatting or sanitization is paid for
+        LogLevel level = convertLevel(event.getLevel());
+        LogIngestionGovernor governor = this.ingestionGovernor;
+        if (governor != null && !governor.tryAcquire(loggerName, level)) {
+            return;
+        }
+
+        // Async mode: copy raw fields only, the dispatcher workers do the rest.
+        // After the dispatcher has shut down, fall through and store synchronously.
+        AsyncLogDispatcher dispatcher = this.asyncDispatcher;
+        if (dispatcher != null && dispatcher.isRunning()) {
+            dispatcher.dispatch(
+                    event.getTimeStamp(),
+                    level,
+                    loggerName,
+                    event.getFormattedMessage(),
+                    event.getThreadName(),
+                    extractTraceId(event),
+                    extractSpanId(event),
+                    event.getThrowableProxy(),
+                    THROWABLE_FORMATTER,
+                    event.getMDCPropertyMap()
+            );
+            return;
+        }
+
         // Lazy initialization of factory if not injected
         LogEntryFactory factory = this.logEntryFactory;
         if (factory == null) {
@@ -97,23 +163,30 @@ public class JObsLogAppender extends AppenderBase<ILoggingEvent> {
 
         // Sanitize log message and MDC to mask sensitive data
         String sanitizedMessage = sanitizer.sanitize(event.getFormattedMessage());
-        String sanitizedStackTrace = sanitizer.sanitizeStackTrace(formatThrowable(event.getThrowableProxy()));
-        Map<String, String> sanitizedMdc = sanitizer.sanitizeMdc(event.getMDCPropertyMap());
+        // The factory copies or interns the MDC, no defensive copy needed here
+        Map<String, String> mdc = sanitizer.sanitizeMdc(event.getMDCPropertyMap());
+
+        // Stack trace is formatted and sanitized once per distinct exception, on first read
+        StackTraceDictionary dictionary = this.stackTraceDictionary;
+        StackTraceRef stackTrace = dictionary != null
+                ? dictionary.intern(event.getThrowableProxy(), THROWABLE_FORMATTER)
+                : null;
+        String throwable = dictionary == null
+                ? sanitizer.sanitizeStackTrace(formatThrowable(event.getThrowableProxy()))
+                : null;
 
-        // Use factory with pooled builders for better performance
-        LogEntry entry = factory.create(
-                Instant.ofEpochMilli(event.getTimeStamp()),
-                convertLevel(event.getLevel()),
+        repo.add(factory.create(
+                event.getTimeStamp(),
+                level,
                 event.getLoggerName(),
                 sanitizedMessage,
                 event.getThreadName(),
                 extractTraceId(event),
                 extractSpanId(event),
-                sanitizedStackTrace,
-                sanitizedMdc != null ? Map.copyOf(sanitizedMdc) : Map.of()
-        );
-
-        repo.add(entry);
+                throwable,
+                stackTrace,
+                mdc
+        ));
     }
 
     private LogLevel convertLevel(Level level) {
@@ -181,4 +254,54 @@ public class JObsLogAppender extends AppenderBase<ILoggingEvent> {
         }
         return ThrowableProxyUtil.asString(throwableProxy);
     }
+
+    /**
+     * {@link StackTraceDictionary} view of Logback's {@link IThrowableProxy}.
+     */
+    private static final class LogbackThrowableAdapter implements StackTraceDictionary.ThrowableAdapter<Object> {
+
+        @Override
+        public String apply(Object proxy) {
+            return ThrowableProxyUtil.asString((IThrowableProxy) proxy);
+        }
+
+        @Override
+        public String className(Object proxy) {
+            return ((IThrowableProxy) proxy).getClassName();
+        }
+
+        @Override
+        public String message(Object proxy) {
+            return ((IThrowableProxy) proxy).getMessage();
+        }
+
+        @Override
+        public int framesHashCode(Object proxy) {
+            StackTraceElementProxy[] frames = ((IThrowableProxy) proxy).getStackTraceElementProxyArray();
+            if (frames == null) {
+                return 0;
+            }
+            int hash = 1;
+            for (StackTraceElementProxy frame : frames) {
+                hash = 31 * hash + frame.getStackTraceElement().hashCode();
+            }
+            return hash;
+        }
+
+        @Override
+        public int frameCount(Object proxy) {
+            StackTraceElementProxy[] frames = ((IThrowableProxy) proxy).getStackTraceElementProxyArray();
+            return frames != null ? frames.length : 0;
+        }
+
+        @Override
+        public Object cause(Object proxy) {
+            return ((IThrowableProxy) proxy).getCause();
+        }
+
+        @Override
+        public Object[] suppressed(Object proxy) {
+            return ((IThrowableProxy) proxy).getSuppressed();
+        }
+    }
 }
@@ -2,11 +2,11 @@ package io.github.jobs.spring.log;
 
 import io.github.jobs.domain.log.LogEntry;
 import io.github.jobs.domain.log.LogLevel;
+import io.github.jobs.domain.log.StackTraceRef;
 
 import java.time.Instant;
 import java.util.Map;
-import java.util.Queue;
-import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicLong;
 
 /**
@@ -15,28 +15,32 @@ import java.util.concurrent.atomic.AtomicLong;
  * Optimizations:
  * <ul>
  *   <li>Uses atomic counter for IDs instead of UUID (much faster, no random generation)</li>
- *   <li>Pools MutableLogEntryBuilder instances to reduce object allocation</li>
+ *   <li>Keeps the ID as a {@code long} and the timestamp as epoch nanoseconds; the ID string and
+ *       {@link Instant} are only created when an entry is read</li>
+ *   <li>Builds entries directly with {@link LogEntry#of}, without a builder per entry</li>
+ *   <li>Shares one immutable empty MDC and interns repeated MDC maps, so request-scoped
+ *       context (user, tenant, region) is stored once instead of once per entry</li>
  *   <li>Thread-safe for concurrent log processing</li>
  * </ul>
  * <p>
  * Performance characteristics:
  * <ul>
  *   <li>ID generation: O(1) atomic increment vs O(n) UUID random bytes</li>
- *   <li>Builder pooling: Reduces GC pressure under high log volume</li>
- *   <li>Pool size is bounded to prevent memory leaks</li>
+ *   <li>MDC interning: one hash lookup per event; the table is bounded to prevent memory leaks</li>
  * </ul>
  */
 public class LogEntryFactory {
 
-    private static final int MAX_POOL_SIZE = 256;
-    private static final String ID_PREFIX = "log-";
+    private static final int MAX_INTERNED_MDC = 1024;
+    private static final int MAX_INTERNED_MDC_SIZE = 16;
+    private static final long NANOS_PER_MILLI = 1_000_000L;
 
-    private final AtomicLong idCounter = new AtomicLong(System.currentTimeMillis());
-    private final Queue<MutableLogEntryBuilder> builderPool = new ConcurrentLinkedQueue<>();
+    private final long idBase = System.currentTimeMillis();
+    private final AtomicLong idCounter = new AtomicLong(idBase);
+    private final Map<Map<String, String>, Map<String, String>> internedMdc = new ConcurrentHashMap<>();
 
     /**
      * Creates a new LogEntry with an optimized ID.
-     * Uses pooled builder when available.
      */
     public LogEntry create(
             Instant timestamp,
@@ -49,161 +53,94 @@ public class LogEntryFactory {
             String throwable,
             Map<String, String> mdc
     ) {
-        MutableLogEntryBuilder builder = acquireBuilder();
-        try {
-            return builder
-                    .id(generateId())
-                    .timestamp(timestamp)
-                    .level(level)
-                    .loggerName(loggerName)
-                    .message(message)
-                    .threadName(threadName)
-                    .traceId(traceId)
-                    .spanId(spanId)
-                    .throwable(throwable)
-                    .mdc(mdc)
-                    .build();
-        } finally {
-            releaseBuilder(builder);
-        }
+        return LogEntry.of(idCounter.incrementAndGet(), epochNanos(timestamp), level, loggerName, message,
+                threadName, traceId, spanId, throwable, null, internMdc(mdc));
     }
 
     /**
-     * Generates a fast, unique ID using atomic counter.
-     * Format: "log-{counter}" where counter starts from current time millis.
-     * <p>
-     * This is ~10x faster than UUID.randomUUID().toString() and produces
-     * shorter strings (typically 20-25 chars vs 36 chars for UUID).
+     * Creates a new LogEntry whose stack trace is a shared {@link StackTraceRef}.
+     *
+     * @see StackTraceDictionary
      */
-    private String generateId() {
-        return ID_PREFIX + idCounter.incrementAndGet();
+    public LogEntry create(
+            Instant timestamp,
+            LogLevel level,
+            String loggerName,
+            String message,
+            String threadName,
+            String traceId,
+            String spanId,
+            StackTraceRef stackTrace,
+            Map<String, String> mdc
+    ) {
+        return LogEntry.of(idCounter.incrementAndGet(), epochNanos(timestamp), level, loggerName, message,
+                threadName, traceId, spanId, null, stackTrace, internMdc(mdc));
     }
 
     /**
-     * Acquires a builder from the pool or creates a new one.
+     * Allocation-light variant for capture paths that hold the event time in epoch milliseconds.
+     * <p>
+     * Either {@code throwable} or {@code stackTrace} may be set; a formatted {@code throwable}
+     * wins when both are. {@code mdc} may be mutable, it is copied or replaced by an interned
+     * equal map.
      */
-    private MutableLogEntryBuilder acquireBuilder() {
-        MutableLogEntryBuilder builder = builderPool.poll();
-        return builder != null ? builder.reset() : new MutableLogEntryBuilder();
+    public LogEntry create(
+            long epochMillis,
+            LogLevel level,
+            String loggerName,
+            String message,
+            String threadName,
+            String traceId,
+            String spanId,
+            String throwable,
+            StackTraceRef stackTrace,
+            Map<String, String> mdc
+    ) {
+        return LogEntry.of(idCounter.incrementAndGet(), epochMillis * NANOS_PER_MILLI, level, loggerName, message,
+                threadName, traceId, spanId, throwable, stackTrace, internMdc(mdc));
     }
 
     /**
-     * Returns a builder to the pool if there's room.
+     * Returns an immutable map equal to {@code mdc}, shared with earlier entries when possible.
      */
-    private void releaseBuilder(MutableLogEntryBuilder builder) {
-        if (builderPool.size() < MAX_POOL_SIZE) {
-            builderPool.offer(builder.reset());
+    Map<String, String> internMdc(Map<String, String> mdc) {
+        if (mdc == null || mdc.isEmpty()) {
+            return Map.of();
+        }
+        Map<String, String> interned = internedMdc.get(mdc);
+        if (interned != null) {
+            return interned;
+        }
+        Map<String, String> copy = Map.copyOf(mdc);
+        if (copy.size() > MAX_INTERNED_MDC_SIZE) {
+            return copy;
+        }
+        if (internedMdc.size() >= MAX_INTERNED_MDC) {
+            // Context churns faster than it repeats; start over rather than track recency
+            internedMdc.clear();
         }
-        // If pool is full, builder is discarded and will be GC'd
+        interned = internedMdc.putIfAbsent(copy, copy);
+        return interned != null ? interned : copy;
     }
 
-    /**
-     * Returns the current pool size (for monitoring/testing).
-     */
-    public int getPoolSize() {
-        return builderPool.size();
+    private static long epochNanos(Instant timestamp) {
+        if (timestamp == null) {
+            timestamp = Instant.now();
+        }
+        return timestamp.getEpochSecond() * 1_000_000_000L + timestamp.getNano();
     }
 
     /**
-     * Returns the total number of IDs generated (for monitoring/testing).
+     * Returns the number of distinct MDC maps currently shared between entries.
      */
-    public long getIdCount() {
-        return idCounter.get() - System.currentTimeMillis();
+    public int getInternedMdcCount() {
+        return internedMdc.size();
     }
 
     /**
-     * Mutable builder that can be reset and reused.
-     * Internal class - not exposed publicly.
+     * Returns the total number of IDs generated (for monitoring/testing).
      */
-    private static final class MutableLogEntryBuilder {
-        private String id;
-        private Instant timestamp;
-        private LogLevel level;
-        private String loggerName;
-        private String message;
-        private String threadName;
-        private String traceId;
-        private String spanId;
-        private String throwable;
-        private Map<String, String> mdc;
-
-        MutableLogEntryBuilder reset() {
-            this.id = null;
-            this.timestamp = null;
-            this.level = null;
-            this.loggerName = null;
-            this.message = null;
-            this.threadName = null;
-            this.traceId = null;
-            this.spanId = null;
-            this.throwable = null;
-            this.mdc = null;
-            return this;
-        }
-
-        MutableLogEntryBuilder id(String id) {
-            this.id = id;
-            return this;
-        }
-
-        MutableLogEntryBuilder timestamp(Instant timestamp) {
-            this.timestamp = timestamp;
-            return this;
-        }
-
-        MutableLogEntryBuilder level(LogLevel level) {
-            this.level = level;
-            return this;
-        }
-
-        MutableLogEntryBuilder loggerName(String loggerName) {
-            this.loggerName = loggerName;
-            return this;
-        }
-
-        MutableLogEntryBuilder message(String message) {
-            this.message = message;
-            return this;
-        }
-
-        MutableLogEntryBuilder threadName(String threadName) {
-            this.threadName = threadName;
-            return this;
-        }
-
-        MutableLogEntryBuilder traceId(String traceId) {
-            this.traceId = traceId;
-            return this;
-        }
-
-        MutableLogEntryBuilder spanId(String spanId) {
-            this.spanId = spanId;
-            return this;
-        }
-
-        MutableLogEntryBuilder throwable(String throwable) {
-            this.throwable = throwable;
-            return this;
-        }
-
-        MutableLogEntryBuilder mdc(Map<String, String> mdc) {
-            this.mdc = mdc;
-            return this;
-        }
-
-        LogEntry build() {
-            return LogEntry.builder()
-                    .id(id)
-                    .timestamp(timestamp)
-                    .level(level)
-                    .loggerName(loggerName)
-                    .message(message)
-                    .threadName(threadName)
-                    .traceId(traceId)
-                    .spanId(spanId)
-                    .throwable(throwable)
-                    .mdc(mdc)
-                    .build();
-        }
+    public long getIdCount() {
+        return idCounter.get() - idBase;
     }
 }
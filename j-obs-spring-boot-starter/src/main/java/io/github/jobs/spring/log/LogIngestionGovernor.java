@@ -0,0 +1,287 @@
+package io.github.jobs.spring.log;
+
+import io.github.jobs.application.LogRepository;
+import io.github.jobs.domain.log.LogLevel;
+import org.springframework.beans.factory.DisposableBean;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+
+/**
+ * Per-logger ingestion rate limit applied by the appenders before any formatting or sanitization.
+ * <p>
+ * Each logger name gets a token bucket with a sustained rate and a burst size, resolved once
+ * from the longest matching prefix in the configured rates. While a logger is within budget
+ * every event is kept. Once it exceeds the budget, events below {@code keepLevel} are sampled
+ * (one in {@code 1 / sampleRate} is kept), and events at or above it are always kept.
+ * <p>
+ * Buckets follow the generic cell rate algorithm: the state is a single theoretical arrival
+ * time advanced with one CAS, so the hot path takes no lock. A background task periodically
+ * stores a WARN entry such as {@code "1,234 lines suppressed from com.example.Noisy in the last
+ * 10s"} under the suppressed logger's name, and per-logger suppression counts are available from
+ * {@link #suppressedCounts()}.
+ * <p>
+ * At most {@code maxLoggers} buckets are tracked; further loggers share one bucket reported as
+ * {@value #OTHER_LOGGERS}.
+ */
+public class LogIngestionGovernor implements DisposableBean {
+
+    static final String OTHER_LOGGERS = "(other loggers)";
+    private static final String SUMMARY_THREAD = "j-obs-log-governor";
+
+    private final LogRepository logRepository;
+    private final LogEntryFactory logEntryFactory;
+    private final double defaultRate;
+    private final int burst;
+    private final Map<String, Double> rates;
+    private final LogLevel keepLevel;
+    private final long keepEvery;
+    private final int maxLoggers;
+    private final LongSupplier nanoClock;
+    private final Map<String, Bucket> buckets = new ConcurrentHashMap<>();
+    private final Bucket otherLoggers;
+    private final LongAdder suppressed = new LongAdder();
+    private final List<Consumer<String>> suppressionListeners = new CopyOnWriteArrayList<>();
+    private final ScheduledExecutorService scheduler;
+    private long lastSummaryNanos;
+
+    /**
+     * Creates a governor and starts its summary task.
+     *
+     * @param logRepository   repository that receives the suppression summaries
+     * @param logEntryFactory factory for the summary entries
+     * @param ratePerSecond   sustained events per second allowed per logger
+     * @param burst           events a logger may emit at once before the rate applies
+     * @param rates           rate overrides keyed by logger name prefix, may be empty
+     * @param keepLevel       events at or above this level are never dropped
+     * @param sampleRate      fraction (0 to 1) of over-budget events below {@code keepLevel} that are kept
+     * @param maxLoggers      maximum number of individually tracked loggers
+     * @param summaryInterval how often suppression summaries are stored
+     */
+    public LogIngestionGovernor(LogRepository logRepository, LogEntryFactory logEntryFactory,
+                                double ratePerSecond, int burst, Map<String, Double> rates,
+                                LogLevel keepLevel, double sampleRate, int maxLoggers, Duration summaryInterval) {
+        this(logRepository, logEntryFactory, ratePerSecond, burst, rates, keepLevel, sampleRate, maxLoggers,
+                System::nanoTime);
+        long intervalMillis = Math.max(1, summaryInterval.toMillis());
+        scheduler.scheduleWithFixedDelay(this::flushSummaries, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Creates a governor without a summary task; {@link #flushSummaries()} must be called by the owner.
+     */
+    LogIngestionGovernor(LogRepository logRepository, LogEntryFactory logEntryFactory,
+                         double ratePerSecond, int burst, Map<String, Double> rates,
+                         LogLevel keepLevel, double sampleRate, int maxLoggers, LongSupplier nanoClock) {
+        if (ratePerSecond <= 0) {
+            throw new IllegalArgumentException("ratePerSecond must be positive");
+        }
+        if (burst <= 0) {
+            throw new IllegalArgumentException("burst must be positive");
+        }
+        this.logRepository = logRepository;
+        this.logEntryFactory = logEntryFactory != null ? logEntryFactory : new LogEntryFactory();
+        this.defaultRate = ratePerSecond;
+        this.burst = burst;
+        this.rates = rates != null ? Map.copyOf(rates) : Map.of();
+        this.keepLevel = keepLevel != null ? keepLevel : LogLevel.WARN;
+        this.keepEvery = sampleRate <= 0 ? 0 : Math.max(1, Math.round(1 / Math.min(sampleRate, 1.0)));
+        this.maxLoggers = maxLoggers;
+        this.nanoClock = nanoClock;
+        this.otherLoggers = new Bucket(OTHER_LOGGERS, defaultRate, burst, nanoClock.getAsLong());
+        this.lastSummaryNanos = nanoClock.getAsLong();
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, SUMMARY_THREAD);
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Decides whether an event of {@code loggerName} at {@code level} is stored. Lock-free.
+     *
+     * @return true to store the event, false to drop it
+     */
+    public boolean tryAcquire(String loggerName, LogLevel level) {
+        Bucket bucket = bucket(loggerName);
+        if (bucket.tryAcquire(nanoClock.getAsLong())) {
+            return true;
+        }
+        if (level != null && level.isAtLeast(keepLevel)) {
+            return true;
+        }
+        if (keepEvery > 0 && bucket.overBudget.incrementAndGet() % keepEvery == 0) {
+            return true;
+        }
+        bucket.suppress();
+        suppressed.increment();
+        return false;
+    }
+
+    private Bucket bucket(String loggerName) {
+        Bucket bucket = buckets.get(loggerName);
+        if (bucket != null) {
+            return bucket;
+        }
+        if (buckets.size() >= maxLoggers) {
+            return otherLoggers;
+        }
+        return buckets.computeIfAbsent(loggerName,
+                name -> new Bucket(name, rateFor(name), burst, nanoClock.getAsLong()));
+    }
+
+    /**
+     * Returns the rate of the longest configured prefix of {@code loggerName}, or the default.
+     */
+    double rateFor(String loggerName) {
+        String bestPrefix = null;
+        for (String prefix : rates.keySet()) {
+            if (loggerName.startsWith(prefix) && (bestPrefix == null || prefix.length() > bestPrefix.length())) {
+                bestPrefix = prefix;
+            }
+        }
+        return bestPrefix != null ? rates.get(bestPrefix) : defaultRate;
+    }
+
+    /**
+     * Stores one WARN summary entry for every logger that suppressed events since the last call.
+     */
+    public void flushSummaries() {
+        long now = nanoClock.getAsLong();
+        long seconds;
+        synchronized (this) {
+            seconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(now - lastSummaryNanos));
+            lastSummaryNanos = now;
+        }
+        for (Bucket bucket : buckets.values()) {
+            summarize(bucket, seconds);
+        }
+        summarize(otherLoggers, seconds);
+    }
+
+    private void summarize(Bucket bucket, long seconds) {
+        long count = bucket.pending.sumThenReset();
+        if (count == 0 || logRepository == null) {
+            return;
+        }
+        String message = String.format(Locale.ROOT, "%,d lines suppressed from %s in the last %ds",
+                count, bucket.loggerName, seconds);
+        try {
+            logRepository.add(logEntryFactory.create(System.currentTimeMillis(), LogLevel.WARN,
+                    bucket.loggerName, message, SUMMARY_THREAD, null, null, null, null, Map.of()));
+        } catch (Exception e) {
+            // A failing repository must not stop the summary task
+        }
+    }
+
+    /**
+     * Returns the total number of events suppressed since creation.
+     */
+    public long getSuppressedCount() {
+        return suppressed.sum();
+    }
+
+    /**
+     * Returns the number of events suppressed per logger since creation, highest first,
+     * for loggers that suppressed at least one event.
+     */
+    public Map<String, Long> suppressedCounts() {
+        Map<String, Long> counts = new LinkedHashMap<>();
+        buckets.values().stream()
+                .filter(bucket -> bucket.total.sum() > 0)
+                .sorted(Comparator.comparingLong((Bucket bucket) -> bucket.total.sum()).reversed())
+                .forEach(bucket -> counts.put(bucket.loggerName, bucket.total.sum()));
+        if (otherLoggers.total.sum() > 0) {
+            counts.put(OTHER_LOGGERS, otherLoggers.total.sum());
+        }
+        return counts;
+    }
+
+    /**
+     * Returns the number of events suppressed from {@code loggerName} since creation.
+     */
+    public long suppressedCount(String loggerName) {
+        Bucket bucket = OTHER_LOGGERS.equals(loggerName) ? otherLoggers : buckets.get(loggerName);
+        return bucket != null ? bucket.total.sum() : 0;
+    }
+
+    /**
+     * Registers a callback invoked once per logger name, on the logging thread, the first time
+     * that logger has an event suppressed. Used to register per-logger meters lazily.
+     */
+    public void addSuppressionListener(Consumer<String> listener) {
+        suppressionListeners.add(listener);
+        buckets.values().stream()
+                .filter(bucket -> bucket.total.sum() > 0)
+                .forEach(bucket -> listener.accept(bucket.loggerName));
+        if (otherLoggers.total.sum() > 0) {
+            listener.accept(OTHER_LOGGERS);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        scheduler.shutdownNow();
+        flushSummaries();
+    }
+
+    /**
+     * Token bucket for one logger, kept as a theoretical arrival time (GCRA).
+     */
+    private final class Bucket {
+        private final String loggerName;
+        private final long intervalNanos;
+        private final long toleranceNanos;
+        private final AtomicLong arrival;
+        private final AtomicLong overBudget = new AtomicLong();
+        private final LongAdder pending = new LongAdder();
+        private final LongAdder total = new LongAdder();
+        private final AtomicBoolean announced = new AtomicBoolean();
+
+        Bucket(String loggerName, double ratePerSecond, int burst, long now) {
+            this.loggerName = loggerName;
+            this.intervalNanos = Math.max(1, (long) (TimeUnit.SECONDS.toNanos(1) / ratePerSecond));
+            this.toleranceNanos = intervalNanos * (burst - 1);
+            this.arrival = new AtomicLong(now);
+        }
+
+        /**
+         * Takes one token if available: succeeds when the theoretical arrival time is no more
+         * than the burst tolerance ahead of now, and then advances it by one interval.
+         */
+        boolean tryAcquire(long now) {
+            while (true) {
+                long current = arrival.get();
+                long base = Math.max(current, now);
+                if (base - now > toleranceNanos) {
+                    return false;
+                }
+                if (arrival.compareAndSet(current, base + intervalNanos)) {
+                    return true;
+                }
+            }
+        }
+
+        void suppress() {
+            pending.increment();
+            total.increment();
+            if (!announced.get() && announced.compareAndSet(false, true)) {
+                suppressionListeners.forEach(listener -> listener.accept(loggerName));
+            }
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package io.github.jobs.spring.log;
+
+import io.github.jobs.application.LogRepository;
+import io.github.jobs.application.LogRepository.QueuedSubscription;
+import io.github.jobs.application.LogRepository.SubscriptionOptions;
+import io.github.jobs.domain.log.LogEntry;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Opens queued {@link LogRepository} subscriptions for live streaming clients and keeps track
+ * of the ones still active.
+ * <p>
+ * Each client gets its own bounded queue and dispatcher thread (see
+ * {@link LogRepository#subscribe(Consumer, SubscriptionOptions)}), so a slow WebSocket or SSE
+ * client only ever delays itself. {@link Listener}s are told when subscriptions open and close,
+ * which is how per-subscriber lag and drop metrics are registered.
+ * <p>
+ * Thread-safe.
+ */
+public class LogStreamSubscriptions {
+
+    /**
+     * Callback for subscriptions opening and closing, including overflow disconnects.
+     */
+    public interface Listener {
+
+        void subscribed(QueuedSubscription subscription);
+
+        void unsubscribed(QueuedSubscription subscription);
+    }
+
+    private final LogRepository logRepository;
+    private final int queueSize;
+    private final SubscriptionOptions.DispatchMode dispatchMode;
+    private final SubscriptionOptions.OverflowPolicy overflowPolicy;
+    private final Map<String, QueuedSubscription> active = new ConcurrentHashMap<>();
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+
+    public LogStreamSubscriptions(LogRepository logRepository) {
+        this(logRepository, SubscriptionOptions.DEFAULT_QUEUE_CAPACITY,
+                SubscriptionOptions.DispatchMode.PLATFORM_THREAD, SubscriptionOptions.OverflowPolicy.DROP_OLDEST);
+    }
+
+    public LogStreamSubscriptions(LogRepository logRepository, int queueSize,
+                                  SubscriptionOptions.DispatchMode dispatchMode,
+                                  SubscriptionOptions.OverflowPolicy overflowPolicy) {
+        this.logRepository = logRepository;
+        this.queueSize = queueSize;
+        this.dispatchMode = dispatchMode;
+        this.overflowPolicy = overflowPolicy;
+    }
+
+    /**
+     * Subscribes {@code subscriber} through its own queue.
+     *
+     * @param name         unique subscriber name, used for the dispatcher thread and metric tags
+     * @param subscriber   callback, invoked on the dispatcher thread
+     * @param onDisconnect invoked on the dispatcher thread when the overflow policy disconnects
+     *                     the subscriber, may be null
+     * @return the subscription
+     */
+    public QueuedSubscription subscribe(String name, Consumer<LogEntry> subscriber, Runnable onDisconnect) {
+        Tracked tracked = new Tracked(name);
+        SubscriptionOptions options = new SubscriptionOptions(name, queueSize, dispatchMode, overflowPolicy, () -> {
+            tracked.release();
+            if (onDisconnect != null) {
+                onDisconnect.run();
+            }
+        });
+        synchronized (tracked) {
+            // An early overflow disconnect waits here until the subscription is announced
+            active.put(name, tracked);
+            tracked.delegate = logRepository.subscribe(subscriber, options);
+            listeners.forEach(listener -> listener.subscribed(tracked));
+        }
+        return tracked;
+    }
+
+    /**
+     * Returns the subscriptions that are currently open.
+     */
+    public Collection<QueuedSubscription> active() {
+        return List.copyOf(active.values());
+    }
+
+    public void addListener(Listener listener) {
+        listeners.add(listener);
+        active.values().forEach(listener::subscribed);
+    }
+
+    public void removeListener(Listener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Removes the subscription from tracking exactly once, whether it was closed by its owner
+     * or disconnected by its overflow policy.
+     */
+    private final class Tracked implements QueuedSubscription {
+        private final String name;
+        private volatile QueuedSubscription delegate;
+
+        Tracked(String name) {
+            this.name = name;
+        }
+
+        synchronized void release() {
+            if (active.remove(name, this)) {
+                listeners.forEach(listener -> listener.unsubscribed(this));
+            }
+        }
+
+        @Override
+        public void unsubscribe() {
+            delegate.unsubscribe();
+            release();
+        }
+
+        @Override
+        public boolean isActive() {
+            return delegate.isActive();
+        }
+
+        @Override
+        public String name() {
+            return name;
+        }
+
+        @Override
+        public int lag() {
+            return delegate.lag();
+        }
+
+        @Override
+        public long droppedCount() {
+            return delegate.droppedCount();
+        }
+
+        @Override
+        public long deliveredCount() {
+            return delegate.deliveredCount();
+        }
+    }
+}
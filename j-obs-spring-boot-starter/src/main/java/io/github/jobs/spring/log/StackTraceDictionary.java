@@ -0,0 +1,309 @@
+package io.github.jobs.spring.log;
+
+import io.github.jobs.domain.log.StackTraceRef;
+import io.github.jobs.spring.security.LogSanitizer;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Bounded dictionary of stack traces shared between log entries.
+ * <p>
+ * A captured throwable is fingerprinted by walking its cause and suppressed chain and hashing
+ * exception class names, messages and frames; no text is formatted at capture time. Entries
+ * with the same fingerprint receive the same {@link StackTraceRef}, which formats and sanitizes
+ * the stack trace once, on first read. During an error storm the same trace is therefore stored
+ * once instead of once per log line.
+ * <p>
+ * Two hashes are computed in the same pass:
+ * <ul>
+ *   <li>the <em>fingerprint</em> uses message templates (digit runs collapsed), so
+ *       "user 42 not found" and "user 43 not found" group together</li>
+ *   <li>the dictionary key uses exact messages, so each distinct text is rendered faithfully</li>
+ * </ul>
+ * The dictionary key is a 64-bit hash, so a hit is only shared when the top-level class name,
+ * frame count and chain length also match; a colliding throwable gets its own reference, which
+ * is rendered immediately.
+ * <p>
+ * Log entries hold their reference directly, so a reference stays alive as long as some stored
+ * entry uses it, whether or not it is still in the dictionary. When the dictionary is full the
+ * least recently used reference is dropped; if it has not been rendered yet it is rendered first.
+ * Only references in the dictionary can therefore hold an exception object, at most
+ * {@code maxEntries} of them.
+ * <p>
+ * Thread-safe.
+ */
+public class StackTraceDictionary {
+
+    public static final int DEFAULT_MAX_ENTRIES = 1024;
+
+    private static final int MAX_CHAIN_LENGTH = 32;
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    /**
+     * Framework specific view of a throwable. {@link #apply} formats the full stack trace text.
+     *
+     * @param <T> the throwable representation (e.g. {@code Throwable} or Logback's {@code IThrowableProxy})
+     */
+    public interface ThrowableAdapter<T> extends Function<T, String> {
+
+        String className(T throwable);
+
+        String message(T throwable);
+
+        /**
+         * Returns a hash of the stack frames, e.g. {@link java.util.Arrays#hashCode(Object[])}
+         * over the {@link StackTraceElement}s.
+         */
+        int framesHashCode(T throwable);
+
+        /**
+         * Returns the number of stack frames, used to tell apart throwables whose hashes collide.
+         */
+        int frameCount(T throwable);
+
+        T cause(T throwable);
+
+        T[] suppressed(T throwable);
+    }
+
+    private final int maxEntries;
+    private final LogSanitizer sanitizer;
+    private final Map<Long, Entry> entries;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder renders = new LongAdder();
+
+    /**
+     * @param maxEntries maximum number of distinct stack traces kept for deduplication
+     * @param sanitizer  sanitizer applied to each rendered stack trace, may be null
+     */
+    public StackTraceDictionary(int maxEntries, LogSanitizer sanitizer) {
+        if (maxEntries <= 0) {
+            throw new IllegalArgumentException("maxEntries must be positive");
+        }
+        this.maxEntries = maxEntries;
+        this.sanitizer = sanitizer;
+        this.entries = new LinkedHashMap<>(Math.min(maxEntries, 1024) * 2, 0.75f, true);
+    }
+
+    /**
+     * Returns the shared reference for {@code throwable}, creating it if needed.
+     *
+     * @return the reference, or null when {@code throwable} is null
+     */
+    public <T> StackTraceRef intern(T throwable, ThrowableAdapter<T> adapter) {
+        if (throwable == null) {
+            return null;
+        }
+        long[] hashes = {FNV_OFFSET, FNV_OFFSET};
+        int[] chainLength = new int[1];
+        hashChain(throwable, adapter, hashes, chainLength);
+        long key = hashes[1];
+        String className = adapter.className(throwable);
+        int frameCount = adapter.frameCount(throwable);
+
+        Entry evicted = null;
+        Entry entry;
+        boolean created = false;
+        boolean collision = false;
+        synchronized (entries) {
+            entry = entries.get(key);
+            if (entry != null && !entry.sameShape(className, frameCount, chainLength[0])) {
+                // Hash collision: keep the stored trace and do not share it
+                entry = new Entry(Long.toHexString(hashes[0]), throwable, adapter, className, frameCount,
+                        chainLength[0]);
+                created = true;
+                collision = true;
+            } else if (entry == null) {
+                created = true;
+                entry = new Entry(Long.toHexString(hashes[0]), throwable, adapter, className, frameCount,
+                        chainLength[0]);
+                entries.put(key, entry);
+                if (entries.size() > maxEntries) {
+                    var eldest = entries.entrySet().iterator();
+                    evicted = eldest.next().getValue();
+                    eldest.remove();
+                }
+            }
+        }
+        if (created) {
+            misses.increment();
+        } else {
+            hits.increment();
+        }
+        if (evicted != null) {
+            evicted.text();
+        }
+        if (collision) {
+            // Nothing else will ever render it, so do not let it pin the throwable
+            entry.text();
+        }
+        return entry;
+    }
+
+    /**
+     * Returns the number of stack traces currently held for deduplication.
+     */
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    public int getMaxEntries() {
+        return maxEntries;
+    }
+
+    /**
+     * Returns how many captured throwables reused an existing reference.
+     */
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    /**
+     * Returns how many captured throwables created a new reference.
+     */
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    /**
+     * Returns how many stack traces have been formatted and sanitized.
+     */
+    public long getRenderCount() {
+        return renders.sum();
+    }
+
+    public void clear() {
+        synchronized (entries) {
+            entries.values().forEach(Entry::text);
+            entries.clear();
+        }
+    }
+
+    private <T> void hashChain(T throwable, ThrowableAdapter<T> adapter, long[] hashes, int[] visited) {
+        for (T current = throwable; current != null && visited[0] < MAX_CHAIN_LENGTH; current = adapter.cause(current)) {
+            visited[0]++;
+            hashString(hashes, adapter.className(current), false);
+            hashString(hashes, adapter.message(current), true);
+            int framesHash = adapter.framesHashCode(current);
+            hashes[0] = mix(hashes[0], framesHash);
+            hashes[1] = mix(hashes[1], framesHash);
+
+            T[] suppressed = adapter.suppressed(current);
+            int suppressedCount = suppressed != null ? suppressed.length : 0;
+            hashes[0] = mix(hashes[0], suppressedCount);
+            hashes[1] = mix(hashes[1], suppressedCount);
+            for (int i = 0; i < suppressedCount; i++) {
+                hashChain(suppressed[i], adapter, hashes, visited);
+            }
+        }
+    }
+
+    /**
+     * Hashes {@code value} into both hashes; with {@code template} set, digit runs only enter the
+     * fingerprint as a single placeholder.
+     */
+    private static void hashString(long[] hashes, String value, boolean template) {
+        if (value == null) {
+            hashes[0] = mix(hashes[0], -1);
+            hashes[1] = mix(hashes[1], -1);
+            return;
+        }
+        long fingerprint = hashes[0];
+        long exact = hashes[1];
+        boolean inDigits = false;
+        for (int i = 0, n = value.length(); i < n; i++) {
+            char c = value.charAt(i);
+            exact = (exact ^ c) * FNV_PRIME;
+            boolean digit = template && c >= '0' && c <= '9';
+            if (!digit) {
+                fingerprint = (fingerprint ^ c) * FNV_PRIME;
+            } else if (!inDigits) {
+                fingerprint = (fingerprint ^ '#') * FNV_PRIME;
+            }
+            inDigits = digit;
+        }
+        hashes[0] = mix(fingerprint, value.length() > 0 ? 1 : 0);
+        hashes[1] = mix(exact, value.length());
+    }
+
+    private static long mix(long hash, long value) {
+        long h = (hash ^ value) * FNV_PRIME;
+        return h ^ (h >>> 29);
+    }
+
+    private final class Entry implements StackTraceRef {
+        private final String fingerprint;
+        private final String className;
+        private final int frameCount;
+        private final int chainLength;
+        private Object source;
+        private ThrowableAdapter<Object> formatter;
+        private volatile String text;
+
+        @SuppressWarnings("unchecked")
+        <T> Entry(String fingerprint, T source, ThrowableAdapter<T> formatter, String className, int frameCount,
+                  int chainLength) {
+            this.fingerprint = fingerprint;
+            this.source = source;
+            this.formatter = (ThrowableAdapter<Object>) formatter;
+            this.className = className;
+            this.frameCount = frameCount;
+            this.chainLength = chainLength;
+        }
+
+        boolean sameShape(String className, int frameCount, int chainLength) {
+            return Objects.equals(this.className, className) && this.frameCount == frameCount
+                    && this.chainLength == chainLength;
+        }
+
+        @Override
+        public String fingerprint() {
+            return fingerprint;
+        }
+
+        @Override
+        public String text() {
+            String rendered = text;
+            if (rendered == null) {
+                synchronized (this) {
+                    rendered = text;
+                    if (rendered == null) {
+                        rendered = render();
+                        text = rendered;
+                        // The exemplar is no longer needed once the text exists
+                        source = null;
+                        formatter = null;
+                    }
+                }
+            }
+            return rendered;
+        }
+
+        private String render() {
+            renders.increment();
+            String formatted;
+            try {
+                formatted = formatter.apply(source);
+            } catch (RuntimeException e) {
+                formatted = String.valueOf(source);
+            }
+            if (formatted == null) {
+                formatted = "";
+            }
+            return sanitizer != null ? sanitizer.sanitizeStackTrace(formatted) : formatted;
+        }
+
+        @Override
+        public String toString() {
+            return "StackTraceRef{fingerprint=" + fingerprint + ", rendered=" + (text != null) + '}';
+        }
+    }
+}
@@ -2,10 +2,24 @@ package io.github.jobs.spring.metric;
 
 import io.github.jobs.application.LogRepository;
 import io.github.jobs.application.TraceRepository;
+import io.github.jobs.domain.log.LogLevel;
+import io.github.jobs.infrastructure.CompressedLogRepository;
 import io.github.jobs.infrastructure.InMemoryLogRepository;
 import io.github.jobs.infrastructure.InMemoryTraceRepository;
+import io.github.jobs.infrastructure.OffHeapLogRepository;
+import io.github.jobs.infrastructure.RingBufferLogRepository;
+import io.github.jobs.infrastructure.SegmentLogRepository;
+import io.github.jobs.infrastructure.TieredLogRepository;
+import io.github.jobs.spring.log.AsyncLogDispatcher;
 import io.github.jobs.spring.log.LogEntryFactory;
+import io.github.jobs.spring.log.LogIngestionGovernor;
+import io.github.jobs.spring.log.LogStreamSubscriptions;
+import io.github.jobs.spring.trace.JObsBatchSpanProcessor;
+import io.github.jobs.spring.trace.TailSamplingTraceRepository;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
 import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
 import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.Tags;
 import org.slf4j.Logger;
@@ -13,6 +27,11 @@ import org.slf4j.LoggerFactory;
 
 import jakarta.annotation.PostConstruct;
 
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
 /**
  * Exposes internal J-Obs metrics via Micrometer.
  * <p>
@@ -22,6 +41,12 @@ import jakarta.annotation.PostConstruct;
  *   <li>jobs.logs.buffer.capacity - Log buffer capacity</li>
  *   <li>jobs.logs.buffer.utilization - Log buffer utilization percentage</li>
  *   <li>jobs.logs.by_level - Log count by level (ERROR, WARN, INFO, DEBUG, TRACE)</li>
+ *   <li>jobs.logs.loggers.unique / jobs.logs.threads.unique - Distinct loggers and threads in the buffer</li>
+ *   <li>jobs.logs.ingested - Entries added by level since startup (IN_MEMORY store only, use for rates)</li>
+ *   <li>jobs.logs.offheap.used - Off-heap arena bytes in use (OFF_HEAP store only)</li>
+ *   <li>jobs.logs.segment.bytes / jobs.logs.segment.count - Size and number of segment files (SEGMENT store only)</li>
+ *   <li>jobs.logs.compressed.bytes / jobs.logs.compressed.ratio - Compressed block memory and ratio (COMPRESSED store only)</li>
+ *   <li>jobs.logs.tier.capacity{level} - Entries reserved per level (TIERED store only)</li>
  *   <li>jobs.traces.stored - Number of traces in repository</li>
  *   <li>jobs.traces.spans.total - Total spans across all traces</li>
  *   <li>jobs.traces.with_errors - Number of traces with errors</li>
@@ -29,8 +54,22 @@ import jakarta.annotation.PostConstruct;
  *   <li>jobs.traces.duration.p50 - Median trace duration in ms</li>
  *   <li>jobs.traces.duration.p95 - 95th percentile trace duration in ms</li>
  *   <li>jobs.traces.duration.p99 - 99th percentile trace duration in ms</li>
- *   <li>jobs.factory.pool.size - LogEntryFactory pool size</li>
+ *   <li>jobs.factory.mdc.interned - Distinct MDC maps shared between log entries</li>
  *   <li>jobs.factory.ids.generated - Total IDs generated by factory</li>
+ *   <li>jobs.logs.async.queue.size - Events waiting in the async capture ring buffer</li>
+ *   <li>jobs.logs.async.dropped - Events dropped by the async capture (tagged by reason)</li>
+ *   <li>jobs.logs.subscriber.lag - Entries queued for a live streaming subscriber (tagged by subscriber)</li>
+ *   <li>jobs.logs.subscriber.dropped - Entries dropped for a live streaming subscriber (tagged by subscriber)</li>
+ *   <li>jobs.logs.governor.suppressed - Events dropped by the ingestion rate limit (tagged by logger, registered on first suppression)</li>
+ *   <li>jobs.traces.export.queue.size - Ended spans waiting for a batch export (tagged by processor)</li>
+ *   <li>jobs.traces.export.dropped - Spans dropped because the export queue was full (tagged by processor)</li>
+ *   <li>jobs.traces.export.failed - Spans whose export failed or timed out (tagged by processor)</li>
+ *   <li>jobs.traces.export.latency - Count and total time of batch export calls (tagged by processor)</li>
+ *   <li>jobs.traces.tail.pending / jobs.traces.tail.buffered.spans - Traces and spans awaiting a tail sampling decision</li>
+ *   <li>jobs.traces.tail.decisions - Traces decided by tail sampling (tagged by decision)</li>
+ *   <li>jobs.traces.tail.decision.latency - Time between the first span of a trace and its decision</li>
+ *   <li>jobs.traces.tail.evicted - Traces decided early because the tail sampling buffer was full</li>
+ *   <li>jobs.traces.tail.late_spans - Spans arriving after their trace was decided (tagged by action)</li>
  * </ul>
  */
 public class JObsInternalMetrics {
@@ -42,16 +81,64 @@ public class JObsInternalMetrics {
     private final LogRepository logRepository;
     private final TraceRepository traceRepository;
     private final LogEntryFactory logEntryFactory;
+    private final AsyncLogDispatcher asyncLogDispatcher;
+    private final Map<String, List<Meter>> subscriberMeters = new ConcurrentHashMap<>();
+    private LogStreamSubscriptions logStreamSubscriptions;
+    private LogIngestionGovernor logIngestionGovernor;
+    private List<JObsBatchSpanProcessor> spanProcessors = List.of();
+    private TailSamplingTraceRepository tailSampling;
 
     public JObsInternalMetrics(
             MeterRegistry meterRegistry,
             LogRepository logRepository,
             TraceRepository traceRepository,
             LogEntryFactory logEntryFactory) {
+        this(meterRegistry, logRepository, traceRepository, logEntryFactory, null);
+    }
+
+    public JObsInternalMetrics(
+            MeterRegistry meterRegistry,
+            LogRepository logRepository,
+            TraceRepository traceRepository,
+            LogEntryFactory logEntryFactory,
+            AsyncLogDispatcher asyncLogDispatcher) {
         this.meterRegistry = meterRegistry;
         this.logRepository = logRepository;
         this.traceRepository = traceRepository;
         this.logEntryFactory = logEntryFactory;
+        this.asyncLogDispatcher = asyncLogDispatcher;
+    }
+
+    /**
+     * Enables per-subscriber metrics for live log streaming. Must be called before
+     * {@link #registerMetrics()}.
+     */
+    public void setLogStreamSubscriptions(LogStreamSubscriptions logStreamSubscriptions) {
+        this.logStreamSubscriptions = logStreamSubscriptions;
+    }
+
+    /**
+     * Enables per-logger suppression metrics for the ingestion rate limit. Must be called before
+     * {@link #registerMetrics()}.
+     */
+    public void setLogIngestionGovernor(LogIngestionGovernor logIngestionGovernor) {
+        this.logIngestionGovernor = logIngestionGovernor;
+    }
+
+    /**
+     * Enables queue, drop and latency metrics for batch span processors. Must be called before
+     * {@link #registerMetrics()}.
+     */
+    public void setSpanProcessors(List<JObsBatchSpanProcessor> spanProcessors) {
+        this.spanProcessors = spanProcessors != null ? List.copyOf(spanProcessors) : List.of();
+    }
+
+    /**
+     * Enables buffer, decision and late span metrics for tail sampling. Must be called before
+     * {@link #registerMetrics()}.
+     */
+    public void setTailSampling(TailSamplingTraceRepository tailSampling) {
+        this.tailSampling = tailSampling;
     }
 
     @PostConstruct
@@ -65,6 +152,19 @@ public class JObsInternalMetrics {
         if (logEntryFactory != null) {
             registerFactoryMetrics();
         }
+        if (asyncLogDispatcher != null) {
+            registerAsyncDispatcherMetrics();
+        }
+        if (logStreamSubscriptions != null) {
+            registerSubscriberMetrics();
+        }
+        if (logIngestionGovernor != null) {
+            registerGovernorMetrics();
+        }
+        spanProcessors.forEach(this::registerSpanProcessorMetrics);
+        if (tailSampling != null) {
+            registerTailSamplingMetrics();
+        }
         log.info("J-Obs internal metrics registered");
     }
 
@@ -74,28 +174,104 @@ public class JObsInternalMetrics {
                 .description("Number of log entries stored in J-Obs repository")
                 .register(meterRegistry);
 
-        // Buffer capacity and utilization (only for InMemoryLogRepository)
-        if (logRepository instanceof InMemoryLogRepository inMemoryRepo) {
-            Gauge.builder(METRIC_PREFIX + ".logs.buffer.capacity", inMemoryRepo, InMemoryLogRepository::capacity)
+        // Buffer capacity and utilization (only for bounded in-memory stores)
+        int capacity = bufferCapacity(logRepository);
+        if (capacity > 0) {
+            Gauge.builder(METRIC_PREFIX + ".logs.buffer.capacity", () -> capacity)
                     .description("J-Obs log buffer capacity")
                     .register(meterRegistry);
 
-            Gauge.builder(METRIC_PREFIX + ".logs.buffer.utilization", inMemoryRepo, repo -> {
-                int capacity = repo.capacity();
-                if (capacity == 0) return 0.0;
-                return (double) repo.count() / capacity * 100.0;
-            })
+            Gauge.builder(METRIC_PREFIX + ".logs.buffer.utilization", logRepository,
+                            repo -> (double) repo.count() / capacity * 100.0)
                     .description("J-Obs log buffer utilization percentage")
                     .baseUnit("percent")
                     .register(meterRegistry);
         }
 
+        if (logRepository instanceof OffHeapLogRepository offHeapRepo) {
+            Gauge.builder(METRIC_PREFIX + ".logs.offheap.used", offHeapRepo, OffHeapLogRepository::usedArenaBytes)
+                    .description("Off-heap arena bytes referenced by retained log entries")
+                    .baseUnit("bytes")
+                    .register(meterRegistry);
+        }
+
+        if (logRepository instanceof SegmentLogRepository segmentRepo) {
+            Gauge.builder(METRIC_PREFIX + ".logs.segment.bytes", segmentRepo, SegmentLogRepository::diskBytes)
+                    .description("Disk space used by J-Obs log segment files")
+                    .baseUnit("bytes")
+                    .register(meterRegistry);
+
+            Gauge.builder(METRIC_PREFIX + ".logs.segment.count", segmentRepo, SegmentLogRepository::segmentCount)
+                    .description("Number of J-Obs log segment files")
+                    .register(meterRegistry);
+        }
+
+        if (logRepository instanceof CompressedLogRepository compressedRepo) {
+            Gauge.builder(METRIC_PREFIX + ".logs.compressed.bytes", compressedRepo, CompressedLogRepository::compressedBytes)
+                    .description("Memory held by compressed J-Obs log blocks")
+                    .baseUnit("bytes")
+                    .register(meterRegistry);
+
+            Gauge.builder(METRIC_PREFIX + ".logs.compressed.ratio", compressedRepo, CompressedLogRepository::compressionRatio)
+                    .description("Encoded to compressed size ratio of J-Obs log blocks")
+                    .register(meterRegistry);
+        }
+
         // Logs by level
         registerLogLevelMetric("ERROR");
         registerLogLevelMetric("WARN");
         registerLogLevelMetric("INFO");
         registerLogLevelMetric("DEBUG");
         registerLogLevelMetric("TRACE");
+
+        Gauge.builder(METRIC_PREFIX + ".logs.loggers.unique", logRepository, repo -> repo.stats().uniqueLoggers())
+                .description("Number of distinct loggers in the J-Obs log buffer")
+                .register(meterRegistry);
+
+        Gauge.builder(METRIC_PREFIX + ".logs.threads.unique", logRepository, repo -> repo.stats().uniqueThreads())
+                .description("Number of distinct threads in the J-Obs log buffer")
+                .register(meterRegistry);
+
+        // Cumulative per-level ingest counts, so level rates can be charted
+        if (logRepository instanceof InMemoryLogRepository inMemoryRepo) {
+            for (LogLevel level : LogLevel.values()) {
+                FunctionCounter.builder(METRIC_PREFIX + ".logs.ingested", inMemoryRepo,
+                                repo -> repo.ingestedCount(level))
+                        .description("Log entries added to the J-Obs repository")
+                        .tags(Tags.of("level", level.name()))
+                        .register(meterRegistry);
+            }
+        }
+        if (logRepository instanceof TieredLogRepository tieredRepo) {
+            for (LogLevel level : LogLevel.values()) {
+                FunctionCounter.builder(METRIC_PREFIX + ".logs.ingested", tieredRepo,
+                                repo -> repo.ingestedCount(level))
+                        .description("Log entries added to the J-Obs repository")
+                        .tags(Tags.of("level", level.name()))
+                        .register(meterRegistry);
+
+                Gauge.builder(METRIC_PREFIX + ".logs.tier.capacity", tieredRepo, repo -> repo.capacity(level))
+                        .description("Entries reserved for one level in the tiered J-Obs log store")
+                        .tags(Tags.of("level", level.name()))
+                        .register(meterRegistry);
+            }
+        }
+    }
+
+    private static int bufferCapacity(LogRepository repository) {
+        if (repository instanceof InMemoryLogRepository inMemoryRepo) {
+            return inMemoryRepo.capacity();
+        }
+        if (repository instanceof RingBufferLogRepository ringRepo) {
+            return ringRepo.capacity();
+        }
+        if (repository instanceof OffHeapLogRepository offHeapRepo) {
+            return offHeapRepo.capacity();
+        }
+        if (repository instanceof TieredLogRepository tieredRepo) {
+            return tieredRepo.capacity();
+        }
+        return 0;
     }
 
     private void registerLogLevelMetric(String level) {
@@ -170,12 +346,143 @@ public class JObsInternalMetrics {
     }
 
     private void registerFactoryMetrics() {
-        Gauge.builder(METRIC_PREFIX + ".factory.pool.size", logEntryFactory, LogEntryFactory::getPoolSize)
-                .description("LogEntryFactory pool size")
+        Gauge.builder(METRIC_PREFIX + ".factory.mdc.interned", logEntryFactory, LogEntryFactory::getInternedMdcCount)
+                .description("Distinct MDC maps shared between J-Obs log entries")
                 .register(meterRegistry);
 
         Gauge.builder(METRIC_PREFIX + ".factory.ids.generated", logEntryFactory, LogEntryFactory::getIdCount)
                 .description("Total IDs generated by LogEntryFactory")
                 .register(meterRegistry);
     }
+
+    private void registerAsyncDispatcherMetrics() {
+        Gauge.builder(METRIC_PREFIX + ".logs.async.queue.size", asyncLogDispatcher, AsyncLogDispatcher::size)
+                .description("Log events waiting in the async capture ring buffer")
+                .register(meterRegistry);
+
+        Gauge.builder(METRIC_PREFIX + ".logs.async.queue.capacity", asyncLogDispatcher, AsyncLogDispatcher::capacity)
+                .description("Async capture ring buffer capacity")
+                .register(meterRegistry);
+
+        FunctionCounter.builder(METRIC_PREFIX + ".logs.async.dropped", asyncLogDispatcher,
+                        AsyncLogDispatcher::getDroppedLowLevelCount)
+                .description("Log events dropped by the async capture")
+                .tags(Tags.of("reason", "low_level"))
+                .register(meterRegistry);
+
+        FunctionCounter.builder(METRIC_PREFIX + ".logs.async.dropped", asyncLogDispatcher,
+                        AsyncLogDispatcher::getDroppedOverflowCount)
+                .description("Log events dropped by the async capture")
+                .tags(Tags.of("reason", "overflow"))
+                .register(meterRegistry);
+    }
+
+    private void registerSubscriberMetrics() {
+        logStreamSubscriptions.addListener(new LogStreamSubscriptions.Listener() {
+            @Override
+            public void subscribed(LogRepository.QueuedSubscription subscription) {
+                Tags tags = Tags.of("subscriber", subscription.name());
+                Meter lag = Gauge.builder(METRIC_PREFIX + ".logs.subscriber.lag", subscription,
+                                LogRepository.QueuedSubscription::lag)
+                        .description("Log entries queued for a live streaming subscriber")
+                        .tags(tags)
+                        .register(meterRegistry);
+                Meter dropped = FunctionCounter.builder(METRIC_PREFIX + ".logs.subscriber.dropped", subscription,
+                                LogRepository.QueuedSubscription::droppedCount)
+                        .description("Log entries dropped because a live streaming subscriber fell behind")
+                        .tags(tags)
+                        .register(meterRegistry);
+                subscriberMeters.put(subscription.name(), List.of(lag, dropped));
+            }
+
+            @Override
+            public void unsubscribed(LogRepository.QueuedSubscription subscription) {
+                List<Meter> meters = subscriberMeters.remove(subscription.name());
+                if (meters != null) {
+                    meters.forEach(meterRegistry::remove);
+                }
+            }
+        });
+    }
+
+    private void registerGovernorMetrics() {
+        // Only loggers that actually hit their limit get a meter, which keeps cardinality low
+        logIngestionGovernor.addSuppressionListener(logger ->
+                FunctionCounter.builder(METRIC_PREFIX + ".logs.governor.suppressed", logIngestionGovernor,
+                                governor -> governor.suppressedCount(logger))
+                        .description("Log events dropped by the J-Obs ingestion rate limit")
+                        .tags(Tags.of("logger", logger))
+                        .register(meterRegistry));
+    }
+
+    private void registerSpanProcessorMetrics(JObsBatchSpanProcessor processor) {
+        Tags tags = Tags.of("processor", processor.getName());
+
+        Gauge.builder(METRIC_PREFIX + ".traces.export.queue.size", processor, JObsBatchSpanProcessor::getQueueSize)
+                .description("Ended spans waiting for a batch export")
+                .tags(tags)
+                .register(meterRegistry);
+
+        FunctionCounter.builder(METRIC_PREFIX + ".traces.export.dropped", processor,
+                        JObsBatchSpanProcessor::getDroppedCount)
+                .description("Spans dropped because the export queue was full")
+                .tags(tags)
+                .register(meterRegistry);
+
+        FunctionCounter.builder(METRIC_PREFIX + ".traces.export.failed", processor,
+                        JObsBatchSpanProcessor::getFailedCount)
+                .description("Spans whose export failed or timed out")
+                .tags(tags)
+                .register(meterRegistry);
+
+        FunctionTimer.builder(METRIC_PREFIX + ".traces.export.latency", processor,
+                        JObsBatchSpanProcessor::getExportCallCount,
+                        JObsBatchSpanProcessor::getExportNanos, TimeUnit.NANOSECONDS)
+                .description("Time spent in batch span export calls")
+                .tags(tags)
+                .register(meterRegistry);
+    }
+
+    private void registerTailSamplingMetrics() {
+        Gauge.builder(METRIC_PREFIX + ".traces.tail.pending", tailSampling,
+                        TailSamplingTraceRepository::getPendingTraceCount)
+                .description("Traces buffered until their tail sampling decision")
+                .register(meterRegistry);
+
+        Gauge.builder(METRIC_PREFIX + ".traces.tail.buffered.spans", tailSampling,
+                        TailSamplingTraceRepository::getBufferedSpanCount)
+                .description("Spans buffered until their trace's tail sampling decision")
+                .register(meterRegistry);
+
+        for (TailSamplingTraceRepository.Decision decision : TailSamplingTraceRepository.Decision.values()) {
+            FunctionCounter.builder(METRIC_PREFIX + ".traces.tail.decisions", tailSampling,
+                            repo -> repo.getDecisionCount(decision))
+                    .description("Traces decided by tail sampling")
+                    .tags(Tags.of("decision", decision.tag()))
+                    .register(meterRegistry);
+        }
+
+        FunctionTimer.builder(METRIC_PREFIX + ".traces.tail.decision.latency", tailSampling,
+                        TailSamplingTraceRepository::getDecisionCount,
+                        TailSamplingTraceRepository::getDecisionNanos, TimeUnit.NANOSECONDS)
+                .description("Time between the first span of a trace and its tail sampling decision")
+                .register(meterRegistry);
+
+        FunctionCounter.builder(METRIC_PREFIX + ".traces.tail.evicted", tailSampling,
+                        TailSamplingTraceRepository::getEvictedTraceCount)
+                .description("Traces decided early because the tail sampling buffer was full")
+                .register(meterRegistry);
+
+        FunctionCounter.builder(METRIC_PREFIX + ".traces.tail.late_spans", tailSampling,
+                        TailSamplingTraceRepository::getLateSpansKept)
+                .description("Spans arriving after their trace's tail sampling decision")
+                .tags(Tags.of("action", "kept"))
+                .register(meterRegistry);
+
+        FunctionCounter.builder(METRIC_PREFIX + ".traces.tail.late_spans", tailSampling,
+                        TailSamplingTraceRepository::getLateSpansDropped)
+                .description("Spans arriving after their trace's tail sampling decision")
+                .tags(Tags.of("action", "dropped"))
+                .register(meterRegistry);
+    }
 }
@@ -0,0 +1,315 @@
+package io.github.jobs.spring.metric;
+
+import io.github.jobs.application.LogRepository;
+import io.github.jobs.domain.log.LogEntry;
+import io.github.jobs.domain.log.LogLevel;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.LongSupplier;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * Log-to-metric rules evaluated once per entry as it is stored.
+ * <p>
+ * Each {@link Rule} matches entries by minimum level, logger name prefix, message keyword and
+ * message regex, and increments a Micrometer counter named after the rule. Counters can be tagged
+ * by logger name and by MDC values. Rules are evaluated synchronously on the thread that stores
+ * the entry, so every stored entry is counted, including during the floods alerts are meant to
+ * catch, and dashboards and alerts read pre-aggregated series instead of querying the log buffer.
+ * <p>
+ * Besides the cumulative counters, every rule keeps a one-hour ring of per-second match counts
+ * so that {@link #count(String, Duration)} answers "matches in the last N minutes" without a
+ * repository scan. Tagged rules keep at most {@code maxSeries} tag combinations; further
+ * combinations are counted under the value {@value #OTHER}.
+ */
+public class LogDerivedMetrics implements DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(LogDerivedMetrics.class);
+
+    static final String OTHER = "other";
+    static final String NONE = "none";
+    private static final int WINDOW_SECONDS = 3600;
+
+    /**
+     * Longest window {@link #count(String, Duration)} can answer from the per-second rings.
+     */
+    public static final Duration MAX_WINDOW = Duration.ofSeconds(WINDOW_SECONDS);
+
+    private final MeterRegistry meterRegistry;
+    private final List<CompiledRule> rules;
+    private final int maxSeries;
+    private final LongSupplier epochSecondClock;
+    private volatile LogRepository.Subscription subscription;
+
+    public LogDerivedMetrics(MeterRegistry meterRegistry, List<Rule> rules, int maxSeries) {
+        this(meterRegistry, rules, maxSeries, () -> System.currentTimeMillis() / 1000);
+    }
+
+    LogDerivedMetrics(MeterRegistry meterRegistry, List<Rule> rules, int maxSeries, LongSupplier epochSecondClock) {
+        this.meterRegistry = meterRegistry;
+        this.maxSeries = maxSeries;
+        this.epochSecondClock = epochSecondClock;
+        List<CompiledRule> compiled = new ArrayList<>(rules.size());
+        for (Rule rule : rules) {
+            try {
+                compiled.add(new CompiledRule(rule));
+            } catch (PatternSyntaxException e) {
+                log.warn("Ignoring log-derived metric rule '{}': invalid regex: {}", rule.name(), e.getDescription());
+            }
+        }
+        this.rules = List.copyOf(compiled);
+    }
+
+    /**
+     * Starts evaluating the rules against every entry stored in {@code logRepository}.
+     * Does nothing when no rule is configured.
+     */
+    public void bind(LogRepository logRepository) {
+        if (rules.isEmpty() || subscription != null) {
+            return;
+        }
+        subscription = logRepository.subscribe(this::record);
+        log.debug("Evaluating {} log-derived metric rule(s) on ingest", rules.size());
+    }
+
+    /**
+     * Evaluates all rules against {@code entry} and increments the counters of those that match.
+     */
+    public void record(LogEntry entry) {
+        for (CompiledRule rule : rules) {
+            if (rule.matches(entry)) {
+                rule.increment(entry, epochSecondClock.getAsLong());
+            }
+        }
+    }
+
+    /**
+     * Returns the number of entries matched by rule {@code name} in the last {@code window},
+     * across all tag values, or -1 when no such rule exists or the window is longer than
+     * {@link #MAX_WINDOW}.
+     */
+    public long count(String name, Duration window) {
+        if (window.compareTo(MAX_WINDOW) > 0) {
+            return -1;
+        }
+        for (CompiledRule rule : rules) {
+            if (rule.rule.name().equals(name)) {
+                return rule.window.sum(epochSecondClock.getAsLong(), window.toSeconds());
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the criteria of rule {@code name} as a predicate, or null when no such rule exists.
+     * Used to count windows longer than {@link #MAX_WINDOW} from the log repository.
+     */
+    public Predicate<LogEntry> matcher(String name) {
+        for (CompiledRule rule : rules) {
+            if (rule.rule.name().equals(name)) {
+                return rule::matches;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns the names of the configured rules.
+     */
+    public List<String> ruleNames() {
+        return rules.stream().map(rule -> rule.rule.name()).toList();
+    }
+
+    @Override
+    public void destroy() {
+        LogRepository.Subscription current = subscription;
+        if (current != null) {
+            current.unsubscribe();
+            subscription = null;
+        }
+    }
+
+    /**
+     * A log-to-metric rule. Null or blank criteria match every entry.
+     *
+     * @param name         counter name, also used to look the rule up in {@link #count(String, Duration)}
+     * @param minLevel     minimum level of matching entries
+     * @param loggerPrefix logger name prefix
+     * @param keyword      case-insensitive substring of the message
+     * @param regex        pattern searched in the message
+     * @param tagLogger    whether to tag the counter with the logger name
+     * @param mdcTags      MDC keys whose values become tags; a missing key is tagged {@value #NONE}
+     */
+    public record Rule(
+            String name,
+            LogLevel minLevel,
+            String loggerPrefix,
+            String keyword,
+            String regex,
+            boolean tagLogger,
+            List<String> mdcTags
+    ) {
+        public Rule {
+            Objects.requireNonNull(name, "name cannot be null");
+            mdcTags = mdcTags != null ? List.copyOf(mdcTags) : List.of();
+        }
+    }
+
+    private final class CompiledRule {
+        private final Rule rule;
+        private final String keyword;
+        private final Pattern pattern;
+        private final boolean tagged;
+        private final String[] tagKeys;
+        private final Counter untagged;
+        private final Map<List<String>, Counter> series = new ConcurrentHashMap<>();
+        private final SecondWindow window = new SecondWindow(WINDOW_SECONDS);
+
+        CompiledRule(Rule rule) {
+            this.rule = rule;
+            this.keyword = rule.keyword() != null && !rule.keyword().isBlank() ? rule.keyword() : null;
+            this.pattern = rule.regex() != null && !rule.regex().isBlank() ? Pattern.compile(rule.regex()) : null;
+            List<String> keys = new ArrayList<>();
+            if (rule.tagLogger()) {
+                keys.add("logger");
+            }
+            keys.addAll(rule.mdcTags());
+            this.tagKeys = keys.toArray(String[]::new);
+            this.tagged = tagKeys.length > 0;
+            this.untagged = tagged ? null : counter(Tags.empty());
+        }
+
+        boolean matches(LogEntry entry) {
+            if (rule.minLevel() != null && !entry.level().isAtLeast(rule.minLevel())) {
+                return false;
+            }
+            if (rule.loggerPrefix() != null && !rule.loggerPrefix().isEmpty()
+                    && (entry.loggerName() == null || !entry.loggerName().startsWith(rule.loggerPrefix()))) {
+                return false;
+            }
+            String message = entry.message();
+            if (keyword != null && (message == null || !containsIgnoreCase(message, keyword))) {
+                return false;
+            }
+            return pattern == null || (message != null && pattern.matcher(message).find());
+        }
+
+        void increment(LogEntry entry, long epochSecond) {
+            window.increment(epochSecond);
+            if (!tagged) {
+                untagged.increment();
+                return;
+            }
+            String[] values = new String[tagKeys.length];
+            int i = 0;
+            if (rule.tagLogger()) {
+                values[i++] = entry.loggerName() != null ? entry.loggerName() : NONE;
+            }
+            for (String key : rule.mdcTags()) {
+                String value = entry.mdc().get(key);
+                values[i++] = value != null ? value : NONE;
+            }
+            List<String> key = Arrays.asList(values);
+            Counter counter = series.get(key);
+            if (counter == null) {
+                if (series.size() >= maxSeries) {
+                    Arrays.fill(values, OTHER);
+                }
+                counter = series.computeIfAbsent(key, this::register);
+            }
+            counter.increment();
+        }
+
+        private Counter register(List<String> values) {
+            Tags tags = Tags.empty();
+            for (int i = 0; i < tagKeys.length; i++) {
+                tags = tags.and(tagKeys[i], values.get(i));
+            }
+            return counter(tags);
+        }
+
+        private Counter counter(Tags tags) {
+            return Counter.builder(rule.name())
+                    .description("Log entries matching the '" + rule.name() + "' rule")
+                    .tags(tags)
+                    .register(meterRegistry);
+        }
+    }
+
+    private static boolean containsIgnoreCase(String text, String keyword) {
+        int max = text.length() - keyword.length();
+        for (int i = 0; i <= max; i++) {
+            if (text.regionMatches(true, i, keyword, 0, keyword.length())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Per-second counts over a fixed number of seconds. Each slot packs the second it counts
+     * (high 32 bits) and the count (low 32 bits) into one long, so moving a slot to a new second
+     * and counting in it is a single CAS. Stale slots are reset lazily on write and ignored on read.
+     */
+    static final class SecondWindow {
+        private static final long COUNT_MASK = 0xFFFF_FFFFL;
+
+        private final AtomicLongArray slots;
+
+        SecondWindow(int size) {
+            this.slots = new AtomicLongArray(size);
+        }
+
+        void increment(long epochSecond) {
+            int slot = (int) Math.floorMod(epochSecond, (long) slots.length());
+            while (true) {
+                long current = slots.get(slot);
+                long stamp = current >>> 32;
+                long next;
+                if (stamp == epochSecond) {
+                    if ((current & COUNT_MASK) == COUNT_MASK) {
+                        return;
+                    }
+                    next = current + 1;
+                } else if (stamp < epochSecond) {
+                    next = (epochSecond << 32) | 1;
+                } else {
+                    // The slot already counts a later second
+                    return;
+                }
+                if (slots.compareAndSet(slot, current, next)) {
+                    return;
+                }
+            }
+        }
+
+        long sum(long nowEpochSecond, long windowSeconds) {
+            long span = Math.min(Math.max(windowSeconds, 1), slots.length());
+            long oldest = nowEpochSecond - span + 1;
+            long total = 0;
+            for (int slot = 0; slot < slots.length(); slot++) {
+                long value = slots.get(slot);
+                long stamp = value >>> 32;
+                if (stamp >= oldest && stamp <= nowEpochSecond) {
+                    total += value & COUNT_MASK;
+                }
+            }
+            return total;
+        }
+    }
+}
@@ -23,7 +23,9 @@ import java.sql.SQLException;
 import java.sql.Timestamp;
 import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -39,6 +41,9 @@ public class JdbcTraceRepository implements TraceRepository, Closeable {
 
     private static final TypeReference<Map<String, String>> MAP_TYPE_REF = new TypeReference<>() {};
     private static final TypeReference<List<SpanEventDto>> EVENT_LIST_TYPE_REF = new TypeReference<>() {};
+    private static final String INSERT_SPAN_SQL =
+            "INSERT INTO j_obs_spans (span_id, trace_id, parent_span_id, name, service_name, kind, status, " +
+            "start_time, end_time, duration_ms, attributes, events) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
 
     private final JdbcTemplate jdbcTemplate;
     private final ObjectMapper objectMapper;
@@ -59,6 +64,44 @@ public class JdbcTraceRepository implements TraceRepository, Closeable {
         }
     }
 
+    /**
+     * Inserts the batch with one JDBC batch statement and refreshes the metadata of each
+     * affected trace once, instead of three round trips per span. If the batch fails, the spans
+     * are stored one by one so that only the spans that fail on their own are lost.
+     */
+    @Override
+    public void addSpans(Collection<Span> spans) {
+        if (spans.isEmpty()) {
+            return;
+        }
+        Map<String, Span> firstSpanByTrace = new LinkedHashMap<>();
+        for (Span span : spans) {
+            firstSpanByTrace.putIfAbsent(span.traceId(), span);
+        }
+        try {
+            firstSpanByTrace.values().forEach(this::ensureTraceExists);
+            insertSpans(spans);
+            firstSpanByTrace.keySet().forEach(this::updateTraceMetadata);
+        } catch (DataAccessException e) {
+            log.warn("Failed to add batch of {} spans, adding them individually: {}", spans.size(), e.getMessage());
+            spans.forEach(this::addSpan);
+        }
+    }
+
+    private void insertSpans(Collection<Span> spans) {
+        List<Object[]> rows = new ArrayList<>(spans.size());
+        for (Span span : spans) {
+            rows.add(spanRow(span));
+        }
+        try {
+            jdbcTemplate.batchUpdate(INSERT_SPAN_SQL, rows);
+        } catch (DuplicateKeyException e) {
+            // A span of the batch already exists; fall back to inserting one by one
+            log.debug("Batch insert hit an existing span, inserting individually");
+            spans.forEach(this::insertSpan);
+        }
+    }
+
     private void ensureTraceExists(Span span) {
         try {
             jdbcTemplate.update(
@@ -81,31 +124,30 @@ public class JdbcTraceRepository implements TraceRepository, Closeable {
 
     private void insertSpan(Span span) {
         try {
-            String attributesJson = serializeMap(span.attributes());
-            String eventsJson = serializeEvents(span.events());
-
-            jdbcTemplate.update(
-                    "INSERT INTO j_obs_spans (span_id, trace_id, parent_span_id, name, service_name, kind, status, " +
-                    "start_time, end_time, duration_ms, attributes, events) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)",
-                    span.spanId(),
-                    span.traceId(),
-                    span.parentSpanId(),
-                    span.name(),
-                    span.serviceName(),
-                    span.kind().name(),
-                    span.status().name(),
-                    Timestamp.from(span.startTime()),
-                    span.endTime() != null ? Timestamp.from(span.endTime()) : null,
-                    span.durationMs(),
-                    attributesJson,
-                    eventsJson
-            );
+            jdbcTemplate.update(INSERT_SPAN_SQL, spanRow(span));
         } catch (DuplicateKeyException e) {
             // Span already exists, skip
             log.debug("Span {} already exists, skipping", span.spanId());
         }
     }
 
+    private Object[] spanRow(Span span) {
+        return new Object[]{
+                span.spanId(),
+                span.traceId(),
+                span.parentSpanId(),
+                span.name(),
+                span.serviceName(),
+                span.kind().name(),
+                span.status().name(),
+                Timestamp.from(span.startTime()),
+                span.endTime() != null ? Timestamp.from(span.endTime()) : null,
+                span.durationMs(),
+                serializeMap(span.attributes()),
+                serializeEvents(span.events())
+        };
+    }
+
     private void updateTraceMetadata(String traceId) {
         // Use subqueries compatible with both H2 and PostgreSQL.
         // Compute duration_ms from min/max timestamps in Java to avoid DB-specific functions.
@@ -1,7 +1,9 @@
 package io.github.jobs.spring.retention;
 
 import io.github.jobs.application.AlertEventRepository;
+import io.github.jobs.application.LogRepository;
 import io.github.jobs.application.TraceRepository;
+import io.github.jobs.infrastructure.SegmentLogRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.DisposableBean;
@@ -16,7 +18,8 @@ import java.util.concurrent.TimeUnit;
  * Periodic cleanup of old observability data based on retention policies.
  * <p>
  * This service runs a scheduled task that removes expired traces and alert events
- * from their respective repositories. For in-memory repositories, TTL-based eviction
+ * from their respective repositories, and expired or excess segment files when logs are
+ * persisted by a {@link SegmentLogRepository}. For in-memory repositories, TTL-based eviction
  * is the primary mechanism; this service provides an additional safety net and
  * a unified scheduling framework for all retention policies.
  * <p>
@@ -32,6 +35,9 @@ public class DataRetentionService implements DisposableBean {
     private final AlertEventRepository alertEventRepository;
     private final Duration traceRetention;
     private final Duration alertEventRetention;
+    private final LogRepository logRepository;
+    private final Duration logRetention;
+    private final long logMaxBytes;
     private final ScheduledExecutorService scheduler;
 
     public DataRetentionService(
@@ -39,10 +45,31 @@ public class DataRetentionService implements DisposableBean {
             AlertEventRepository alertEventRepository,
             Duration traceRetention,
             Duration alertEventRetention) {
+        this(traceRepository, alertEventRepository, traceRetention, alertEventRetention, null, null, 0);
+    }
+
+    /**
+     * Creates the service with log retention. Logs are only cleaned up when {@code logRepository}
+     * is a {@link SegmentLogRepository}; bounded in-memory stores evict on their own.
+     *
+     * @param logRetention age after which log segments are deleted, or null to keep them
+     * @param logMaxBytes  maximum total size of log segments, or 0 for no limit
+     */
+    public DataRetentionService(
+            TraceRepository traceRepository,
+            AlertEventRepository alertEventRepository,
+            Duration traceRetention,
+            Duration alertEventRetention,
+            LogRepository logRepository,
+            Duration logRetention,
+            long logMaxBytes) {
         this.traceRepository = traceRepository;
         this.alertEventRepository = alertEventRepository;
         this.traceRetention = traceRetention;
         this.alertEventRetention = alertEventRetention;
+        this.logRepository = logRepository;
+        this.logRetention = logRetention;
+        this.logMaxBytes = logMaxBytes;
 
         this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
             Thread t = new Thread(r, "j-obs-retention");
@@ -71,6 +98,19 @@ public class DataRetentionService implements DisposableBean {
                 log.info("Retention cleanup: removed {} expired alert events", deletedAlerts);
             }
 
+            if (logRepository instanceof SegmentLogRepository segments) {
+                long deletedLogs = 0;
+                if (logRetention != null) {
+                    deletedLogs += segments.deleteOlderThan(Instant.now().minus(logRetention));
+                }
+                if (logMaxBytes > 0) {
+                    deletedLogs += segments.deleteExceedingBytes(logMaxBytes);
+                }
+                if (deletedLogs > 0) {
+                    log.info("Retention cleanup: removed {} log entries in expired segments", deletedLogs);
+                }
+            }
+
             // Trace cleanup is primarily handled by TTL in InMemoryTraceRepository.
             // For future JDBC-backed repositories, add deletion logic here.
             log.debug("Retention cleanup completed (trace retention: {}, alert retention: {})",
@@ -0,0 +1,114 @@
+package io.github.jobs.spring.security;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Queue;
+
+/**
+ * Case-insensitive Aho-Corasick automaton over a fixed set of ASCII keywords.
+ * <p>
+ * Each keyword carries an {@code int} payload; {@link #scan(CharSequence)} returns the bitwise OR
+ * of the payloads of every keyword occurring in the text. The goto/failure function is compiled
+ * into a dense transition table, so a scan is a single pass with one array lookup per character
+ * and no allocation.
+ * <p>
+ * Folding matches {@code String.toLowerCase(Locale.ROOT)} for the characters that can take part
+ * in an ASCII keyword: ASCII letters and the Kelvin sign fold to lowercase, everything else
+ * (including {@code U+0130}, which lowercases to two characters) resets the match.
+ */
+final class KeywordAutomaton {
+
+    private static final int ALPHABET = 128;
+    private static final char KELVIN_SIGN = '\u212A';
+
+    private final int[] transitions;
+    private final int[] outputs;
+
+    /**
+     * @param keywords lowercase ASCII keywords
+     * @param payloads payload bits reported for the keyword at the same index
+     */
+    KeywordAutomaton(List<String> keywords, int[] payloads) {
+        if (keywords.size() != payloads.length) {
+            throw new IllegalArgumentException("Expected one payload per keyword");
+        }
+        int maxStates = 1 + keywords.stream().mapToInt(String::length).sum();
+        int[] trie = new int[maxStates * ALPHABET];
+        Arrays.fill(trie, -1);
+        int[] output = new int[maxStates];
+        int states = 1;
+
+        for (int k = 0; k < keywords.size(); k++) {
+            String keyword = keywords.get(k);
+            int state = 0;
+            for (int i = 0; i < keyword.length(); i++) {
+                int c = keyword.charAt(i);
+                if (c >= ALPHABET || Character.isUpperCase(c)) {
+                    throw new IllegalArgumentException("Keyword must be lowercase ASCII: " + keyword);
+                }
+                int slot = state * ALPHABET + c;
+                if (trie[slot] < 0) {
+                    trie[slot] = states++;
+                }
+                state = trie[slot];
+            }
+            output[state] |= payloads[k];
+        }
+
+        // Breadth-first pass turning the trie into a complete DFA and merging failure outputs
+        int[] failure = new int[states];
+        Queue<Integer> queue = new ArrayDeque<>();
+        for (int c = 0; c < ALPHABET; c++) {
+            int next = trie[c];
+            if (next < 0) {
+                trie[c] = 0;
+            } else {
+                failure[next] = 0;
+                queue.add(next);
+            }
+        }
+        while (!queue.isEmpty()) {
+            int state = queue.poll();
+            output[state] |= output[failure[state]];
+            for (int c = 0; c < ALPHABET; c++) {
+                int slot = state * ALPHABET + c;
+                int next = trie[slot];
+                int fallback = trie[failure[state] * ALPHABET + c];
+                if (next < 0) {
+                    trie[slot] = fallback;
+                } else {
+                    failure[next] = fallback;
+                    queue.add(next);
+                }
+            }
+        }
+
+        this.transitions = Arrays.copyOf(trie, states * ALPHABET);
+        this.outputs = Arrays.copyOf(output, states);
+    }
+
+    /**
+     * Returns the OR of the payloads of all keywords found in {@code text}.
+     */
+    int scan(CharSequence text) {
+        int[] table = transitions;
+        int[] out = outputs;
+        int found = 0;
+        int state = 0;
+        for (int i = 0, n = text.length(); i < n; i++) {
+            char c = text.charAt(i);
+            if (c >= 'A' && c <= 'Z') {
+                c = (char) (c + ('a' - 'A'));
+            } else if (c == KELVIN_SIGN) {
+                c = 'k';
+            } else if (c >= ALPHABET) {
+                state = 0;
+                continue;
+            }
+            state = table[state * ALPHABET + c];
+            found |= out[state];
+        }
+        return found;
+    }
+}
@@ -1,10 +1,11 @@
 package io.github.jobs.spring.security;
 
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.regex.Pattern;
-import java.util.stream.Collectors;
 
 /**
  * Sanitizes log messages to mask sensitive data before storage.
@@ -24,6 +25,8 @@ import java.util.stream.Collectors;
  * <ul>
  *   <li>Patterns are pre-compiled for efficiency</li>
  *   <li>Early return if no potential sensitive data detected</li>
+ *   <li>Trigger keywords for all rules are found in one case-insensitive Aho-Corasick pass;
+ *       only the rules whose keywords occur are evaluated</li>
  *   <li>Thread-safe and stateless</li>
  * </ul>
  */
@@ -32,93 +35,107 @@ public class LogSanitizer {
     private static final String MASK = "***REDACTED***";
     private static final String PARTIAL_MASK = "***";
 
-    // Pre-compiled patterns for common sensitive data
+    private static final List<String> PASSWORD_KEYWORDS =
+            List.of("password", "passwd", "pwd", "secret", "credential");
+    private static final List<String> API_KEY_KEYWORDS = List.of("api_key", "api-key", "apikey");
+
+    // Pre-compiled patterns for common sensitive data, each with the keywords it cannot match without
     private static final List<SanitizationRule> DEFAULT_RULES = List.of(
             // Passwords in various formats
             new SanitizationRule(
                     "password",
                     Pattern.compile("(?i)(password|passwd|pwd|secret|credential)[\"'\\s]*[:=][\"'\\s]*([^\"'\\s,;}&]+)"),
-                    "$1=***REDACTED***"
+                    "$1=***REDACTED***",
+                    PASSWORD_KEYWORDS
             ),
             // JSON passwords
             new SanitizationRule(
                     "json-password",
                     Pattern.compile("(?i)(\"(?:password|passwd|pwd|secret|credential)\"\\s*:\\s*)\"[^\"]*\""),
-                    "$1\"***REDACTED***\""
+                    "$1\"***REDACTED***\"",
+                    PASSWORD_KEYWORDS
             ),
             // API keys
             new SanitizationRule(
                     "api-key",
                     Pattern.compile("(?i)(api[_-]?key|apikey|x-api-key)[\"'\\s]*[:=][\"'\\s]*([^\"'\\s,;}&]+)"),
-                    "$1=***REDACTED***"
+                    "$1=***REDACTED***",
+                    API_KEY_KEYWORDS
             ),
             // JSON API keys
             new SanitizationRule(
                     "json-api-key",
                     Pattern.compile("(?i)(\"(?:api[_-]?key|apikey)\"\\s*:\\s*)\"[^\"]*\""),
-                    "$1\"***REDACTED***\""
+                    "$1\"***REDACTED***\"",
+                    API_KEY_KEYWORDS
             ),
             // Bearer tokens
             new SanitizationRule(
                     "bearer-token",
                     Pattern.compile("(?i)(Bearer\\s+)[A-Za-z0-9._~+/=-]+"),
-                    "$1***REDACTED***"
+                    "$1***REDACTED***",
+                    List.of("bearer")
             ),
             // Basic Auth header
             new SanitizationRule(
                     "basic-auth",
                     Pattern.compile("(?i)(Basic\\s+)[A-Za-z0-9+/=]+"),
-                    "$1***REDACTED***"
+                    "$1***REDACTED***",
+                    List.of("basic")
             ),
             // Authorization header value
             new SanitizationRule(
                     "auth-header",
                     Pattern.compile("(?i)(Authorization[\"'\\s]*[:=][\"'\\s]*)([^\"'\\s,;&]+)"),
-                    "$1***REDACTED***"
+                    "$1***REDACTED***",
+                    List.of("authorization")
             ),
             // Generic tokens
             new SanitizationRule(
                     "token",
                     Pattern.compile("(?i)((?:access|refresh|auth|session|jwt)[_-]?token)[\"'\\s]*[:=][\"'\\s]*([^\"'\\s,;}&]+)"),
-                    "$1=***REDACTED***"
+                    "$1=***REDACTED***",
+                    List.of("token")
             ),
             // JSON tokens
             new SanitizationRule(
                     "json-token",
                     Pattern.compile("(?i)(\"(?:access|refresh|auth|session|jwt)[_-]?token\"\\s*:\\s*)\"[^\"]*\""),
-                    "$1\"***REDACTED***\""
+                    "$1\"***REDACTED***\"",
+                    List.of("token")
             ),
             // Credit card numbers (basic detection - 13-19 digits with optional separators)
             new SanitizationRule(
                     "credit-card",
                     Pattern.compile("\\b([0-9]{4})[- ]?([0-9]{4})[- ]?([0-9]{4})[- ]?([0-9]{1,7})\\b"),
-                    "****-****-****-$4"
+                    "****-****-****-$4",
+                    List.of()
             ),
             // AWS Access Keys
             new SanitizationRule(
                     "aws-key",
                     Pattern.compile("(?i)(AKIA|ABIA|ACCA|ASIA)[A-Z0-9]{16}"),
-                    "***AWS_KEY_REDACTED***"
+                    "***AWS_KEY_REDACTED***",
+                    List.of("akia", "abia", "acca", "asia")
             ),
             // Private keys (PEM format start)
             new SanitizationRule(
                     "private-key",
                     Pattern.compile("-----BEGIN[A-Z ]*PRIVATE KEY-----[\\s\\S]*?-----END[A-Z ]*PRIVATE KEY-----"),
-                    "***PRIVATE_KEY_REDACTED***"
+                    "***PRIVATE_KEY_REDACTED***",
+                    List.of("-----begin")
             )
     );
 
-    // Pre-compiled fallback pattern for credit card detection
-    // Uses find() instead of matches() to avoid quadratic backtracking with .* anchors
-    private static final Pattern CREDIT_CARD_QUICK_CHECK = Pattern.compile("\\d{4}[- ]?\\d{4}[- ]?\\d{4}[- ]?\\d{1,7}");
+    // MDC keys whose values are always masked, matched case-insensitively
+    private static final String[] SENSITIVE_KEYS = {
+            "password", "secret", "credential", "api_key", "apikey", "token", "authorization"
+    };
 
-    // Quick check patterns to avoid full regex scan on clean messages
-    private static final List<String> QUICK_CHECK_KEYWORDS = List.of(
-            "password", "passwd", "pwd", "secret", "credential",
-            "api_key", "api-key", "apikey",
-            "token", "bearer", "basic", "authorization",
-            "-----begin", "akia", "abia", "acca", "asia"
-    );
+    private static final int CREDIT_CARD_RULE = indexOf("credit-card");
+
+    // Single-pass trigger detection: each keyword reports the bits of the default rules it enables
+    private static final KeywordAutomaton TRIGGERS = compileTriggers();
 
     private final List<SanitizationRule> rules;
     private final boolean enabled;
@@ -162,45 +179,88 @@ public class LogSanitizer {
             return message;
         }
 
-        // Quick check to avoid expensive regex operations on clean messages
-        String lowerMessage = message.toLowerCase();
-        boolean potentiallySensitive = QUICK_CHECK_KEYWORDS.stream()
-                .anyMatch(lowerMessage::contains);
+        // One pass finds every trigger keyword; clean messages never reach a regex
+        int triggered = triggers(message);
+        return triggered == 0 ? message : applyRules(message, triggered);
+    }
 
-        // Also check for patterns that look like credit cards or keys
-        if (!potentiallySensitive) {
-            potentiallySensitive = CREDIT_CARD_QUICK_CHECK.matcher(message).find();
+    /**
+     * Sanitizes a message that is still held in a reusable buffer.
+     * <p>
+     * The buffer is scanned in place; the only allocation for a clean message is the returned
+     * string itself.
+     *
+     * @param message the original log message, e.g. a thread-local {@link StringBuilder}
+     * @return the sanitized message
+     */
+    public String sanitize(CharSequence message) {
+        if (message == null || message instanceof String) {
+            return sanitize((String) message);
         }
+        int triggered = enabled ? triggers(message) : 0;
+        String text = message.toString();
+        return triggered == 0 ? text : applyRules(text, triggered);
+    }
 
-        if (!potentiallySensitive) {
-            return message;
+    private static int triggers(CharSequence message) {
+        int triggered = TRIGGERS.scan(message);
+        if (containsCardNumber(message)) {
+            triggered |= 1 << CREDIT_CARD_RULE;
         }
+        return triggered;
+    }
 
-        // Apply sanitization rules
+    private String applyRules(String message, int triggered) {
+        // Apply only the default rules whose keywords occur, in their original order; custom rules
+        // keep running on every potentially sensitive message
         String result = message;
-        for (SanitizationRule rule : rules) {
+        for (int i = 0; i < rules.size(); i++) {
+            if (i < DEFAULT_RULES.size() && (triggered & (1 << i)) == 0) {
+                continue;
+            }
+            SanitizationRule rule = rules.get(i);
             result = rule.pattern.matcher(result).replaceAll(rule.replacement);
         }
 
         return result;
     }
 
+    /**
+     * Applies every rule regardless of triggers, as the sanitizer did before trigger selection.
+     * Serves as the reference the selective path must reproduce.
+     */
+    String applyAllRules(String message) {
+        String result = message;
+        for (SanitizationRule rule : rules) {
+            result = rule.pattern.matcher(result).replaceAll(rule.replacement);
+        }
+        return result;
+    }
+
     /**
      * Sanitizes a map of MDC properties.
      *
      * @param mdc the original MDC map
-     * @return a new map with sanitized values
+     * @return the original map when no value needs masking, otherwise a new map with sanitized values
      */
     public Map<String, String> sanitizeMdc(Map<String, String> mdc) {
         if (!enabled || mdc == null || mdc.isEmpty()) {
             return mdc;
         }
 
-        return mdc.entrySet().stream()
-                .collect(Collectors.toMap(
-                        Map.Entry::getKey,
-                        e -> sanitizeValue(e.getKey(), e.getValue())
-                ));
+        // Copy only once a value actually changes, so clean context maps can be shared as is
+        Map<String, String> sanitized = null;
+        for (Map.Entry<String, String> e : mdc.entrySet()) {
+            String value = e.getValue();
+            String masked = sanitizeValue(e.getKey(), value);
+            if (sanitized == null && masked != value) {
+                sanitized = new HashMap<>(mdc);
+            }
+            if (sanitized != null) {
+                sanitized.put(e.getKey(), masked);
+            }
+        }
+        return sanitized != null ? sanitized : mdc;
     }
 
     /**
@@ -211,17 +271,11 @@ public class LogSanitizer {
             return null;
         }
 
-        String lowerKey = key.toLowerCase();
-
         // Completely redact values with sensitive key names
-        if (lowerKey.contains("password") ||
-            lowerKey.contains("secret") ||
-            lowerKey.contains("credential") ||
-            lowerKey.contains("api_key") ||
-            lowerKey.contains("apikey") ||
-            lowerKey.contains("token") ||
-            lowerKey.contains("authorization")) {
-            return MASK;
+        for (String sensitive : SENSITIVE_KEYS) {
+            if (containsIgnoreCase(key, sensitive)) {
+                return MASK;
+            }
         }
 
         // Apply general sanitization to the value
@@ -248,6 +302,73 @@ public class LogSanitizer {
         return enabled;
     }
 
+    /**
+     * Looks for the credit card shape {@code \d{4}[- ]?\d{4}[- ]?\d{4}[- ]?\d{1,7}} without a regex.
+     * Digits and separators are disjoint, so the optional separators never need backtracking.
+     */
+    static boolean containsCardNumber(CharSequence text) {
+        int n = text.length();
+        for (int start = 0; start + 13 <= n; start++) {
+            int pos = start;
+            boolean matched = true;
+            for (int group = 0; group < 3 && matched; group++) {
+                matched = digits(text, pos, 4);
+                pos += 4;
+                if (matched && pos < n && (text.charAt(pos) == '-' || text.charAt(pos) == ' ')) {
+                    pos++;
+                }
+            }
+            if (matched && digits(text, pos, 1)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean digits(CharSequence text, int from, int count) {
+        if (from + count > text.length()) {
+            return false;
+        }
+        for (int i = from; i < from + count; i++) {
+            char c = text.charAt(i);
+            if (c < '0' || c > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Same result as key.toLowerCase().contains(part) for the lower-case ASCII parts, without the copy
+    private static boolean containsIgnoreCase(String key, String part) {
+        for (int i = 0, last = key.length() - part.length(); i <= last; i++) {
+            if (key.regionMatches(true, i, part, 0, part.length())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static int indexOf(String ruleName) {
+        for (int i = 0; i < DEFAULT_RULES.size(); i++) {
+            if (DEFAULT_RULES.get(i).name.equals(ruleName)) {
+                return i;
+            }
+        }
+        throw new IllegalStateException("Unknown rule: " + ruleName);
+    }
+
+    private static KeywordAutomaton compileTriggers() {
+        Map<String, Integer> payloads = new LinkedHashMap<>();
+        for (int i = 0; i < DEFAULT_RULES.size(); i++) {
+            for (String keyword : DEFAULT_RULES.get(i).triggers) {
+                payloads.merge(keyword, 1 << i, (a, b) -> a | b);
+            }
+        }
+        return new KeywordAutomaton(
+                List.copyOf(payloads.keySet()),
+                payloads.values().stream().mapToInt(Integer::intValue).toArray());
+    }
+
     /**
      * Internal class representing a sanitization rule.
      */
@@ -255,11 +376,17 @@ public class LogSanitizer {
         final String name;
         final Pattern pattern;
         final String replacement;
+        final List<String> triggers;
 
         SanitizationRule(String name, Pattern pattern, String replacement) {
+            this(name, pattern, replacement, List.of());
+        }
+
+        SanitizationRule(String name, Pattern pattern, String replacement, List<String> triggers) {
             this.name = name;
             this.pattern = pattern;
             this.replacement = replacement;
+            this.triggers = triggers;
         }
     }
 }
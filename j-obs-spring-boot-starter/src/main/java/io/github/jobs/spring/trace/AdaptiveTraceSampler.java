@@ -0,0 +1,265 @@
+package io.github.jobs.spring.trace;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.LongSupplier;
+
+/**
+ * Trace sampler that adjusts its probabilities to keep about {@code tracesPerSecond} traces per
+ * second, whatever the incoming traffic.
+ * <p>
+ * Every new trace is counted against its endpoint (the root span name) in a sliding window of
+ * per-second counts. At the start of each adjustment epoch the budget is split between the
+ * endpoints observed in the window: endpoints below their fair share keep all their traces and
+ * the unused share goes to the busier ones, whose probability becomes
+ * {@code share / observed rate}. Quiet endpoints are therefore fully visible while a hot
+ * endpoint cannot use up the whole budget.
+ * <p>
+ * Probabilities only change at epoch boundaries and decisions hash the trace ID, so a trace ID
+ * always gets the same decision within an epoch. With head sampling, child spans follow the
+ * root span's decision regardless of the epoch; without it, {@link SamplingTraceRepository}
+ * remembers kept and dropped trace IDs so each trace is decided once.
+ */
+public class AdaptiveTraceSampler extends TraceSampler {
+
+    static final String OTHER_ENDPOINT = "(other)";
+    static final String UNKNOWN_ENDPOINT = "(unknown)";
+
+    private final double tracesPerSecond;
+    private final int windowSeconds;
+    private final long adjustIntervalMillis;
+    private final int maxEndpoints;
+    private final LongSupplier clock;
+
+    private final Map<String, Endpoint> endpoints = new ConcurrentHashMap<>();
+    private final AtomicLong nextAdjustMillis;
+    private volatile Epoch epoch;
+
+    /**
+     * @param tracesPerSecond budget of kept traces per second across all endpoints
+     * @param window          sliding window over which incoming rates are measured
+     * @param adjustInterval  length of an epoch, during which probabilities are fixed
+     * @param maxEndpoints    endpoints tracked separately; further endpoints share {@value #OTHER_ENDPOINT}
+     */
+    public AdaptiveTraceSampler(double tracesPerSecond, Duration window, Duration adjustInterval, int maxEndpoints) {
+        this(tracesPerSecond, window, adjustInterval, maxEndpoints, System::currentTimeMillis);
+    }
+
+    AdaptiveTraceSampler(double tracesPerSecond, Duration window, Duration adjustInterval, int maxEndpoints,
+                         LongSupplier clock) {
+        super(1.0);
+        if (tracesPerSecond <= 0) {
+            throw new IllegalArgumentException("tracesPerSecond must be positive, got: " + tracesPerSecond);
+        }
+        this.tracesPerSecond = tracesPerSecond;
+        this.windowSeconds = (int) Math.max(1, window.toSeconds());
+        this.adjustIntervalMillis = Math.max(1, adjustInterval.toMillis());
+        this.maxEndpoints = Math.max(1, maxEndpoints);
+        this.clock = clock;
+        long now = clock.getAsLong();
+        this.epoch = new Epoch(0, now, 1.0, 0.0);
+        this.nextAdjustMillis = new AtomicLong(now + adjustIntervalMillis);
+    }
+
+    /**
+     * Samples a trace without endpoint information at the probability of {@value #UNKNOWN_ENDPOINT}.
+     */
+    @Override
+    public boolean shouldSample(String traceId) {
+        return shouldSample(traceId, null);
+    }
+
+    @Override
+    public boolean shouldSample(String traceId, String endpoint) {
+        long now = clock.getAsLong();
+        maybeAdjust(now);
+        Endpoint state = endpoint(endpoint != null ? endpoint : UNKNOWN_ENDPOINT);
+        state.record(now / 1000);
+        return isSampled(traceId, state.probability);
+    }
+
+    @Override
+    public boolean shouldSample() {
+        return shouldSample(null, null);
+    }
+
+    /**
+     * Returns the share of all incoming traces kept with the current probabilities.
+     */
+    @Override
+    public double getSampleRate() {
+        return epoch.effectiveRate;
+    }
+
+    public double getTracesPerSecond() {
+        return tracesPerSecond;
+    }
+
+    private Endpoint endpoint(String name) {
+        Endpoint state = endpoints.get(name);
+        if (state != null) {
+            return state;
+        }
+        String key = endpoints.size() < maxEndpoints ? name : OTHER_ENDPOINT;
+        // New endpoints start at the overall rate until the next epoch measures them
+        return endpoints.computeIfAbsent(key, k -> new Endpoint(windowSeconds, epoch.effectiveRate));
+    }
+
+    private void maybeAdjust(long now) {
+        long next = nextAdjustMillis.get();
+        if (now < next || !nextAdjustMillis.compareAndSet(next, now + adjustIntervalMillis)) {
+            return;
+        }
+        adjust(now);
+    }
+
+    /**
+     * Starts a new epoch: measures every endpoint over the window and redistributes the budget.
+     */
+    void adjust(long now) {
+        long nowSecond = now / 1000;
+        List<Map.Entry<String, Endpoint>> measured = new ArrayList<>();
+        double incoming = 0;
+        for (Map.Entry<String, Endpoint> entry : endpoints.entrySet()) {
+            Endpoint state = entry.getValue();
+            state.rate = state.window.sum(nowSecond, windowSeconds) / (double) windowSeconds;
+            if (state.rate == 0 && state.window.sum(nowSecond + 1, windowSeconds) == 0) {
+                endpoints.remove(entry.getKey(), state);
+            } else if (state.rate > 0) {
+                measured.add(entry);
+                incoming += state.rate;
+            }
+        }
+
+        // Water-filling: serve the quietest endpoints first, each up to an equal share of what is left
+        measured.sort(Comparator.comparingDouble(entry -> entry.getValue().rate));
+        double remaining = tracesPerSecond;
+        double kept = 0;
+        for (int i = 0; i < measured.size(); i++) {
+            Endpoint state = measured.get(i).getValue();
+            double share = remaining / (measured.size() - i);
+            double probability = state.rate <= share ? 1.0 : share / state.rate;
+            state.probability = probability;
+            remaining -= Math.min(state.rate, share);
+            kept += state.rate * probability;
+        }
+        double effectiveRate = incoming > 0 ? Math.min(1.0, kept / incoming) : 1.0;
+        epoch = new Epoch(epoch.number + 1, now, effectiveRate, incoming);
+    }
+
+    /**
+     * Returns the current probabilities, busiest endpoint first.
+     */
+    public Snapshot snapshot() {
+        Epoch current = epoch;
+        List<EndpointRate> rates = new ArrayList<>(endpoints.size());
+        endpoints.forEach((name, state) -> rates.add(new EndpointRate(name, state.rate, state.probability)));
+        rates.sort(Comparator.comparingDouble(EndpointRate::observedPerSecond).reversed()
+                .thenComparing(EndpointRate::endpoint));
+        return new Snapshot(tracesPerSecond, current.number, Instant.ofEpochMilli(current.startMillis),
+                current.incomingPerSecond, current.effectiveRate, rates);
+    }
+
+    @Override
+    public String toString() {
+        return "AdaptiveTraceSampler{tracesPerSecond=" + tracesPerSecond + "}";
+    }
+
+    /**
+     * Sampling state at the start of the current epoch.
+     *
+     * @param tracesPerSecond   configured budget
+     * @param epoch             number of adjustments so far
+     * @param epochStart        when the current probabilities were computed
+     * @param incomingPerSecond traces per second observed over the window
+     * @param effectiveRate     share of incoming traces kept
+     * @param endpoints         per-endpoint rates and probabilities
+     */
+    public record Snapshot(
+            double tracesPerSecond,
+            long epoch,
+            Instant epochStart,
+            double incomingPerSecond,
+            double effectiveRate,
+            List<EndpointRate> endpoints
+    ) {
+        public Snapshot {
+            endpoints = List.copyOf(endpoints);
+        }
+    }
+
+    /**
+     * Observed rate and current probability of one endpoint.
+     */
+    public record EndpointRate(String endpoint, double observedPerSecond, double probability) {
+    }
+
+    private record Epoch(long number, long startMillis, double effectiveRate, double incomingPerSecond) {
+    }
+
+    private static final class Endpoint {
+        private final SecondCounts window;
+        private volatile double probability;
+        private volatile double rate;
+
+        Endpoint(int windowSeconds, double probability) {
+            // One extra slot so the second being filled does not overwrite the oldest measured one
+            this.window = new SecondCounts(windowSeconds + 1);
+            this.probability = probability;
+        }
+
+        void record(long epochSecond) {
+            window.increment(epochSecond);
+        }
+    }
+
+    /**
+     * Per-second counts over a fixed number of seconds. Each slot remembers the second it counts,
+     * so stale slots are reset lazily on write and ignored on read.
+     */
+    private static final class SecondCounts {
+        private final AtomicLongArray seconds;
+        private final AtomicLongArray counts;
+
+        SecondCounts(int size) {
+            this.seconds = new AtomicLongArray(size);
+            this.counts = new AtomicLongArray(size);
+        }
+
+        void increment(long epochSecond) {
+            int slot = (int) Math.floorMod(epochSecond, (long) seconds.length());
+            long stamp = seconds.get(slot);
+            if (stamp != epochSecond) {
+                if (stamp < epochSecond && seconds.compareAndSet(slot, stamp, epochSecond)) {
+                    counts.set(slot, 0);
+                } else if (seconds.get(slot) != epochSecond) {
+                    return;
+                }
+            }
+            counts.incrementAndGet(slot);
+        }
+
+        /**
+         * Sums the {@code windowSeconds} completed seconds before {@code nowEpochSecond}.
+         */
+        long sum(long nowEpochSecond, int windowSeconds) {
+            long newest = nowEpochSecond - 1;
+            long oldest = newest - Math.min(windowSeconds, seconds.length()) + 1;
+            long total = 0;
+            for (int slot = 0; slot < seconds.length(); slot++) {
+                long stamp = seconds.get(slot);
+                if (stamp >= oldest && stamp <= newest) {
+                    total += counts.get(slot);
+                }
+            }
+            return total;
+        }
+    }
+}
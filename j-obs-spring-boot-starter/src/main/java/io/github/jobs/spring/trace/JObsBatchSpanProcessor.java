@@ -0,0 +1,364 @@
+package io.github.jobs.spring.trace;
+
+import io.opentelemetry.context.Context;
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.trace.ReadWriteSpan;
+import io.opentelemetry.sdk.trace.ReadableSpan;
+import io.opentelemetry.sdk.trace.SpanProcessor;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Span processor that hands ended spans to a dedicated export thread in batches.
+ * <p>
+ * {@link #onEnd(ReadableSpan)} only publishes the span into a bounded ring; the conversion to
+ * {@link SpanData} and the {@link SpanExporter#export} call happen on the export thread. A batch
+ * is exported once it holds {@code maxBatchSize} spans or {@code flushInterval} after the
+ * previous export, so exporters receive whole batches and can store them in bulk.
+ * <p>
+ * The ring is a multi-producer/single-consumer queue where each slot carries a sequence
+ * number, as in {@code AsyncLogDispatcher}: ending a span costs one CAS and never blocks. When
+ * the ring is full the span is dropped and counted. Spans that are not sampled are ignored.
+ */
+public class JObsBatchSpanProcessor implements SpanProcessor {
+
+    private static final String THREAD_PREFIX = "j-obs-span-export-";
+
+    private final SpanExporter exporter;
+    private final String name;
+    private final int maxBatchSize;
+    private final long flushIntervalNanos;
+    private final long exportTimeoutNanos;
+
+    private final ReadableSpan[] slots;
+    private final AtomicLongArray sequences;
+    private final int mask;
+    private final AtomicLong enqueuePosition = new AtomicLong();
+    private volatile long dequeuePosition;
+
+    private final AtomicBoolean wakeRequested = new AtomicBoolean();
+    private final Queue<CompletableResultCode> flushRequests = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean running = new AtomicBoolean(true);
+    private final Thread worker;
+
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder exported = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder exportCalls = new LongAdder();
+    private final LongAdder exportNanos = new LongAdder();
+    private final CompletableResultCode shutdownResult = new CompletableResultCode();
+
+    /**
+     * Creates a processor and starts its export thread.
+     *
+     * @param name          identifies the processor in its thread name and metrics
+     * @param exporter      receives the batches
+     * @param queueSize     ring size, rounded up to the next power of two
+     * @param maxBatchSize  maximum number of spans per export call
+     * @param flushInterval maximum time a span waits before its batch is exported
+     * @param exportTimeout how long to wait for one export call to complete
+     */
+    public JObsBatchSpanProcessor(String name, SpanExporter exporter, int queueSize, int maxBatchSize,
+                                  Duration flushInterval, Duration exportTimeout) {
+        if (queueSize <= 0) {
+            throw new IllegalArgumentException("queueSize must be positive");
+        }
+        if (maxBatchSize <= 0) {
+            throw new IllegalArgumentException("maxBatchSize must be positive");
+        }
+        this.name = name;
+        this.exporter = exporter;
+        this.flushIntervalNanos = Math.max(1, flushInterval.toNanos());
+        this.exportTimeoutNanos = Math.max(1, exportTimeout.toNanos());
+
+        int size = Integer.highestOneBit(queueSize);
+        if (size < queueSize) {
+            size <<= 1;
+        }
+        this.maxBatchSize = Math.min(maxBatchSize, size);
+        this.mask = size - 1;
+        this.slots = new ReadableSpan[size];
+        this.sequences = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            sequences.set(i, i);
+        }
+
+        this.worker = new Thread(this::runWorker, THREAD_PREFIX + name);
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    @Override
+    public void onStart(Context parentContext, ReadWriteSpan span) {
+        // Nothing to do until the span ends
+    }
+
+    @Override
+    public boolean isStartRequired() {
+        return false;
+    }
+
+    @Override
+    public void onEnd(ReadableSpan span) {
+        if (!span.getSpanContext().isSampled() || !running.get()) {
+            return;
+        }
+        if (!offer(span)) {
+            dropped.increment();
+            return;
+        }
+        if (getQueueSize() >= maxBatchSize && wakeRequested.compareAndSet(false, true)) {
+            LockSupport.unpark(worker);
+        }
+    }
+
+    @Override
+    public boolean isEndRequired() {
+        return true;
+    }
+
+    private boolean offer(ReadableSpan span) {
+        while (true) {
+            long position = enqueuePosition.get();
+            int index = (int) (position & mask);
+            long diff = sequences.get(index) - position;
+            if (diff == 0) {
+                if (enqueuePosition.compareAndSet(position, position + 1)) {
+                    slots[index] = span;
+                    // Publish: the export thread sees the slot once its sequence is position + 1
+                    sequences.set(index, position + 1);
+                    return true;
+                }
+            } else if (diff < 0) {
+                return false;
+            }
+            // diff > 0: another producer claimed this position, retry with a fresh one
+        }
+    }
+
+    /**
+     * Moves published spans into {@code batch} until it holds {@code maxBatchSize} spans or
+     * the ring is empty. Called on the export thread only.
+     */
+    private void drainTo(List<SpanData> batch) {
+        long position = dequeuePosition;
+        while (batch.size() < maxBatchSize) {
+            int index = (int) (position & mask);
+            if (sequences.get(index) != position + 1) {
+                break;
+            }
+            ReadableSpan span = slots[index];
+            slots[index] = null;
+            // Release the slot for the producer one lap ahead
+            sequences.set(index, position + slots.length);
+            position++;
+            try {
+                batch.add(span.toSpanData());
+            } catch (RuntimeException e) {
+                failed.increment();
+            }
+        }
+        dequeuePosition = position;
+    }
+
+    private void runWorker() {
+        try {
+            exportUntilStopped();
+        } finally {
+            // Only now is the exporter idle, so it is safe to close it
+            shutdownExporter();
+        }
+    }
+
+    private void exportUntilStopped() {
+        List<SpanData> batch = new ArrayList<>(maxBatchSize);
+        long deadline = System.nanoTime() + flushIntervalNanos;
+        while (running.get()) {
+            drainTo(batch);
+            long now = System.nanoTime();
+            if (batch.size() >= maxBatchSize || now - deadline >= 0) {
+                export(batch);
+                deadline = now + flushIntervalNanos;
+            }
+            CompletableResultCode flushRequest = flushRequests.poll();
+            if (flushRequest != null) {
+                exportAll(batch);
+                flushRequest.succeed();
+                continue;
+            }
+            wakeRequested.set(false);
+            if (getQueueSize() < maxBatchSize && flushRequests.isEmpty() && running.get()) {
+                LockSupport.parkNanos(this, Math.max(0, deadline - System.nanoTime()));
+            }
+        }
+        exportAll(batch);
+        CompletableResultCode pending;
+        while ((pending = flushRequests.poll()) != null) {
+            pending.succeed();
+        }
+    }
+
+    private void shutdownExporter() {
+        try {
+            CompletableResultCode result = exporter.shutdown();
+            result.whenComplete(() -> {
+                if (result.isSuccess()) {
+                    shutdownResult.succeed();
+                } else {
+                    shutdownResult.fail();
+                }
+            });
+        } catch (RuntimeException e) {
+            shutdownResult.fail();
+        }
+    }
+
+    /**
+     * Exports everything queued so far, then flushes the exporter.
+     */
+    private void exportAll(List<SpanData> batch) {
+        while (true) {
+            drainTo(batch);
+            if (batch.isEmpty()) {
+                break;
+            }
+            export(batch);
+        }
+        exporter.flush().join(exportTimeoutNanos, TimeUnit.NANOSECONDS);
+    }
+
+    private void export(List<SpanData> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            CompletableResultCode result = exporter.export(batch);
+            result.join(exportTimeoutNanos, TimeUnit.NANOSECONDS);
+            if (result.isSuccess()) {
+                exported.add(batch.size());
+            } else {
+                failed.add(batch.size());
+            }
+        } catch (RuntimeException e) {
+            failed.add(batch.size());
+        } finally {
+            exportCalls.increment();
+            exportNanos.add(System.nanoTime() - start);
+            batch.clear();
+        }
+    }
+
+    /**
+     * Exports all queued spans and flushes the exporter. The returned result completes once
+     * the export thread has done so.
+     */
+    @Override
+    public CompletableResultCode forceFlush() {
+        if (!running.get()) {
+            return CompletableResultCode.ofSuccess();
+        }
+        CompletableResultCode result = new CompletableResultCode();
+        flushRequests.add(result);
+        wakeRequested.set(true);
+        LockSupport.unpark(worker);
+        return result;
+    }
+
+    /**
+     * Stops accepting spans, exports the queued ones and shuts the exporter down.
+     * <p>
+     * Waits up to the export timeout for the export thread. The exporter is shut down by that
+     * thread once it has exported the last batch, never while an export is still running, and
+     * the returned result completes when the exporter has shut down.
+     */
+    @Override
+    public CompletableResultCode shutdown() {
+        if (!running.compareAndSet(true, false)) {
+            return shutdownResult;
+        }
+        LockSupport.unpark(worker);
+        try {
+            worker.join(TimeUnit.NANOSECONDS.toMillis(exportTimeoutNanos));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return shutdownResult;
+    }
+
+    /**
+     * Returns the processor name, used to tag metrics.
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Returns the number of spans waiting in the ring.
+     */
+    public int getQueueSize() {
+        long size = enqueuePosition.get() - dequeuePosition;
+        return (int) Math.max(0, Math.min(size, slots.length));
+    }
+
+    /**
+     * Returns the ring capacity (always a power of two).
+     */
+    public int capacity() {
+        return slots.length;
+    }
+
+    /**
+     * Returns the maximum number of spans per export call.
+     */
+    public int getMaxBatchSize() {
+        return maxBatchSize;
+    }
+
+    /**
+     * Returns the number of spans dropped because the ring was full.
+     */
+    public long getDroppedCount() {
+        return dropped.sum();
+    }
+
+    /**
+     * Returns the number of spans the exporter accepted.
+     */
+    public long getExportedCount() {
+        return exported.sum();
+    }
+
+    /**
+     * Returns the number of spans whose export failed or timed out.
+     */
+    public long getFailedCount() {
+        return failed.sum();
+    }
+
+    /**
+     * Returns the number of export calls made.
+     */
+    public long getExportCallCount() {
+        return exportCalls.sum();
+    }
+
+    /**
+     * Returns the total time spent in export calls, in nanoseconds.
+     */
+    public long getExportNanos() {
+        return exportNanos.sum();
+    }
+}
@@ -0,0 +1,55 @@
+package io.github.jobs.spring.trace;
+
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.trace.SpanKind;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.sdk.trace.data.LinkData;
+import io.opentelemetry.sdk.trace.samplers.Sampler;
+import io.opentelemetry.sdk.trace.samplers.SamplingResult;
+
+import java.util.List;
+
+/**
+ * OpenTelemetry {@link Sampler} that takes the sampling decision for new traces when their root
+ * span starts, using {@link TraceSampler#shouldSample(String, String)} with the root span name
+ * as the endpoint.
+ * <p>
+ * The decision is deterministic per trace ID, and {@link #create(TraceSampler)} wraps the sampler
+ * in {@link Sampler#parentBased(Sampler)}, so child spans and spans continuing an upstream trace
+ * follow the parent's sampled flag. Spans of dropped traces are non-recording: attributes,
+ * events and {@code span.end()} are no-ops and nothing reaches the span processors.
+ */
+public final class JObsHeadSampler implements Sampler {
+
+    private static final SamplingResult RECORD_AND_SAMPLE = SamplingResult.recordAndSample();
+    private static final SamplingResult DROP = SamplingResult.drop();
+
+    private final TraceSampler traceSampler;
+
+    private JObsHeadSampler(TraceSampler traceSampler) {
+        this.traceSampler = traceSampler;
+    }
+
+    /**
+     * Returns a parent-based sampler that samples root spans with {@code traceSampler}.
+     */
+    public static Sampler create(TraceSampler traceSampler) {
+        return Sampler.parentBased(new JObsHeadSampler(traceSampler));
+    }
+
+    @Override
+    public SamplingResult shouldSample(Context parentContext, String traceId, String name, SpanKind spanKind,
+                                       Attributes attributes, List<LinkData> parentLinks) {
+        return traceSampler.shouldSample(traceId, name) ? RECORD_AND_SAMPLE : DROP;
+    }
+
+    @Override
+    public String getDescription() {
+        return "JObsHeadSampler{" + traceSampler + "}";
+    }
+
+    @Override
+    public String toString() {
+        return getDescription();
+    }
+}
@@ -11,6 +11,7 @@ import io.opentelemetry.sdk.trace.data.SpanData;
 import io.opentelemetry.sdk.trace.export.SpanExporter;
 
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
@@ -19,6 +20,8 @@ import java.util.stream.Collectors;
 
 /**
  * OpenTelemetry SpanExporter that forwards spans to the J-Obs TraceRepository.
+ * <p>
+ * Each exported batch is converted and handed to {@link TraceRepository#addSpans} at once.
  */
 public class JObsSpanExporter implements SpanExporter {
 
@@ -31,10 +34,11 @@ public class JObsSpanExporter implements SpanExporter {
     @Override
     public CompletableResultCode export(Collection<SpanData> spans) {
         try {
+            List<Span> converted = new ArrayList<>(spans.size());
             for (SpanData spanData : spans) {
-                Span span = convertSpan(spanData);
-                traceRepository.addSpan(span);
+                converted.add(convertSpan(spanData));
             }
+            traceRepository.addSpans(converted);
             return CompletableResultCode.ofSuccess();
         } catch (Exception e) {
             return CompletableResultCode.ofFailure();
@@ -0,0 +1,220 @@
+package io.github.jobs.spring.trace;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.LongSupplier;
+
+/**
+ * Approximate set of strings with bounded memory, made of two fixed-size bloom filters.
+ * <p>
+ * Keys are added to the current filter and looked up in both. The current filter becomes the
+ * previous one after {@code expectedInsertions} additions or {@code rotationInterval},
+ * whichever comes first, and the old previous filter is discarded. A key is therefore
+ * remembered for at least one generation, and old keys age out one generation at a time instead
+ * of all at once.
+ * <p>
+ * {@link #mightContain} never returns false for a key added during the current or previous
+ * generation. It returns true for a key that was never added with a probability of at most
+ * {@code falsePositiveRate}: each filter is sized for half of it. Bits are set with CAS on an
+ * {@link AtomicLongArray}, so both operations are lock-free.
+ */
+public final class RotatingBloomFilter {
+
+    private static final double LN2 = Math.log(2);
+
+    private final int expectedInsertions;
+    private final double falsePositiveRate;
+    private final long rotationNanos;
+    private final int bitCount;
+    private final int hashCount;
+    private final LongSupplier nanoClock;
+    private final AtomicReference<Generations> generations;
+
+    /**
+     * @param expectedInsertions keys added per generation before rotating
+     * @param falsePositiveRate  upper bound of the false-positive probability, in (0, 1)
+     * @param rotationInterval   maximum age of a generation
+     */
+    public RotatingBloomFilter(int expectedInsertions, double falsePositiveRate, Duration rotationInterval) {
+        this(expectedInsertions, falsePositiveRate, rotationInterval, System::nanoTime);
+    }
+
+    RotatingBloomFilter(int expectedInsertions, double falsePositiveRate, Duration rotationInterval,
+                        LongSupplier nanoClock) {
+        if (expectedInsertions <= 0) {
+            throw new IllegalArgumentException("expectedInsertions must be positive, got: " + expectedInsertions);
+        }
+        if (falsePositiveRate <= 0.0 || falsePositiveRate >= 1.0) {
+            throw new IllegalArgumentException("falsePositiveRate must be in (0, 1), got: " + falsePositiveRate);
+        }
+        this.expectedInsertions = expectedInsertions;
+        this.falsePositiveRate = falsePositiveRate;
+        this.rotationNanos = rotationInterval.toNanos();
+        // A lookup checks both filters, so each one gets half of the false-positive budget
+        long bits = (long) Math.ceil(-expectedInsertions * Math.log(falsePositiveRate / 2) / (LN2 * LN2));
+        this.bitCount = (int) Math.min(Integer.MAX_VALUE - 63L, Math.max(64, bits));
+        this.hashCount = (int) Math.max(1, Math.round((double) bitCount / expectedInsertions * LN2));
+        this.nanoClock = nanoClock;
+        Filter empty = new Filter(bitCount, nanoClock.getAsLong());
+        this.generations = new AtomicReference<>(new Generations(empty, new Filter(bitCount, empty.createdNanos)));
+    }
+
+    /**
+     * Adds a key to the current generation. Adding a key of the previous generation again keeps
+     * it for one more generation.
+     *
+     * @return false if the key was possibly present already
+     */
+    public boolean put(String key) {
+        long hash1 = hash(key, 0x9E3779B97F4A7C15L);
+        long hash2 = hash(key, 0xC2B2AE3D27D4EB4FL) | 1;
+        Generations current = rotateIfNeeded();
+        boolean added = current.current.add(hash1, hash2, hashCount);
+        return added && !current.previous.contains(hash1, hash2, hashCount);
+    }
+
+    /**
+     * Returns true if the key was possibly added during the current or previous generation.
+     */
+    public boolean mightContain(String key) {
+        long hash1 = hash(key, 0x9E3779B97F4A7C15L);
+        long hash2 = hash(key, 0xC2B2AE3D27D4EB4FL) | 1;
+        Generations current = rotateIfNeeded();
+        return current.current.contains(hash1, hash2, hashCount)
+                || current.previous.contains(hash1, hash2, hashCount);
+    }
+
+    private Generations rotateIfNeeded() {
+        Generations current = generations.get();
+        Filter filter = current.current;
+        if (filter.insertions.get() < expectedInsertions
+                && nanoClock.getAsLong() - filter.createdNanos < rotationNanos) {
+            return current;
+        }
+        Generations rotated = new Generations(new Filter(bitCount, nanoClock.getAsLong()), filter);
+        // Losing the race is fine: another thread rotated the same generation
+        return generations.compareAndSet(current, rotated) ? rotated : generations.get();
+    }
+
+    /**
+     * Forgets all keys.
+     */
+    public void clear() {
+        Filter empty = new Filter(bitCount, nanoClock.getAsLong());
+        generations.set(new Generations(empty, new Filter(bitCount, empty.createdNanos)));
+    }
+
+    public int getExpectedInsertions() {
+        return expectedInsertions;
+    }
+
+    public double getFalsePositiveRate() {
+        return falsePositiveRate;
+    }
+
+    public Duration getRotationInterval() {
+        return Duration.ofNanos(rotationNanos);
+    }
+
+    public int getHashCount() {
+        return hashCount;
+    }
+
+    /**
+     * Returns the memory used by the bit arrays of both generations.
+     */
+    public long getMemoryBytes() {
+        return 2L * Filter.words(bitCount) * Long.BYTES;
+    }
+
+    /**
+     * Returns the keys added to the current generation so far.
+     */
+    public int getCurrentInsertions() {
+        return generations.get().current.insertions.get();
+    }
+
+    @Override
+    public String toString() {
+        return "RotatingBloomFilter{expectedInsertions=" + expectedInsertions
+                + ", falsePositiveRate=" + falsePositiveRate + ", hashCount=" + hashCount
+                + ", memoryBytes=" + getMemoryBytes() + "}";
+    }
+
+    /**
+     * 64-bit hash of the characters of a key, finished with the MurmurHash3 mixer so that two
+     * seeds give independent-looking values for double hashing.
+     */
+    private static long hash(String key, long seed) {
+        long h = seed;
+        for (int i = 0; i < key.length(); i++) {
+            h = (h ^ key.charAt(i)) * 0x100000001B3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB9FE1A85EC53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    private record Generations(Filter current, Filter previous) {
+    }
+
+    private static final class Filter {
+        private final AtomicLongArray words;
+        private final long bitCount;
+        private final long createdNanos;
+        private final AtomicInteger insertions = new AtomicInteger();
+
+        Filter(int bitCount, long createdNanos) {
+            this.words = new AtomicLongArray(words(bitCount));
+            this.bitCount = bitCount;
+            this.createdNanos = createdNanos;
+        }
+
+        static int words(int bitCount) {
+            return (bitCount + 63) >>> 6;
+        }
+
+        /**
+         * Sets the bits of a key and returns true if at least one of them was clear.
+         */
+        boolean add(long hash1, long hash2, int hashCount) {
+            boolean changed = false;
+            long combined = hash1;
+            for (int i = 0; i < hashCount; i++) {
+                long bit = Math.floorMod(combined, bitCount);
+                int index = (int) (bit >>> 6);
+                long mask = 1L << bit;
+                long word = words.get(index);
+                while ((word & mask) == 0) {
+                    if (words.compareAndSet(index, word, word | mask)) {
+                        changed = true;
+                        break;
+                    }
+                    word = words.get(index);
+                }
+                combined += hash2;
+            }
+            if (changed) {
+                insertions.incrementAndGet();
+            }
+            return changed;
+        }
+
+        boolean contains(long hash1, long hash2, int hashCount) {
+            long combined = hash1;
+            for (int i = 0; i < hashCount; i++) {
+                long bit = Math.floorMod(combined, bitCount);
+                if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                    return false;
+                }
+                combined += hash2;
+            }
+            return true;
+        }
+    }
+}
@@ -6,10 +6,13 @@ import io.github.jobs.domain.trace.Trace;
 import io.github.jobs.domain.trace.TraceQuery;
 
 import java.io.Closeable;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
-import java.util.Set;
-import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Decorator that applies sampling to a {@link TraceRepository}.
@@ -17,42 +20,102 @@ import java.util.concurrent.ConcurrentHashMap;
  * <p>
  * Once a trace is sampled in, all subsequent spans for that trace are also accepted,
  * ensuring trace completeness. The sampling decision is deterministic per trace ID
- * via {@link TraceSampler#shouldSample(String)}.
+ * via {@link TraceSampler#shouldSample(String, String)}.
  * <p>
- * Thread-safe: uses {@link ConcurrentHashMap}-backed set for sampled trace tracking.
+ * Sampled trace IDs are remembered in a {@link RotatingBloomFilter}: memory is constant and
+ * the oldest trace IDs age out one generation at a time. A false positive keeps a span of a
+ * trace that was sampled out.
+ * <p>
+ * An {@link AdaptiveTraceSampler} counts every decision against an endpoint and changes its
+ * probabilities every epoch, so with it the dropped trace IDs are remembered as well: each trace
+ * is decided and counted once, under the name of its root span when the root is in the same
+ * batch as the first span seen, and later spans follow that decision.
+ * <p>
+ * Thread-safe: membership tests and additions are lock-free.
  */
 public class SamplingTraceRepository implements TraceRepository, Closeable {
 
-    private static final int MAX_TRACKED_TRACE_IDS = 100_000;
+    private static final int DEFAULT_TRACKED_TRACE_IDS = 100_000;
+    private static final double DEFAULT_FALSE_POSITIVE_RATE = 0.001;
+    private static final Duration DEFAULT_ROTATION_INTERVAL = Duration.ofMinutes(5);
 
     private final TraceRepository delegate;
     private final TraceSampler sampler;
-    private final Set<String> sampledTraceIds = ConcurrentHashMap.newKeySet();
+    private final RotatingBloomFilter sampledTraceIds;
+    private final RotatingBloomFilter droppedTraceIds;
 
     public SamplingTraceRepository(TraceRepository delegate, TraceSampler sampler) {
+        this(delegate, sampler, new RotatingBloomFilter(DEFAULT_TRACKED_TRACE_IDS, DEFAULT_FALSE_POSITIVE_RATE,
+                DEFAULT_ROTATION_INTERVAL));
+    }
+
+    /**
+     * @param sampledTraceIds remembers the sampled trace IDs so later spans of a trace are kept
+     */
+    public SamplingTraceRepository(TraceRepository delegate, TraceSampler sampler,
+                                   RotatingBloomFilter sampledTraceIds) {
         this.delegate = delegate;
         this.sampler = sampler;
+        this.sampledTraceIds = sampledTraceIds;
+        this.droppedTraceIds = sampler instanceof AdaptiveTraceSampler
+                ? new RotatingBloomFilter(sampledTraceIds.getExpectedInsertions(),
+                        sampledTraceIds.getFalsePositiveRate(), sampledTraceIds.getRotationInterval())
+                : null;
     }
 
     @Override
     public void addSpan(Span span) {
-        String traceId = span.traceId();
+        if (isSampled(span.traceId(), span.isRoot() ? span.name() : null)) {
+            delegate.addSpan(span);
+        }
+        // Else: silently drop
+    }
+
+    /**
+     * Passes the sampled spans of the batch to the delegate as one batch.
+     */
+    @Override
+    public void addSpans(Collection<Span> spans) {
+        Map<String, String> rootNames = droppedTraceIds != null ? rootNames(spans) : Map.of();
+        List<Span> sampled = new ArrayList<>(spans.size());
+        for (Span span : spans) {
+            if (isSampled(span.traceId(), rootNames.get(span.traceId()))) {
+                sampled.add(span);
+            }
+        }
+        if (!sampled.isEmpty()) {
+            delegate.addSpans(sampled);
+        }
+    }
 
+    private static Map<String, String> rootNames(Collection<Span> spans) {
+        Map<String, String> rootNames = new HashMap<>();
+        for (Span span : spans) {
+            if (span.isRoot()) {
+                rootNames.put(span.traceId(), span.name());
+            }
+        }
+        return rootNames;
+    }
+
+    private boolean isSampled(String traceId, String rootName) {
         // If we already sampled this trace in, accept the span
-        if (sampledTraceIds.contains(traceId)) {
-            delegate.addSpan(span);
-            return;
+        if (sampledTraceIds.mightContain(traceId)) {
+            return true;
+        }
+        if (droppedTraceIds != null && droppedTraceIds.mightContain(traceId)) {
+            return false;
         }
 
         // New trace - make sampling decision
-        if (sampler.shouldSample(traceId)) {
-            if (sampledTraceIds.size() >= MAX_TRACKED_TRACE_IDS) {
-                sampledTraceIds.clear();
-            }
-            sampledTraceIds.add(traceId);
-            delegate.addSpan(span);
+        if (sampler.shouldSample(traceId, rootName)) {
+            sampledTraceIds.put(traceId);
+            return true;
         }
-        // Else: silently drop
+        if (droppedTraceIds != null) {
+            droppedTraceIds.put(traceId);
+        }
+        return false;
     }
 
     @Override
@@ -78,6 +141,9 @@ public class SamplingTraceRepository implements TraceRepository, Closeable {
     @Override
     public void clear() {
         sampledTraceIds.clear();
+        if (droppedTraceIds != null) {
+            droppedTraceIds.clear();
+        }
         delegate.clear();
     }
 
@@ -89,6 +155,9 @@ public class SamplingTraceRepository implements TraceRepository, Closeable {
     @Override
     public void close() {
         sampledTraceIds.clear();
+        if (droppedTraceIds != null) {
+            droppedTraceIds.clear();
+        }
         if (delegate instanceof Closeable c) {
             try {
                 c.close();
@@ -101,4 +170,8 @@ public class SamplingTraceRepository implements TraceRepository, Closeable {
     public double getSampleRate() {
         return sampler.getSampleRate();
     }
+
+    public RotatingBloomFilter getSampledTraceIds() {
+        return sampledTraceIds;
+    }
 }
@@ -0,0 +1,590 @@
+package io.github.jobs.spring.trace;
+
+import io.github.jobs.application.TraceRepository;
+import io.github.jobs.domain.trace.Span;
+import io.github.jobs.domain.trace.SpanKind;
+import io.github.jobs.domain.trace.Trace;
+import io.github.jobs.domain.trace.TraceQuery;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Decorator that decides whether to keep a trace once it is complete, instead of when it starts.
+ * <p>
+ * Spans are buffered per trace until the local root span has ended and no span has arrived for
+ * {@code quietPeriod}, or until {@code maxTraceWait} has passed since the first span. The whole
+ * trace is then checked against the policies, in order:
+ * <ol>
+ *   <li>{@link Decision#KEPT_ERROR} - any span has an error status</li>
+ *   <li>{@link Decision#KEPT_LATENCY} - the trace lasted at least {@code latencyThreshold}</li>
+ *   <li>{@link Decision#KEPT_RATE_LIMIT} - its endpoint (root span name) is still under
+ *       {@code endpointRateLimit} kept traces per second</li>
+ *   <li>{@link Decision#KEPT_PROBABILISTIC} - deterministic per trace ID with {@code probability}</li>
+ * </ol>
+ * Kept traces are passed to the delegate in one {@link TraceRepository#addSpans(Collection)}
+ * call; the others are discarded. Until their decision, traces are not visible to queries.
+ * <p>
+ * The buffer holds at most {@code maxBufferedSpans} spans. Beyond that, the oldest pending
+ * traces are decided early with the spans they have, so errors still win over the other
+ * policies. Spans arriving after their trace was decided are handled by the
+ * {@link LateSpanPolicy}; the last {@value #MAX_REMEMBERED_DECISIONS} decisions are remembered.
+ */
+public class TailSamplingTraceRepository implements TraceRepository, Closeable {
+
+    private static final Logger log = LoggerFactory.getLogger(TailSamplingTraceRepository.class);
+
+    static final int MAX_REMEMBERED_DECISIONS = 100_000;
+    private static final int MAX_ENDPOINTS = 1000;
+    private static final String OTHER_ENDPOINT = "(other)";
+
+    /**
+     * Outcome of the policies for one trace.
+     */
+    public enum Decision {
+        KEPT_ERROR("error"),
+        KEPT_LATENCY("latency"),
+        KEPT_RATE_LIMIT("rate_limit"),
+        KEPT_PROBABILISTIC("probabilistic"),
+        DROPPED("dropped");
+
+        private final String tag;
+
+        Decision(String tag) {
+            this.tag = tag;
+        }
+
+        public boolean isKept() {
+            return this != DROPPED;
+        }
+
+        /**
+         * Returns the value used for the {@code decision} metric tag.
+         */
+        public String tag() {
+            return tag;
+        }
+    }
+
+    /**
+     * What to do with spans that arrive after their trace was decided.
+     */
+    public enum LateSpanPolicy {
+        /** Store the span if its trace was kept, discard it otherwise. */
+        FOLLOW_DECISION,
+        /** Always store the span. */
+        KEEP,
+        /** Always discard the span. */
+        DROP
+    }
+
+    /**
+     * Tail sampling settings.
+     *
+     * @param quietPeriod       time without new spans after the root span ended before deciding
+     * @param maxTraceWait      longest time a trace is buffered, root span or not
+     * @param maxBufferedSpans  spans buffered across all pending traces
+     * @param latencyThreshold  traces lasting at least this long are kept; {@code null} disables
+     * @param keepErrors        whether traces with an error span are always kept
+     * @param endpointRateLimit traces kept per second and endpoint before falling back to
+     *                          {@code probability}; 0 disables
+     * @param probability       share of the remaining traces kept, 0.0 to 1.0
+     * @param lateSpanPolicy    handling of spans arriving after their trace was decided
+     */
+    public record Config(
+            Duration quietPeriod,
+            Duration maxTraceWait,
+            int maxBufferedSpans,
+            Duration latencyThreshold,
+            boolean keepErrors,
+            double endpointRateLimit,
+            double probability,
+            LateSpanPolicy lateSpanPolicy
+    ) {
+        public Config {
+            Objects.requireNonNull(quietPeriod, "quietPeriod cannot be null");
+            Objects.requireNonNull(maxTraceWait, "maxTraceWait cannot be null");
+            if (maxBufferedSpans <= 0) {
+                throw new IllegalArgumentException("maxBufferedSpans must be positive");
+            }
+            lateSpanPolicy = lateSpanPolicy != null ? lateSpanPolicy : LateSpanPolicy.FOLLOW_DECISION;
+        }
+    }
+
+    private final TraceRepository delegate;
+    private final Config config;
+    private final LongSupplier nanoClock;
+    private final TraceSampler remainder;
+    private final long quietNanos;
+    private final long maxWaitNanos;
+    private final long latencyThresholdMs;
+
+    private final Map<String, PendingTrace> pending = new ConcurrentHashMap<>();
+    private final AtomicInteger bufferedSpans = new AtomicInteger();
+    private final Map<String, Decision> decisions = new LinkedHashMap<>(1024, 0.75f, false) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Decision> eldest) {
+            return size() > MAX_REMEMBERED_DECISIONS;
+        }
+    };
+    private final Map<String, EndpointBudget> endpointBudgets = new ConcurrentHashMap<>();
+    private final Object evictionLock = new Object();
+    private final ScheduledExecutorService decider;
+
+    private final Map<Decision, LongAdder> decisionCounts = new EnumMap<>(Decision.class);
+    private final LongAdder decisionNanos = new LongAdder();
+    private final LongAdder evictedTraces = new LongAdder();
+    private final LongAdder lateSpansKept = new LongAdder();
+    private final LongAdder lateSpansDropped = new LongAdder();
+
+    public TailSamplingTraceRepository(TraceRepository delegate, Config config) {
+        this(delegate, config, System::nanoTime, true);
+    }
+
+    TailSamplingTraceRepository(TraceRepository delegate, Config config, LongSupplier nanoClock,
+                                boolean scheduleDecisions) {
+        this.delegate = delegate;
+        this.config = config;
+        this.nanoClock = nanoClock;
+        this.remainder = new TraceSampler(Math.max(0.0, Math.min(1.0, config.probability())));
+        this.quietNanos = config.quietPeriod().toNanos();
+        this.maxWaitNanos = config.maxTraceWait().toNanos();
+        this.latencyThresholdMs = config.latencyThreshold() != null ? config.latencyThreshold().toMillis() : -1;
+        for (Decision decision : Decision.values()) {
+            decisionCounts.put(decision, new LongAdder());
+        }
+        if (scheduleDecisions) {
+            this.decider = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread t = new Thread(r, "j-obs-tail-sampler");
+                t.setDaemon(true);
+                return t;
+            });
+            long tickMillis = Math.max(10, Math.min(1000, config.quietPeriod().toMillis() / 4));
+            decider.scheduleWithFixedDelay(this::decideSafely, tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+        } else {
+            this.decider = null;
+        }
+    }
+
+    @Override
+    public void addSpan(Span span) {
+        List<Span> late = new ArrayList<>(1);
+        buffer(span, late);
+        if (!late.isEmpty()) {
+            delegate.addSpans(late);
+        }
+        relieveMemoryPressure();
+    }
+
+    @Override
+    public void addSpans(Collection<Span> spans) {
+        List<Span> late = new ArrayList<>();
+        for (Span span : spans) {
+            buffer(span, late);
+        }
+        if (!late.isEmpty()) {
+            delegate.addSpans(late);
+        }
+        relieveMemoryPressure();
+    }
+
+    private void buffer(Span span, List<Span> late) {
+        long now = nanoClock.getAsLong();
+        while (true) {
+            Decision decided = decisionFor(span.traceId());
+            if (decided != null) {
+                handleLateSpan(span, decided, late);
+                return;
+            }
+            PendingTrace trace = pending.computeIfAbsent(span.traceId(), id -> new PendingTrace(now));
+            synchronized (trace) {
+                if (trace.decided) {
+                    // Decided between the lookup and the lock; its decision is now remembered
+                    continue;
+                }
+                trace.add(span, now);
+            }
+            bufferedSpans.incrementAndGet();
+            return;
+        }
+    }
+
+    private void handleLateSpan(Span span, Decision decision, List<Span> late) {
+        boolean keep = switch (config.lateSpanPolicy()) {
+            case FOLLOW_DECISION -> decision.isKept();
+            case KEEP -> true;
+            case DROP -> false;
+        };
+        if (keep) {
+            lateSpansKept.increment();
+            late.add(span);
+        } else {
+            lateSpansDropped.increment();
+        }
+    }
+
+    private Decision decisionFor(String traceId) {
+        synchronized (decisions) {
+            return decisions.get(traceId);
+        }
+    }
+
+    /**
+     * Decides every pending trace that is complete or has waited {@code maxTraceWait}.
+     * Called periodically by the decision thread.
+     */
+    void decideReadyTraces() {
+        long now = nanoClock.getAsLong();
+        for (Map.Entry<String, PendingTrace> entry : pending.entrySet()) {
+            PendingTrace trace = entry.getValue();
+            if (trace.isReady(now, quietNanos, maxWaitNanos)) {
+                decide(entry.getKey(), trace, now);
+            }
+        }
+    }
+
+    private void decideSafely() {
+        try {
+            decideReadyTraces();
+        } catch (Exception e) {
+            log.warn("Tail sampling decision failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Decides the oldest pending traces early while the buffer holds more than
+     * {@code maxBufferedSpans} spans, until it is back under 90% of that limit.
+     * <p>
+     * Only the oldest traces holding the excess spans are selected, with a heap bounded by their
+     * number, so the cost does not grow with a full sort of every pending trace.
+     */
+    private void relieveMemoryPressure() {
+        if (bufferedSpans.get() <= config.maxBufferedSpans()) {
+            return;
+        }
+        synchronized (evictionLock) {
+            int target = (int) (config.maxBufferedSpans() * 0.9);
+            if (bufferedSpans.get() <= target) {
+                return;
+            }
+            long now = nanoClock.getAsLong();
+            for (EvictionCandidate candidate : oldestHolding(bufferedSpans.get() - target)) {
+                if (bufferedSpans.get() <= target) {
+                    break;
+                }
+                if (decide(candidate.traceId(), candidate.trace(), now)) {
+                    evictedTraces.increment();
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the oldest pending traces that together hold at least {@code spans} spans, oldest
+     * first. The heap keeps the youngest selected trace on top and drops it as soon as the older
+     * ones cover the excess without it.
+     */
+    private List<EvictionCandidate> oldestHolding(int spans) {
+        PriorityQueue<EvictionCandidate> selected = new PriorityQueue<>(
+                Comparator.comparingLong(EvictionCandidate::firstSeenNanos).reversed());
+        long covered = 0;
+        for (Map.Entry<String, PendingTrace> entry : pending.entrySet()) {
+            PendingTrace trace = entry.getValue();
+            EvictionCandidate youngest = selected.peek();
+            if (youngest != null && covered - youngest.spanCount() >= spans
+                    && trace.firstSeenNanos >= youngest.firstSeenNanos()) {
+                continue;
+            }
+            EvictionCandidate candidate = new EvictionCandidate(entry.getKey(), trace, trace.firstSeenNanos,
+                    trace.spanCount);
+            selected.add(candidate);
+            covered += candidate.spanCount();
+            while (covered - selected.peek().spanCount() >= spans) {
+                covered -= selected.poll().spanCount();
+            }
+        }
+        List<EvictionCandidate> oldest = new ArrayList<>(selected.size());
+        while (!selected.isEmpty()) {
+            oldest.add(selected.poll());
+        }
+        Collections.reverse(oldest);
+        return oldest;
+    }
+
+    private record EvictionCandidate(String traceId, PendingTrace trace, long firstSeenNanos, int spanCount) {
+    }
+
+    /**
+     * Applies the policies to one trace and forwards it when kept. Returns false when another
+     * thread decided the trace first.
+     */
+    private boolean decide(String traceId, PendingTrace trace, long now) {
+        List<Span> spans;
+        synchronized (trace) {
+            if (trace.decided) {
+                return false;
+            }
+            spans = trace.spans;
+            Decision decision = evaluate(traceId, spans);
+            // Remember the decision before marking the trace, so concurrent spans find it
+            synchronized (decisions) {
+                decisions.put(traceId, decision);
+            }
+            trace.decided = true;
+            trace.decision = decision;
+        }
+        pending.remove(traceId, trace);
+        bufferedSpans.addAndGet(-spans.size());
+        decisionCounts.get(trace.decision).increment();
+        decisionNanos.add(Math.max(0, now - trace.firstSeenNanos));
+        if (trace.decision.isKept()) {
+            delegate.addSpans(spans);
+        }
+        return true;
+    }
+
+    private Decision evaluate(String traceId, List<Span> spans) {
+        Trace trace = Trace.of(traceId, spans);
+        if (config.keepErrors() && trace.hasError()) {
+            return Decision.KEPT_ERROR;
+        }
+        if (latencyThresholdMs >= 0 && trace.durationMs() >= latencyThresholdMs) {
+            return Decision.KEPT_LATENCY;
+        }
+        if (config.endpointRateLimit() > 0 && budgetFor(endpointOf(spans)).tryAcquire(nanoClock.getAsLong())) {
+            return Decision.KEPT_RATE_LIMIT;
+        }
+        if (remainder.shouldSample(traceId)) {
+            return Decision.KEPT_PROBABILISTIC;
+        }
+        return Decision.DROPPED;
+    }
+
+    private static String endpointOf(List<Span> spans) {
+        Span root = null;
+        for (Span span : spans) {
+            if (root == null || span.startTime().isBefore(root.startTime())) {
+                root = span;
+            }
+        }
+        return root != null && root.name() != null ? root.name() : OTHER_ENDPOINT;
+    }
+
+    private EndpointBudget budgetFor(String endpoint) {
+        EndpointBudget budget = endpointBudgets.get(endpoint);
+        if (budget != null) {
+            return budget;
+        }
+        String key = endpointBudgets.size() < MAX_ENDPOINTS ? endpoint : OTHER_ENDPOINT;
+        return endpointBudgets.computeIfAbsent(key, k -> new EndpointBudget(config.endpointRateLimit()));
+    }
+
+    @Override
+    public Optional<Trace> findByTraceId(String traceId) {
+        return delegate.findByTraceId(traceId);
+    }
+
+    @Override
+    public List<Trace> query(TraceQuery query) {
+        return delegate.query(query);
+    }
+
+    @Override
+    public long count() {
+        return delegate.count();
+    }
+
+    @Override
+    public long count(TraceQuery query) {
+        return delegate.count(query);
+    }
+
+    @Override
+    public void clear() {
+        pending.clear();
+        bufferedSpans.set(0);
+        synchronized (decisions) {
+            decisions.clear();
+        }
+        delegate.clear();
+    }
+
+    @Override
+    public TraceStats stats() {
+        return delegate.stats();
+    }
+
+    /**
+     * Stops the decision thread and decides all pending traces with the spans they have.
+     */
+    @Override
+    public void close() {
+        if (decider != null) {
+            decider.shutdown();
+            try {
+                decider.awaitTermination(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        long now = nanoClock.getAsLong();
+        pending.forEach((traceId, trace) -> decide(traceId, trace, now));
+        if (delegate instanceof Closeable c) {
+            try {
+                c.close();
+            } catch (Exception e) {
+                // ignore
+            }
+        }
+    }
+
+    public Config getConfig() {
+        return config;
+    }
+
+    /**
+     * Returns the number of traces waiting for a decision.
+     */
+    public int getPendingTraceCount() {
+        return pending.size();
+    }
+
+    /**
+     * Returns the number of spans held by pending traces.
+     */
+    public int getBufferedSpanCount() {
+        return Math.max(0, bufferedSpans.get());
+    }
+
+    /**
+     * Returns the number of traces that received {@code decision}.
+     */
+    public long getDecisionCount(Decision decision) {
+        return decisionCounts.get(decision).sum();
+    }
+
+    /**
+     * Returns the total number of decisions taken.
+     */
+    public long getDecisionCount() {
+        long total = 0;
+        for (LongAdder count : decisionCounts.values()) {
+            total += count.sum();
+        }
+        return total;
+    }
+
+    /**
+     * Returns the summed time between the first span of a trace and its decision, in nanoseconds.
+     */
+    public long getDecisionNanos() {
+        return decisionNanos.sum();
+    }
+
+    /**
+     * Returns the number of traces decided early because the buffer was full.
+     */
+    public long getEvictedTraceCount() {
+        return evictedTraces.sum();
+    }
+
+    /**
+     * Returns the number of spans that arrived after their trace's decision and were stored.
+     */
+    public long getLateSpansKept() {
+        return lateSpansKept.sum();
+    }
+
+    /**
+     * Returns the number of spans that arrived after their trace's decision and were discarded.
+     */
+    public long getLateSpansDropped() {
+        return lateSpansDropped.sum();
+    }
+
+    /**
+     * Spans of one trace waiting for a decision. Guarded by its own monitor.
+     */
+    private static final class PendingTrace {
+        private final long firstSeenNanos;
+        private final List<Span> spans = new ArrayList<>();
+        private final Set<String> spanIds = new HashSet<>();
+        private volatile long lastSpanNanos;
+        private volatile boolean rootEnded;
+        private volatile int spanCount;
+        private boolean decided;
+        private Decision decision;
+
+        PendingTrace(long firstSeenNanos) {
+            this.firstSeenNanos = firstSeenNanos;
+            this.lastSpanNanos = firstSeenNanos;
+        }
+
+        void add(Span span, long now) {
+            spans.add(span);
+            spanCount = spans.size();
+            spanIds.add(span.spanId());
+            lastSpanNanos = now;
+            // Spans end before their parents, so an entry span whose parent has not been seen
+            // is treated as the local root of a trace continued from another service
+            if (span.isRoot() || ((span.kind() == SpanKind.SERVER || span.kind() == SpanKind.CONSUMER)
+                    && !spanIds.contains(span.parentSpanId()))) {
+                rootEnded = true;
+            }
+        }
+
+        boolean isReady(long now, long quietNanos, long maxWaitNanos) {
+            return (rootEnded && now - lastSpanNanos >= quietNanos) || now - firstSeenNanos >= maxWaitNanos;
+        }
+    }
+
+    /**
+     * Token bucket allowing {@code ratePerSecond} kept traces per second, with a burst of one
+     * second's worth.
+     */
+    private static final class EndpointBudget {
+        private final double ratePerSecond;
+        private double tokens;
+        private long lastRefillNanos = Long.MIN_VALUE;
+
+        EndpointBudget(double ratePerSecond) {
+            this.ratePerSecond = ratePerSecond;
+            this.tokens = Math.max(1.0, ratePerSecond);
+        }
+
+        synchronized boolean tryAcquire(long now) {
+            if (lastRefillNanos != Long.MIN_VALUE) {
+                double refill = (now - lastRefillNanos) / 1_000_000_000.0 * ratePerSecond;
+                tokens = Math.min(Math.max(1.0, ratePerSecond), tokens + refill);
+            }
+            lastRefillNanos = now;
+            if (tokens >= 1.0) {
+                tokens -= 1.0;
+                return true;
+            }
+            return false;
+        }
+    }
+}
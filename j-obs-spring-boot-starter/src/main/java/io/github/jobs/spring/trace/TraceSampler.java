@@ -46,15 +46,39 @@ public class TraceSampler {
      * @param traceId the trace identifier; if null, falls back to random sampling
      */
     public boolean shouldSample(String traceId) {
-        if (sampleRate >= 1.0) return true;
-        if (sampleRate <= 0.0) return false;
-        if (traceId == null) return shouldSample();
+        return isSampled(traceId, sampleRate);
+    }
+
+    /**
+     * Returns true if a new trace with the given ID, starting at {@code endpoint} (the name of
+     * its root span), should be sampled. The fixed-rate sampler ignores the endpoint.
+     *
+     * @param traceId  the trace identifier; if null, falls back to random sampling
+     * @param endpoint the root span name, may be null
+     */
+    public boolean shouldSample(String traceId, String endpoint) {
+        return shouldSample(traceId);
+    }
+
+    /**
+     * Hash-based decision for {@code traceId} at {@code rate}: a trace sampled at some rate is
+     * also sampled at every higher rate.
+     */
+    protected static boolean isSampled(String traceId, double rate) {
+        if (rate >= 1.0) return true;
+        if (rate <= 0.0) return false;
+        if (traceId == null) return ThreadLocalRandom.current().nextDouble() < rate;
         // Deterministic: same traceId always sampled/dropped consistently
         int hash = traceId.hashCode() & Integer.MAX_VALUE;
-        return (hash % 10000) < (int) (sampleRate * 10000);
+        return (hash % 10000) < (int) (rate * 10000);
     }
 
     public double getSampleRate() {
         return sampleRate;
     }
+
+    @Override
+    public String toString() {
+        return "TraceSampler{sampleRate=" + sampleRate + "}";
+    }
 }
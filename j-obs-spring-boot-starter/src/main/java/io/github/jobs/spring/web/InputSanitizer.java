@@ -60,6 +60,18 @@ public final class InputSanitizer {
         return sanitized;
     }
 
+    /**
+     * Sanitizes a full-text search expression.
+     * Only strips control characters and limits length; the expression is parsed, never compiled to a regex.
+     */
+    public static String sanitizeSearch(String search) {
+        if (search == null || search.isBlank()) {
+            return null;
+        }
+        String sanitized = removeControlCharacters(search);
+        return truncate(sanitized, MAX_MESSAGE_LENGTH);
+    }
+
     /**
      * Sanitizes a trace ID parameter.
      * Allows alphanumeric characters, dashes, and underscores.
@@ -2,13 +2,20 @@ package io.github.jobs.spring.web;
 
 import io.github.jobs.application.LogRepository;
 import io.github.jobs.application.LogRepository.LogStats;
+import io.github.jobs.domain.log.LogCursor;
 import io.github.jobs.domain.log.LogEntry;
+import io.github.jobs.domain.log.LogFacets;
 import io.github.jobs.domain.log.LogLevel;
+import io.github.jobs.domain.log.LogPage;
 import io.github.jobs.domain.log.LogQuery;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
 
+import java.time.Duration;
 import java.time.Instant;
 import java.util.List;
 import java.util.Map;
@@ -20,34 +27,74 @@ import java.util.Map;
 @RequestMapping("${j-obs.path:/j-obs}/api/logs")
 public class LogApiController {
 
+    private static final int MAX_FACET_VALUES = 100;
+
     private final LogRepository logRepository;
 
     public LogApiController(LogRepository logRepository) {
         this.logRepository = logRepository;
     }
 
+    /**
+     * Queries logs. {@code message} is a case-insensitive substring filter; {@code search} is a full-text
+     * search expression answered from the token index, e.g. {@code search=timeout AND (db OR "connection reset") NOT retry}.
+     * <p>
+     * Pass the {@code nextCursor} of a response as {@code cursor} to fetch the following page; it
+     * resumes after the last returned entry and takes precedence over {@code offset}.
+     */
     @GetMapping(produces = MediaType.APPLICATION_JSON_VALUE)
     public LogsResponse getLogs(
             @RequestParam(required = false) String level,
             @RequestParam(required = false) String logger,
             @RequestParam(required = false) String message,
+            @RequestParam(required = false) String search,
             @RequestParam(required = false) String traceId,
+            @RequestParam(required = false) String spanId,
             @RequestParam(required = false) String thread,
             @RequestParam(defaultValue = "100") int limit,
-            @RequestParam(defaultValue = "0") int offset
+            @RequestParam(defaultValue = "0") int offset,
+            @RequestParam(required = false) String cursor
     ) {
-        // Sanitize inputs
         int sanitizedLimit = InputSanitizer.sanitizeLimit(limit);
         int sanitizedOffset = InputSanitizer.sanitizeOffset(offset);
+        LogQuery.Builder queryBuilder = filters(level, logger, message, search, traceId, spanId, thread)
+                .limit(sanitizedLimit)
+                .offset(sanitizedOffset);
+
+        if (cursor != null && !cursor.isBlank()) {
+            try {
+                queryBuilder.cursor(LogCursor.decode(cursor));
+            } catch (IllegalArgumentException e) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+            }
+        }
+
+        LogQuery query = queryBuilder.build();
+        LogPage page = logRepository.queryPage(query);
+        long total = logRepository.count(query);
+
+        return new LogsResponse(
+                page.entries().stream().map(LogEntryDto::from).toList(),
+                total,
+                sanitizedLimit,
+                sanitizedOffset,
+                page.hasMore() ? page.nextCursor().encode() : null
+        );
+    }
+
+    /**
+     * Returns a query builder with the sanitized filters shared by the query and facet endpoints.
+     */
+    private static LogQuery.Builder filters(String level, String logger, String message, String search,
+                                            String traceId, String spanId, String thread) {
         String sanitizedLogger = InputSanitizer.sanitizeLogger(logger);
         String sanitizedMessage = InputSanitizer.sanitizeMessage(message);
+        String sanitizedSearch = InputSanitizer.sanitizeSearch(search);
         String sanitizedTraceId = InputSanitizer.sanitizeTraceId(traceId);
+        String sanitizedSpanId = InputSanitizer.sanitizeTraceId(spanId);
         String sanitizedThread = InputSanitizer.sanitizeThreadName(thread);
 
-        LogQuery.Builder queryBuilder = LogQuery.builder()
-                .limit(sanitizedLimit)
-                .offset(sanitizedOffset);
-
+        LogQuery.Builder queryBuilder = LogQuery.builder();
         if (level != null && !level.isEmpty()) {
             queryBuilder.minLevel(LogLevel.fromString(level));
         }
@@ -57,23 +104,59 @@ public class LogApiController {
         if (sanitizedMessage != null) {
             queryBuilder.messagePattern(sanitizedMessage);
         }
+        if (sanitizedSearch != null) {
+            try {
+                queryBuilder.search(sanitizedSearch);
+            } catch (IllegalArgumentException e) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+            }
+        }
         if (sanitizedTraceId != null) {
             queryBuilder.traceId(sanitizedTraceId);
         }
+        if (sanitizedSpanId != null) {
+            queryBuilder.spanId(sanitizedSpanId);
+        }
         if (sanitizedThread != null) {
             queryBuilder.threadName(sanitizedThread);
         }
+        return queryBuilder;
+    }
 
-        LogQuery query = queryBuilder.build();
-        List<LogEntry> logs = logRepository.query(query);
-        long total = logRepository.count(query);
-
-        return new LogsResponse(
-                logs.stream().map(LogEntryDto::from).toList(),
-                total,
-                sanitizedLimit,
-                sanitizedOffset
-        );
+    /**
+     * Returns counts by level, the {@code top} most frequent loggers and threads, and a histogram
+     * per {@code interval} (e.g. {@code 60s}, {@code 5m}) for the logs matching the filters.
+     * {@code startTime} and {@code endTime} are ISO-8601 instants. Requests filtered only by
+     * level and time are answered from per-second counts kept on ingest.
+     */
+    @GetMapping(value = "/facets", produces = MediaType.APPLICATION_JSON_VALUE)
+    public LogFacets getFacets(
+            @RequestParam(required = false) String level,
+            @RequestParam(required = false) String logger,
+            @RequestParam(required = false) String message,
+            @RequestParam(required = false) String search,
+            @RequestParam(required = false) String traceId,
+            @RequestParam(required = false) String spanId,
+            @RequestParam(required = false) String thread,
+            @RequestParam(required = false) Instant startTime,
+            @RequestParam(required = false) Instant endTime,
+            @RequestParam(defaultValue = "10") int top,
+            @RequestParam(defaultValue = "60s") String interval
+    ) {
+        Duration histogramInterval;
+        try {
+            histogramInterval = DurationStyle.detectAndParse(interval);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid interval: " + interval);
+        }
+        if (histogramInterval.compareTo(Duration.ofSeconds(1)) < 0) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "interval must be at least 1s");
+        }
+        LogQuery query = filters(level, logger, message, search, traceId, spanId, thread)
+                .startTime(startTime)
+                .endTime(endTime)
+                .build();
+        return logRepository.facets(query, Math.max(1, Math.min(top, MAX_FACET_VALUES)), histogramInterval);
     }
 
     @GetMapping(value = "/stats", produces = MediaType.APPLICATION_JSON_VALUE)
@@ -124,7 +207,8 @@ public class LogApiController {
             List<LogEntryDto> logs,
             long total,
             int limit,
-            int offset
+            int offset,
+            String nextCursor
     ) {}
 
     public record LogEntryDto(
@@ -1,10 +1,17 @@
 package io.github.jobs.spring.web;
 
+import io.github.jobs.application.LogRepository;
 import io.github.jobs.application.TraceRepository;
 import io.github.jobs.application.TraceRepository.TraceStats;
+import io.github.jobs.domain.log.LogQuery;
 import io.github.jobs.domain.trace.*;
+import io.github.jobs.spring.trace.AdaptiveTraceSampler;
+import io.github.jobs.spring.trace.TraceSampler;
+import io.github.jobs.spring.web.LogApiController.LogEntryDto;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
 import org.springframework.web.bind.annotation.*;
 
 import java.net.URL;
@@ -22,9 +29,27 @@ import java.util.stream.Collectors;
 public class TraceApiController {
 
     private final TraceRepository traceRepository;
+    private final LogRepository logRepository;
+    private TraceSampler traceSampler;
 
     public TraceApiController(TraceRepository traceRepository) {
+        this(traceRepository, null);
+    }
+
+    /**
+     * @param logRepository used to return correlated logs with the trace detail; may be null
+     */
+    @Autowired
+    public TraceApiController(TraceRepository traceRepository, @Nullable LogRepository logRepository) {
         this.traceRepository = traceRepository;
+        this.logRepository = logRepository;
+    }
+
+    /**
+     * Sets the sampler reported by {@code /sampling}.
+     */
+    public void setTraceSampler(TraceSampler traceSampler) {
+        this.traceSampler = traceSampler;
     }
 
     @GetMapping(produces = MediaType.APPLICATION_JSON_VALUE)
@@ -83,15 +108,31 @@ public class TraceApiController {
     public ResponseEntity<TraceDetailDto> getTrace(
             @PathVariable String traceId,
             @RequestParam(defaultValue = "true") boolean includeSpans,
-            @RequestParam(defaultValue = "100") int maxSpans
+            @RequestParam(defaultValue = "100") int maxSpans,
+            @RequestParam(defaultValue = "false") boolean includeLogs,
+            @RequestParam(defaultValue = "100") int maxLogs
     ) {
         String sanitizedTraceId = InputSanitizer.sanitizeTraceId(traceId);
         if (sanitizedTraceId == null) {
             return ResponseEntity.badRequest().build();
         }
         int sanitizedMaxSpans = Math.max(1, Math.min(maxSpans, 1000));
+        int sanitizedMaxLogs = InputSanitizer.sanitizeLimit(maxLogs);
         return traceRepository.findByTraceId(sanitizedTraceId)
-                .map(trace -> TraceDetailDto.from(trace, includeSpans, sanitizedMaxSpans))
+                .map(trace -> {
+                    TraceDetailDto detail = TraceDetailDto.from(trace, includeSpans, sanitizedMaxSpans);
+                    if (includeLogs && logRepository != null) {
+                        // Answered from the repository's trace id index where available
+                        LogQuery query = LogQuery.builder()
+                                .traceId(sanitizedTraceId)
+                                .limit(sanitizedMaxLogs)
+                                .build();
+                        detail = detail.withLogs(logRepository.query(query).stream()
+                                .map(LogEntryDto::from)
+                                .toList());
+                    }
+                    return detail;
+                })
                 .map(ResponseEntity::ok)
                 .orElse(ResponseEntity.notFound().build());
     }
@@ -130,6 +171,20 @@ public class TraceApiController {
         return traceRepository.stats();
     }
 
+    /**
+     * Returns the current sampling mode and rates, per endpoint for the adaptive sampler.
+     */
+    @GetMapping(value = "/sampling", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<SamplingResponse> getSampling() {
+        if (traceSampler == null) {
+            return ResponseEntity.notFound().build();
+        }
+        if (traceSampler instanceof AdaptiveTraceSampler adaptive) {
+            return ResponseEntity.ok(new SamplingResponse("adaptive", adaptive.getSampleRate(), adaptive.snapshot()));
+        }
+        return ResponseEntity.ok(new SamplingResponse("fixed", traceSampler.getSampleRate(), null));
+    }
+
     @GetMapping(value = "/services", produces = MediaType.APPLICATION_JSON_VALUE)
     public List<String> getServices() {
         return traceRepository.query(TraceQuery.recent(1000)).stream()
@@ -331,7 +386,9 @@ public class TraceApiController {
         List<SpanDto> errorSpans,
         boolean hasError,
         boolean spansIncluded,
-        boolean hasMoreSpans
+        boolean hasMoreSpans,
+        List<LogEntryDto> logs,
+        boolean logsIncluded
     ) {
         /**
          * Creates a TraceDetailDto with all spans included (backward compatible).
@@ -383,9 +440,20 @@ public class TraceApiController {
                 errorSpans,
                 trace.hasError(),
                 includeSpans,
-                hasMoreSpans
+                hasMoreSpans,
+                List.of(),
+                false
             );
         }
+
+        /**
+         * Returns a copy of this DTO carrying the logs correlated with the trace.
+         */
+        public TraceDetailDto withLogs(List<LogEntryDto> logs) {
+            return new TraceDetailDto(traceId, name, serviceName, status, durationMs, spanCount,
+                startTime, endTime, services, spans, errorSpans, hasError, spansIncluded, hasMoreSpans,
+                logs, true);
+        }
     }
 
     public record SpanDto(
@@ -483,6 +551,15 @@ public class TraceApiController {
 
     // Dashboard DTOs
 
+    /**
+     * @param adaptive per-endpoint state of the adaptive sampler; null in fixed mode
+     */
+    public record SamplingResponse(
+        String mode,
+        double sampleRate,
+        AdaptiveTraceSampler.Snapshot adaptive
+    ) {}
+
     public record RequestRateResponse(
         List<RequestRatePoint> points,
         long totalRequests,
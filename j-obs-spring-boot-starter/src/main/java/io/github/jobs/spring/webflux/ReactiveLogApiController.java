@@ -31,16 +31,16 @@ public class ReactiveLogApiController {
      * Example usage with JavaScript:
      * <pre>
      * const eventSource = new EventSource('/j-obs/api/logs/stream?minLevel=INFO');
-     * eventSource.addEventListener('log', (event) => {
-     *     const log = JSON.parse(event.data);
-     *     console.log(log.data.message);
+     * eventSource.addEventListener('logs', (event) => {
+     *     const batch = JSON.parse(event.data);
+     *     batch.data.forEach(log => console.log(log.message));
      * });
      * </pre>
      *
      * @param minLevel minimum log level to stream (default: INFO)
      * @param logger filter by logger name (contains match)
      * @param message filter by message content (case-insensitive contains match)
-     * @return Flux of ServerSentEvent containing log entries
+     * @return Flux of ServerSentEvent containing batches of log entries
      */
     @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
     public Flux<ServerSentEvent<String>> streamLogs(
@@ -6,34 +6,104 @@ import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import io.github.jobs.application.LogRepository;
 import io.github.jobs.domain.log.LogEntry;
 import io.github.jobs.domain.log.LogLevel;
+import io.github.jobs.spring.log.LogStreamSubscriptions;
+import io.github.jobs.spring.websocket.LogFrameBatcher;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.http.MediaType;
 import org.springframework.http.codec.ServerSentEvent;
+import reactor.core.publisher.BufferOverflowStrategy;
 import reactor.core.publisher.Flux;
-import reactor.core.publisher.Sinks;
 
 import java.time.Duration;
-import java.util.Map;
-import java.util.concurrent.atomic.AtomicReference;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * Reactive handler for streaming logs via Server-Sent Events in WebFlux applications.
  * <p>
  * Provides real-time log streaming without requiring WebSocket support,
  * making it ideal for reactive applications.
+ * <p>
+ * All clients share one hot {@code Flux} fed by a single queued repository subscription (see
+ * {@link LogStreamSubscriptions}), which is opened for the first client and closed after the
+ * last one leaves. Each entry is serialized once; clients apply their filters as stream
+ * operators and receive {@code logs} events holding up to {@code batchSize} entries, emitted at
+ * least every {@code batchInterval}. A client that does not keep up is handled by its
+ * {@link Backpressure} strategy, so memory stays flat as viewers are added. If the shared
+ * subscription is disconnected by its overflow policy, every client stream completes.
  */
 public class ReactiveLogStreamHandler {
 
     private static final Logger log = LoggerFactory.getLogger(ReactiveLogStreamHandler.class);
 
-    private final LogRepository logRepository;
+    public static final int DEFAULT_BUFFER_SIZE = 64;
+    public static final int DEFAULT_BATCH_SIZE = 256;
+    public static final Duration DEFAULT_BATCH_INTERVAL = Duration.ofMillis(100);
+
+    /**
+     * What a client does with batches it cannot consume yet.
+     */
+    public enum Backpressure {
+        /** Keep only the most recent batch. */
+        LATEST,
+        /** Drop batches while the client is busy, counting the dropped entries. */
+        DROP,
+        /** Buffer up to {@code bufferSize} batches, then drop the oldest one and count its entries. */
+        BUFFER
+    }
+
     private final ObjectMapper objectMapper;
+    private final Backpressure backpressure;
+    private final int bufferSize;
+    private final int batchSize;
+    private final Duration batchInterval;
+    private final Flux<EncodedEntry> shared;
+    private final AtomicInteger clients = new AtomicInteger();
+    private final AtomicLong generations = new AtomicLong();
+    private final LongAdder dropped = new LongAdder();
 
     public ReactiveLogStreamHandler(LogRepository logRepository) {
-        this.logRepository = logRepository;
+        this(new LogStreamSubscriptions(logRepository));
+    }
+
+    public ReactiveLogStreamHandler(LogStreamSubscriptions subscriptions) {
+        this(subscriptions, Backpressure.BUFFER, DEFAULT_BUFFER_SIZE, DEFAULT_BATCH_SIZE, DEFAULT_BATCH_INTERVAL);
+    }
+
+    /**
+     * @param subscriptions source of the shared repository subscription
+     * @param backpressure  strategy for clients that fall behind
+     * @param bufferSize    batches buffered per client with {@link Backpressure#BUFFER}
+     * @param batchSize     maximum entries per event
+     * @param batchInterval maximum time an entry waits before its event is emitted
+     */
+    public ReactiveLogStreamHandler(LogStreamSubscriptions subscriptions, Backpressure backpressure,
+                                    int bufferSize, int batchSize, Duration batchInterval) {
         this.objectMapper = new ObjectMapper();
         this.objectMapper.registerModule(new JavaTimeModule());
+        this.backpressure = backpressure;
+        this.bufferSize = bufferSize;
+        this.batchSize = batchSize;
+        this.batchInterval = batchInterval;
+        this.shared = Flux.<EncodedEntry>create(sink -> {
+                    LogRepository.Subscription subscription = subscriptions.subscribe(
+                            "sse-" + generations.incrementAndGet(),
+                            entry -> {
+                                EncodedEntry encoded = encode(entry);
+                                if (encoded != null) {
+                                    sink.next(encoded);
+                                }
+                            },
+                            sink::complete);
+                    sink.onDispose(() -> {
+                        subscription.unsubscribe();
+                        log.debug("Unsubscribed from log repository, no SSE clients left");
+                    });
+                })
+                .publish()
+                .refCount();
     }
 
     /**
@@ -42,42 +112,57 @@ public class ReactiveLogStreamHandler {
      * @param minLevel minimum log level to include (default: INFO)
      * @param loggerFilter optional logger name filter
      * @param messageFilter optional message content filter
-     * @return Flux of ServerSentEvent containing log entries
+     * @return Flux of ServerSentEvent containing batches of log entries
      */
     public Flux<ServerSentEvent<String>> streamLogs(
             LogLevel minLevel,
             String loggerFilter,
             String messageFilter) {
 
-        Sinks.Many<LogEntry> sink = Sinks.many().multicast().onBackpressureBuffer(1000);
-        AtomicReference<LogRepository.Subscription> subscriptionRef = new AtomicReference<>();
-
-        // Subscribe to log repository
-        LogRepository.Subscription subscription = logRepository.subscribe(entry -> {
-            if (shouldInclude(entry, minLevel, loggerFilter, messageFilter)) {
-                sink.tryEmitNext(entry);
-            }
-        });
-        subscriptionRef.set(subscription);
-
-        return sink.asFlux()
+        String messageFilterLower = messageFilter != null ? messageFilter.toLowerCase() : null;
+        Flux<List<EncodedEntry>> batches = shared
+                .filter(encoded -> shouldInclude(encoded.entry(), minLevel, loggerFilter, messageFilterLower))
+                .bufferTimeout(batchSize, batchInterval);
+
+        // Applied after batching so that the batching operator always has demand
+        batches = switch (backpressure) {
+            case LATEST -> batches.onBackpressureLatest();
+            case DROP -> batches.onBackpressureDrop(this::countDropped);
+            case BUFFER -> batches.onBackpressureBuffer(bufferSize, this::countDropped,
+                    BufferOverflowStrategy.DROP_OLDEST);
+        };
+
+        // The heartbeat stops with the shared stream, so an overflow disconnect ends the response
+        // and the browser reconnects instead of receiving heartbeats only
+        return batches
                 .map(this::toServerSentEvent)
-                .mergeWith(heartbeat())
-                .doOnCancel(() -> {
-                    LogRepository.Subscription sub = subscriptionRef.get();
-                    if (sub != null) {
-                        sub.unsubscribe();
-                        log.debug("Unsubscribed from log repository on client disconnect");
-                    }
-                })
-                .doOnTerminate(() -> {
-                    LogRepository.Subscription sub = subscriptionRef.get();
-                    if (sub != null) {
-                        sub.unsubscribe();
-                    }
+                .mergeWith(heartbeat().takeUntilOther(shared.ignoreElements()))
+                .doOnSubscribe(subscription -> clients.incrementAndGet())
+                .doFinally(signal -> {
+                    clients.decrementAndGet();
+                    log.debug("SSE log stream ended ({})", signal);
                 });
     }
 
+    /**
+     * Returns the number of connected SSE clients.
+     */
+    public int getClientCount() {
+        return clients.get();
+    }
+
+    /**
+     * Returns the number of entries dropped for clients that could not keep up
+     * ({@link Backpressure#DROP} and {@link Backpressure#BUFFER} only).
+     */
+    public long getDroppedCount() {
+        return dropped.sum();
+    }
+
+    private void countDropped(List<EncodedEntry> batch) {
+        dropped.add(batch.size());
+    }
+
     /**
      * Creates a heartbeat Flux to keep the connection alive.
      */
@@ -93,7 +178,7 @@ public class ReactiveLogStreamHandler {
             LogEntry entry,
             LogLevel minLevel,
             String loggerFilter,
-            String messageFilter) {
+            String messageFilterLower) {
 
         if (!entry.level().isAtLeast(minLevel)) {
             return false;
@@ -105,8 +190,8 @@ public class ReactiveLogStreamHandler {
             }
         }
 
-        if (messageFilter != null && !messageFilter.isEmpty()) {
-            if (!entry.message().toLowerCase().contains(messageFilter.toLowerCase())) {
+        if (messageFilterLower != null && !messageFilterLower.isEmpty()) {
+            if (!entry.message().toLowerCase().contains(messageFilterLower)) {
                 return false;
             }
         }
@@ -114,37 +199,35 @@ public class ReactiveLogStreamHandler {
         return true;
     }
 
-    private ServerSentEvent<String> toServerSentEvent(LogEntry entry) {
+    /**
+     * Serializes an entry once for all clients; runs on the subscription's dispatcher thread.
+     */
+    private EncodedEntry encode(LogEntry entry) {
         try {
-            Map<String, Object> data = Map.ofEntries(
-                    Map.entry("id", entry.id()),
-                    Map.entry("timestamp", entry.timestamp().toString()),
-                    Map.entry("level", entry.level().name()),
-                    Map.entry("levelCss", entry.level().textCssClass()),
-                    Map.entry("levelBgCss", entry.level().bgCssClass()),
-                    Map.entry("logger", entry.loggerName() != null ? entry.loggerName() : ""),
-                    Map.entry("shortLogger", entry.shortLoggerName() != null ? entry.shortLoggerName() : ""),
-                    Map.entry("message", entry.message()),
-                    Map.entry("thread", entry.threadName() != null ? entry.threadName() : ""),
-                    Map.entry("traceId", entry.traceId() != null ? entry.traceId() : ""),
-                    Map.entry("hasThrowable", entry.hasThrowable()),
-                    Map.entry("throwable", entry.throwable() != null ? entry.throwable() : "")
-            );
-
-            Map<String, Object> message = Map.of("type", "log", "data", data);
-            String json = objectMapper.writeValueAsString(message);
-
-            return ServerSentEvent.<String>builder()
-                    .id(entry.id())
-                    .event("log")
-                    .data(json)
-                    .build();
+            return new EncodedEntry(entry, objectMapper.writeValueAsString(LogFrameBatcher.toData(entry)));
         } catch (JsonProcessingException e) {
             log.warn("Failed to serialize log entry: {}", e.getMessage());
-            return ServerSentEvent.<String>builder()
-                    .event("error")
-                    .data("{\"error\":\"serialization_failed\"}")
-                    .build();
+            return null;
         }
     }
+
+    private ServerSentEvent<String> toServerSentEvent(List<EncodedEntry> batch) {
+        StringBuilder json = new StringBuilder(64 + batch.size() * 256).append("{\"type\":\"logs\",\"data\":[");
+        for (int i = 0; i < batch.size(); i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append(batch.get(i).json());
+        }
+        json.append("]}");
+
+        return ServerSentEvent.<String>builder()
+                .id(batch.get(batch.size() - 1).entry().id())
+                .event("logs")
+                .data(json.toString())
+                .build();
+    }
+
+    private record EncodedEntry(LogEntry entry, String json) {
+    }
 }
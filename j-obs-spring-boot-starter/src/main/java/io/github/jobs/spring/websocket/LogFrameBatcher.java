@@ -0,0 +1,189 @@
+package io.github.jobs.spring.websocket;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.jobs.domain.log.LogEntry;
+import org.springframework.web.socket.TextMessage;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * Encodes log entries to JSON once and groups them into {@code {"type":"logs","data":[...]}}
+ * frames shared by all WebSocket sessions.
+ * <p>
+ * Entries are appended to one buffer for the whole batch. A batch is handed to the sink when it
+ * reaches {@code maxEntries} or when {@link #flush()} is called (on a timer). Sessions without
+ * filters receive the whole buffer as one frame; filtered sessions get a frame assembled from
+ * the byte ranges of their matching entries, so no entry is serialized more than once.
+ */
+public final class LogFrameBatcher {
+
+    private static final byte[] PREFIX = "{\"type\":\"logs\",\"data\":[".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] SUFFIX = "]}".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] SEPARATOR = {','};
+
+    private final ObjectMapper objectMapper;
+    private final int maxEntries;
+    private final Consumer<Batch> sink;
+    private final FrameBuffer buffer = new FrameBuffer();
+    private final LogEntry[] entries;
+    private final int[] starts;
+    private final int[] ends;
+    private int size;
+
+    LogFrameBatcher(ObjectMapper objectMapper, int maxEntries, Consumer<Batch> sink) {
+        this.objectMapper = objectMapper;
+        this.maxEntries = maxEntries;
+        this.sink = sink;
+        this.entries = new LogEntry[maxEntries];
+        this.starts = new int[maxEntries];
+        this.ends = new int[maxEntries];
+    }
+
+    /**
+     * Encodes {@code entry} into the current batch, flushing it when full. An entry that fails
+     * to encode is left out of the batch.
+     */
+    synchronized void append(LogEntry entry) throws IOException {
+        int mark = buffer.size();
+        buffer.writeBytes(size == 0 ? PREFIX : SEPARATOR);
+        int start = buffer.size();
+        try {
+            objectMapper.writeValue(buffer, toData(entry));
+        } catch (IOException | RuntimeException e) {
+            buffer.truncate(mark);
+            throw e;
+        }
+        entries[size] = entry;
+        starts[size] = start;
+        ends[size] = buffer.size();
+        size++;
+        if (size >= maxEntries) {
+            flush();
+        }
+    }
+
+    /**
+     * Hands the pending entries to the sink as one batch. Does nothing when no entry is pending.
+     */
+    synchronized void flush() {
+        if (size == 0) {
+            return;
+        }
+        buffer.writeBytes(SUFFIX);
+        Batch batch = new Batch(buffer.toByteArray(), Arrays.copyOf(entries, size),
+                Arrays.copyOf(starts, size), Arrays.copyOf(ends, size));
+        reset();
+        // Delivered under the lock so that batches reach the sink in order
+        sink.accept(batch);
+    }
+
+    private void reset() {
+        buffer.reset();
+        Arrays.fill(entries, 0, size, null);
+        size = 0;
+    }
+
+    /**
+     * Output buffer that can roll back a partially written entry.
+     */
+    private static final class FrameBuffer extends ByteArrayOutputStream {
+
+        FrameBuffer() {
+            super(8192);
+        }
+
+        void truncate(int size) {
+            count = size;
+        }
+    }
+
+    /**
+     * Returns the fields of one entry as sent to the UI, shared by the WebSocket and SSE streams.
+     */
+    public static Map<String, Object> toData(LogEntry entry) {
+        return Map.ofEntries(
+                Map.entry("id", entry.id()),
+                Map.entry("timestamp", entry.timestamp().toString()),
+                Map.entry("level", entry.level().name()),
+                Map.entry("levelCss", entry.level().textCssClass()),
+                Map.entry("levelBgCss", entry.level().bgCssClass()),
+                Map.entry("logger", entry.loggerName() != null ? entry.loggerName() : ""),
+                Map.entry("shortLogger", entry.shortLoggerName() != null ? entry.shortLoggerName() : ""),
+                Map.entry("message", entry.message()),
+                Map.entry("thread", entry.threadName() != null ? entry.threadName() : ""),
+                Map.entry("traceId", entry.traceId() != null ? entry.traceId() : ""),
+                Map.entry("hasThrowable", entry.hasThrowable()),
+                Map.entry("throwable", entry.throwable() != null ? entry.throwable() : "")
+        );
+    }
+
+    /**
+     * Immutable batch of encoded entries.
+     */
+    static final class Batch {
+        private final byte[] buffer;
+        private final LogEntry[] entries;
+        private final int[] starts;
+        private final int[] ends;
+        private TextMessage all;
+
+        private Batch(byte[] buffer, LogEntry[] entries, int[] starts, int[] ends) {
+            this.buffer = buffer;
+            this.entries = entries;
+            this.starts = starts;
+            this.ends = ends;
+        }
+
+        int size() {
+            return entries.length;
+        }
+
+        /**
+         * Returns a frame with the entries accepted by {@code filter}, or null when none is.
+         * When every entry is accepted the same frame instance is returned to all callers.
+         * Not thread-safe; batches are fanned out from a single thread.
+         */
+        TextMessage frame(Predicate<LogEntry> filter) {
+            boolean[] accepted = new boolean[entries.length];
+            int count = 0;
+            int length = PREFIX.length + SUFFIX.length;
+            for (int i = 0; i < entries.length; i++) {
+                if (filter.test(entries[i])) {
+                    accepted[i] = true;
+                    length += ends[i] - starts[i] + (count > 0 ? 1 : 0);
+                    count++;
+                }
+            }
+            if (count == 0) {
+                return null;
+            }
+            if (count == entries.length) {
+                if (all == null) {
+                    all = new TextMessage(buffer);
+                }
+                return all;
+            }
+            byte[] frame = new byte[length];
+            System.arraycopy(PREFIX, 0, frame, 0, PREFIX.length);
+            int position = PREFIX.length;
+            for (int i = 0; i < entries.length; i++) {
+                if (accepted[i]) {
+                    if (position > PREFIX.length) {
+                        frame[position++] = ',';
+                    }
+                    int entryLength = ends[i] - starts[i];
+                    System.arraycopy(buffer, starts[i], frame, position, entryLength);
+                    position += entryLength;
+                }
+            }
+            System.arraycopy(SUFFIX, 0, frame, position, SUFFIX.length);
+            return new TextMessage(frame);
+        }
+    }
+}
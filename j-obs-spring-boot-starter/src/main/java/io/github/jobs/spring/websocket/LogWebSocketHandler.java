@@ -6,6 +6,7 @@ import io.github.jobs.application.LogRepository;
 import io.github.jobs.domain.log.LogEntry;
 import io.github.jobs.domain.log.LogLevel;
 import io.github.jobs.spring.autoconfigure.JObsProperties;
+import io.github.jobs.spring.log.LogStreamSubscriptions;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.http.server.ServerHttpRequest;
@@ -22,16 +23,29 @@ import java.io.IOException;
 import java.net.URI;
 import java.time.Duration;
 import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.Deque;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * WebSocket handler for real-time log streaming.
  * Limits concurrent sessions to prevent DoS attacks.
+ * <p>
+ * All sessions share one queued subscription (see {@link LogStreamSubscriptions}), so the logging
+ * thread never waits for a client. Each entry is serialized once by {@link LogFrameBatcher} and
+ * sent as part of a {@code {"type":"logs","data":[...]}} frame, flushed every
+ * {@code batch-interval} or {@code batch-size} entries. Sessions apply their filters to the
+ * encoded batch and send through their own bounded frame queue, dropping the oldest frame when
+ * a client cannot keep up. If the shared subscription is disconnected by its overflow policy,
+ * all sessions are closed with status 4008.
  */
 public class LogWebSocketHandler extends TextWebSocketHandler {
 
@@ -40,23 +54,43 @@ public class LogWebSocketHandler extends TextWebSocketHandler {
     private static final Duration SESSION_TIMEOUT = Duration.ofMinutes(30);
     private static final Duration CLEANUP_INTERVAL = Duration.ofMinutes(5);
     private static final CloseStatus AUTHENTICATION_REQUIRED = new CloseStatus(4001, "Authentication required");
+    private static final CloseStatus TOO_SLOW = new CloseStatus(4008, "Too slow");
 
-    private final LogRepository logRepository;
+    private final LogStreamSubscriptions subscriptions;
     private final JObsProperties properties;
     private final ObjectMapper objectMapper;
     private final Map<String, SessionContext> sessions = new ConcurrentHashMap<>();
     private final ScheduledExecutorService cleanupExecutor;
+    private final ExecutorService sendExecutor;
+    private final LogFrameBatcher batcher;
+    private final int sendQueueDepth;
+    private LogRepository.Subscription broadcast;
 
     public LogWebSocketHandler(LogRepository logRepository) {
         this(logRepository, null);
     }
 
     public LogWebSocketHandler(LogRepository logRepository, JObsProperties properties) {
-        this.logRepository = logRepository;
+        this(new LogStreamSubscriptions(logRepository), properties);
+    }
+
+    public LogWebSocketHandler(LogStreamSubscriptions subscriptions, JObsProperties properties) {
+        this.subscriptions = subscriptions;
         this.properties = properties;
         this.objectMapper = new ObjectMapper();
         this.objectMapper.registerModule(new JavaTimeModule());
 
+        JObsProperties.Logs.WebSocket websocket = properties != null
+                ? properties.getLogs().getWebsocket() : new JObsProperties.Logs.WebSocket();
+        this.batcher = new LogFrameBatcher(objectMapper, websocket.getBatchSize(), this::fanOut);
+        this.sendQueueDepth = websocket.getSendQueueDepth();
+        // Sessions send on their own threads so that one slow client does not hold up the others
+        this.sendExecutor = Executors.newCachedThreadPool(r -> {
+            Thread t = new Thread(r, "j-obs-websocket-sender");
+            t.setDaemon(true);
+            return t;
+        });
+
         // Start periodic cleanup of stale sessions
         this.cleanupExecutor = Executors.newSingleThreadScheduledExecutor(r -> {
             Thread t = new Thread(r, "j-obs-websocket-cleanup");
@@ -69,6 +103,13 @@ public class LogWebSocketHandler extends TextWebSocketHandler {
                 CLEANUP_INTERVAL.toMinutes(),
                 TimeUnit.MINUTES
         );
+        long batchIntervalMillis = Math.max(1, websocket.getBatchInterval().toMillis());
+        this.cleanupExecutor.scheduleAtFixedRate(
+                batcher::flush,
+                batchIntervalMillis,
+                batchIntervalMillis,
+                TimeUnit.MILLISECONDS
+        );
     }
 
     /**
@@ -76,13 +117,69 @@ public class LogWebSocketHandler extends TextWebSocketHandler {
      */
     public void shutdown() {
         cleanupExecutor.shutdownNow();
+        sendExecutor.shutdownNow();
         // Clean up all remaining sessions
-        sessions.forEach((id, context) -> {
-            if (context.getSubscription() != null) {
-                context.getSubscription().unsubscribe();
-            }
-        });
         sessions.clear();
+        updateBroadcast();
+    }
+
+    /**
+     * Subscribes the shared batcher while at least one session is open and unsubscribes it
+     * when the last one leaves.
+     */
+    private synchronized void updateBroadcast() {
+        if (sessions.isEmpty() && broadcast != null) {
+            broadcast.unsubscribe();
+            broadcast = null;
+        } else if (!sessions.isEmpty() && broadcast == null) {
+            broadcast = subscriptions.subscribe("websocket", this::encode, this::disconnectAll);
+        }
+    }
+
+    private void encode(LogEntry entry) {
+        try {
+            batcher.append(entry);
+        } catch (Exception e) {
+            log.warn("Failed to encode log entry for WebSocket: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Called when the shared subscription falls too far behind: clients reconnect and resubscribe.
+     */
+    private void disconnectAll() {
+        synchronized (this) {
+            broadcast = null;
+        }
+        log.debug("WebSocket log stream could not keep up, disconnecting {} session(s)", sessions.size());
+        sessions.values().forEach(context -> safeClose(context.getSession(), TOO_SLOW));
+    }
+
+    /**
+     * Hands a flushed batch to every session, each receiving only the entries its filters accept.
+     */
+    private void fanOut(LogFrameBatcher.Batch batch) {
+        for (SessionContext context : sessions.values()) {
+            if (context.isPaused() || !context.getSession().isOpen()) {
+                continue;
+            }
+            TextMessage frame = batch.frame(context::shouldSend);
+            if (frame != null && context.enqueue(frame, sendQueueDepth)) {
+                try {
+                    sendExecutor.execute(() -> drain(context));
+                } catch (RejectedExecutionException e) {
+                    // Shutting down
+                }
+            }
+        }
+    }
+
+    private void drain(SessionContext context) {
+        WebSocketSession session = context.getSession();
+        TextMessage frame;
+        while ((frame = context.nextFrame()) != null) {
+            sendFrame(session, frame);
+        }
     }
 
     /**
@@ -103,10 +200,6 @@ public class LogWebSocketHandler extends TextWebSocketHandler {
                 String sessionId = entry.getKey();
                 sessions.remove(sessionId);
 
-                if (context.getSubscription() != null) {
-                    context.getSubscription().unsubscribe();
-                }
-
                 if (!isClosed) {
                     safeClose(context.getSession(), new CloseStatus(4000, "Session timeout"));
                 }
@@ -118,6 +211,7 @@ public class LogWebSocketHandler extends TextWebSocketHandler {
         }
 
         if (cleanedCount > 0) {
+            updateBroadcast();
             log.info("Cleaned up {} stale WebSocket session(s), {} active sessions remaining",
                     cleanedCount, sessions.size());
         }
@@ -204,14 +298,7 @@ public class LogWebSocketHandler extends TextWebSocketHandler {
 
         SessionContext context = new SessionContext(session);
         sessions.put(sessionId, context);
-
-        // Subscribe to new log entries
-        LogRepository.Subscription subscription = logRepository.subscribe(entry -> {
-            if (context.shouldSend(entry)) {
-                sendLogEntry(session, entry);
-            }
-        });
-        context.setSubscription(subscription);
+        updateBroadcast();
 
         // Send connection confirmation
         sendMessage(session, Map.of(
@@ -272,9 +359,8 @@ public class LogWebSocketHandler extends TextWebSocketHandler {
         String sessionId = session.getId();
         log.debug("WebSocket connection closed: {} ({})", sessionId, status);
 
-        SessionContext context = sessions.remove(sessionId);
-        if (context != null && context.getSubscription() != null) {
-            context.getSubscription().unsubscribe();
+        if (sessions.remove(sessionId) != null) {
+            updateBroadcast();
         }
     }
 
@@ -301,38 +387,22 @@ public class LogWebSocketHandler extends TextWebSocketHandler {
         }
     }
 
-    private void sendLogEntry(WebSocketSession session, LogEntry entry) {
+    private void sendMessage(WebSocketSession session, Object message) {
         try {
-            Map<String, Object> data = Map.ofEntries(
-                    Map.entry("id", entry.id()),
-                    Map.entry("timestamp", entry.timestamp().toString()),
-                    Map.entry("level", entry.level().name()),
-                    Map.entry("levelCss", entry.level().textCssClass()),
-                    Map.entry("levelBgCss", entry.level().bgCssClass()),
-                    Map.entry("logger", entry.loggerName() != null ? entry.loggerName() : ""),
-                    Map.entry("shortLogger", entry.shortLoggerName() != null ? entry.shortLoggerName() : ""),
-                    Map.entry("message", entry.message()),
-                    Map.entry("thread", entry.threadName() != null ? entry.threadName() : ""),
-                    Map.entry("traceId", entry.traceId() != null ? entry.traceId() : ""),
-                    Map.entry("hasThrowable", entry.hasThrowable()),
-                    Map.entry("throwable", entry.throwable() != null ? entry.throwable() : "")
-            );
-            Map<String, Object> message = Map.of("type", "log", "data", data);
-            sendMessage(session, message);
-        } catch (Exception e) {
-            log.warn("Failed to send log entry to WebSocket: {}", e.getMessage());
+            sendFrame(session, new TextMessage(objectMapper.writeValueAsString(message)));
+        } catch (IOException e) {
+            log.warn("Failed to serialize WebSocket message: {}", e.getMessage());
         }
     }
 
-    private void sendMessage(WebSocketSession session, Object message) {
+    private void sendFrame(WebSocketSession session, TextMessage frame) {
         if (!session.isOpen()) {
             return;
         }
         try {
-            String json = objectMapper.writeValueAsString(message);
             synchronized (session) {
                 if (session.isOpen()) {
-                    session.sendMessage(new TextMessage(json));
+                    session.sendMessage(frame);
                 }
             }
         } catch (IOException e) {
@@ -362,7 +432,9 @@ public class LogWebSocketHandler extends TextWebSocketHandler {
      */
     private static class SessionContext {
         private final WebSocketSession session;
-        private LogRepository.Subscription subscription;
+        private final Deque<TextMessage> frames = new ArrayDeque<>();
+        private final AtomicBoolean sending = new AtomicBoolean();
+        private long droppedFrames;
         private LogLevel minLevel = LogLevel.INFO;
         private String loggerFilter;
         private String messageFilter;
@@ -407,12 +479,40 @@ public class LogWebSocketHandler extends TextWebSocketHandler {
             return true;
         }
 
-        LogRepository.Subscription getSubscription() {
-            return subscription;
+        /**
+         * Queues a frame, dropping the oldest one beyond {@code maxDepth}.
+         *
+         * @return true if the caller must start draining the queue
+         */
+        boolean enqueue(TextMessage frame, int maxDepth) {
+            synchronized (frames) {
+                if (frames.size() >= maxDepth) {
+                    frames.pollFirst();
+                    droppedFrames++;
+                    if (droppedFrames == 1 || droppedFrames % 100 == 0) {
+                        log.debug("WebSocket session {} is slow, {} frame(s) dropped", session.getId(), droppedFrames);
+                    }
+                }
+                frames.addLast(frame);
+            }
+            return sending.compareAndSet(false, true);
+        }
+
+        /**
+         * Returns the next frame to send, or null after releasing the drain when the queue is empty.
+         */
+        TextMessage nextFrame() {
+            synchronized (frames) {
+                TextMessage frame = frames.pollFirst();
+                if (frame == null) {
+                    sending.set(false);
+                }
+                return frame;
+            }
         }
 
-        void setSubscription(LogRepository.Subscription subscription) {
-            this.subscription = subscription;
+        boolean isPaused() {
+            return paused;
         }
 
         LogLevel getMinLevel() {
@@ -0,0 +1,156 @@
+package io.github.jobs.spring.log;
+
+import io.github.jobs.application.LogRepository;
+import io.github.jobs.domain.log.LogEntry;
+import io.github.jobs.domain.log.LogLevel;
+import io.github.jobs.infrastructure.InMemoryLogRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for AsyncLogDispatcher ring buffer hand-off.
+ */
+class AsyncLogDispatcherTest {
+
+    private AsyncLogDispatcher dispatcher;
+
+    @AfterEach
+    void tearDown() {
+        if (dispatcher != null) {
+            dispatcher.shutdown(Duration.ofSeconds(1));
+        }
+    }
+
+    @Test
+    void dispatch_shouldStoreSanitizedEntryOnWorkerThread() throws InterruptedException {
+        InMemoryLogRepository repository = new InMemoryLogRepository(100);
+        CountDownLatch stored = new CountDownLatch(1);
+        String[] storingThread = new String[1];
+        repository.subscribe(entry -> {
+            storingThread[0] = Thread.currentThread().getName();
+            stored.countDown();
+        });
+        dispatcher = new AsyncLogDispatcher(repository, new LogEntryFactory(), null, 16, 1,
+                AsyncLogDispatcher.OverflowPolicy.DROP_NEWEST);
+
+        boolean queued = dispatcher.dispatch(1000L, LogLevel.ERROR, "com.example.Service",
+                "login failed password=secret123", "main", "trace-1", "span-1",
+                new IllegalStateException("boom"), t -> t.toString(), Map.of("user", "alice"));
+
+        assertThat(queued).isTrue();
+        assertThat(stored.await(2, TimeUnit.SECONDS)).isTrue();
+
+        List<LogEntry> entries = repository.recent(10);
+        assertThat(entries).hasSize(1);
+        LogEntry entry = entries.get(0);
+        assertThat(entry.message()).doesNotContain("secret123");
+        assertThat(entry.throwable()).contains("boom");
+        assertThat(entry.traceId()).isEqualTo("trace-1");
+        assertThat(entry.mdc()).containsEntry("user", "alice");
+        assertThat(storingThread[0]).startsWith("j-obs-log-dispatcher-");
+    }
+
+    @Test
+    void dispatch_shouldDropNewestWhenFull() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        LogRepository blockingRepository = blockingRepository(release);
+        dispatcher = new AsyncLogDispatcher(blockingRepository, new LogEntryFactory(), null, 4, 1,
+                AsyncLogDispatcher.OverflowPolicy.DROP_NEWEST);
+
+        int accepted = 0;
+        for (int i = 0; i < 20; i++) {
+            if (dispatch(LogLevel.INFO, "message " + i)) {
+                accepted++;
+            }
+        }
+        release.countDown();
+
+        // Ring of 4 plus the entry held by the blocked worker
+        assertThat(accepted).isLessThanOrEqualTo(5);
+        assertThat(dispatcher.getDroppedOverflowCount()).isEqualTo(20 - accepted);
+        assertThat(dispatcher.getDroppedLowLevelCount()).isZero();
+    }
+
+    @Test
+    void dispatch_shouldDropLowLevelsFirst() {
+        CountDownLatch release = new CountDownLatch(1);
+        dispatcher = new AsyncLogDispatcher(blockingRepository(release), new LogEntryFactory(), null, 8, 1,
+                AsyncLogDispatcher.OverflowPolicy.DROP_LOW_LEVELS_FIRST);
+
+        for (int i = 0; i < 7; i++) {
+            dispatch(LogLevel.INFO, "info " + i);
+        }
+        boolean debugQueued = dispatch(LogLevel.DEBUG, "debug");
+        boolean errorQueued = dispatch(LogLevel.ERROR, "error");
+        release.countDown();
+
+        assertThat(debugQueued).isFalse();
+        assertThat(errorQueued).isTrue();
+        assertThat(dispatcher.getDroppedLowLevelCount()).isEqualTo(1);
+    }
+
+    @Test
+    void shutdown_shouldDrainPendingEvents() {
+        InMemoryLogRepository repository = new InMemoryLogRepository(1000);
+        dispatcher = new AsyncLogDispatcher(repository, new LogEntryFactory(), null, 1024, 2,
+                AsyncLogDispatcher.OverflowPolicy.BLOCK);
+
+        for (int i = 0; i < 500; i++) {
+            assertThat(dispatch(LogLevel.INFO, "message " + i)).isTrue();
+        }
+        dispatcher.shutdown(Duration.ofSeconds(5));
+
+        assertThat(repository.count()).isEqualTo(500);
+        assertThat(dispatcher.getProcessedCount()).isEqualTo(500);
+        assertThat(dispatcher.size()).isZero();
+    }
+
+    @Test
+    void dispatch_shouldRejectEventsAfterShutdown() {
+        InMemoryLogRepository repository = new InMemoryLogRepository(100);
+        dispatcher = new AsyncLogDispatcher(repository, new LogEntryFactory(), null, 16, 1,
+                AsyncLogDispatcher.OverflowPolicy.BLOCK);
+        dispatcher.shutdown(Duration.ofSeconds(5));
+
+        assertThat(dispatcher.isRunning()).isFalse();
+        assertThat(dispatch(LogLevel.ERROR, "too late")).isFalse();
+        assertThat(dispatcher.size()).isZero();
+        assertThat(dispatcher.getDroppedOverflowCount()).isZero();
+    }
+
+    @Test
+    void capacity_shouldRoundUpToPowerOfTwo() {
+        dispatcher = new AsyncLogDispatcher(new InMemoryLogRepository(10), null, null, 1000, 1, null);
+
+        assertThat(dispatcher.capacity()).isEqualTo(1024);
+        assertThat(dispatcher.getOverflowPolicy()).isEqualTo(AsyncLogDispatcher.OverflowPolicy.DROP_LOW_LEVELS_FIRST);
+    }
+
+    private boolean dispatch(LogLevel level, String message) {
+        return dispatcher.dispatch(System.currentTimeMillis(), level, "com.example.Test", message,
+                "main", null, null, null, null, Map.of());
+    }
+
+    /**
+     * Repository whose add() blocks until released, so the ring fills up deterministically.
+     */
+    private LogRepository blockingRepository(CountDownLatch release) {
+        InMemoryLogRepository delegate = new InMemoryLogRepository(100);
+        delegate.subscribe(entry -> {
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        return delegate;
+    }
+}
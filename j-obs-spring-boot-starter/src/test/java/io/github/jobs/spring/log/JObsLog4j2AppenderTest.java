@@ -0,0 +1,83 @@
+package io.github.jobs.spring.log;
+
+import io.github.jobs.domain.log.LogEntry;
+import io.github.jobs.domain.log.LogQuery;
+import io.github.jobs.infrastructure.InMemoryLogRepository;
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.core.impl.MutableLogEvent;
+import org.apache.logging.log4j.message.Message;
+import org.apache.logging.log4j.message.ReusableMessageFactory;
+import org.apache.logging.log4j.util.SortedArrayStringMap;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JObsLog4j2AppenderTest {
+
+    @Test
+    void shouldCaptureReusedEventsWithoutLeakingContextBetweenThem() {
+        InMemoryLogRepository repository = new InMemoryLogRepository(100);
+        JObsLog4j2Appender appender = new JObsLog4j2Appender("test");
+        appender.setLogRepository(repository);
+        MutableLogEvent event = new MutableLogEvent();
+        event.setLoggerName("com.example.OrderService");
+        event.setLevel(Level.WARN);
+        event.setThreadName("worker-1");
+
+        append(appender, event, Map.of("traceId", "trace-1", "userId", "42", "api_token", "abc"),
+                "User {} placed order {}", "42", "A-1");
+        append(appender, event, Map.of("traceId", "trace-2"), "Retrying password={}", "hunter2", null);
+        append(appender, event, Map.of(), "Done", null, null);
+
+        List<LogEntry> entries = repository.query(LogQuery.recent(10));
+        assertThat(entries).extracting(LogEntry::message)
+                .containsExactlyInAnyOrder("User 42 placed order A-1", "Retrying password=***REDACTED***", "Done");
+        LogEntry first = find(entries, "User 42 placed order A-1");
+        assertThat(first.traceId()).isEqualTo("trace-1");
+        assertThat(first.mdc()).isEqualTo(Map.of("traceId", "trace-1", "userId", "42", "api_token", "***REDACTED***"));
+        LogEntry second = find(entries, "Retrying password=***REDACTED***");
+        assertThat(second.traceId()).isEqualTo("trace-2");
+        assertThat(second.mdc()).isEqualTo(Map.of("traceId", "trace-2"));
+        assertThat(find(entries, "Done").mdc()).isEmpty();
+    }
+
+    @Test
+    void shouldStoreSynchronouslyOnceDispatcherIsShutDown() {
+        InMemoryLogRepository repository = new InMemoryLogRepository(100);
+        AsyncLogDispatcher dispatcher = new AsyncLogDispatcher(repository, new LogEntryFactory(), null, 16, 1,
+                AsyncLogDispatcher.OverflowPolicy.BLOCK);
+        dispatcher.shutdown(Duration.ofSeconds(5));
+        JObsLog4j2Appender appender = new JObsLog4j2Appender("test");
+        appender.setLogRepository(repository);
+        appender.setAsyncDispatcher(dispatcher);
+        MutableLogEvent event = new MutableLogEvent();
+        event.setLoggerName("com.example.OrderService");
+        event.setLevel(Level.INFO);
+        event.setThreadName("main");
+
+        append(appender, event, Map.of(), "Shutting down {}", "now", null);
+
+        assertThat(repository.query(LogQuery.recent(10))).extracting(LogEntry::message)
+                .containsExactly("Shutting down now");
+    }
+
+    private static void append(JObsLog4j2Appender appender, MutableLogEvent event, Map<String, String> context,
+                               String pattern, Object first, Object second) {
+        SortedArrayStringMap contextData = new SortedArrayStringMap();
+        context.forEach(contextData::putValue);
+        event.setContextData(contextData);
+        Message message = ReusableMessageFactory.INSTANCE.newMessage(pattern, first, second);
+        event.setMessage(message);
+        ReusableMessageFactory.release(message);
+        event.setTimeMillis(System.currentTimeMillis());
+        appender.append(event);
+    }
+
+    private static LogEntry find(List<LogEntry> entries, String message) {
+        return entries.stream().filter(entry -> entry.message().equals(message)).findFirst().orElseThrow();
+    }
+}
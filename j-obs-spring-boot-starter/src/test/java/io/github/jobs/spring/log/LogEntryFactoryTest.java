@@ -0,0 +1,49 @@
+package io.github.jobs.spring.log;
+
+import io.github.jobs.domain.log.LogEntry;
+import io.github.jobs.domain.log.LogLevel;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LogEntryFactoryTest {
+
+    private final LogEntryFactory factory = new LogEntryFactory();
+
+    @Test
+    void shouldShareEqualMdcMapsBetweenEntries() {
+        Map<String, String> first = new HashMap<>(Map.of("tenant", "acme", "region", "eu"));
+        Map<String, String> second = new HashMap<>(first);
+
+        LogEntry a = create(first);
+        LogEntry b = create(second);
+        first.put("tenant", "changed");
+
+        assertThat(a.mdc()).isSameAs(b.mdc()).containsEntry("tenant", "acme");
+        assertThat(create(null).mdc()).isSameAs(create(new HashMap<>()).mdc()).isEmpty();
+        assertThat(factory.getInternedMdcCount()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldKeepIdsUniqueAndTimestampsExact() {
+        long millis = Instant.parse("2026-03-01T10:15:30.123Z").toEpochMilli();
+
+        LogEntry a = create(null);
+        LogEntry b = factory.create(millis, LogLevel.ERROR, "com.example.Test", "failed", "main",
+                "trace-1", "span-1", "stack", null, Map.of());
+
+        assertThat(a.id()).startsWith("log-").isNotEqualTo(b.id());
+        assertThat(b.timestamp()).isEqualTo(Instant.ofEpochMilli(millis));
+        assertThat(b.throwable()).isEqualTo("stack");
+        assertThat(factory.getIdCount()).isEqualTo(2);
+    }
+
+    private LogEntry create(Map<String, String> mdc) {
+        return factory.create(System.currentTimeMillis(), LogLevel.INFO, "com.example.Test", "message", "main",
+                null, null, null, null, mdc);
+    }
+}
@@ -0,0 +1,84 @@
+package io.github.jobs.spring.log;
+
+import io.github.jobs.domain.log.LogEntry;
+import io.github.jobs.domain.log.LogLevel;
+import io.github.jobs.domain.log.LogQuery;
+import io.github.jobs.infrastructure.InMemoryLogRepository;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LogIngestionGovernorTest {
+
+    private final AtomicLong clock = new AtomicLong();
+    private final InMemoryLogRepository repository = new InMemoryLogRepository(100);
+
+    @Test
+    void shouldSuppressNoisyLoggerButKeepWarningsAndSummarize() {
+        List<String> announced = new ArrayList<>();
+        LogIngestionGovernor governor = new LogIngestionGovernor(repository, new LogEntryFactory(),
+                10, 5, Map.of(), LogLevel.WARN, 0, 100, clock::get);
+        governor.addSuppressionListener(announced::add);
+
+        int kept = 0;
+        for (int i = 0; i < 2_000; i++) {
+            if (governor.tryAcquire("com.example.Noisy", LogLevel.INFO)) {
+                kept++;
+            }
+        }
+        assertThat(kept).isEqualTo(5);
+        assertThat(governor.tryAcquire("com.example.Noisy", LogLevel.WARN)).isTrue();
+        assertThat(governor.tryAcquire("com.example.Quiet", LogLevel.INFO)).isTrue();
+
+        // One interval later exactly one more token is available
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(100));
+        assertThat(governor.tryAcquire("com.example.Noisy", LogLevel.DEBUG)).isTrue();
+        assertThat(governor.tryAcquire("com.example.Noisy", LogLevel.DEBUG)).isFalse();
+
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(9));
+        governor.flushSummaries();
+
+        assertThat(announced).containsExactly("com.example.Noisy");
+        assertThat(governor.suppressedCounts()).containsExactly(Map.entry("com.example.Noisy", 1_996L));
+        assertThat(repository.query(LogQuery.builder().build()))
+                .singleElement()
+                .satisfies(entry -> {
+                    assertThat(entry.level()).isEqualTo(LogLevel.WARN);
+                    assertThat(entry.loggerName()).isEqualTo("com.example.Noisy");
+                    assertThat(entry.message()).isEqualTo("1,996 lines suppressed from com.example.Noisy in the last 9s");
+                });
+    }
+
+    @Test
+    void shouldSampleOverBudgetEventsAndApplyLongestPrefixRate() {
+        LogIngestionGovernor governor = new LogIngestionGovernor(repository, new LogEntryFactory(),
+                1, 1, Map.of("com.example", 5.0, "com.example.batch", 50.0), LogLevel.ERROR, 0.1, 1, clock::get);
+
+        assertThat(governor.rateFor("com.example.batch.Job")).isEqualTo(50.0);
+        assertThat(governor.rateFor("com.example.web.Controller")).isEqualTo(5.0);
+        assertThat(governor.rateFor("org.other.Thing")).isEqualTo(1.0);
+
+        int kept = 0;
+        for (int i = 0; i < 1_001; i++) {
+            if (governor.tryAcquire("com.example.Noisy", LogLevel.WARN)) {
+                kept++;
+            }
+        }
+        // The first event takes the only token, then one in ten of the remaining 1,000
+        assertThat(kept).isEqualTo(101);
+
+        // Beyond max-loggers, new loggers share one bucket
+        governor.tryAcquire("org.other.A", LogLevel.INFO);
+        assertThat(governor.tryAcquire("org.other.B", LogLevel.INFO)).isFalse();
+        assertThat(governor.suppressedCounts()).containsOnlyKeys("com.example.Noisy", LogIngestionGovernor.OTHER_LOGGERS);
+        assertThat(governor.getSuppressedCount()).isEqualTo(901);
+        assertThat(repository.query(LogQuery.builder().build()))
+                .extracting(LogEntry::message).isEmpty();
+    }
+}
@@ -0,0 +1,182 @@
+package io.github.jobs.spring.log;
+
+import io.github.jobs.domain.log.LogEntry;
+import io.github.jobs.domain.log.StackTraceRef;
+import io.github.jobs.spring.security.LogSanitizer;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StackTraceDictionaryTest {
+
+    private final AtomicInteger formatted = new AtomicInteger();
+
+    private final StackTraceDictionary.ThrowableAdapter<Throwable> adapter = new StackTraceDictionary.ThrowableAdapter<>() {
+        @Override
+        public String apply(Throwable throwable) {
+            formatted.incrementAndGet();
+            StringWriter out = new StringWriter();
+            throwable.printStackTrace(new PrintWriter(out));
+            return out.toString();
+        }
+
+        @Override
+        public String className(Throwable throwable) {
+            return throwable.getClass().getName();
+        }
+
+        @Override
+        public String message(Throwable throwable) {
+            return throwable.getMessage();
+        }
+
+        @Override
+        public int framesHashCode(Throwable throwable) {
+            return Arrays.hashCode(throwable.getStackTrace());
+        }
+
+        @Override
+        public int frameCount(Throwable throwable) {
+            return throwable.getStackTrace().length;
+        }
+
+        @Override
+        public Throwable cause(Throwable throwable) {
+            return throwable.getCause();
+        }
+
+        @Override
+        public Throwable[] suppressed(Throwable throwable) {
+            return throwable.getSuppressed();
+        }
+    };
+
+    @Test
+    void shouldShareOneLazilyRenderedTracePerException() {
+        StackTraceDictionary dictionary = new StackTraceDictionary(16, new LogSanitizer());
+
+        StackTraceRef first = null;
+        for (int i = 0; i < 1000; i++) {
+            StackTraceRef ref = dictionary.intern(failure("connect failed password=secret1"), adapter);
+            if (first == null) {
+                first = ref;
+            }
+            assertThat(ref).isSameAs(first);
+        }
+
+        assertThat(formatted).hasValue(0);
+        assertThat(dictionary.getMissCount()).isEqualTo(1);
+        assertThat(dictionary.getHitCount()).isEqualTo(999);
+
+        LogEntry entry = LogEntry.builder().message("boom").stackTrace(first).build();
+        assertThat(entry.hasThrowable()).isTrue();
+        assertThat(entry.throwable())
+                .startsWith("java.lang.IllegalStateException: connect failed password=***REDACTED***")
+                .contains("Caused by: java.io.IOException: socket closed")
+                .isSameAs(entry.throwable());
+        assertThat(entry.throwableFingerprint()).isEqualTo(first.fingerprint());
+        assertThat(formatted).hasValue(1);
+        assertThat(dictionary.getRenderCount()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldGroupMessageVariantsUnderOneFingerprint() {
+        StackTraceDictionary dictionary = new StackTraceDictionary(16, null);
+
+        Throwable[] failures = failures("user 42 not found", "user 43 not found", "user missing");
+        StackTraceRef user42 = dictionary.intern(failures[0], adapter);
+        StackTraceRef user43 = dictionary.intern(failures[1], adapter);
+        StackTraceRef other = dictionary.intern(failures[2], adapter);
+
+        assertThat(user42).isNotSameAs(user43);
+        assertThat(user42.fingerprint()).isEqualTo(user43.fingerprint()).isNotEqualTo(other.fingerprint());
+        assertThat(user42.text()).contains("user 42 not found");
+        assertThat(user43.text()).contains("user 43 not found");
+    }
+
+    @Test
+    void shouldRenderEvictedTracesBeforeDroppingThem() {
+        StackTraceDictionary dictionary = new StackTraceDictionary(2, null);
+
+        Throwable[] failures = failures("first", "second", "third", "first");
+        StackTraceRef oldest = dictionary.intern(failures[0], adapter);
+        dictionary.intern(failures[1], adapter);
+        dictionary.intern(failures[2], adapter);
+
+        assertThat(dictionary.size()).isEqualTo(2);
+        assertThat(formatted).hasValue(1);
+        assertThat(oldest.text()).contains("first");
+        assertThat(dictionary.intern(failures[3], adapter)).isNotSameAs(oldest);
+    }
+
+    @Test
+    void shouldNotShareTracesWhoseHashesCollide() {
+        StackTraceDictionary dictionary = new StackTraceDictionary(16, null);
+        // Every frame array hashes the same, so both traces get the same dictionary key
+        StackTraceDictionary.ThrowableAdapter<Throwable> colliding = new StackTraceDictionary.ThrowableAdapter<>() {
+            @Override
+            public String apply(Throwable throwable) {
+                return adapter.apply(throwable);
+            }
+
+            @Override
+            public String className(Throwable throwable) {
+                return adapter.className(throwable);
+            }
+
+            @Override
+            public String message(Throwable throwable) {
+                return adapter.message(throwable);
+            }
+
+            @Override
+            public int framesHashCode(Throwable throwable) {
+                return 0;
+            }
+
+            @Override
+            public int frameCount(Throwable throwable) {
+                return adapter.frameCount(throwable);
+            }
+
+            @Override
+            public Throwable cause(Throwable throwable) {
+                return null;
+            }
+
+            @Override
+            public Throwable[] suppressed(Throwable throwable) {
+                return null;
+            }
+        };
+        Throwable shallow = new IllegalStateException("boom");
+        shallow.setStackTrace(new StackTraceElement[]{new StackTraceElement("A", "run", "A.java", 1)});
+        Throwable deep = new IllegalStateException("boom");
+        deep.setStackTrace(new StackTraceElement[]{new StackTraceElement("B", "call", "B.java", 2),
+                new StackTraceElement("A", "run", "A.java", 1)});
+
+        StackTraceRef first = dictionary.intern(shallow, colliding);
+        StackTraceRef second = dictionary.intern(deep, colliding);
+
+        // The unshared collision is rendered at once so it does not pin the throwable
+        assertThat(formatted).hasValue(1);
+        assertThat(second).isNotSameAs(first);
+        assertThat(second.text()).contains("B.call");
+        assertThat(first.text()).doesNotContain("B.call");
+        assertThat(dictionary.intern(shallow, colliding)).isSameAs(first);
+    }
+
+    private static Throwable[] failures(String... messages) {
+        return Arrays.stream(messages).map(StackTraceDictionaryTest::failure).toArray(Throwable[]::new);
+    }
+
+    private static Throwable failure(String message) {
+        return new IllegalStateException(message, new IOException("socket closed"));
+    }
+}
@@ -0,0 +1,106 @@
+package io.github.jobs.spring.metric;
+
+import io.github.jobs.domain.log.LogEntry;
+import io.github.jobs.domain.log.LogLevel;
+import io.github.jobs.infrastructure.InMemoryLogRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LogDerivedMetricsTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final AtomicLong clock = new AtomicLong(1_700_000_000L);
+
+    @Test
+    void shouldCountMatchingEntriesOnIngestWithTags() {
+        LogDerivedMetrics metrics = new LogDerivedMetrics(registry, List.of(
+                new LogDerivedMetrics.Rule("app.logs.timeouts", LogLevel.WARN, "com.example", "TIMEOUT",
+                        null, true, List.of("tenant")),
+                new LogDerivedMetrics.Rule("app.logs.http5xx", null, null, null, "status=5\\d\\d", false, null),
+                new LogDerivedMetrics.Rule("app.logs.broken", null, null, null, "(", false, null)
+        ), 2, clock::get);
+        InMemoryLogRepository repository = new InMemoryLogRepository(100);
+        metrics.bind(repository);
+
+        repository.add(entry(LogLevel.WARN, "com.example.Db", "Query timeout after 5s", Map.of("tenant", "a")));
+        repository.add(entry(LogLevel.ERROR, "com.example.Db", "Timeout, status=503", Map.of("tenant", "a")));
+        repository.add(entry(LogLevel.INFO, "com.example.Db", "timeout ignored below WARN", Map.of()));
+        repository.add(entry(LogLevel.ERROR, "org.other.Client", "timeout elsewhere", Map.of()));
+        clock.addAndGet(120);
+        repository.add(entry(LogLevel.WARN, "com.example.Http", "read timeout", Map.of()));
+        repository.add(entry(LogLevel.WARN, "com.example.Cache", "timeout", Map.of("tenant", "b")));
+
+        assertThat(metrics.ruleNames()).containsExactly("app.logs.timeouts", "app.logs.http5xx");
+        assertThat(registry.get("app.logs.timeouts").tags("logger", "com.example.Db", "tenant", "a")
+                .counter().count()).isEqualTo(2);
+        assertThat(registry.get("app.logs.timeouts").tags("logger", "com.example.Http", "tenant", "none")
+                .counter().count()).isEqualTo(1);
+        // Third tag combination exceeds max-series
+        assertThat(registry.get("app.logs.timeouts").tags("logger", "other", "tenant", "other")
+                .counter().count()).isEqualTo(1);
+        assertThat(registry.get("app.logs.http5xx").counter().count()).isEqualTo(1);
+
+        assertThat(metrics.count("app.logs.timeouts", Duration.ofMinutes(5))).isEqualTo(4);
+        assertThat(metrics.count("app.logs.timeouts", Duration.ofMinutes(1))).isEqualTo(2);
+        assertThat(metrics.count("missing", Duration.ofMinutes(1))).isEqualTo(-1);
+        // Longer windows are not clamped to the ring: callers count them from the logs instead
+        assertThat(metrics.count("app.logs.timeouts", Duration.ofHours(2))).isEqualTo(-1);
+        assertThat(metrics.matcher("app.logs.timeouts"))
+                .accepts(entry(LogLevel.WARN, "com.example.Db", "timeout", Map.of()))
+                .rejects(entry(LogLevel.INFO, "com.example.Db", "timeout", Map.of()));
+        assertThat(metrics.matcher("missing")).isNull();
+
+        metrics.destroy();
+        repository.add(entry(LogLevel.ERROR, "com.example.Db", "timeout", Map.of()));
+        assertThat(metrics.count("app.logs.timeouts", Duration.ofMinutes(5))).isEqualTo(4);
+    }
+
+    @Test
+    void shouldNotLoseConcurrentIncrementsWhenASlotMovesToANewSecond() throws InterruptedException {
+        LogDerivedMetrics.SecondWindow window = new LogDerivedMetrics.SecondWindow(60);
+        window.increment(1_700_000_000L);
+        int threads = 8;
+        int perThread = 10_000;
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> workers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            Thread worker = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                for (int i = 0; i < perThread; i++) {
+                    // Same slot as the second above, one lap later
+                    window.increment(1_700_000_060L);
+                }
+            });
+            worker.start();
+            workers.add(worker);
+        }
+        start.countDown();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+
+        assertThat(window.sum(1_700_000_060L, 60)).isEqualTo((long) threads * perThread);
+    }
+
+    private static LogEntry entry(LogLevel level, String logger, String message, Map<String, String> mdc) {
+        return LogEntry.builder()
+                .level(level)
+                .loggerName(logger)
+                .message(message)
+                .mdc(mdc)
+                .build();
+    }
+}
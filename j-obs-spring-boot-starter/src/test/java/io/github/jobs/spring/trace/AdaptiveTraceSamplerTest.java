@@ -0,0 +1,129 @@
+package io.github.jobs.spring.trace;
+
+import io.github.jobs.spring.trace.AdaptiveTraceSampler.EndpointRate;
+import io.github.jobs.spring.trace.AdaptiveTraceSampler.Snapshot;
+import io.github.jobs.domain.trace.Span;
+import io.github.jobs.domain.trace.Trace;
+import io.github.jobs.infrastructure.InMemoryTraceRepository;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class AdaptiveTraceSamplerTest {
+
+    private final AtomicLong clock = new AtomicLong();
+    private final AdaptiveTraceSampler sampler = new AdaptiveTraceSampler(
+            10, Duration.ofSeconds(10), Duration.ofSeconds(10), 100, clock::get);
+
+    @Test
+    void shouldGiveQuietEndpointsTheirFullRateAndSplitTheRestOfTheBudget() {
+        // 100 traces/s on a hot endpoint, 2 traces/s on a quiet one
+        int id = 0;
+        for (int second = 0; second < 10; second++) {
+            clock.set(second * 1000L);
+            for (int i = 0; i < 100; i++) {
+                assertThat(sampler.shouldSample(traceId(id++), "GET /hot")).isTrue();
+            }
+            sampler.shouldSample(traceId(id++), "GET /quiet");
+            sampler.shouldSample(traceId(id++), "GET /quiet");
+        }
+
+        clock.set(10_000);
+        sampler.shouldSample(traceId(id++), "GET /hot");
+
+        Snapshot snapshot = sampler.snapshot();
+        assertThat(snapshot.epoch()).isEqualTo(1);
+        assertThat(snapshot.incomingPerSecond()).isEqualTo(102.0);
+        assertThat(snapshot.endpoints()).extracting(EndpointRate::endpoint).containsExactly("GET /hot", "GET /quiet");
+        assertThat(snapshot.endpoints().get(0).probability()).isCloseTo(0.08, within(1e-9));
+        assertThat(snapshot.endpoints().get(1).probability()).isEqualTo(1.0);
+        // The kept rate matches the budget: 2 quiet + 8 hot traces per second
+        assertThat(sampler.getSampleRate()).isCloseTo(10.0 / 102, within(1e-9));
+
+        int kept = 0;
+        for (int i = 0; i < 10_000; i++) {
+            if (sampler.shouldSample(traceId(id++), "GET /hot")) {
+                kept++;
+            }
+        }
+        assertThat(kept).isBetween(600, 1000);
+    }
+
+    @Test
+    void shouldKeepDecisionsStableWithinAnEpoch() {
+        for (int i = 0; i < 500; i++) {
+            sampler.shouldSample(traceId(i), "GET /hot");
+        }
+        clock.set(10_000);
+        sampler.shouldSample(traceId(0), "GET /hot");
+        double probability = sampler.snapshot().endpoints().get(0).probability();
+        assertThat(probability).isCloseTo(0.2, within(1e-9));
+
+        for (int i = 0; i < 200; i++) {
+            boolean first = sampler.shouldSample(traceId(i), "GET /hot");
+            clock.addAndGet(10);
+            assertThat(sampler.shouldSample(traceId(i), "GET /hot")).isEqualTo(first);
+        }
+        assertThat(sampler.snapshot().epoch()).isEqualTo(1);
+
+        // Traffic stopped: the next epoch forgets the endpoint and traces start fully sampled again
+        clock.set(40_000);
+        assertThat(sampler.shouldSample(traceId(1), "GET /hot")).isTrue();
+        assertThat(sampler.snapshot().epoch()).isEqualTo(2);
+        assertThat(sampler.getSampleRate()).isEqualTo(1.0);
+    }
+
+    @Test
+    void shouldDecideEachTraceOnceBehindTheRepository() {
+        InMemoryTraceRepository store = new InMemoryTraceRepository(Duration.ofHours(1), 10_000);
+        SamplingTraceRepository repository = new SamplingTraceRepository(store, sampler);
+        for (int i = 0; i < 500; i++) {
+            repository.addSpans(List.of(span(traceId(i), "b" + i, "a" + i, "SELECT"),
+                    span(traceId(i), "a" + i, null, "GET /hot")));
+            // A late span of the same trace is not counted again
+            repository.addSpan(span(traceId(i), "c" + i, "a" + i, "SELECT"));
+        }
+        clock.set(10_000);
+        sampler.shouldSample(traceId(500), "GET /hot");
+
+        // Each trace is counted once, under the root span name found in its first batch
+        assertThat(sampler.snapshot().incomingPerSecond()).isEqualTo(50.0);
+        assertThat(sampler.snapshot().endpoints()).extracting(EndpointRate::endpoint).containsExactly("GET /hot");
+
+        int kept = 0;
+        for (int i = 1000; i < 1200; i++) {
+            repository.addSpans(List.of(span(traceId(i), "a" + i, null, "GET /hot")));
+            clock.addAndGet(100);
+            // Later spans follow the first decision, even after the probabilities changed
+            repository.addSpan(span(traceId(i), "b" + i, "a" + i, "SELECT"));
+            Trace trace = store.findByTraceId(traceId(i)).orElse(null);
+            if (trace != null) {
+                assertThat(trace.spans()).hasSize(2);
+                kept++;
+            }
+        }
+        assertThat(sampler.snapshot().epoch()).isGreaterThan(1);
+        assertThat(kept).isBetween(1, 199);
+    }
+
+    private static Span span(String traceId, String spanId, String parentSpanId, String name) {
+        return Span.builder()
+                .traceId(traceId)
+                .spanId(spanId)
+                .parentSpanId(parentSpanId)
+                .name(name)
+                .startTime(Instant.EPOCH)
+                .endTime(Instant.EPOCH.plusMillis(5))
+                .build();
+    }
+
+    private static String traceId(int i) {
+        return String.format("%032x", i * 7919L);
+    }
+}
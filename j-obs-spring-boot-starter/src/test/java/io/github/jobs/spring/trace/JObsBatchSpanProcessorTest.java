@@ -0,0 +1,135 @@
+package io.github.jobs.spring.trace;
+
+import io.opentelemetry.api.trace.Tracer;
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+import io.opentelemetry.sdk.trace.samplers.Sampler;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JObsBatchSpanProcessorTest {
+
+    @Test
+    void shouldExportEndedSpansInBatchesFromBackgroundThread() {
+        RecordingExporter exporter = new RecordingExporter(null);
+        JObsBatchSpanProcessor processor = new JObsBatchSpanProcessor("test", exporter, 64, 10,
+                Duration.ofMinutes(1), Duration.ofSeconds(5));
+        SdkTracerProvider provider = SdkTracerProvider.builder().addSpanProcessor(processor).build();
+        Tracer tracer = provider.get("test");
+
+        for (int i = 0; i < 25; i++) {
+            tracer.spanBuilder("op-" + i).startSpan().end();
+        }
+        assertThat(processor.forceFlush().join(5, TimeUnit.SECONDS).isSuccess()).isTrue();
+
+        assertThat(exporter.batchSizes).containsExactly(10, 10, 5);
+        assertThat(exporter.threads).allMatch(name -> name.equals("j-obs-span-export-test"));
+        assertThat(processor.getExportedCount()).isEqualTo(25);
+        assertThat(processor.getExportCallCount()).isEqualTo(3);
+        assertThat(processor.getQueueSize()).isZero();
+
+        provider.shutdown().join(5, TimeUnit.SECONDS);
+        assertThat(exporter.shutdown).isTrue();
+    }
+
+    @Test
+    void shouldDropSpansWhenQueueIsFullAndSkipUnsampledSpans() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        RecordingExporter exporter = new RecordingExporter(release);
+        JObsBatchSpanProcessor processor = new JObsBatchSpanProcessor("blocked", exporter, 4, 4,
+                Duration.ofMillis(1), Duration.ofSeconds(5));
+        SdkTracerProvider provider = SdkTracerProvider.builder().addSpanProcessor(processor).build();
+        Tracer tracer = provider.get("test");
+
+        // The first export blocks the worker, so further spans pile up in the ring
+        tracer.spanBuilder("first").startSpan().end();
+        exporter.entered.await(5, TimeUnit.SECONDS);
+        for (int i = 0; i < 10; i++) {
+            tracer.spanBuilder("op-" + i).startSpan().end();
+        }
+        assertThat(processor.capacity()).isEqualTo(4);
+        assertThat(processor.getQueueSize()).isEqualTo(4);
+        assertThat(processor.getDroppedCount()).isEqualTo(6);
+
+        SdkTracerProvider unsampled = SdkTracerProvider.builder()
+                .setSampler(Sampler.alwaysOff())
+                .addSpanProcessor(processor)
+                .build();
+        unsampled.get("test").spanBuilder("ignored").startSpan().end();
+        assertThat(processor.getDroppedCount()).isEqualTo(6);
+
+        release.countDown();
+        processor.shutdown().join(5, TimeUnit.SECONDS);
+        assertThat(processor.getExportedCount()).isEqualTo(5);
+    }
+
+    @Test
+    void shouldShutExporterDownOnlyAfterTheLastExport() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        RecordingExporter exporter = new RecordingExporter(release);
+        JObsBatchSpanProcessor processor = new JObsBatchSpanProcessor("slow", exporter, 4, 4,
+                Duration.ofMillis(1), Duration.ofMillis(50));
+        SdkTracerProvider provider = SdkTracerProvider.builder().addSpanProcessor(processor).build();
+        provider.get("test").spanBuilder("first").startSpan().end();
+        exporter.entered.await(5, TimeUnit.SECONDS);
+
+        // The worker is still exporting when the join times out
+        CompletableResultCode result = processor.shutdown();
+        assertThat(result.isDone()).isFalse();
+        assertThat(exporter.shutdown).isFalse();
+
+        release.countDown();
+        assertThat(result.join(5, TimeUnit.SECONDS).isSuccess()).isTrue();
+        assertThat(exporter.shutdown).isTrue();
+        assertThat(processor.shutdown()).isSameAs(result);
+    }
+
+    private static final class RecordingExporter implements SpanExporter {
+        private final CountDownLatch release;
+        private final CountDownLatch entered = new CountDownLatch(1);
+        private final List<Integer> batchSizes = new CopyOnWriteArrayList<>();
+        private final List<String> threads = new CopyOnWriteArrayList<>();
+        private volatile boolean shutdown;
+
+        RecordingExporter(CountDownLatch release) {
+            this.release = release;
+        }
+
+        @Override
+        public CompletableResultCode export(Collection<SpanData> spans) {
+            batchSizes.add(new ArrayList<>(spans).size());
+            threads.add(Thread.currentThread().getName());
+            entered.countDown();
+            if (release != null) {
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            return CompletableResultCode.ofSuccess();
+        }
+
+        @Override
+        public CompletableResultCode flush() {
+            return CompletableResultCode.ofSuccess();
+        }
+
+        @Override
+        public CompletableResultCode shutdown() {
+            shutdown = true;
+            return CompletableResultCode.ofSuccess();
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package io.github.jobs.spring.trace;
+
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.SpanContext;
+import io.opentelemetry.api.trace.TraceFlags;
+import io.opentelemetry.api.trace.TraceState;
+import io.opentelemetry.api.trace.Tracer;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.context.Scope;
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.SimpleSpanProcessor;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JObsHeadSamplerTest {
+
+    private final TraceSampler traceSampler = new TraceSampler(0.3);
+    private final CountingExporter exporter = new CountingExporter();
+    private final SdkTracerProvider provider = SdkTracerProvider.builder()
+            .setSampler(JObsHeadSampler.create(traceSampler))
+            .addSpanProcessor(SimpleSpanProcessor.create(exporter))
+            .build();
+    private final Tracer tracer = provider.get("test");
+
+    @AfterEach
+    void tearDown() {
+        provider.close();
+    }
+
+    @Test
+    void shouldSampleRootSpansByTraceIdAndPropagateDecisionToChildren() {
+        int sampledRoots = 0;
+        for (int i = 0; i < 200; i++) {
+            Span root = tracer.spanBuilder("root").startSpan();
+            String traceId = root.getSpanContext().getTraceId();
+            assertThat(root.isRecording()).isEqualTo(traceSampler.shouldSample(traceId));
+            assertThat(root.getSpanContext().isSampled()).isEqualTo(root.isRecording());
+
+            try (Scope ignored = root.makeCurrent()) {
+                Span child = tracer.spanBuilder("child").startSpan();
+                assertThat(child.isRecording()).isEqualTo(root.isRecording());
+                child.end();
+            }
+            if (root.isRecording()) {
+                sampledRoots++;
+            }
+            root.end();
+        }
+
+        assertThat(sampledRoots).isBetween(20, 100);
+        assertThat(exporter.count()).isEqualTo(sampledRoots * 2L);
+    }
+
+    @Test
+    void shouldHonorUpstreamSampledFlag() {
+        String droppedTraceId = findTraceId(false);
+        String keptTraceId = findTraceId(true);
+
+        Span fromSampledCaller = tracer.spanBuilder("server")
+                .setParent(remoteParent(droppedTraceId, TraceFlags.getSampled()))
+                .startSpan();
+        Span fromUnsampledCaller = tracer.spanBuilder("server")
+                .setParent(remoteParent(keptTraceId, TraceFlags.getDefault()))
+                .startSpan();
+
+        assertThat(fromSampledCaller.isRecording()).isTrue();
+        assertThat(fromUnsampledCaller.isRecording()).isFalse();
+    }
+
+    private String findTraceId(boolean sampled) {
+        for (int i = 1; ; i++) {
+            String traceId = String.format("%032x", i);
+            if (traceSampler.shouldSample(traceId) == sampled) {
+                return traceId;
+            }
+        }
+    }
+
+    private static Context remoteParent(String traceId, TraceFlags flags) {
+        SpanContext parent = SpanContext.createFromRemoteParent(traceId, "00f067aa0ba902b7", flags,
+                TraceState.getDefault());
+        return Context.root().with(Span.wrap(parent));
+    }
+
+    private static final class CountingExporter implements SpanExporter {
+        private final AtomicLong exported = new AtomicLong();
+
+        long count() {
+            return exported.get();
+        }
+
+        @Override
+        public CompletableResultCode export(Collection<SpanData> spans) {
+            exported.addAndGet(spans.size());
+            return CompletableResultCode.ofSuccess();
+        }
+
+        @Override
+        public CompletableResultCode flush() {
+            return CompletableResultCode.ofSuccess();
+        }
+
+        @Override
+        public CompletableResultCode shutdown() {
+            return CompletableResultCode.ofSuccess();
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package io.github.jobs.spring.trace;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RotatingBloomFilterTest {
+
+    private final AtomicLong clock = new AtomicLong();
+
+    @Test
+    void shouldRememberTwoGenerationsWithinTheFalsePositiveRate() {
+        RotatingBloomFilter filter = new RotatingBloomFilter(10_000, 0.01, Duration.ofHours(1), clock::get);
+
+        // Two full generations
+        for (int i = 0; i < 20_000; i++) {
+            filter.put(traceId(i));
+        }
+        for (int i = 0; i < 20_000; i++) {
+            assertThat(filter.mightContain(traceId(i))).isTrue();
+        }
+
+        int falsePositives = 0;
+        for (int i = 1_000_000; i < 1_100_000; i++) {
+            if (filter.mightContain(traceId(i))) {
+                falsePositives++;
+            }
+        }
+        // About 0.5% per full filter
+        assertThat(falsePositives).isLessThan(1_200);
+
+        // A third generation drops the first one; keys added again survive
+        filter.put(traceId(10_000));
+        for (int i = 20_000; i < 30_000; i++) {
+            filter.put(traceId(i));
+        }
+        assertThat(filter.mightContain(traceId(10_000))).isTrue();
+        int remembered = 0;
+        for (int i = 0; i < 10_000; i++) {
+            if (filter.mightContain(traceId(i))) {
+                remembered++;
+            }
+        }
+        assertThat(remembered).isLessThan(300);
+        assertThat(filter.getMemoryBytes()).isLessThan(30_000);
+    }
+
+    @Test
+    void shouldRotateAfterTheRotationInterval() {
+        RotatingBloomFilter filter = new RotatingBloomFilter(1_000, 0.01, Duration.ofSeconds(60), clock::get);
+        filter.put("old");
+
+        clock.set(Duration.ofSeconds(61).toNanos());
+        filter.put("recent");
+        assertThat(filter.mightContain("old")).isTrue();
+        assertThat(filter.getCurrentInsertions()).isEqualTo(1);
+
+        clock.set(Duration.ofSeconds(122).toNanos());
+        assertThat(filter.mightContain("old")).isFalse();
+        assertThat(filter.mightContain("recent")).isTrue();
+    }
+
+    private static String traceId(int i) {
+        return String.format("%032x", i * 0x9E3779B1L);
+    }
+}
@@ -0,0 +1,142 @@
+package io.github.jobs.spring.trace;
+
+import io.github.jobs.domain.trace.Span;
+import io.github.jobs.domain.trace.SpanKind;
+import io.github.jobs.domain.trace.SpanStatus;
+import io.github.jobs.infrastructure.InMemoryTraceRepository;
+import io.github.jobs.spring.trace.TailSamplingTraceRepository.Decision;
+import io.github.jobs.spring.trace.TailSamplingTraceRepository.LateSpanPolicy;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TailSamplingTraceRepositoryTest {
+
+    private static final Instant START = Instant.parse("2026-01-01T00:00:00Z");
+
+    private final InMemoryTraceRepository store = new InMemoryTraceRepository(Duration.ofHours(1), 1000);
+    private final AtomicLong clock = new AtomicLong();
+
+    @AfterEach
+    void tearDown() {
+        store.shutdown();
+    }
+
+    @Test
+    void shouldKeepErrorAndSlowTracesAndCapFastTracesPerEndpoint() {
+        TailSamplingTraceRepository repository = repository(1000, LateSpanPolicy.FOLLOW_DECISION);
+
+        // Child spans end first; the trace waits for its root and the quiet period
+        repository.addSpan(span("t-error", "c1", "root", "db", 5, SpanStatus.ERROR));
+        tick(Duration.ofSeconds(5));
+        repository.decideReadyTraces();
+        assertThat(repository.getPendingTraceCount()).isEqualTo(1);
+
+        repository.addSpan(span("t-error", "root", null, "GET /orders", 20, SpanStatus.OK));
+        repository.addSpans(List.of(
+                span("t-slow", "root", null, "GET /orders", 1500, SpanStatus.OK),
+                span("t-fast1", "root", null, "GET /orders", 10, SpanStatus.OK),
+                span("t-fast2", "root", null, "GET /orders", 10, SpanStatus.OK),
+                span("t-fast3", "root", null, "GET /health", 10, SpanStatus.OK)));
+        assertThat(repository.getBufferedSpanCount()).isEqualTo(6);
+        assertThat(store.count()).isZero();
+
+        tick(Duration.ofSeconds(3));
+        repository.decideReadyTraces();
+
+        assertThat(repository.getPendingTraceCount()).isZero();
+        assertThat(repository.getBufferedSpanCount()).isZero();
+        assertThat(store.findByTraceId("t-error")).hasValueSatisfying(trace -> assertThat(trace.spanCount()).isEqualTo(2));
+        assertThat(store.findByTraceId("t-slow")).isPresent();
+        assertThat(store.findByTraceId("t-fast3")).isPresent();
+        // One fast trace per endpoint and second, probability 0 for the rest
+        assertThat(store.findByTraceId("t-fast1").isPresent() ^ store.findByTraceId("t-fast2").isPresent()).isTrue();
+        assertThat(repository.getDecisionCount(Decision.KEPT_ERROR)).isEqualTo(1);
+        assertThat(repository.getDecisionCount(Decision.KEPT_LATENCY)).isEqualTo(1);
+        assertThat(repository.getDecisionCount(Decision.KEPT_RATE_LIMIT)).isEqualTo(2);
+        assertThat(repository.getDecisionCount(Decision.DROPPED)).isEqualTo(1);
+        assertThat(repository.getDecisionNanos()).isEqualTo(Duration.ofSeconds(8 + 4 * 3).toNanos());
+
+        // Late spans follow the decision of their trace
+        String dropped = store.findByTraceId("t-fast1").isPresent() ? "t-fast2" : "t-fast1";
+        repository.addSpans(List.of(
+                span("t-error", "late", "root", "cache", 1, SpanStatus.OK),
+                span(dropped, "late", "root", "cache", 1, SpanStatus.OK)));
+        assertThat(store.findByTraceId("t-error").orElseThrow().spanCount()).isEqualTo(3);
+        assertThat(store.findByTraceId(dropped)).isEmpty();
+        assertThat(repository.getLateSpansKept()).isEqualTo(1);
+        assertThat(repository.getLateSpansDropped()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldDecideOldestTracesEarlyUnderMemoryPressure() {
+        TailSamplingTraceRepository repository = repository(10, LateSpanPolicy.DROP);
+
+        repository.addSpans(List.of(
+                span("t-old", "s1", "root", "db", 5, SpanStatus.ERROR),
+                span("t-old", "s2", "root", "cache", 5, SpanStatus.OK)));
+        for (int i = 0; i < 9; i++) {
+            tick(Duration.ofMillis(1));
+            repository.addSpan(span("t-new", "s" + i, "root", "db", 5, SpanStatus.OK));
+        }
+
+        // 11 spans > 10: the oldest trace is decided with what it has, and its error still wins
+        assertThat(repository.getEvictedTraceCount()).isEqualTo(1);
+        assertThat(repository.getBufferedSpanCount()).isEqualTo(9);
+        assertThat(repository.getPendingTraceCount()).isEqualTo(1);
+        assertThat(store.findByTraceId("t-old")).isPresent();
+
+        repository.addSpan(span("t-old", "root", null, "GET /orders", 20, SpanStatus.OK));
+        assertThat(store.findByTraceId("t-old").orElseThrow().spanCount()).isEqualTo(2);
+        assertThat(repository.getLateSpansDropped()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldEvictOnlyTheOldestTracesCoveringTheExcess() {
+        TailSamplingTraceRepository repository = repository(20, LateSpanPolicy.DROP);
+
+        for (int i = 0; i < 21; i++) {
+            tick(Duration.ofMillis(1));
+            repository.addSpan(span("t" + i, "s", "root", "db", 5, SpanStatus.ERROR));
+        }
+
+        // 21 spans > 20: back under 18 by deciding the three oldest traces
+        assertThat(repository.getEvictedTraceCount()).isEqualTo(3);
+        assertThat(repository.getBufferedSpanCount()).isEqualTo(18);
+        assertThat(store.findByTraceId("t0")).isPresent();
+        assertThat(store.findByTraceId("t1")).isPresent();
+        assertThat(store.findByTraceId("t2")).isPresent();
+        assertThat(store.findByTraceId("t3")).isEmpty();
+    }
+
+    private TailSamplingTraceRepository repository(int maxBufferedSpans, LateSpanPolicy latePolicy) {
+        TailSamplingTraceRepository.Config config = new TailSamplingTraceRepository.Config(
+                Duration.ofSeconds(2), Duration.ofSeconds(30), maxBufferedSpans, Duration.ofSeconds(1),
+                true, 1.0, 0.0, latePolicy);
+        return new TailSamplingTraceRepository(store, config, clock::get, false);
+    }
+
+    private void tick(Duration duration) {
+        clock.addAndGet(duration.toNanos());
+    }
+
+    private static Span span(String traceId, String spanId, String parentSpanId, String name,
+                             long durationMs, SpanStatus status) {
+        return Span.builder()
+                .traceId(traceId)
+                .spanId(spanId)
+                .parentSpanId(parentSpanId)
+                .name(name)
+                .kind(parentSpanId == null ? SpanKind.SERVER : SpanKind.INTERNAL)
+                .startTime(START)
+                .endTime(START.plusMillis(durationMs))
+                .status(status)
+                .build();
+    }
+}
@@ -0,0 +1,140 @@
+package io.github.jobs.spring.web;
+
+import com.jayway.jsonpath.JsonPath;
+import io.github.jobs.application.LogRepository;
+import io.github.jobs.domain.log.LogEntry;
+import io.github.jobs.domain.log.LogLevel;
+import io.github.jobs.infrastructure.InMemoryLogRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(LogApiController.class)
+class LogApiControllerTest {
+
+    private static final Instant BASE = Instant.parse("2026-01-01T00:00:00Z");
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private LogRepository logRepository;
+
+    @TestConfiguration
+    static class TestConfig {
+        @Bean
+        public LogRepository logRepository() {
+            return new InMemoryLogRepository(1000);
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        logRepository.clear();
+    }
+
+    @Test
+    void shouldPageThroughLogsWithCursor() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            addLog(i, "com.example.Service", "message " + i);
+        }
+
+        List<String> messages = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            var request = get("/j-obs/api/logs").param("limit", "2").accept(MediaType.APPLICATION_JSON);
+            if (cursor != null) {
+                request.param("cursor", cursor);
+            }
+            String body = mockMvc.perform(request)
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.total", is(5)))
+                    .andReturn().getResponse().getContentAsString();
+            messages.addAll(JsonPath.read(body, "$.logs[*].message"));
+            cursor = JsonPath.read(body, "$.nextCursor");
+            pages++;
+        } while (cursor != null);
+
+        assertThat(pages).isEqualTo(3);
+        assertThat(messages).containsExactly("message 4", "message 3", "message 2", "message 1", "message 0");
+    }
+
+    @Test
+    void shouldRejectMalformedCursor() throws Exception {
+        mockMvc.perform(get("/j-obs/api/logs")
+                        .param("cursor", "not-a-cursor")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void shouldRejectMalformedSearch() throws Exception {
+        mockMvc.perform(get("/j-obs/api/logs")
+                        .param("search", "(timeout OR retry")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+
+        mockMvc.perform(get("/j-obs/api/logs/facets")
+                        .param("search", "(timeout OR retry")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void shouldRejectFacetIntervalBelowOneSecond() throws Exception {
+        mockMvc.perform(get("/j-obs/api/logs/facets")
+                        .param("interval", "500ms")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+
+        mockMvc.perform(get("/j-obs/api/logs/facets")
+                        .param("interval", "soon")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void shouldClampFacetTop() throws Exception {
+        for (int i = 0; i < 120; i++) {
+            addLog(i, "com.example.Service" + i, "message " + i);
+        }
+
+        mockMvc.perform(get("/j-obs/api/logs/facets")
+                        .param("top", "1000")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total", is(120)))
+                .andExpect(jsonPath("$.loggers", hasSize(100)));
+
+        mockMvc.perform(get("/j-obs/api/logs/facets")
+                        .param("top", "0")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.loggers", hasSize(1)));
+    }
+
+    private void addLog(int index, String logger, String message) {
+        logRepository.add(LogEntry.builder()
+                .timestamp(BASE.plusSeconds(index))
+                .level(LogLevel.INFO)
+                .loggerName(logger)
+                .threadName("main")
+                .message(message)
+                .build());
+    }
+}
@@ -1,7 +1,11 @@
 package io.github.jobs.spring.web;
 
+import io.github.jobs.application.LogRepository;
 import io.github.jobs.application.TraceRepository;
+import io.github.jobs.domain.log.LogEntry;
+import io.github.jobs.domain.log.LogLevel;
 import io.github.jobs.domain.trace.*;
+import io.github.jobs.infrastructure.InMemoryLogRepository;
 import io.github.jobs.infrastructure.InMemoryTraceRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -28,17 +32,26 @@ class TraceApiControllerTest {
     @Autowired
     private TraceRepository traceRepository;
 
+    @Autowired
+    private LogRepository logRepository;
+
     @TestConfiguration
     static class TestConfig {
         @Bean
         public TraceRepository traceRepository() {
             return new InMemoryTraceRepository(Duration.ofHours(1), 1000);
         }
+
+        @Bean
+        public LogRepository logRepository() {
+            return new InMemoryLogRepository(1000);
+        }
     }
 
     @BeforeEach
     void setUp() {
         traceRepository.clear();
+        logRepository.clear();
     }
 
     @Test
@@ -114,6 +127,29 @@ class TraceApiControllerTest {
                 .andExpect(jsonPath("$.spansIncluded", is(true)));
     }
 
+    @Test
+    void shouldIncludeCorrelatedLogsOnlyWhenRequested() throws Exception {
+        addSpan("trace-logs", "span-1", null, "GET /api/users", "user-service", SpanStatus.OK, 100);
+        logRepository.add(log("trace-logs", "span-1", "loading user"));
+        logRepository.add(log("trace-logs", "span-1", "user loaded"));
+        logRepository.add(log("trace-other", "span-9", "unrelated"));
+
+        mockMvc.perform(get("/j-obs/api/traces/trace-logs")
+                        .param("includeLogs", "true")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.logsIncluded", is(true)))
+                .andExpect(jsonPath("$.logs", hasSize(2)))
+                .andExpect(jsonPath("$.logs[*].traceId", everyItem(is("trace-logs"))))
+                .andExpect(jsonPath("$.logs[*].message", containsInAnyOrder("loading user", "user loaded")));
+
+        mockMvc.perform(get("/j-obs/api/traces/trace-logs")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.logsIncluded", is(false)))
+                .andExpect(jsonPath("$.logs", hasSize(0)));
+    }
+
     @Test
     void shouldGetTraceWithoutSpans() throws Exception {
         Instant start = Instant.now();
@@ -239,6 +275,16 @@ class TraceApiControllerTest {
                 .andExpect(jsonPath("$.traces", hasSize(0)));
     }
 
+    private static LogEntry log(String traceId, String spanId, String message) {
+        return LogEntry.builder()
+                .level(LogLevel.INFO)
+                .loggerName("com.example.UserService")
+                .message(message)
+                .traceId(traceId)
+                .spanId(spanId)
+                .build();
+    }
+
     private void addSpan(String traceId, String spanId, String parentSpanId, String name, String serviceName, SpanStatus status, long durationMs) {
         Instant start = Instant.now();
         addSpanWithTime(traceId, spanId, parentSpanId, name, serviceName, status, start, durationMs);
@@ -0,0 +1,129 @@
+package io.github.jobs.spring.webflux;
+
+import io.github.jobs.application.LogRepository.SubscriptionOptions;
+import io.github.jobs.domain.log.LogEntry;
+import io.github.jobs.domain.log.LogLevel;
+import io.github.jobs.infrastructure.InMemoryLogRepository;
+import io.github.jobs.spring.log.LogStreamSubscriptions;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.codec.ServerSentEvent;
+import reactor.core.Disposable;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ReactiveLogStreamHandlerTest {
+
+    private final InMemoryLogRepository repository = new InMemoryLogRepository(100);
+    private final LogStreamSubscriptions subscriptions = new LogStreamSubscriptions(repository);
+    private final ReactiveLogStreamHandler handler = new ReactiveLogStreamHandler(subscriptions,
+            ReactiveLogStreamHandler.Backpressure.BUFFER, 8, 10, Duration.ofMillis(20));
+
+    @Test
+    void shouldShareOneSubscriptionAndFilterPerClient() throws InterruptedException {
+        List<String> all = new CopyOnWriteArrayList<>();
+        List<String> errors = new CopyOnWriteArrayList<>();
+        Disposable first = handler.streamLogs(LogLevel.INFO, null, null).subscribe(event -> collect(event, all));
+        Disposable second = handler.streamLogs(LogLevel.ERROR, null, "disk").subscribe(event -> collect(event, errors));
+
+        assertThat(subscriptions.active()).hasSize(1);
+        assertThat(handler.getClientCount()).isEqualTo(2);
+
+        repository.add(entry("started", LogLevel.INFO));
+        repository.add(entry("disk full", LogLevel.ERROR));
+        repository.add(entry("network down", LogLevel.ERROR));
+        awaitSize(all, 3);
+        awaitSize(errors, 1);
+
+        assertThat(all).containsExactly("started", "disk full", "network down");
+        assertThat(errors).containsExactly("disk full");
+
+        first.dispose();
+        assertThat(subscriptions.active()).hasSize(1);
+        second.dispose();
+        assertThat(subscriptions.active()).isEmpty();
+        assertThat(handler.getClientCount()).isZero();
+    }
+
+    @Test
+    void shouldBatchEntriesIntoOneEvent() throws InterruptedException {
+        List<ServerSentEvent<String>> events = new CopyOnWriteArrayList<>();
+        Disposable client = handler.streamLogs(LogLevel.INFO, null, null).subscribe(events::add);
+
+        for (int i = 0; i < 10; i++) {
+            repository.add(entry("m" + i, LogLevel.INFO));
+        }
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (events.isEmpty() && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        client.dispose();
+
+        assertThat(events).isNotEmpty();
+        assertThat(events.get(0).event()).isEqualTo("logs");
+        assertThat(events.get(0).data()).startsWith("{\"type\":\"logs\",\"data\":[");
+        assertThat(events.stream().mapToInt(event -> event.data().split("\"message\"").length - 1).sum())
+                .isEqualTo(10);
+    }
+
+    @Test
+    void shouldCompleteClientStreamsWhenSharedSubscriptionIsDisconnected() throws InterruptedException {
+        LogStreamSubscriptions disconnecting = new LogStreamSubscriptions(repository, 1,
+                SubscriptionOptions.DispatchMode.PLATFORM_THREAD, SubscriptionOptions.OverflowPolicy.DISCONNECT);
+        ReactiveLogStreamHandler slowHandler = new ReactiveLogStreamHandler(disconnecting,
+                ReactiveLogStreamHandler.Backpressure.BUFFER, 8, 1, Duration.ofSeconds(10));
+        CountDownLatch received = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch completed = new CountDownLatch(1);
+        slowHandler.streamLogs(LogLevel.INFO, null, null).subscribe(event -> {
+            // Blocks the dispatcher thread, batches of one are emitted on it
+            received.countDown();
+            awaitQuietly(release);
+        }, error -> { }, completed::countDown);
+
+        repository.add(entry("first", LogLevel.INFO));
+        assertThat(received.await(5, TimeUnit.SECONDS)).isTrue();
+        for (int i = 0; i < 5; i++) {
+            repository.add(entry("overflow " + i, LogLevel.INFO));
+        }
+        release.countDown();
+
+        assertThat(completed.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(disconnecting.active()).isEmpty();
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void collect(ServerSentEvent<String> event, List<String> messages) {
+        String data = event.data();
+        int index = 0;
+        while ((index = data.indexOf("\"message\":\"", index)) >= 0) {
+            int start = index + 11;
+            int end = data.indexOf('"', start);
+            messages.add(data.substring(start, end));
+            index = end;
+        }
+    }
+
+    private static void awaitSize(List<String> list, int size) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (list.size() < size && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+    }
+
+    private static LogEntry entry(String message, LogLevel level) {
+        return LogEntry.builder().level(level).message(message).loggerName("com.example.Test").build();
+    }
+}
@@ -0,0 +1,66 @@
+package io.github.jobs.spring.websocket;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.jobs.domain.log.LogEntry;
+import io.github.jobs.domain.log.LogLevel;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.socket.TextMessage;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LogFrameBatcherTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final List<LogFrameBatcher.Batch> batches = new ArrayList<>();
+
+    @Test
+    void shouldFlushWhenBatchIsFullOrOnDemand() throws Exception {
+        LogFrameBatcher batcher = new LogFrameBatcher(objectMapper, 3, batches::add);
+
+        for (int i = 0; i < 4; i++) {
+            batcher.append(entry("m" + i, LogLevel.INFO));
+        }
+        assertThat(batches).hasSize(1);
+        assertThat(batches.get(0).size()).isEqualTo(3);
+
+        batcher.flush();
+        batcher.flush();
+        assertThat(batches).hasSize(2);
+        assertThat(messages(batches.get(1).frame(entry -> true))).containsExactly("m3");
+    }
+
+    @Test
+    void shouldShareUnfilteredFrameAndSliceFilteredOnes() throws Exception {
+        LogFrameBatcher batcher = new LogFrameBatcher(objectMapper, 256, batches::add);
+        batcher.append(entry("started", LogLevel.INFO));
+        batcher.append(entry("disk \"full\", retrying", LogLevel.ERROR));
+        batcher.append(entry("done", LogLevel.INFO));
+        batcher.flush();
+
+        LogFrameBatcher.Batch batch = batches.get(0);
+        TextMessage all = batch.frame(entry -> true);
+        assertThat(batch.frame(entry -> true)).isSameAs(all);
+        assertThat(messages(all)).containsExactly("started", "disk \"full\", retrying", "done");
+
+        TextMessage errors = batch.frame(entry -> entry.level() == LogLevel.ERROR);
+        assertThat(messages(errors)).containsExactly("disk \"full\", retrying");
+        assertThat(messages(batch.frame(entry -> entry.level() == LogLevel.INFO))).containsExactly("started", "done");
+        assertThat(batch.frame(entry -> false)).isNull();
+    }
+
+    private List<String> messages(TextMessage frame) throws Exception {
+        JsonNode root = objectMapper.readTree(frame.getPayload());
+        assertThat(root.get("type").asText()).isEqualTo("logs");
+        List<String> messages = new ArrayList<>();
+        root.get("data").forEach(node -> messages.add(node.get("message").asText()));
+        return messages;
+    }
+
+    private static LogEntry entry(String message, LogLevel level) {
+        return LogEntry.builder().level(level).message(message).loggerName("com.example.Test").build();
+    }
+}